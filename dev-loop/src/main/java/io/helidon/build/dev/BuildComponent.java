@@ -28,6 +28,7 @@ import static java.util.Objects.requireNonNull;
  */
 public class BuildComponent {
     private final AtomicReference<Project> project;
+    private final AtomicReference<BuildModule> module;
     private final BuildRoot sourceRoot;
     private final BuildRoot outputRoot;
     private final List<BuildStep> buildSteps;
@@ -62,6 +63,7 @@ public class BuildComponent {
 
     private BuildComponent(BuildRoot sourceRoot, BuildRoot outputRoot, List<BuildStep> buildSteps) {
         this.project = new AtomicReference<>();
+        this.module = new AtomicReference<>();
         this.sourceRoot = requireNonNull(sourceRoot).component(this);
         this.outputRoot = requireNonNull(outputRoot).component(this);
         this.buildSteps = requireNonNull(buildSteps);
@@ -76,6 +78,15 @@ public class BuildComponent {
         return requireNonNull(project.get());
     }
 
+    /**
+     * Returns the module containing this component.
+     *
+     * @return The module.
+     */
+    public BuildModule module() {
+        return requireNonNull(module.get());
+    }
+
     /**
      * Returns the source root.
      *
@@ -105,9 +116,27 @@ public class BuildComponent {
     public void incrementalBuild(BuildRoot.Changes changes,
                                  Consumer<String> stdOut,
                                  Consumer<String> stdErr) throws Exception {
+        incrementalBuild(changes, stdOut, stdErr, (component, step, elapsedMillis) -> {});
+    }
+
+    /**
+     * Execute the build steps in order for the given changed files only, reporting the time taken by each.
+     *
+     * @param changes The changes.
+     * @param stdOut A consumer for stdout.
+     * @param stdErr A consumer for stderr.
+     * @param listener The listener to report step completions to.
+     * @throws Exception on error.
+     */
+    public void incrementalBuild(BuildRoot.Changes changes,
+                                 Consumer<String> stdOut,
+                                 Consumer<String> stdErr,
+                                 BuildStepListener listener) throws Exception {
         if (changes.root().component() == this) {
             for (BuildStep step : buildSteps) {
+                final long startTime = System.currentTimeMillis();
                 step.incrementalBuild(changes, stdOut, stdErr);
+                listener.onStepCompleted(this, step, System.currentTimeMillis() - startTime);
             }
         } else {
             throw new IllegalArgumentException("Changed component != this");
@@ -130,4 +159,8 @@ public class BuildComponent {
     void project(Project project) {
         this.project.set(project);
     }
+
+    void module(BuildModule module) {
+        this.module.set(module);
+    }
 }
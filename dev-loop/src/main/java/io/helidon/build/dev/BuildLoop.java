@@ -48,6 +48,7 @@ public class BuildLoop {
     private final ProjectSupplier projectSupplier;
     private final BuildMonitor monitor;
     private final boolean watchBinariesOnly;
+    private final boolean fileEvents;
     private final AtomicBoolean clean;
     private final AtomicBoolean run;
     private final AtomicInteger cycleNumber;
@@ -61,6 +62,7 @@ public class BuildLoop {
     private final AtomicLong lastFailedTime;
     private final AtomicBoolean ready;
     private final AtomicLong delay;
+    private final AtomicReference<ChangeWatcher> watcher;
 
     /**
      * Returns a new builder.
@@ -77,6 +79,7 @@ public class BuildLoop {
         this.projectSupplier = builder.projectSupplier;
         this.monitor = buildExecutor.monitor();
         this.watchBinariesOnly = builder.watchBinariesOnly;
+        this.fileEvents = builder.fileEvents;
         this.clean = new AtomicBoolean(builder.clean);
         this.run = new AtomicBoolean();
         this.cycleNumber = new AtomicInteger(0);
@@ -90,6 +93,7 @@ public class BuildLoop {
         this.lastReadyTime = new AtomicLong();
         this.ready = new AtomicBoolean();
         this.delay = new AtomicLong();
+        this.watcher = new AtomicReference<>();
     }
 
     /**
@@ -218,7 +222,10 @@ public class BuildLoop {
                         try {
                             changed(ChangeType.SourceFile, changedTimeOf(sourceChanges).orElseThrow());
                             buildStarting(Incremental);
-                            project.incrementalBuild(sourceChanges, monitor.stdOutConsumer(), monitor.stdErrConsumer());
+                            final int cycle = cycleNumber.get();
+                            project.incrementalBuild(sourceChanges, monitor.stdOutConsumer(), monitor.stdErrConsumer(),
+                                                     (component, step, elapsedMillis) ->
+                                                             monitor.onBuildStepCompleted(cycle, component, step, elapsedMillis));
                             project.update(false);
                             buildSucceeded(Incremental);
                             ready();
@@ -236,7 +243,7 @@ public class BuildLoop {
             final long delayMillis = delay.get();
             if (delayMillis > 0) {
                 try {
-                    Thread.sleep(delayMillis);
+                    awaitChange(delayMillis);
                 } catch (InterruptedException e) {
                     break;
                 }
@@ -278,6 +285,7 @@ public class BuildLoop {
         delay.set(0);
         if (type != ChangeType.SourceFile) {
             project.set(null);
+            stopWatching();
         }
     }
 
@@ -358,6 +366,7 @@ public class BuildLoop {
     }
 
     private void stopped() {
+        stopWatching();
         if (stopped.get().getCount() > 0) {
             monitor.onStopped();
             stopped.get().countDown();
@@ -366,10 +375,37 @@ public class BuildLoop {
 
     private void setProject(Project project) {
         this.project.set(project);
+        startWatching(project);
         buildSucceeded(project.buildType());
         ready.set(false);
     }
 
+    private void startWatching(Project project) {
+        stopWatching();
+        if (fileEvents) {
+            ChangeWatcher.createChangeWatcher().ifPresent(watcher -> this.watcher.set(watcher.watch(project)));
+        }
+    }
+
+    private void stopWatching() {
+        final ChangeWatcher watcher = this.watcher.getAndSet(null);
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private void awaitChange(long delayMillis) throws InterruptedException {
+        final ChangeWatcher watcher = this.watcher.get();
+        if (watcher == null) {
+            Thread.sleep(delayMillis);
+        } else {
+
+            // Wake up as soon as a (possibly coalesced) change occurs rather than sleeping for the full delay
+
+            watcher.await(delayMillis);
+        }
+    }
+
     /**
      * A {@code BuildLoop} builder.
      */
@@ -378,6 +414,7 @@ public class BuildLoop {
         private ProjectSupplier projectSupplier;
         private boolean clean;
         private boolean watchBinariesOnly;
+        private boolean fileEvents;
 
         private Builder() {
         }
@@ -415,6 +452,18 @@ public class BuildLoop {
             return this;
         }
 
+        /**
+         * Sets whether file change events should be used to detect changes rather than walking each directory on every
+         * cycle. Ignored if the platform does not support native file change events.
+         *
+         * @param fileEvents {@code true} if file change events should be used.
+         * @return The builder, for chaining.
+         */
+        public Builder fileEvents(boolean fileEvents) {
+            this.fileEvents = fileEvents;
+            return this;
+        }
+
         /**
          * Sets the project supplier.
          *
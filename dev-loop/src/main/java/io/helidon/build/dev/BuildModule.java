@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A module of a project, with its own build components. A single module project contains one module; a multi-module
+ * project contains one per module in the build, each of which may depend on others.
+ */
+public class BuildModule {
+    private final AtomicReference<Project> project;
+    private final String name;
+    private final Path directory;
+    private final List<String> dependencies;
+    private final List<BuildComponent> components;
+
+    /**
+     * Returns a new build module.
+     *
+     * @param name The module name.
+     * @param directory The module directory.
+     * @param dependencies The names of the modules that this module depends on.
+     * @param components The build components.
+     * @return The build module.
+     */
+    public static BuildModule createBuildModule(String name,
+                                                Path directory,
+                                                List<String> dependencies,
+                                                List<BuildComponent> components) {
+        return new BuildModule(name, directory, dependencies, components);
+    }
+
+    private BuildModule(String name, Path directory, List<String> dependencies, List<BuildComponent> components) {
+        this.project = new AtomicReference<>();
+        this.name = requireNonNull(name);
+        this.directory = requireNonNull(directory);
+        this.dependencies = requireNonNull(dependencies);
+        this.components = requireNonNull(components);
+        components.forEach(component -> component.module(this));
+    }
+
+    /**
+     * Returns the project containing this module.
+     *
+     * @return The project.
+     */
+    public Project project() {
+        return requireNonNull(project.get());
+    }
+
+    /**
+     * Returns the module name.
+     *
+     * @return The name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the module directory.
+     *
+     * @return The directory.
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Returns the names of the modules that this module depends on.
+     *
+     * @return The names.
+     */
+    public List<String> dependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Returns the build components.
+     *
+     * @return The components.
+     */
+    public List<BuildComponent> components() {
+        return components;
+    }
+
+    /**
+     * Returns the changes to build in each component for the given changes. If a module that this module depends on has
+     * changed, the Java source components are included for all of their files, since any of them may be affected.
+     *
+     * @param changes The changes in this module's components.
+     * @param dependenciesChanged {@code true} if any module that this module depends on has changed.
+     * @return The changes for each component to build, in component order.
+     */
+    public Map<BuildComponent, BuildRoot.Changes> componentChanges(List<BuildRoot.Changes> changes,
+                                                                   boolean dependenciesChanged) {
+        final Map<BuildComponent, BuildRoot.Changes> result = new LinkedHashMap<>();
+        for (BuildComponent component : components) {
+            final BuildRoot sourceRoot = component.sourceRoot();
+            if (dependenciesChanged && sourceRoot.buildType().directoryType() == DirectoryType.JavaSources) {
+                result.put(component, sourceRoot.allFiles());
+            } else {
+                for (BuildRoot.Changes changed : changes) {
+                    if (changed.root() == sourceRoot) {
+                        result.put(component, changed);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Execute the build steps of the components for the given changes, one component at a time.
+     *
+     * @param changes The changes in this module's components.
+     * @param dependenciesChanged {@code true} if any module that this module depends on has changed.
+     * @param stdOut A consumer for stdout.
+     * @param stdErr A consumer for stderr.
+     * @throws Exception on error.
+     * @see #componentChanges(List, boolean)
+     */
+    public void incrementalBuild(List<BuildRoot.Changes> changes,
+                                 boolean dependenciesChanged,
+                                 Consumer<String> stdOut,
+                                 Consumer<String> stdErr) throws Exception {
+        for (Map.Entry<BuildComponent, BuildRoot.Changes> entry : componentChanges(changes, dependenciesChanged).entrySet()) {
+            entry.getKey().incrementalBuild(entry.getValue(), stdOut, stdErr);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BuildModule{name=" + name + ", dependencies=" + dependencies + "}";
+    }
+
+    void project(Project project) {
+        this.project.set(project);
+    }
+}
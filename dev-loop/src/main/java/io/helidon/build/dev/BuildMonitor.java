@@ -69,6 +69,19 @@ public interface BuildMonitor {
      */
     void onBuildStart(int cycleNumber, BuildType type);
 
+    /**
+     * Called when a build step has completed during an incremental build. Steps of independent components, such as
+     * the Java sources and resources of a module or the components of modules that do not depend on each other, may be
+     * executed in parallel, but calls are made from one thread at a time.
+     *
+     * @param cycleNumber The cycle number.
+     * @param component The component the step was executed for.
+     * @param step The step.
+     * @param elapsedMillis The elapsed time in milliseconds.
+     */
+    default void onBuildStepCompleted(int cycleNumber, BuildComponent component, BuildStep step, long elapsedMillis) {
+    }
+
     /**
      * Called when a build has succeeded.
      *
@@ -18,37 +18,53 @@ package io.helidon.build.dev;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import io.helidon.build.util.PathFilters;
+
 import static io.helidon.build.dev.BuildFile.createBuildFile;
 import static io.helidon.build.util.FileUtils.lastModifiedTime;
 import static io.helidon.build.util.FileUtils.newerThan;
+import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 
 /**
- * A project directory that tracks file changes.
+ * A project directory that tracks file changes. Changes are detected by walking the directory unless a {@link ChangeWatcher}
+ * is watching this root, in which case only the paths reported by the watcher are checked.
  */
 public class BuildRoot extends ProjectDirectory implements Iterable<BuildFile> {
     private final BuildRootType type;
     private final BiPredicate<Path, Path> filter;
+    private final BiPredicate<Path, Path> directoryFilter;
     private final AtomicReference<Map<Path, BuildFile>> files;
     private final AtomicReference<BuildComponent> component;
+    private final AtomicReference<ChangeWatcher> watcher;
+    private final Set<Path> changedPaths;
+    private final AtomicBoolean overflowed;
 
     /**
      * Constructor.
@@ -60,8 +76,12 @@ public class BuildRoot extends ProjectDirectory implements Iterable<BuildFile> {
         super(requireNonNull(type).directoryType(), requireNonNull(directory));
         this.type = type;
         this.filter = type.filter();
+        this.directoryFilter = PathFilters.matchesDirectory(filter);
         this.files = new AtomicReference<>(collectFiles());
         this.component = new AtomicReference<>();
+        this.watcher = new AtomicReference<>();
+        this.changedPaths = ConcurrentHashMap.newKeySet();
+        this.overflowed = new AtomicBoolean();
     }
 
     /**
@@ -264,31 +284,61 @@ public class BuildRoot extends ProjectDirectory implements Iterable<BuildFile> {
         }
     }
 
+    /**
+     * Returns whether or not changes are being computed from file change events.
+     *
+     * @return {@code true} if watched, {@code false} if changes are found by walking the directory.
+     */
+    public boolean isWatched() {
+        return watcher.get() != null && !overflowed.get();
+    }
+
     /**
      * Tests for any changed files.
      *
      * @return The changes.
      */
     public Changes changes() {
-        final Changes changes = new Changes(this, files.get().keySet());
-        final Map<Path, BuildFile> files = this.files.get();
-        final Path root = path();
-        try (Stream<Path> stream = Files.walk(path())) {
-            stream.forEach(file -> {
-                if (Files.isRegularFile(file) && filter.test(file, root)) {
-                    changes.update(file, files.get(file));
-                }
-            });
-            return changes;
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        final ChangeWatcher watcher = this.watcher.get();
+        if (watcher != null) {
+            watcher.poll();
+            if (!overflowed.get()) {
+                return watchedChanges();
+            }
         }
+        return walkedChanges();
+    }
+
+    /**
+     * Returns changes that report every known file as modified, for use when the root must be rebuilt because something
+     * it depends on has changed.
+     *
+     * @return The changes.
+     */
+    public Changes allFiles() {
+        final Changes changes = new Changes(this, emptySet());
+        changes.modified().addAll(files.get().keySet());
+        return changes;
     }
 
     /**
      * Updates the files list.
      */
     public void update() {
+        final ChangeWatcher watcher = this.watcher.get();
+        if (watcher != null) {
+            watcher.poll();
+            if (!overflowed.get()) {
+                updateWatched();
+                return;
+            }
+
+            // Events were lost, so we may also have missed new directories
+
+            overflowed.set(false);
+            watcher.reregister(this);
+        }
+        changedPaths.clear();
         files.set(collectFiles());
     }
 
@@ -320,18 +370,107 @@ public class BuildRoot extends ProjectDirectory implements Iterable<BuildFile> {
         return this;
     }
 
+    void watcher(ChangeWatcher watcher) {
+        this.watcher.set(watcher);
+        if (watcher != null) {
+
+            // Catch any change made before the watcher started
+
+            overflowed.set(false);
+            final Changes changes = walkedChanges();
+            changedPaths.addAll(changes.added());
+            changedPaths.addAll(changes.modified());
+            changedPaths.addAll(changes.removed());
+        }
+    }
+
+    void changed(Path path) {
+        changedPaths.add(path);
+    }
+
+    void overflowed() {
+        overflowed.set(true);
+    }
+
+    private Changes watchedChanges() {
+        final Changes changes = new Changes(this, emptySet());
+        final Map<Path, BuildFile> files = this.files.get();
+        final Path root = path();
+        for (Path path : changedPaths) {
+            if (Files.isRegularFile(path)) {
+                if (filter.test(path, root)) {
+                    changes.update(path, files.get(path));
+                }
+            } else if (files.containsKey(path)) {
+                changes.removed().add(path);
+            } else if (!Files.exists(path)) {
+
+                // Might have been a directory
+
+                for (Path file : files.keySet()) {
+                    if (file.startsWith(path)) {
+                        changes.removed().add(file);
+                    }
+                }
+            }
+        }
+        return changes;
+    }
+
+    private void updateWatched() {
+        final List<Path> updated = new ArrayList<>(changedPaths);
+        if (!updated.isEmpty()) {
+            final Map<Path, BuildFile> files = new HashMap<>(this.files.get());
+            final Path root = path();
+            for (Path path : updated) {
+                if (Files.isRegularFile(path)) {
+                    if (filter.test(path, root)) {
+                        files.put(path, createBuildFile(this, path));
+                    }
+                } else if (files.remove(path) == null && !Files.exists(path)) {
+                    files.keySet().removeIf(file -> file.startsWith(path));
+                }
+            }
+            this.files.set(unmodifiableMap(files));
+            changedPaths.removeAll(updated);
+        }
+    }
+
+    private Changes walkedChanges() {
+        final Changes changes = new Changes(this, files.get().keySet());
+        final Map<Path, BuildFile> files = this.files.get();
+        walk(file -> changes.update(file, files.get(file)));
+        return changes;
+    }
+
     private Map<Path, BuildFile> collectFiles() {
         final Map<Path, BuildFile> files = new HashMap<>();
+        walk(file -> files.put(file, createBuildFile(this, file)));
+        return unmodifiableMap(files);
+    }
+
+    private void walk(Consumer<Path> consumer) {
         final Path root = path();
-        try (Stream<Path> stream = Files.walk(path())) {
-            stream.forEach(file -> {
-                if (Files.isRegularFile(file) && filter.test(file, root)) {
-                    files.put(file, createBuildFile(this, file));
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+
+                    // Skip directories below which the filter cannot match
+
+                    return directoryFilter.test(dir, root) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (Files.isRegularFile(file) && filter.test(file, root)) {
+                        consumer.accept(file);
+                    }
+                    return FileVisitResult.CONTINUE;
                 }
             });
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
-        return unmodifiableMap(files);
     }
 }
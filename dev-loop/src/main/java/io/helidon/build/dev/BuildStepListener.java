@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev;
+
+/**
+ * A receiver of build step completions during an incremental build.
+ */
+@FunctionalInterface
+public interface BuildStepListener {
+
+    /**
+     * Called when a build step has completed.
+     *
+     * @param component The component the step was executed for.
+     * @param step The step.
+     * @param elapsedMillis The elapsed time in milliseconds.
+     */
+    void onStepCompleted(BuildComponent component, BuildStep step, long elapsedMillis);
+}
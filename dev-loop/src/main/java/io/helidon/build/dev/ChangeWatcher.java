@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import io.helidon.build.util.Log;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link WatchService} based source of file changes for one or more {@link BuildRoot}s. Every directory in a watched
+ * root is registered, and each event marks the affected path in the owning root so that computing changes depends on the
+ * number of changed paths rather than the size of the tree. A root falls back to polling (i.e. walking the whole tree)
+ * if events are lost due to an overflow, until it is next updated.
+ */
+public class ChangeWatcher implements Closeable {
+    private static final String POLLING_WATCH_SERVICE = "PollingWatchService";
+    private static final long DEFAULT_QUIET_MILLIS = 50;
+    private static final long DEFAULT_MAX_COALESCE_MILLIS = 1000;
+
+    private final WatchService service;
+    private final Map<WatchKey, WatchedDirectory> directories;
+    private final Set<BuildRoot> roots;
+    private final long quietMillis;
+    private final long maxCoalesceMillis;
+
+    /**
+     * Returns a new watcher if the default file system supports native change events.
+     *
+     * @return The watcher, or empty if events are not supported and polling should be used instead.
+     */
+    public static Optional<ChangeWatcher> createChangeWatcher() {
+        return createChangeWatcher(DEFAULT_QUIET_MILLIS, DEFAULT_MAX_COALESCE_MILLIS);
+    }
+
+    /**
+     * Returns a new watcher if the default file system supports native change events.
+     *
+     * @param quietMillis The number of milliseconds without any new event after which a burst of events is complete.
+     * @param maxCoalesceMillis The maximum number of milliseconds to wait for a burst of events to complete.
+     * @return The watcher, or empty if events are not supported and polling should be used instead.
+     */
+    public static Optional<ChangeWatcher> createChangeWatcher(long quietMillis, long maxCoalesceMillis) {
+        try {
+            final WatchService service = FileSystems.getDefault().newWatchService();
+
+            // The JDK falls back to a polling implementation when the platform has no native support. It polls
+            // infrequently and so would be much slower to notice changes than our own polling.
+
+            if (service.getClass().getSimpleName().equals(POLLING_WATCH_SERVICE)) {
+                Log.debug("Native file change events not supported, using polling");
+                service.close();
+                return Optional.empty();
+            }
+            return Optional.of(new ChangeWatcher(service, quietMillis, maxCoalesceMillis));
+        } catch (IOException | UnsupportedOperationException e) {
+            Log.debug("Could not create watch service, using polling: %s", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private ChangeWatcher(WatchService service, long quietMillis, long maxCoalesceMillis) {
+        this.service = service;
+        this.directories = new ConcurrentHashMap<>();
+        this.roots = ConcurrentHashMap.newKeySet();
+        this.quietMillis = quietMillis;
+        this.maxCoalesceMillis = maxCoalesceMillis;
+    }
+
+    /**
+     * Start watching all directories in the given root. Changes in the root will be computed from events until
+     * the watcher is closed.
+     *
+     * @param root The root.
+     * @return This instance, for chaining.
+     */
+    public ChangeWatcher watch(BuildRoot root) {
+        if (roots.add(requireNonNull(root))) {
+            register(root, root.path());
+            root.watcher(this);
+        }
+        return this;
+    }
+
+    /**
+     * Start watching all directories in each of the given project's source and output roots.
+     *
+     * @param project The project.
+     * @return This instance, for chaining.
+     */
+    public ChangeWatcher watch(Project project) {
+        for (BuildComponent component : project.components()) {
+            watch(component.sourceRoot());
+            watch(component.outputRoot());
+        }
+        return this;
+    }
+
+    /**
+     * Process all pending events without waiting.
+     *
+     * @return {@code true} if any event was processed.
+     */
+    public boolean poll() {
+        boolean changed = false;
+        try {
+            WatchKey key;
+            while ((key = service.poll()) != null) {
+                process(key);
+                changed = true;
+            }
+        } catch (ClosedWatchServiceException ignore) {
+        }
+        return changed;
+    }
+
+    /**
+     * Wait for a change. Once an event is received, waits until no further event is received for the quiet period (or
+     * until the maximum coalesce time expires) so that a burst of events, e.g. from a "save all" or a source control
+     * checkout, is processed as a single set of changes.
+     *
+     * @param maxWaitMillis The maximum number of milliseconds to wait for the first event.
+     * @return {@code true} if any event was processed.
+     * @throws InterruptedException If interrupted.
+     */
+    public boolean await(long maxWaitMillis) throws InterruptedException {
+        if (poll()) {
+            coalesce();
+            return true;
+        }
+        try {
+            final WatchKey key = service.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+            if (key == null) {
+                return false;
+            }
+            process(key);
+            coalesce();
+            return true;
+        } catch (ClosedWatchServiceException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            roots.forEach(root -> root.watcher(null));
+            roots.clear();
+            directories.clear();
+            service.close();
+        } catch (IOException e) {
+            Log.debug("Error closing watch service: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Registers any directories in the given root that are not yet registered.
+     *
+     * @param root The root.
+     */
+    void reregister(BuildRoot root) {
+        register(root, root.path());
+    }
+
+    private void coalesce() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + maxCoalesceMillis;
+        long remaining = maxCoalesceMillis;
+        try {
+            while (remaining > 0) {
+                final WatchKey key = service.poll(Math.min(quietMillis, remaining), TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    break;
+                }
+                process(key);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        } catch (ClosedWatchServiceException ignore) {
+        }
+    }
+
+    private void process(WatchKey key) {
+        final WatchedDirectory directory = directories.get(key);
+        if (directory != null) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                final WatchEvent.Kind<?> kind = event.kind();
+                if (kind == OVERFLOW) {
+                    directory.roots.forEach(BuildRoot::overflowed);
+                } else {
+                    final Path path = directory.path.resolve((Path) event.context());
+                    for (BuildRoot root : directory.roots) {
+                        root.changed(path);
+                        if (kind == ENTRY_CREATE && Files.isDirectory(path)) {
+
+                            // Files may have been created before we registered the directory, so mark them too
+
+                            register(root, path);
+                            markAll(root, path);
+                        }
+                    }
+                }
+            }
+        } else {
+            key.pollEvents();
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void register(BuildRoot root, Path directory) {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            stream.filter(Files::isDirectory).forEach(dir -> {
+                try {
+                    final WatchKey key = dir.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                    directories.computeIfAbsent(key, k -> new WatchedDirectory(dir)).roots.add(root);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+
+            // Most likely a directory removed while we were walking; we won't see any events from it, so poll instead
+
+            Log.debug("Could not register %s: %s", directory, e.getMessage());
+            root.overflowed();
+        }
+    }
+
+    private static void markAll(BuildRoot root, Path directory) {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            stream.forEach(root::changed);
+        } catch (IOException | UncheckedIOException e) {
+            root.overflowed();
+        }
+    }
+
+    private static final class WatchedDirectory {
+        private final Path path;
+        private final Set<BuildRoot> roots;
+
+        private WatchedDirectory(Path path) {
+            this.path = path;
+            this.roots = ConcurrentHashMap.newKeySet();
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A class level dependency graph between Java source files, computed from the constant pool of the class files compiled
+ * from them.
+ * <p>
+ * Compile time constants are inlined by javac so leave no reference in the classes that use them; any change to a source
+ * file whose classes declare a non-private constant therefore requires all sources to be recompiled.
+ */
+final class ClassDependencies {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final String CONSTANT_VALUE = "ConstantValue";
+    private static final String SOURCE_FILE = "SourceFile";
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final Map<Path, Set<String>> sourceClasses;
+    private final Map<String, Path> classSources;
+    private final Map<String, Set<String>> classReferences;
+    private final Map<String, Set<String>> classDependents;
+    private final Set<String> constantClasses;
+
+    /**
+     * Constructor.
+     */
+    ClassDependencies() {
+        this.sourceClasses = new HashMap<>();
+        this.classSources = new HashMap<>();
+        this.classReferences = new HashMap<>();
+        this.classDependents = new HashMap<>();
+        this.constantClasses = new HashSet<>();
+    }
+
+    /**
+     * Returns whether or not any source file has been added.
+     *
+     * @return {@code true} if empty.
+     */
+    boolean isEmpty() {
+        return sourceClasses.isEmpty();
+    }
+
+    /**
+     * Adds the classes found in the given output directory, mapping each to a source file using the package and the
+     * {@code SourceFile} attribute. Classes without a matching source file are ignored.
+     *
+     * @param outputDir The output directory.
+     * @param sourceFiles The source files, by path relative to their source directory using {@code '/'} separators.
+     * @throws IOException If an error occurs.
+     */
+    void addClasses(Path outputDir, Map<String, Path> sourceFiles) throws IOException {
+        final Set<Path> classFiles = new HashSet<>();
+        try (var stream = Files.walk(outputDir)) {
+            stream.filter(file -> file.getFileName().toString().endsWith(CLASS_SUFFIX)).forEach(classFiles::add);
+        }
+        for (Path classFile : classFiles) {
+            final ClassInfo info = ClassInfo.read(classFile);
+            if (info.sourceFileName != null) {
+                final int lastSlash = info.name.lastIndexOf('/');
+                final String packagePath = info.name.substring(0, lastSlash + 1);
+                final Path sourceFile = sourceFiles.get(packagePath + info.sourceFileName);
+                if (sourceFile != null) {
+                    add(sourceFile, info);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces the given class file, compiled from the given source file.
+     *
+     * @param sourceFile The source file.
+     * @param classFile The class file.
+     * @throws IOException If an error occurs.
+     */
+    void addClass(Path sourceFile, Path classFile) throws IOException {
+        add(sourceFile, ClassInfo.read(classFile));
+    }
+
+    /**
+     * Removes the given source file and all of its classes.
+     *
+     * @param sourceFile The source file.
+     * @return The internal names of the removed classes.
+     */
+    Set<String> remove(Path sourceFile) {
+        final Set<String> classes = sourceClasses.remove(sourceFile);
+        if (classes == null) {
+            return Set.of();
+        }
+        for (String className : classes) {
+            classSources.remove(className);
+            constantClasses.remove(className);
+            final Set<String> references = classReferences.remove(className);
+            if (references != null) {
+                for (String reference : references) {
+                    final Set<String> dependents = classDependents.get(reference);
+                    if (dependents != null) {
+                        dependents.remove(className);
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Returns the internal names of the classes compiled from the given source file.
+     *
+     * @param sourceFile The source file.
+     * @return The class names, empty if none.
+     */
+    Set<String> classes(Path sourceFile) {
+        return sourceClasses.getOrDefault(sourceFile, Set.of());
+    }
+
+    /**
+     * Returns all known source files.
+     *
+     * @return The source files.
+     */
+    Set<Path> sources() {
+        return sourceClasses.keySet();
+    }
+
+    /**
+     * Returns whether or not any of the given source files compiled to a class that declares a non-private constant.
+     *
+     * @param sourceFiles The source files.
+     * @return {@code true} if any does.
+     */
+    boolean declaresConstants(Collection<Path> sourceFiles) {
+        for (Path sourceFile : sourceFiles) {
+            for (String className : classes(sourceFile)) {
+                if (constantClasses.contains(className)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns all source files whose classes depend, directly or indirectly, on the classes of the given source files.
+     * The given source files are not included unless one is a dependent of another.
+     *
+     * @param sourceFiles The source files.
+     * @return The dependent source files.
+     */
+    Set<Path> dependents(Collection<Path> sourceFiles) {
+        final Set<String> visited = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        for (Path sourceFile : sourceFiles) {
+            queue.addAll(classes(sourceFile));
+        }
+        final Set<Path> result = new HashSet<>();
+        while (!queue.isEmpty()) {
+            final String className = queue.removeFirst();
+            for (String dependent : classDependents.getOrDefault(className, Set.of())) {
+                if (visited.add(dependent)) {
+                    final Path source = classSources.get(dependent);
+                    if (source != null) {
+                        result.add(source);
+                        queue.addAll(classes(source));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void add(Path sourceFile, ClassInfo info) {
+        final Path previousSource = classSources.put(info.name, sourceFile);
+        if (previousSource != null && !previousSource.equals(sourceFile)) {
+            final Set<String> previous = sourceClasses.get(previousSource);
+            if (previous != null) {
+                previous.remove(info.name);
+            }
+        }
+        sourceClasses.computeIfAbsent(sourceFile, file -> new HashSet<>()).add(info.name);
+        final Set<String> oldReferences = classReferences.put(info.name, info.references);
+        if (oldReferences != null) {
+            for (String reference : oldReferences) {
+                final Set<String> dependents = classDependents.get(reference);
+                if (dependents != null) {
+                    dependents.remove(info.name);
+                }
+            }
+        }
+        for (String reference : info.references) {
+            classDependents.computeIfAbsent(reference, name -> new HashSet<>()).add(info.name);
+        }
+        if (info.declaresConstants) {
+            constantClasses.add(info.name);
+        } else {
+            constantClasses.remove(info.name);
+        }
+    }
+
+    /**
+     * The information we need from a class file.
+     */
+    static final class ClassInfo {
+        private final String name;
+        private final String sourceFileName;
+        private final Set<String> references;
+        private final boolean declaresConstants;
+
+        private ClassInfo(String name, String sourceFileName, Set<String> references, boolean declaresConstants) {
+            this.name = name;
+            this.sourceFileName = sourceFileName;
+            this.references = references;
+            this.declaresConstants = declaresConstants;
+        }
+
+        /**
+         * Reads the given class file.
+         *
+         * @param classFile The class file.
+         * @return The info.
+         * @throws IOException If an error occurs.
+         */
+        static ClassInfo read(Path classFile) throws IOException {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(classFile))) {
+                return read(new DataInputStream(in));
+            } catch (IOException e) {
+                throw new IOException("Could not read " + classFile + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Returns the internal name of the class.
+         *
+         * @return The name.
+         */
+        String name() {
+            return name;
+        }
+
+        /**
+         * Returns the internal names of all referenced classes, excluding this one.
+         *
+         * @return The names.
+         */
+        Set<String> references() {
+            return references;
+        }
+
+        /**
+         * Returns whether or not this class declares a non-private compile time constant.
+         *
+         * @return {@code true} if it does.
+         */
+        boolean declaresConstants() {
+            return declaresConstants;
+        }
+
+        private static ClassInfo read(DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a class file");
+            }
+            in.readUnsignedShort(); // minor version
+            in.readUnsignedShort(); // major version
+            final int count = in.readUnsignedShort();
+            final String[] utf8 = new String[count];
+            final int[] classNameIndexes = new int[count];
+            for (int index = 1; index < count; index++) {
+                final int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1:  // Utf8
+                        utf8[index] = in.readUTF();
+                        break;
+                    case 7:  // Class
+                        classNameIndexes[index] = in.readUnsignedShort();
+                        break;
+                    case 8:  // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        skip(in, 2);
+                        break;
+                    case 15: // MethodHandle
+                        skip(in, 3);
+                        break;
+                    case 3:  // Integer
+                    case 4:  // Float
+                    case 9:  // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        skip(in, 4);
+                        break;
+                    case 5:  // Long
+                    case 6:  // Double
+                        skip(in, 8);
+                        index++;
+                        break;
+                    default:
+                        throw new IOException("unknown constant pool tag " + tag);
+                }
+            }
+            in.readUnsignedShort(); // access flags
+            final String name = utf8[classNameIndexes[in.readUnsignedShort()]];
+            skip(in, 2); // super class
+            skip(in, 2L * in.readUnsignedShort()); // interfaces
+            boolean declaresConstants = false;
+            final int fieldCount = in.readUnsignedShort();
+            for (int i = 0; i < fieldCount; i++) {
+                final int access = in.readUnsignedShort();
+                skip(in, 4); // name and descriptor
+                final int attributeCount = in.readUnsignedShort();
+                for (int j = 0; j < attributeCount; j++) {
+                    final String attributeName = utf8[in.readUnsignedShort()];
+                    final int length = in.readInt();
+                    if (CONSTANT_VALUE.equals(attributeName)
+                        && (access & (ACC_STATIC | ACC_FINAL)) == (ACC_STATIC | ACC_FINAL)
+                        && (access & ACC_PRIVATE) == 0) {
+                        declaresConstants = true;
+                    }
+                    skip(in, length);
+                }
+            }
+            final int methodCount = in.readUnsignedShort();
+            for (int i = 0; i < methodCount; i++) {
+                skip(in, 6); // access, name and descriptor
+                final int attributeCount = in.readUnsignedShort();
+                for (int j = 0; j < attributeCount; j++) {
+                    skip(in, 2);
+                    skip(in, in.readInt());
+                }
+            }
+            String sourceFileName = null;
+            final int attributeCount = in.readUnsignedShort();
+            for (int i = 0; i < attributeCount; i++) {
+                final String attributeName = utf8[in.readUnsignedShort()];
+                final int length = in.readInt();
+                if (SOURCE_FILE.equals(attributeName)) {
+                    sourceFileName = utf8[in.readUnsignedShort()];
+                } else {
+                    skip(in, length);
+                }
+            }
+
+            // Collect class references plus any types only mentioned in descriptors or signatures
+
+            final Set<String> references = new HashSet<>();
+            for (int nameIndex : classNameIndexes) {
+                if (nameIndex > 0) {
+                    addReference(utf8[nameIndex], references);
+                }
+            }
+            for (String value : utf8) {
+                if (value != null) {
+                    addDescriptorReferences(value, references);
+                }
+            }
+            references.remove(name);
+            return new ClassInfo(name, sourceFileName, references, declaresConstants);
+        }
+
+        private static void skip(DataInputStream in, long count) throws IOException {
+            long remaining = count;
+            while (remaining > 0) {
+                final long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    throw new EOFException();
+                }
+                remaining -= skipped;
+            }
+        }
+
+        private static void addReference(String className, Set<String> references) {
+            if (className.startsWith("[")) {
+                addDescriptorReferences(className, references);
+            } else {
+                references.add(className);
+            }
+        }
+
+        private static void addDescriptorReferences(String value, Set<String> references) {
+            int start = value.indexOf('L');
+            while (start >= 0) {
+                final int end = value.indexOf(';', start + 1);
+                if (end < 0) {
+                    break;
+                }
+                final String candidate = value.substring(start + 1, end);
+                final int typeArguments = candidate.indexOf('<');
+                final String className = typeArguments < 0 ? candidate : candidate.substring(0, typeArguments);
+                if (isInternalName(className)) {
+                    references.add(className);
+                }
+                start = value.indexOf('L', start + 1);
+            }
+        }
+
+        private static boolean isInternalName(String name) {
+            if (name.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                final char c = name.charAt(i);
+                if (!(Character.isJavaIdentifierPart(c) || c == '/')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
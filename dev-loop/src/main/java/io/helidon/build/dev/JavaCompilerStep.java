@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticListener;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import io.helidon.build.util.Log;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A build step that compiles Java sources in process, recompiling only the changed source files and those that depend
+ * on them.
+ * <p>
+ * Dependencies are tracked at the class level, from the constant pool of each compiled class. The graph is initialized
+ * from the classes found in the output directories on first use, so the full build that precedes the first incremental
+ * build must have compiled the same sources. The file manager is retained across builds, so the contents of the
+ * dependency jars are only indexed once per project. Each module of a multi-module project requires its own instance.
+ */
+public class JavaCompilerStep implements BuildStep {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final JavaCompiler compiler;
+    private final List<String> options;
+    private final Charset sourceEncoding;
+    private final Set<Path> pending;
+    private ClassDependencies dependencies;
+    private StandardJavaFileManager fileManager;
+    private List<File> classpath;
+    private Project project;
+
+    /**
+     * Returns a new instance.
+     *
+     * @param options The compiler options.
+     * @param sourceEncoding The source encoding.
+     * @return The step.
+     * @throws IllegalStateException If the system java compiler is not available.
+     */
+    public static JavaCompilerStep create(List<String> options, Charset sourceEncoding) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("System java compiler not available");
+        }
+        return new JavaCompilerStep(compiler, requireNonNull(options), requireNonNull(sourceEncoding));
+    }
+
+    private JavaCompilerStep(JavaCompiler compiler, List<String> options, Charset sourceEncoding) {
+        this.compiler = compiler;
+        this.options = options;
+        this.sourceEncoding = sourceEncoding;
+        this.dependencies = new ClassDependencies();
+        this.pending = new LinkedHashSet<>();
+    }
+
+    /**
+     * Returns the compiler options.
+     *
+     * @return The options.
+     */
+    public List<String> options() {
+        return options;
+    }
+
+    @Override
+    public synchronized void incrementalBuild(BuildRoot.Changes changes,
+                                              Consumer<String> stdOut,
+                                              Consumer<String> stdErr) throws Exception {
+        if (changes.isEmpty() && pending.isEmpty()) {
+            return;
+        }
+        final BuildComponent component = changes.root().component();
+        final Path outputDir = component.outputRoot().path();
+        initialize(component.module());
+
+        // Collect the changed sources, including any that failed to compile last time since the project will have been
+        // updated and so will no longer report them
+
+        final Set<Path> removed = changes.removed();
+        final Set<Path> changed = new LinkedHashSet<>(pending);
+        changed.addAll(changes.addedOrModified());
+        changed.addAll(removed);
+
+        // Find all the sources to recompile
+
+        final Set<Path> recompile = new LinkedHashSet<>(changed);
+        if (dependencies.declaresConstants(changed)) {
+            Log.debug("Constant declaring class changed, recompiling all sources");
+            recompile.addAll(dependencies.sources());
+        } else {
+            recompile.addAll(dependencies.dependents(changed));
+        }
+        recompile.removeAll(removed);
+        recompile.removeIf(source -> !Files.isRegularFile(source));
+
+        // Remove the classes of all removed or recompiled sources so that nothing stale can be found on the classpath
+
+        for (Path source : changed) {
+            deleteClasses(outputDir, dependencies.classes(source));
+        }
+        for (Path source : recompile) {
+            deleteClasses(outputDir, dependencies.classes(source));
+        }
+        removed.forEach(dependencies::remove);
+        pending.clear();
+
+        if (!recompile.isEmpty()) {
+            compile(recompile, outputDir, stdOut, stdErr);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JavaCompilerStep{options=" + options + "}";
+    }
+
+    private void initialize(BuildModule module) throws IOException {
+        final Project project = module.project();
+        if (project != this.project) {
+            closeFileManager();
+            this.project = project;
+            this.dependencies = new ClassDependencies();
+            this.pending.clear();
+
+            // Use the files known to the source roots rather than those currently present, so that the classes of any
+            // source removed since the last update are still found. Only this module's sources are included, since the
+            // classes of other modules are written to their own output directories.
+
+            final Map<Path, Map<String, Path>> sourceFiles = new HashMap<>();
+            for (BuildComponent component : module.components()) {
+                final BuildRoot sourceRoot = component.sourceRoot();
+                if (sourceRoot.buildType().directoryType() == DirectoryType.JavaSources) {
+                    final Map<String, Path> files = sourceFiles.computeIfAbsent(component.outputRoot().path(),
+                                                                                dir -> new HashMap<>());
+                    for (BuildFile file : sourceRoot.list()) {
+                        final Path relativePath = sourceRoot.path().relativize(file.path());
+                        files.put(relativePath.toString().replace(File.separatorChar, '/'), file.path());
+                    }
+                }
+            }
+            for (Map.Entry<Path, Map<String, Path>> entry : sourceFiles.entrySet()) {
+                if (Files.isDirectory(entry.getKey())) {
+                    dependencies.addClasses(entry.getKey(), entry.getValue());
+                }
+            }
+            Log.debug("Found classes for %d sources", dependencies.sources().size());
+        }
+        if (fileManager == null) {
+            fileManager = compiler.getStandardFileManager(null, null, sourceEncoding);
+            fileManager.setLocation(StandardLocation.SOURCE_PATH, List.of());
+        }
+        final List<File> projectClasspath = project.classpath();
+        if (!projectClasspath.equals(classpath)) {
+            fileManager.setLocation(StandardLocation.CLASS_PATH, projectClasspath);
+            classpath = new ArrayList<>(projectClasspath);
+        }
+    }
+
+    private void compile(Set<Path> sources, Path outputDir, Consumer<String> stdOut, Consumer<String> stdErr)
+            throws Exception {
+        final int count = sources.size();
+        stdOut.accept("Compiling " + count + " source file" + (count == 1 ? "" : "s"));
+        final DiagnosticListener<JavaFileObject> diagnostics = diagnostic -> {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                stdErr.accept(format(diagnostic));
+            } else {
+                stdOut.accept(format(diagnostic));
+            }
+        };
+        fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(outputDir.toFile()));
+        final OutputTracker tracker = new OutputTracker(fileManager);
+        final List<File> files = sources.stream().map(Path::toFile).collect(Collectors.toList());
+        final Iterable<? extends JavaFileObject> javaSources = fileManager.getJavaFileObjectsFromFiles(files);
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, tracker, diagnostics, options, null, javaSources);
+        if (!task.call()) {
+            pending.addAll(sources);
+            throw new Exception("Compilation failed");
+        }
+        for (Map.Entry<Path, Set<Path>> entry : tracker.outputs.entrySet()) {
+            final Path source = entry.getKey();
+            dependencies.remove(source);
+            for (Path classFile : entry.getValue()) {
+                dependencies.addClass(source, classFile);
+            }
+        }
+    }
+
+    private void closeFileManager() throws IOException {
+        if (fileManager != null) {
+            fileManager.close();
+            fileManager = null;
+            classpath = null;
+        }
+    }
+
+    private static void deleteClasses(Path outputDir, Set<String> classNames) throws IOException {
+        for (String className : classNames) {
+            Files.deleteIfExists(outputDir.resolve(className + CLASS_SUFFIX));
+        }
+    }
+
+    private static String format(Diagnostic<? extends JavaFileObject> diagnostic) {
+        if (diagnostic.getSource() == null) {
+            return diagnostic.getMessage(null);
+        }
+        return String.format("%s:[%d,%d] %s",
+                             diagnostic.getSource().getName(),
+                             diagnostic.getLineNumber(),
+                             diagnostic.getColumnNumber(),
+                             diagnostic.getMessage(null));
+    }
+
+    /**
+     * Records the class files written for each source file.
+     */
+    private static final class OutputTracker extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<Path, Set<Path>> outputs;
+
+        private OutputTracker(StandardJavaFileManager fileManager) {
+            super(fileManager);
+            this.outputs = new HashMap<>();
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(JavaFileManager.Location location,
+                                                   String className,
+                                                   JavaFileObject.Kind kind,
+                                                   FileObject sibling) throws IOException {
+            final JavaFileObject result = super.getJavaFileForOutput(location, className, kind, sibling);
+            if (kind == JavaFileObject.Kind.CLASS && sibling != null) {
+                outputs.computeIfAbsent(Path.of(sibling.toUri()), source -> new HashSet<>())
+                       .add(Path.of(result.toUri()));
+            }
+            return result;
+        }
+    }
+}
@@ -17,23 +17,29 @@
 package io.helidon.build.dev;
 
 import java.io.File;
-import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import io.helidon.build.dev.util.ConsumerPrintStream;
+import io.helidon.build.dev.util.ThreadLocalPrintStream;
 import io.helidon.build.util.FileUtils;
 import io.helidon.build.util.ProjectConfig;
 
@@ -54,6 +60,7 @@ public class Project {
     private static final String JAR_FILE_SUFFIX = ".jar";
     private static final Predicate<Path> ANY = path -> true;
     private static final BiPredicate<Path, Path> JAR_FILTER = matchesFileNameSuffix(JAR_FILE_SUFFIX);
+    private static final int MIN_BUILD_THREADS = 2;
 
     private final String name;
     private final BuildType buildType;
@@ -63,6 +70,7 @@ public class Project {
     private final List<String> compilerFlags;
     private final List<Path> dependencyPaths;
     private final List<BuildFile> dependencies;
+    private final List<BuildModule> modules;
     private final List<BuildComponent> components;
     private final String mainClassName;
     private final ProjectConfig config;
@@ -77,10 +85,15 @@ public class Project {
         this.compilerFlags = builder.compilerFlags;
         this.dependencyPaths = builder.dependencyPaths;
         this.dependencies = builder.dependencies;
-        this.components = builder.components;
+        this.modules = builder.modules;
+        this.components = new ArrayList<>();
         this.mainClassName = builder.mainClassName;
         this.config = builder.config;
         this.parents = new HashMap<>();
+        modules.forEach(module -> {
+            module.project(this);
+            components.addAll(module.components());
+        });
         components.forEach(c -> c.project(this));
         updateDependencies();
     }
@@ -157,6 +170,15 @@ public class Project {
         return dependencies;
     }
 
+    /**
+     * Returns all modules, in build order.
+     *
+     * @return The modules.
+     */
+    public List<BuildModule> modules() {
+        return modules;
+    }
+
     /**
      * Returns all components.
      *
@@ -238,13 +260,22 @@ public class Project {
                 }
             }
         }
-        final Optional<FileTime> changedTime = changedTimeOf(dependencies());
+        final Optional<FileTime> changedTime = dependenciesChangedTime();
         if (changedTime.isPresent() && newerThan(changedTime.get(), changed)) {
             changed = changedTime.get();
         }
         return Optional.ofNullable(changed);
     }
 
+    /**
+     * Returns the most recent modification time if any dependency has an updated modification time.
+     *
+     * @return The time, if changed.
+     */
+    public Optional<FileTime> dependenciesChangedTime() {
+        return changedTimeOf(dependencies());
+    }
+
     /**
      * Returns whether or not all binaries are newer than all sources and no sources have changed.
      *
@@ -319,25 +350,39 @@ public class Project {
      * @param stdOut A consumer for stdout.
      * @param stdErr A consumer for stderr.
      * @throws Exception on error.
+     * @see #incrementalBuild(List, Consumer, Consumer, BuildStepListener)
      */
     protected void incrementalBuild(List<BuildRoot.Changes> changes,
                                     Consumer<String> stdOut,
                                     Consumer<String> stdErr) throws Exception {
+        incrementalBuild(changes, stdOut, stdErr, (component, step, elapsedMillis) -> {});
+    }
+
+    /**
+     * Perform an incremental build for the given changes. Each changed component is built as a separate task on a
+     * bounded pool, so independent components (e.g. resources and Java sources) are built in parallel while the steps
+     * of a component are executed in order. Components of custom directories are built after the other components of
+     * their module, one at a time, since their goals may read the output of the others. If the project has multiple
+     * modules, only the changed modules and the modules that depend on them are built, each starting once the modules it
+     * depends on have been built.
+     * <p>
+     * The output of each task, including any written to {@code System.out} or {@code System.err} by its thread, is
+     * captured and passed to the consumers when the task completes, so the output of parallel tasks is not interleaved.
+     *
+     * @param changes The changes.
+     * @param stdOut A consumer for stdout.
+     * @param stdErr A consumer for stderr.
+     * @param listener The listener to report build step completions to.
+     * @throws Exception on error.
+     */
+    protected void incrementalBuild(List<BuildRoot.Changes> changes,
+                                    Consumer<String> stdOut,
+                                    Consumer<String> stdErr,
+                                    BuildStepListener listener) throws Exception {
         if (!changes.isEmpty()) {
-            final PrintStream origOut = System.out;
-            final PrintStream origErr = System.err;
-            try {
-                System.setOut(ConsumerPrintStream.newStream(stdOut));
-                System.setErr(ConsumerPrintStream.newStream(stdErr));
-                for (final BuildRoot.Changes changed : changes) {
-                    changed.root().component().incrementalBuild(changed, stdOut, stdErr);
-                }
-                config.buildSucceeded();
-                config.store();
-            } finally {
-                System.setOut(origOut);
-                System.setErr(origErr);
-            }
+            buildComponents(changes, new TaskContext(stdOut, stdErr, listener));
+            config.buildSucceeded();
+            config.store();
         }
     }
 
@@ -350,6 +395,7 @@ public class Project {
         private final List<Path> dependencyPaths;
         private final List<BuildFile> dependencies;
         private final List<BuildComponent> components;
+        private final List<BuildModule> modules;
         private String name;
         private BuildType buildType;
         private ProjectDirectory root;
@@ -362,6 +408,7 @@ public class Project {
             this.dependencyPaths = new ArrayList<>();
             this.dependencies = new ArrayList<>();
             this.components = new ArrayList<>();
+            this.modules = new ArrayList<>();
         }
 
         /**
@@ -430,6 +477,18 @@ public class Project {
             return this;
         }
 
+        /**
+         * Add a module. Modules must be added in build order, i.e. after all the modules they depend on, and may not be
+         * combined with components added directly.
+         *
+         * @param module The module.
+         * @return This instance, for chaining.
+         */
+        public Builder module(BuildModule module) {
+            modules.add(requireNonNull(module));
+            return this;
+        }
+
         /**
          * Add a dependency.
          *
@@ -480,10 +539,17 @@ public class Project {
             }
             assertNotEmpty(buildFiles, "buildSystemFile");
             assertNotEmpty(dependencyPaths, "dependency");
-            assertNotEmpty(components, "component");
             if (name == null) {
                 name = root.path().getFileName().toString();
             }
+            if (modules.isEmpty()) {
+                assertNotEmpty(components, "component");
+                modules.add(BuildModule.createBuildModule(name, root.path(), emptyList(), components));
+            } else if (components.isEmpty()) {
+                assertBuildOrder(modules);
+            } else {
+                throw new IllegalStateException("Components must be added to a module when modules are used");
+            }
             if (config == null) {
                 config = ProjectConfig.projectConfig(root.path());
             }
@@ -495,6 +561,95 @@ public class Project {
                 throw new IllegalStateException("At least 1 " + description + " is required");
             }
         }
+
+        private static void assertBuildOrder(List<BuildModule> modules) {
+            final Set<String> names = new HashSet<>();
+            for (BuildModule module : modules) {
+                for (String dependency : module.dependencies()) {
+                    if (!names.contains(dependency)) {
+                        throw new IllegalStateException("Module " + module.name() + " depends on " + dependency
+                                                        + ", which is not a preceding module");
+                    }
+                }
+                if (!names.add(module.name())) {
+                    throw new IllegalStateException("Duplicate module " + module.name());
+                }
+            }
+        }
+    }
+
+    private void buildComponents(List<BuildRoot.Changes> changes, TaskContext context) throws Exception {
+
+        // Group the changes by module
+
+        final Map<BuildModule, List<BuildRoot.Changes>> moduleChanges = new HashMap<>();
+        for (BuildRoot.Changes changed : changes) {
+            moduleChanges.computeIfAbsent(changed.root().component().module(), module -> new ArrayList<>()).add(changed);
+        }
+
+        // Schedule the changed components of each changed module, and of each module that depends on one, to start once
+        // the modules it depends on have been built. Modules are in build order, so each module's dependencies have
+        // already been scheduled. The Java source and resource components of a module are independent, so they are built
+        // concurrently; the components of custom directories run arbitrary goals that may read their output, so they are
+        // built after them, in order. Steps often wait on I/O, so allow some overlap even with a single processor.
+
+        final int processors = Math.max(MIN_BUILD_THREADS, Runtime.getRuntime().availableProcessors());
+        final int threads = Math.min(components.size(), processors);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Map<String, CompletableFuture<Void>> moduleBuilds = new HashMap<>();
+            final List<CompletableFuture<Void>> builds = new ArrayList<>();
+            for (BuildModule module : modules) {
+                final List<CompletableFuture<Void>> upstream = new ArrayList<>();
+                for (String dependency : module.dependencies()) {
+                    final CompletableFuture<Void> build = moduleBuilds.get(dependency);
+                    if (build != null) {
+                        upstream.add(build);
+                    }
+                }
+                final List<BuildRoot.Changes> changed = moduleChanges.getOrDefault(module, emptyList());
+                if (!changed.isEmpty() || !upstream.isEmpty()) {
+                    final CompletableFuture<Void> ready = CompletableFuture.allOf(upstream.toArray(new CompletableFuture<?>[0]));
+                    final List<CompletableFuture<Void>> componentBuilds = new ArrayList<>();
+                    final List<ComponentTask> customTasks = new ArrayList<>();
+                    module.componentChanges(changed, !upstream.isEmpty()).forEach((component, componentChanges) -> {
+                        final ComponentTask task = new ComponentTask(component, componentChanges, context);
+                        if (component.sourceRoot().buildType().directoryType() == DirectoryType.Custom) {
+                            customTasks.add(task);
+                        } else {
+                            componentBuilds.add(ready.thenRunAsync(task, executor));
+                        }
+                    });
+                    CompletableFuture<Void> moduleBuild = CompletableFuture.allOf(componentBuilds.toArray(
+                            new CompletableFuture<?>[0]));
+                    for (ComponentTask task : customTasks) {
+                        moduleBuild = moduleBuild.thenRunAsync(task, executor);
+                    }
+                    builds.add(moduleBuild);
+                    moduleBuilds.put(module.name(), moduleBuild);
+                }
+            }
+
+            // Wait for all of them, so that independent modules are complete even if one fails
+
+            Throwable failure = null;
+            for (CompletableFuture<Void> build : builds) {
+                try {
+                    build.join();
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            } else if (failure != null) {
+                throw new Exception(failure);
+            }
+        } finally {
+            executor.shutdown();
+        }
     }
 
     private void updateDependencies() {
@@ -539,4 +694,69 @@ public class Project {
         final ProjectDirectory parentDir = parents.computeIfAbsent(parent, p -> createProjectDirectory(Depencencies, parent));
         return BuildFile.createBuildFile(parentDir, path);
     }
+
+    /**
+     * The state shared by the tasks of an incremental build.
+     */
+    private static final class TaskContext {
+        private final Consumer<String> stdOut;
+        private final Consumer<String> stdErr;
+        private final BuildStepListener listener;
+        private final ClassLoader contextClassLoader;
+        private final ThreadLocalPrintStream systemOut;
+        private final ThreadLocalPrintStream systemErr;
+
+        private TaskContext(Consumer<String> stdOut, Consumer<String> stdErr, BuildStepListener listener) {
+            this.stdOut = requireNonNull(stdOut);
+            this.stdErr = requireNonNull(stdErr);
+            this.listener = requireNonNull(listener);
+            this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+            this.systemOut = ThreadLocalPrintStream.systemOut();
+            this.systemErr = ThreadLocalPrintStream.systemErr();
+        }
+
+        private synchronized void replay(List<Runnable> output) {
+            output.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * A task that builds a single component, capturing its output.
+     */
+    private static final class ComponentTask implements Runnable {
+        private final BuildComponent component;
+        private final BuildRoot.Changes changes;
+        private final TaskContext context;
+        private final List<Runnable> output;
+
+        private ComponentTask(BuildComponent component, BuildRoot.Changes changes, TaskContext context) {
+            this.component = component;
+            this.changes = changes;
+            this.context = context;
+            this.output = Collections.synchronizedList(new ArrayList<>());
+        }
+
+        @Override
+        public void run() {
+            final Consumer<String> out = line -> output.add(() -> context.stdOut.accept(line));
+            final Consumer<String> err = line -> output.add(() -> context.stdErr.accept(line));
+            final BuildStepListener listener = (component, step, elapsedMillis) ->
+                    output.add(() -> context.listener.onStepCompleted(component, step, elapsedMillis));
+            final Thread thread = Thread.currentThread();
+            final ClassLoader origLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(context.contextClassLoader);
+            context.systemOut.redirect(ConsumerPrintStream.newStream(out));
+            context.systemErr.redirect(ConsumerPrintStream.newStream(err));
+            try {
+                component.incrementalBuild(changes, out, err, listener);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                context.systemOut.restore();
+                context.systemErr.restore();
+                thread.setContextClassLoader(origLoader);
+                context.replay(output);
+            }
+        }
+    }
 }
@@ -15,14 +15,20 @@
  */
 package io.helidon.build.dev.maven;
 
+import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
+import io.helidon.build.dev.BuildStep;
+import io.helidon.build.dev.JavaCompilerStep;
 import io.helidon.build.dev.mode.DevLoop;
 import io.helidon.build.util.PathFilters;
 import io.helidon.build.util.Strings;
@@ -74,6 +80,20 @@ public class DevLoopBuildConfig {
         incrementalBuild.resolve(resolver);
     }
 
+    /**
+     * Resolve goal references for a multi-module project. Incremental build goals are resolved for each module, except
+     * for those of custom directories which, like the directories themselves, belong to the project.
+     *
+     * @param resolver The project resolver.
+     * @param moduleResolvers The resolvers for each module, by module name.
+     * @throws Exception If an error occurs.
+     */
+    public void resolve(MavenGoalReferenceResolver resolver,
+                        Map<String, MavenGoalReferenceResolver> moduleResolvers) throws Exception {
+        fullBuild.resolve(resolver);
+        incrementalBuild.resolve(resolver, moduleResolvers);
+    }
+
     /**
      * Returns the full build config.
      *
@@ -227,12 +247,18 @@ public class DevLoopBuildConfig {
     public static class IncrementalBuildConfig {
         private static final List<String> DEFAULT_RESOURCES_GOALS = List.of("resources:resources");
         private static final List<String> DEFAULT_JAVA_SOURCES_GOALS = List.of("compiler:compile");
+        private static final String COMPILER_PLUGIN_KEY = "org.apache.maven.plugins:maven-compiler-plugin";
+        private static final String COMPILE_GOAL = "compile";
 
         private List<String> unresolvedResourceGoals;
         private List<String> unresolvedJavaSourceGoals;
         private List<MavenGoal> resolvedResourceGoals;
         private List<MavenGoal> resolvedJavaSourceGoals;
+        private List<BuildStep> javaSourceSteps;
+        private Map<String, List<MavenGoal>> moduleResourceGoals;
+        private Map<String, List<BuildStep>> moduleJavaSourceSteps;
         private List<CustomDirectoryConfig> customDirectories;
+        private boolean compileInProcess;
         private int maxBuildFailures;
 
         /**
@@ -268,14 +294,43 @@ public class DevLoopBuildConfig {
          * @throws Exception If an error occurs.
          */
         public void resolve(MavenGoalReferenceResolver resolver) throws Exception {
+            resolve(resolver, Map.of());
+        }
+
+        /**
+         * Resolve goal references, for each module of a multi-module project.
+         *
+         * @param resolver The project resolver, used for custom directory goals and, if there are no modules, all goals.
+         * @param moduleResolvers The resolvers for each module, by module name.
+         * @throws Exception If an error occurs.
+         */
+        public void resolve(MavenGoalReferenceResolver resolver,
+                            Map<String, MavenGoalReferenceResolver> moduleResolvers) throws Exception {
             if (unresolvedResourceGoals.isEmpty()) {
                 unresolvedResourceGoals = DEFAULT_RESOURCES_GOALS;
             }
             if (unresolvedJavaSourceGoals.isEmpty()) {
                 unresolvedJavaSourceGoals = DEFAULT_JAVA_SOURCES_GOALS;
             }
-            resolvedResourceGoals = resolver.resolve(unresolvedResourceGoals, new ArrayList<>());
-            resolvedJavaSourceGoals = resolver.resolve(unresolvedJavaSourceGoals, new ArrayList<>());
+            moduleResourceGoals = new HashMap<>();
+            moduleJavaSourceSteps = new HashMap<>();
+            if (moduleResolvers.isEmpty()) {
+                resolvedResourceGoals = resolver.resolve(unresolvedResourceGoals, new ArrayList<>());
+                resolvedJavaSourceGoals = resolver.resolve(unresolvedJavaSourceGoals, new ArrayList<>());
+                javaSourceSteps = toJavaSourceSteps(resolvedJavaSourceGoals);
+            } else {
+                resolvedResourceGoals = emptyList();
+                resolvedJavaSourceGoals = emptyList();
+                javaSourceSteps = emptyList();
+                for (Map.Entry<String, MavenGoalReferenceResolver> entry : moduleResolvers.entrySet()) {
+                    final MavenGoalReferenceResolver moduleResolver = entry.getValue();
+                    final List<MavenGoal> javaSourceGoals = moduleResolver.resolve(unresolvedJavaSourceGoals,
+                                                                                   new ArrayList<>());
+                    moduleResourceGoals.put(entry.getKey(), moduleResolver.resolve(unresolvedResourceGoals,
+                                                                                   new ArrayList<>()));
+                    moduleJavaSourceSteps.put(entry.getKey(), toJavaSourceSteps(javaSourceGoals));
+                }
+            }
             for (CustomDirectoryConfig directory : customDirectories()) {
                 directory.resolve(resolver);
             }
@@ -299,6 +354,49 @@ public class DevLoopBuildConfig {
             return resolvedJavaSourceGoals;
         }
 
+        /**
+         * Returns the Java source build steps: the resolved Java source goals, with the compiler plugin's compile goal
+         * replaced by an in-process compiler if {@link #compileInProcess()} is {@code true}.
+         *
+         * @return The steps.
+         */
+        public List<BuildStep> javaSourceSteps() {
+            return javaSourceSteps;
+        }
+
+        /**
+         * Returns the resolved resource goals of the given module of a multi-module project.
+         *
+         * @param module The module name.
+         * @return The goals.
+         * @throws IllegalArgumentException If the module is not known.
+         */
+        public List<MavenGoal> resourceGoals(String module) {
+            return moduleValue(moduleResourceGoals, module);
+        }
+
+        /**
+         * Returns the Java source build steps of the given module of a multi-module project. Each module has its own
+         * instances.
+         *
+         * @param module The module name.
+         * @return The steps.
+         * @throws IllegalArgumentException If the module is not known.
+         */
+        public List<BuildStep> javaSourceSteps(String module) {
+            return moduleValue(moduleJavaSourceSteps, module);
+        }
+
+        /**
+         * Returns whether or not Java sources should be compiled in process, recompiling only changed sources and their
+         * dependents rather than executing the compiler plugin.
+         *
+         * @return {@code true} if sources should be compiled in process.
+         */
+        public boolean compileInProcess() {
+            return compileInProcess;
+        }
+
         /**
          * Returns the unresolved resource goals.
          *
@@ -362,6 +460,15 @@ public class DevLoopBuildConfig {
             this.customDirectories = distinct(customDirectories);
         }
 
+        /**
+         * Sets whether or not Java sources should be compiled in process.
+         *
+         * @param compileInProcess {@code true} if sources should be compiled in process.
+         */
+        public void setCompileInProcess(boolean compileInProcess) {
+            this.compileInProcess = compileInProcess;
+        }
+
         /**
          * Sets the maximum number of full build failures allowed before the dev loop should exit.
          *
@@ -377,10 +484,76 @@ public class DevLoopBuildConfig {
                    + "resourceGoals=" + unresolvedResourceGoals
                    + ", javaSourceGoals=" + unresolvedJavaSourceGoals
                    + ", customDirectories=" + customDirectories
+                   + ", compileInProcess=" + compileInProcess
                    + ", maxBuildFailures=" + maxBuildFailures
                    + '}';
         }
 
+        private List<BuildStep> toJavaSourceSteps(List<MavenGoal> goals) throws Exception {
+            final List<BuildStep> steps = new ArrayList<>();
+            for (MavenGoal goal : goals) {
+                if (compileInProcess && isCompileGoal(goal)) {
+                    steps.add(JavaCompilerStep.create(compilerOptions(goal), sourceEncoding(goal)));
+                } else {
+                    steps.add(goal);
+                }
+            }
+            return steps;
+        }
+
+        private static <T> List<T> moduleValue(Map<String, List<T>> values, String module) {
+            final List<T> value = values.get(module);
+            if (value == null) {
+                throw new IllegalArgumentException("Unknown module: " + module);
+            }
+            return value;
+        }
+
+        private static boolean isCompileGoal(MavenGoal goal) {
+            return goal.pluginKey().equals(COMPILER_PLUGIN_KEY) && goal.name().equals(COMPILE_GOAL);
+        }
+
+        private static List<String> compilerOptions(MavenGoal goal) throws Exception {
+            final List<String> options = new ArrayList<>();
+            final Optional<String> release = goal.parameter("release");
+            if (release.isPresent()) {
+                options.add("--release");
+                options.add(release.get());
+            } else {
+                final Optional<String> source = goal.parameter("source");
+                if (source.isPresent()) {
+                    options.add("-source");
+                    options.add(source.get());
+                }
+                final Optional<String> target = goal.parameter("target");
+                if (target.isPresent()) {
+                    options.add("-target");
+                    options.add(target.get());
+                }
+            }
+            if (goal.parameter("debug").map(Boolean::parseBoolean).orElse(true)) {
+                options.add("-g");
+            }
+            if (goal.parameter("parameters").map(Boolean::parseBoolean).orElse(false)) {
+                options.add("-parameters");
+            }
+            if (goal.parameter("showDeprecation").map(Boolean::parseBoolean).orElse(false)) {
+                options.add("-deprecation");
+            }
+            if (!goal.parameter("showWarnings").map(Boolean::parseBoolean).orElse(false)) {
+                options.add("-nowarn");
+            }
+            final Optional<String> proc = goal.parameter("proc");
+            proc.ifPresent(value -> options.add("-proc:" + value));
+            options.addAll(goal.parameterList("compilerArgs"));
+            return options;
+        }
+
+        private static Charset sourceEncoding(MavenGoal goal) throws Exception {
+            final Optional<String> encoding = goal.parameter("encoding");
+            return encoding.isPresent() ? Charset.forName(encoding.get()) : Charset.defaultCharset();
+        }
+
         /**
          * Custom directory configuration.
          */
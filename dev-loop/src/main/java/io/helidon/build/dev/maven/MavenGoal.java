@@ -15,7 +15,9 @@
  */
 package io.helidon.build.dev.maven;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import io.helidon.build.dev.BuildRoot;
@@ -30,10 +32,12 @@ import org.apache.maven.model.PluginExecution;
 import org.apache.maven.model.PluginManagement;
 import org.apache.maven.plugin.BuildPluginManager;
 import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.PluginParameterExpressionEvaluator;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugin.descriptor.Parameter;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.eclipse.aether.RepositorySystemSession;
@@ -117,7 +121,49 @@ public class MavenGoal implements BuildStep {
      */
     public void execute() throws Exception {
         Log.debug("Executing %s", this);
-        pluginManager.executeMojo(session, execution);
+
+        // The goals of a module share its session and project, which mojos modify, so they are executed one at a time
+
+        synchronized (session) {
+            pluginManager.executeMojo(session, execution);
+        }
+    }
+
+    /**
+     * Returns the value of the given mojo parameter, with any expressions evaluated in the context of the current session.
+     *
+     * @param name The parameter name.
+     * @return The value, or empty if not configured.
+     * @throws ExpressionEvaluationException if evaluation fails.
+     */
+    public Optional<String> parameter(String name) throws ExpressionEvaluationException {
+        final Xpp3Dom node = execution.getConfiguration().getChild(name);
+        if (node == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(evaluate(node)).filter(Strings::isValid);
+    }
+
+    /**
+     * Returns the values of the given list mojo parameter, with any expressions evaluated in the context of the current
+     * session.
+     *
+     * @param name The parameter name.
+     * @return The values, empty if not configured.
+     * @throws ExpressionEvaluationException if evaluation fails.
+     */
+    public List<String> parameterList(String name) throws ExpressionEvaluationException {
+        final List<String> result = new ArrayList<>();
+        final Xpp3Dom node = execution.getConfiguration().getChild(name);
+        if (node != null) {
+            for (Xpp3Dom child : node.getChildren()) {
+                final String value = evaluate(child);
+                if (Strings.isValid(value)) {
+                    result.add(value);
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -152,6 +198,18 @@ public class MavenGoal implements BuildStep {
         return pluginKey() + ":" + name() + "@" + executionId();
     }
 
+    private String evaluate(Xpp3Dom node) throws ExpressionEvaluationException {
+        String expression = node.getValue();
+        if (expression == null) {
+            expression = node.getAttribute("default-value");
+        }
+        if (expression == null) {
+            return null;
+        }
+        final Object value = new PluginParameterExpressionEvaluator(session, execution).evaluate(expression);
+        return value == null ? null : value.toString();
+    }
+
     private static Plugin plugin(MavenProject project, String pluginKey) {
         final Plugin plugin = requireNonNull(project.getPlugin(pluginKey), "plugin " + pluginKey + " not found");
         if (Strings.isNotValid(plugin.getVersion())) {
@@ -18,7 +18,14 @@ package io.helidon.build.dev.maven;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -50,7 +57,10 @@ import static io.helidon.build.util.ProjectConfig.DOT_HELIDON;
 import static io.helidon.build.util.ProjectConfig.HELIDON_VERSION;
 import static io.helidon.build.util.ProjectConfig.PROJECT_CLASSDIRS;
 import static io.helidon.build.util.ProjectConfig.PROJECT_DEPENDENCIES;
+import static io.helidon.build.util.ProjectConfig.PROJECT_DIRECTORY;
 import static io.helidon.build.util.ProjectConfig.PROJECT_MAINCLASS;
+import static io.helidon.build.util.ProjectConfig.PROJECT_MODULES;
+import static io.helidon.build.util.ProjectConfig.PROJECT_MODULE_DEPENDENCIES;
 import static io.helidon.build.util.ProjectConfig.PROJECT_RESOURCEDIRS;
 import static io.helidon.build.util.ProjectConfig.PROJECT_SOURCEDIRS;
 import static io.helidon.build.util.ProjectConfig.PROJECT_SOURCE_EXCLUDES;
@@ -58,6 +68,7 @@ import static io.helidon.build.util.ProjectConfig.PROJECT_SOURCE_INCLUDES;
 import static io.helidon.build.util.ProjectConfig.PROJECT_VERSION;
 import static io.helidon.build.util.ProjectConfig.RESOURCE_INCLUDE_EXCLUDE_LIST_SEPARATOR;
 import static io.helidon.build.util.ProjectConfig.RESOURCE_INCLUDE_EXCLUDE_SEPARATOR;
+import static io.helidon.build.util.ProjectConfig.moduleProperty;
 import static java.lang.String.join;
 import static java.util.Collections.emptyList;
 import static org.eclipse.aether.util.artifact.JavaScopes.COMPILE;
@@ -76,39 +87,52 @@ public class MavenProjectConfigCollector extends AbstractMavenLifecycleParticipa
     private static final boolean DEBUG = "true".equals(System.getProperty(DEBUG_PROPERTY));
     private static final String MAIN_CLASS_PROPERTY = "mainClass";
     private static final String HELIDON_GROUP_ID_PREFIX = "io.helidon.";
-    private static final String MULTI_MODULE_PROJECT = "Multi-module projects are not supported.";
     private static final String MISSING_MAIN_CLASS = "The required '" + MAIN_CLASS_PROPERTY + "' property is missing.";
     private static final String MISSING_DOT_HELIDON = "The required " + DOT_HELIDON + " file is missing.";
     private static final DependencyFilter DEPENDENCY_FILTER = classpathFilter(COMPILE, RUNTIME);
     private static final String COMPILE_GOAL = "compile";
+    private static final String TEST_SCOPE = "test";
 
+    private final Map<MavenProject, Xpp3Dom> compiledProjects = new ConcurrentHashMap<>();
     @Inject
     private ProjectDependenciesResolver dependenciesResolver;
     private Path supportedProjectDir;
     private ProjectConfig projectConfig;
 
     /**
-     * Assert that the project is one whose configuration we can support.
+     * Assert that the project is one whose configuration we can support. For a multi-module project, the
+     * {@code .helidon} file must be in the top level project directory, and the module containing the application is
+     * the last one in the build that has the main class property.
      *
      * @param session The session.
      * @return The project directory.
      */
     public static Path assertSupportedProject(MavenSession session) {
-        assertSupportedProject(session.getProjects().size() == 1, MULTI_MODULE_PROJECT);
-        final MavenProject project = session.getProjects().get(0);
-        final Path projectDir = project.getBasedir().toPath();
+        final Path projectDir = session.getTopLevelProject().getBasedir().toPath();
         assertSupportedProject(ProjectConfig.projectConfigExists(projectDir), MISSING_DOT_HELIDON);
-        assertSupportedProject(project.getProperties().getProperty(MAIN_CLASS_PROPERTY) != null, MISSING_MAIN_CLASS);
+        assertSupportedProject(session.getProjects().stream().anyMatch(p -> mainClass(p) != null), MISSING_MAIN_CLASS);
         debug("Helidon project is supported");
         return projectDir;
     }
 
+    /**
+     * Returns the name of the given module of a multi-module project, qualified by its group id since the artifact id
+     * alone need not be unique within a reactor.
+     *
+     * @param module The module.
+     * @return The name.
+     */
+    public static String moduleName(MavenProject module) {
+        return key(module.getGroupId(), module.getArtifactId());
+    }
+
     @Override
     public void afterProjectsRead(MavenSession session) {
         if (ENABLED) {
             // Init state
             supportedProjectDir = null;
             projectConfig = null;
+            compiledProjects.clear();
             debug("collector enabled");
             try {
                 // Ensure that we support this project
@@ -135,7 +159,7 @@ public class MavenProjectConfigCollector extends AbstractMavenLifecycleParticipa
             } else if (result.hasExceptions()) {
                 debug("Build failed: %s", result.getExceptions());
                 invalidateConfig();
-            } else if (projectConfig != null) {
+            } else if (collectConfig(session)) {
                 debug("Build succeeded, with compilation. Updating config.");
                 storeConfig();
             } else {
@@ -145,29 +169,90 @@ public class MavenProjectConfigCollector extends AbstractMavenLifecycleParticipa
         }
     }
 
-    private void collectConfig(MavenProject project, MavenSession session, Xpp3Dom pluginConfig) {
-        final Path projectDir = project.getBasedir().toPath();
-        final ProjectConfig config = ProjectConfig.projectConfig(projectDir);
-        final List<Artifact> dependencies = dependencies(project, session);
+    private boolean collectConfig(MavenSession session) {
+        final List<MavenProject> modules = session.getProjects()
+                                                  .stream()
+                                                  .filter(compiledProjects::containsKey)
+                                                  .collect(Collectors.toList());
+        final MavenProject application = modules.stream()
+                                                .filter(p -> mainClass(p) != null)
+                                                .reduce((first, second) -> second)
+                                                .orElse(null);
+        if (application == null) {
+            return false;
+        }
+
+        // Modules are on the classpath as output directories, so exclude them from the dependencies
+
+        final Map<String, MavenProject> reactor = new HashMap<>();
+        modules.forEach(module -> reactor.put(moduleName(module), module));
+        final List<Artifact> dependencies = dependencies(application, session)
+                .stream()
+                .filter(a -> !reactor.containsKey(key(a.getGroupId(), a.getArtifactId())))
+                .collect(Collectors.toList());
         final String helidonVersion = helidonVersion(dependencies);
+        final ProjectConfig config = ProjectConfig.projectConfig(supportedProjectDir);
+        if (helidonVersion != null) {
+            config.property(HELIDON_VERSION, helidonVersion);
+        }
+        config.property(PROJECT_DEPENDENCIES, dependencyFiles(dependencies));
+        config.property(PROJECT_MAINCLASS, mainClass(application));
+        config.property(PROJECT_VERSION, application.getVersion());
+        if (session.getProjects().size() == 1) {
+            config.remove(PROJECT_MODULES);
+            collectModuleConfig(config, application, UnaryOperator.identity());
+        } else {
+            final List<String> names = new ArrayList<>();
+            final Set<String> classesDirs = new LinkedHashSet<>();
+            final Set<String> sourceDirs = new LinkedHashSet<>();
+            for (MavenProject module : modules) {
+                final String name = moduleName(module);
+                final UnaryOperator<String> key = property -> moduleProperty(name, property);
+                final List<String> moduleDependencies = module.getDependencies()
+                                                              .stream()
+                                                              .filter(d -> !TEST_SCOPE.equals(d.getScope()))
+                                                              .map(d -> reactor.get(key(d.getGroupId(), d.getArtifactId())))
+                                                              .filter(Objects::nonNull)
+                                                              .map(MavenProjectConfigCollector::moduleName)
+                                                              .distinct()
+                                                              .collect(Collectors.toList());
+                collectModuleConfig(config, module, key);
+                config.property(key.apply(PROJECT_DIRECTORY), module.getBasedir().toPath().toString());
+                config.property(key.apply(PROJECT_MODULE_DEPENDENCIES), moduleDependencies);
+                classesDirs.addAll(config.propertyAsList(key.apply(PROJECT_CLASSDIRS)));
+                sourceDirs.addAll(config.propertyAsList(key.apply(PROJECT_SOURCEDIRS)));
+                names.add(name);
+            }
+            config.property(PROJECT_MODULES, names);
+            config.property(PROJECT_CLASSDIRS, classesDirs);
+            config.property(PROJECT_SOURCEDIRS, sourceDirs);
+        }
+        this.projectConfig = config;
+        return true;
+    }
+
+    private void collectModuleConfig(ProjectConfig config, MavenProject project, UnaryOperator<String> key) {
+        final Xpp3Dom pluginConfig = compiledProjects.get(project);
+        final Path projectDir = project.getBasedir().toPath();
         final Path outputDir = projectDir.resolve(project.getBuild().getOutputDirectory());
         final List<String> classesDirs = List.of(outputDir.toString());
         final List<String> resourceDirs = project.getResources()
                                                  .stream()
                                                  .map(MavenProjectConfigCollector::format)
                                                  .collect(Collectors.toList());
-        if (helidonVersion != null) {
-            config.property(HELIDON_VERSION, helidonVersion);
-        }
-        config.property(PROJECT_DEPENDENCIES, dependencyFiles(dependencies));
-        config.property(PROJECT_MAINCLASS, project.getProperties().getProperty(MAIN_CLASS_PROPERTY));
-        config.property(PROJECT_VERSION, project.getVersion());
-        config.property(PROJECT_CLASSDIRS, classesDirs);
-        config.property(PROJECT_SOURCEDIRS, project.getCompileSourceRoots());
-        config.property(PROJECT_SOURCE_INCLUDES, toList(pluginConfig, "includes"));
-        config.property(PROJECT_SOURCE_EXCLUDES, toList(pluginConfig, "excludes"));
-        config.property(PROJECT_RESOURCEDIRS, resourceDirs);
-        this.projectConfig = config;
+        config.property(key.apply(PROJECT_CLASSDIRS), classesDirs);
+        config.property(key.apply(PROJECT_SOURCEDIRS), project.getCompileSourceRoots());
+        config.property(key.apply(PROJECT_SOURCE_INCLUDES), toList(pluginConfig, "includes"));
+        config.property(key.apply(PROJECT_SOURCE_EXCLUDES), toList(pluginConfig, "excludes"));
+        config.property(key.apply(PROJECT_RESOURCEDIRS), resourceDirs);
+    }
+
+    private static String mainClass(MavenProject project) {
+        return project.getProperties().getProperty(MAIN_CLASS_PROPERTY);
+    }
+
+    private static String key(String groupId, String artifactId) {
+        return groupId + ":" + artifactId;
     }
 
     private static String format(Resource resource) {
@@ -295,7 +380,7 @@ public class MavenProjectConfigCollector extends AbstractMavenLifecycleParticipa
             final MojoExecution execution = event.getMojoExecution();
             next.mojoSucceeded(event);
             if (execution.getGoal().equals(COMPILE_GOAL)) {
-                collectConfig(event.getProject(), event.getSession(), execution.getConfiguration());
+                compiledProjects.put(event.getProject(), execution.getConfiguration());
             }
         }
 
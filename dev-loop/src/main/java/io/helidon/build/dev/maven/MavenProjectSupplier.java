@@ -26,8 +26,10 @@ import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import io.helidon.build.dev.BuildComponent;
 import io.helidon.build.dev.BuildExecutor;
 import io.helidon.build.dev.BuildRoot;
 import io.helidon.build.dev.BuildRootType;
@@ -38,6 +40,7 @@ import io.helidon.build.dev.Project;
 import io.helidon.build.dev.Project.Builder;
 import io.helidon.build.dev.ProjectDirectory;
 import io.helidon.build.dev.ProjectSupplier;
+import io.helidon.build.dev.maven.DevLoopBuildConfig.IncrementalBuildConfig;
 import io.helidon.build.dev.maven.DevLoopBuildConfig.IncrementalBuildConfig.CustomDirectoryConfig;
 import io.helidon.build.util.FileUtils;
 import io.helidon.build.util.Log;
@@ -47,6 +50,7 @@ import io.helidon.build.util.Requirements;
 
 import static io.helidon.build.dev.BuildComponent.createBuildComponent;
 import static io.helidon.build.dev.BuildFile.createBuildFile;
+import static io.helidon.build.dev.BuildModule.createBuildModule;
 import static io.helidon.build.dev.BuildRoot.createBuildRoot;
 import static io.helidon.build.dev.BuildRootType.matchesJavaClass;
 import static io.helidon.build.dev.ProjectDirectory.createProjectDirectory;
@@ -58,11 +62,15 @@ import static io.helidon.build.util.FileUtils.assertFile;
 import static io.helidon.build.util.FileUtils.ensureDirectory;
 import static io.helidon.build.util.ProjectConfig.PROJECT_CLASSDIRS;
 import static io.helidon.build.util.ProjectConfig.PROJECT_DEPENDENCIES;
+import static io.helidon.build.util.ProjectConfig.PROJECT_DIRECTORY;
 import static io.helidon.build.util.ProjectConfig.PROJECT_MAINCLASS;
+import static io.helidon.build.util.ProjectConfig.PROJECT_MODULES;
+import static io.helidon.build.util.ProjectConfig.PROJECT_MODULE_DEPENDENCIES;
 import static io.helidon.build.util.ProjectConfig.PROJECT_RESOURCEDIRS;
 import static io.helidon.build.util.ProjectConfig.PROJECT_SOURCEDIRS;
 import static io.helidon.build.util.ProjectConfig.PROJECT_SOURCE_EXCLUDES;
 import static io.helidon.build.util.ProjectConfig.PROJECT_SOURCE_INCLUDES;
+import static io.helidon.build.util.ProjectConfig.moduleProperty;
 import static io.helidon.build.util.ProjectConfig.projectConfig;
 import static java.util.Collections.emptyList;
 
@@ -204,24 +212,75 @@ public class MavenProjectSupplier implements ProjectSupplier {
         // Main class
         builder.mainClassName(projectConfig.property(PROJECT_MAINCLASS));
 
-        // Finally, add build components
+        // Finally, add build components, to a module of their own for each module of a multi-module project
 
-        final List<String> sourceDirs = projectConfig.propertyAsList(PROJECT_SOURCEDIRS);
-        final List<String> sourceIncludes = projectConfig.propertyAsList(PROJECT_SOURCE_INCLUDES);
-        final List<String> sourceExcludes = projectConfig.propertyAsList(PROJECT_SOURCE_EXCLUDES);
-        final List<String> classesDirs = projectConfig.propertyAsList(PROJECT_CLASSDIRS);
-        final List<String> resourcesDirs = projectConfig.propertyAsList(PROJECT_RESOURCEDIRS);
+        final IncrementalBuildConfig config = buildConfig.incrementalBuild();
+        final List<String> modules = projectConfig.propertyAsList(PROJECT_MODULES);
+        if (modules.isEmpty()) {
+            final List<BuildRoot> classesRoots = classesRoots(projectDir, UnaryOperator.identity());
+            final List<BuildComponent> components = components(projectDir, UnaryOperator.identity(), classesRoots,
+                                                               config.javaSourceSteps(), config.resourceGoals());
+            components.addAll(customComponents(config.customDirectories(), classesRoots));
+            components.forEach(builder::component);
+        } else {
+            final List<CustomDirectoryConfig> customDirs = new ArrayList<>(config.customDirectories());
+            for (String module : modules) {
+                final UnaryOperator<String> key = property -> moduleProperty(module, property);
+                final Path moduleDir = Path.of(projectConfig.property(key.apply(PROJECT_DIRECTORY)));
+                final List<String> moduleDependencies = projectConfig.propertyAsList(key.apply(PROJECT_MODULE_DEPENDENCIES));
+                final List<BuildRoot> classesRoots = classesRoots(moduleDir, key);
+                final List<BuildComponent> components = components(moduleDir, key, classesRoots,
+                                                                   config.javaSourceSteps(module),
+                                                                   config.resourceGoals(module));
+
+                // Add the custom directories within this module, and any left over to the last module
+
+                final boolean last = module.equals(modules.get(modules.size() - 1));
+                final List<CustomDirectoryConfig> moduleCustomDirs = new ArrayList<>();
+                for (CustomDirectoryConfig customDir : customDirs) {
+                    if (last || projectDir.resolve(customDir.path()).startsWith(moduleDir)) {
+                        moduleCustomDirs.add(customDir);
+                    }
+                }
+                customDirs.removeAll(moduleCustomDirs);
+                components.addAll(customComponents(moduleCustomDirs, classesRoots));
+
+                if (!moduleDir.equals(projectDir)) {
+                    final ProjectDirectory moduleRoot = createProjectDirectory(DirectoryType.Project, moduleDir);
+                    builder.buildFile(createBuildFile(moduleRoot, assertFile(moduleDir.resolve(POM_FILE))));
+                }
+                builder.module(createBuildModule(module, moduleDir, moduleDependencies, components));
+            }
+        }
+
+        return builder.build();
+    }
+
+    private List<BuildRoot> classesRoots(Path projectDir, UnaryOperator<String> key) {
 
         // Map classesDirs to a list of BuildRoots so can re-use as the outputRoot for all components
         // See issue https://github.com/oracle/helidon-build-tools/issues/280 regarding output roots
 
+        final List<String> classesDirs = projectConfig.propertyAsList(key.apply(PROJECT_CLASSDIRS));
         final BuildRootType classesRootType = BuildRootType.create(DirectoryType.JavaClasses, matchesJavaClass());
-        final List<BuildRoot> classesRoots = classesDirs.stream()
-                                                        .map(directory -> {
-                                                            Path classesDirPath = ensureDirectory(projectDir.resolve(directory));
-                                                            return createBuildRoot(classesRootType, classesDirPath);
-                                                        })
-                                                        .collect(Collectors.toList());
+        return classesDirs.stream()
+                          .map(directory -> {
+                              Path classesDirPath = ensureDirectory(projectDir.resolve(directory));
+                              return createBuildRoot(classesRootType, classesDirPath);
+                          })
+                          .collect(Collectors.toList());
+    }
+
+    private List<BuildComponent> components(Path projectDir,
+                                            UnaryOperator<String> key,
+                                            List<BuildRoot> classesRoots,
+                                            List<? extends BuildStep> compileSteps,
+                                            List<? extends BuildStep> resourcesSteps) {
+        final List<BuildComponent> components = new ArrayList<>();
+        final List<String> sourceDirs = projectConfig.propertyAsList(key.apply(PROJECT_SOURCEDIRS));
+        final List<String> sourceIncludes = projectConfig.propertyAsList(key.apply(PROJECT_SOURCE_INCLUDES));
+        final List<String> sourceExcludes = projectConfig.propertyAsList(key.apply(PROJECT_SOURCE_EXCLUDES));
+        final List<String> resourcesDirs = projectConfig.propertyAsList(key.apply(PROJECT_RESOURCEDIRS));
 
         // Add java source components
 
@@ -231,7 +290,7 @@ public class MavenProjectSupplier implements ProjectSupplier {
             BuildRootType sourceRootType = BuildRootType.create(DirectoryType.JavaSources, filter);
             BuildRoot sources = createBuildRoot(sourceRootType, sourceDirPath);
             for (BuildRoot classes : classesRoots) {
-                builder.component(createBuildComponent(sources, classes, compileSteps()));
+                components.add(createBuildComponent(sources, classes, new ArrayList<>(compileSteps)));
             }
         }
 
@@ -248,37 +307,32 @@ public class MavenProjectSupplier implements ProjectSupplier {
                 BuildRootType buildRootType = BuildRootType.create(DirectoryType.Resources, filter);
                 BuildRoot resources = createBuildRoot(buildRootType, resourcesDirPath);
                 for (BuildRoot classes : classesRoots) {
-                    builder.component(createBuildComponent(resources, classes, resourcesSteps()));
+                    components.add(createBuildComponent(resources, classes, new ArrayList<>(resourcesSteps)));
                 }
             }
         }
+        return components;
+    }
+
+    private List<BuildComponent> customComponents(List<CustomDirectoryConfig> customDirs, List<BuildRoot> classesRoots) {
+        final List<BuildComponent> components = new ArrayList<>();
 
-        // Add custom components
         // See issue https://github.com/oracle/helidon-build-tools/issues/280 regarding custom output roots
 
-        for (CustomDirectoryConfig customDir : buildConfig.incrementalBuild().customDirectories()) {
+        for (CustomDirectoryConfig customDir : customDirs) {
             Path directory = customDir.path();
             if (Files.isDirectory(directory)) {
                 BiPredicate<Path, Path> includes = customDir.includes();
                 BuildRootType buildRootType = BuildRootType.create(DirectoryType.Custom, includes);
                 BuildRoot sources = createBuildRoot(buildRootType, directory);
                 for (BuildRoot classes : classesRoots) {
-                    builder.component(createBuildComponent(sources, classes, customDirectorySteps(customDir)));
+                    components.add(createBuildComponent(sources, classes, customDirectorySteps(customDir)));
                 }
             } else {
                 Log.warn("%s not found", directory);
             }
         }
-
-        return builder.build();
-    }
-
-    private List<BuildStep> compileSteps() {
-        return new ArrayList<>(buildConfig.incrementalBuild().javaSourceGoals());
-    }
-
-    private List<BuildStep> resourcesSteps() {
-        return new ArrayList<>(buildConfig.incrementalBuild().resourceGoals());
+        return components;
     }
 
     private List<BuildStep> customDirectorySteps(CustomDirectoryConfig customDir) {
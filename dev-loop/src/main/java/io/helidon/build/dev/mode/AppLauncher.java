@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.mode;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs an application with its classes in a child class loader that is replaced to reload them, so that the JVM and
+ * the dependencies loaded by the parent class loader survive each rebuild.
+ * <p>
+ * To reload, the shutdown hooks registered by the application are run and all of its non-daemon threads must then
+ * exit; if any remain the application cannot be stopped in process, so a restart is requested instead.
+ * <p>
+ * This class runs in the application JVM with only its own class file added to the class path, so it must depend on
+ * JDK classes only and must not have nested classes.
+ */
+public final class AppLauncher {
+
+    /**
+     * The command that requests a reload, read from stdin.
+     */
+    static final String RELOAD_COMMAND = "reload";
+
+    /**
+     * The prefix of a response, written to stdout.
+     */
+    static final String RESPONSE_PREFIX = "@@helidon.dev.launcher@@ ";
+
+    /**
+     * The response when the application has been reloaded.
+     */
+    static final String RELOADED = "reloaded";
+
+    /**
+     * The response when the application could not be stopped and the JVM must be restarted.
+     */
+    static final String RESTART_REQUIRED = "restart";
+
+    private static final String SHUTDOWN_HOOKS_CLASS = "java.lang.ApplicationShutdownHooks";
+    private static final String SHUTDOWN_HOOKS_FIELD = "hooks";
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+    private static final long STOP_POLL_MILLIS = 10;
+
+    private final String mainClassName;
+    private final URL[] classPath;
+    private final String[] appArgs;
+    private final Collection<Thread> initialHooks;
+    private URLClassLoader loader;
+    private ThreadGroup group;
+    private int generation;
+
+    /**
+     * Launch the application.
+     *
+     * @param args The main class name, the application class path, followed by the application arguments.
+     * @throws Exception If an error occurs.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: AppLauncher mainClass classPath [args...]");
+        }
+        final AppLauncher launcher = new AppLauncher(args[0], args[1], Arrays.copyOfRange(args, 2, args.length));
+        launcher.start();
+
+        // Don't keep the JVM alive if the application exits
+
+        final Thread listener = new Thread(launcher::listen, "reload-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private AppLauncher(String mainClassName, String classPath, String[] appArgs) throws MalformedURLException {
+        final String[] paths = classPath.split(File.pathSeparator);
+        this.mainClassName = mainClassName;
+        this.classPath = new URL[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            this.classPath[i] = new File(paths[i]).toURI().toURL();
+        }
+        this.appArgs = appArgs;
+        final Collection<Thread> hooks = shutdownHooks();
+        this.initialHooks = hooks == null ? List.of() : hooks;
+    }
+
+    private synchronized void start() {
+        loader = new URLClassLoader(classPath, AppLauncher.class.getClassLoader());
+        group = new ThreadGroup("application-" + ++generation);
+        final Thread main = new Thread(group, this::runMain, "main");
+        main.setContextClassLoader(loader);
+        main.start();
+    }
+
+    private void runMain() {
+        try {
+            final Class<?> mainClass = Class.forName(mainClassName, true, loader);
+            final Method main = mainClass.getMethod("main", String[].class);
+            main.invoke(null, (Object) appArgs);
+        } catch (InvocationTargetException e) {
+            failed(e.getCause());
+        } catch (Throwable e) {
+            failed(e);
+        }
+    }
+
+    private void listen() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().equals(RELOAD_COMMAND)) {
+
+                    // Use a non-daemon thread so the JVM does not exit while the application is stopped. Threads
+                    // inherit daemon status from their creator, so this must be explicit.
+
+                    final Thread reload = new Thread(this::reload, "reload");
+                    reload.setDaemon(false);
+                    reload.start();
+                    reload.join();
+                }
+            }
+        } catch (IOException | InterruptedException ignore) {
+        }
+
+        // The dev loop has gone away, so we should too
+
+        System.exit(0);
+    }
+
+    private synchronized void reload() {
+        if (stop()) {
+            try {
+                loader.close();
+            } catch (IOException ignore) {
+            }
+            start();
+            respond(RELOADED);
+        } else {
+            respond(RESTART_REQUIRED);
+        }
+    }
+
+    private boolean stop() {
+        final Collection<Thread> hooks = shutdownHooks();
+        if (hooks == null) {
+            return false;
+        }
+        hooks.removeAll(initialHooks);
+        final long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLIS;
+        try {
+            for (Thread hook : hooks) {
+                Runtime.getRuntime().removeShutdownHook(hook);
+                hook.start();
+            }
+            for (Thread hook : hooks) {
+                hook.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+            List<Thread> remaining = applicationThreads();
+            while (hasNonDaemon(remaining) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(STOP_POLL_MILLIS);
+                remaining = applicationThreads();
+            }
+            if (hasNonDaemon(remaining)) {
+                return false;
+            }
+            remaining.forEach(Thread::interrupt);
+            return true;
+        } catch (InterruptedException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private List<Thread> applicationThreads() {
+        final Thread[] threads = new Thread[group.activeCount() * 2 + 1];
+        final int count = group.enumerate(threads, true);
+        final List<Thread> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (threads[i].isAlive()) {
+                result.add(threads[i]);
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasNonDaemon(List<Thread> threads) {
+        for (Thread thread : threads) {
+            if (!thread.isDaemon()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Thread> shutdownHooks() {
+        try {
+            final Class<?> hooksClass = Class.forName(SHUTDOWN_HOOKS_CLASS);
+            final Field field = hooksClass.getDeclaredField(SHUTDOWN_HOOKS_FIELD);
+            field.setAccessible(true);
+            synchronized (hooksClass) {
+                final Map<Thread, Thread> hooks = (Map<Thread, Thread>) field.get(null);
+                return hooks == null ? null : new ArrayList<>(hooks.keySet());
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void respond(String response) {
+        System.out.println(RESPONSE_PREFIX + response);
+        System.out.flush();
+    }
+
+    private static void failed(Throwable error) {
+        System.err.print("Exception in thread \"main\" ");
+        error.printStackTrace();
+        System.exit(1);
+    }
+}
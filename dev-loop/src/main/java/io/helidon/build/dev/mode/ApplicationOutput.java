@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.mode;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.helidon.build.util.Log;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded pipeline that writes application output lines to the console in batches from a single thread, so that
+ * the threads reading the application process output are not slowed by console writes. When the console cannot keep
+ * up, the {@link Overflow} policy decides whether lines are delayed or dropped; the number of each is counted, and
+ * dropped lines are reported as they occur.
+ */
+public final class ApplicationOutput implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 8 * 1024;
+    private static final int MAX_BATCH_LINES = 512;
+    private static final int SAMPLE_INTERVAL = 10;
+    private static final long POLL_MILLIS = 100;
+    private static final long CLOSE_WAIT_MILLIS = 5 * 1000;
+    private static final String EOL = System.lineSeparator();
+
+    /**
+     * The policy applied to a line when the pipeline is full.
+     */
+    public enum Overflow {
+
+        /**
+         * Wait until there is space, which applies backpressure to the application.
+         */
+        Block,
+
+        /**
+         * Drop the oldest pending line to make space.
+         */
+        DropOldest,
+
+        /**
+         * Keep one line in every ten, waiting until there is space for it, and drop the others.
+         */
+        Sample
+    }
+
+    private final BlockingQueue<Line> queue;
+    private final Overflow overflow;
+    private final PrintStream stdOut;
+    private final PrintStream stdErr;
+    private final AtomicLong pending;
+    private final AtomicLong overflowed;
+    private final AtomicLong dropped;
+    private final AtomicLong delayed;
+    private final Thread writer;
+    private long reportedDropped;
+    private volatile boolean closed;
+
+    /**
+     * Returns a new builder.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder.
+     */
+    public static final class Builder {
+        private int capacity;
+        private Overflow overflow;
+        private PrintStream stdOut;
+        private PrintStream stdErr;
+
+        private Builder() {
+            this.capacity = DEFAULT_CAPACITY;
+            this.overflow = Overflow.Block;
+        }
+
+        /**
+         * Sets the maximum number of pending lines. Defaults to 8192.
+         *
+         * @param capacity The capacity.
+         * @return This instance, for chaining.
+         */
+        public Builder capacity(int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the overflow policy. Defaults to {@link Overflow#Block}.
+         *
+         * @param overflow The policy.
+         * @return This instance, for chaining.
+         */
+        public Builder overflow(Overflow overflow) {
+            this.overflow = requireNonNull(overflow);
+            return this;
+        }
+
+        /**
+         * Sets the stream to write standard output lines to. Defaults to {@link System#out}.
+         *
+         * @param stdOut The stream.
+         * @return This instance, for chaining.
+         */
+        public Builder stdOut(PrintStream stdOut) {
+            this.stdOut = requireNonNull(stdOut);
+            return this;
+        }
+
+        /**
+         * Sets the stream to write standard error lines to. Defaults to {@link System#err}.
+         *
+         * @param stdErr The stream.
+         * @return This instance, for chaining.
+         */
+        public Builder stdErr(PrintStream stdErr) {
+            this.stdErr = requireNonNull(stdErr);
+            return this;
+        }
+
+        /**
+         * Returns the started pipeline.
+         *
+         * @return The pipeline.
+         */
+        public ApplicationOutput build() {
+            if (stdOut == null) {
+                stdOut = System.out;
+            }
+            if (stdErr == null) {
+                stdErr = System.err;
+            }
+            return new ApplicationOutput(this);
+        }
+    }
+
+    private ApplicationOutput(Builder builder) {
+        this.queue = new ArrayBlockingQueue<>(builder.capacity);
+        this.overflow = builder.overflow;
+        this.stdOut = builder.stdOut;
+        this.stdErr = builder.stdErr;
+        this.pending = new AtomicLong();
+        this.overflowed = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.delayed = new AtomicLong();
+        this.writer = new Thread(this::write, "dev-loop-output");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Add a standard output line.
+     *
+     * @param line The line.
+     */
+    public void stdOut(String line) {
+        add(new Line(line, false));
+    }
+
+    /**
+     * Add a standard error line.
+     *
+     * @param line The line.
+     */
+    public void stdErr(String line) {
+        add(new Line(line, true));
+    }
+
+    /**
+     * Wait until all pending lines have been written.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit The time unit of the {@code timeout} argument.
+     * @return {@code true} if all lines were written, {@code false} if the wait timed out or was interrupted.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0 || !writer.isAlive()) {
+                    return false;
+                }
+                try {
+                    pending.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of lines dropped because the pipeline was full.
+     *
+     * @return The count.
+     */
+    public long droppedLines() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of lines that had to wait for space because the pipeline was full.
+     *
+     * @return The count.
+     */
+    public long delayedLines() {
+        return delayed.get();
+    }
+
+    /**
+     * Write all pending lines and stop the writer thread. Any lines added afterwards are written directly.
+     */
+    @Override
+    public void close() {
+        flush(CLOSE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        closed = true;
+        try {
+            writer.join(CLOSE_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Write any lines added while stopping
+
+        Line line;
+        while ((line = queue.poll()) != null) {
+            line.stream(this).println(line.text);
+        }
+        if (delayed.get() > 0 || dropped.get() > 0) {
+            Log.debug("Application output: %d lines delayed, %d dropped", delayed.get(), dropped.get());
+        }
+    }
+
+    private void add(Line line) {
+        if (closed) {
+            line.stream(this).println(line.text);
+            return;
+        }
+        pending.incrementAndGet();
+        if (queue.offer(line)) {
+            return;
+        }
+        switch (overflow) {
+            case DropOldest:
+                while (!queue.offer(line)) {
+                    if (queue.poll() != null) {
+                        dropped();
+                    }
+                }
+                break;
+            case Sample:
+                if (overflowed.incrementAndGet() % SAMPLE_INTERVAL == 0) {
+                    put(line);
+                } else {
+                    dropped();
+                }
+                break;
+            default:
+                put(line);
+        }
+    }
+
+    private void put(Line line) {
+        delayed.incrementAndGet();
+        try {
+            queue.put(line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped();
+        }
+    }
+
+    private void dropped() {
+        dropped.incrementAndGet();
+        written(1);
+    }
+
+    private void written(int count) {
+        if (pending.addAndGet(-count) == 0) {
+            synchronized (pending) {
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private void write() {
+        final List<Line> batch = new ArrayList<>(MAX_BATCH_LINES);
+        final StringBuilder chunk = new StringBuilder();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final Line first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH_LINES - 1);
+
+            // Write each run of lines from the same stream as one chunk, so that the order is preserved
+
+            PrintStream stream = batch.get(0).stream(this);
+            for (Line line : batch) {
+                final PrintStream lineStream = line.stream(this);
+                if (lineStream != stream) {
+                    write(stream, chunk);
+                    stream = lineStream;
+                }
+                chunk.append(line.text).append(EOL);
+            }
+            write(stream, chunk);
+            written(batch.size());
+            batch.clear();
+            reportDropped();
+        }
+    }
+
+    private static void write(PrintStream stream, StringBuilder chunk) {
+        stream.print(chunk);
+        stream.flush();
+        chunk.setLength(0);
+    }
+
+    private void reportDropped() {
+        final long count = dropped.get();
+        if (count > reportedDropped) {
+            Log.warn("%d lines of application output dropped", count - reportedDropped);
+            reportedDropped = count;
+        }
+    }
+
+    private static final class Line {
+        private final String text;
+        private final boolean stdErr;
+
+        private Line(String text, boolean stdErr) {
+            this.text = text;
+            this.stdErr = stdErr;
+        }
+
+        private PrintStream stream(ApplicationOutput output) {
+            return stdErr ? output.stdErr : output.stdOut;
+        }
+    }
+}
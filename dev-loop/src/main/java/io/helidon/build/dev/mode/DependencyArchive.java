@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.mode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.build.dev.BuildFile;
+import io.helidon.build.dev.Project;
+import io.helidon.build.util.Constants;
+import io.helidon.build.util.JavaProcessBuilder;
+import io.helidon.build.util.Log;
+import io.helidon.build.util.ProcessMonitor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A Class Data Sharing archive of the classes that the application loads from the project dependencies, so that
+ * application restarts do not parse and verify them again. The first start records the classes that are loaded; once
+ * that application has stopped, the archive is created in the background and is then used by later starts until the
+ * dependencies change.
+ * <p>
+ * An archive is only used if the dependencies are first on the class path, in the same order as when it was created.
+ * Application classes and resources that a dependency also contains are then loaded from the dependency, which is why
+ * the archive is opt-in.
+ */
+public final class DependencyArchive {
+    private static final String JAVA_EXEC = Constants.OS.javaExecutable();
+    private static final String XSHARE_DUMP = "-Xshare:dump";
+    private static final String XSHARE_AUTO = "-Xshare:auto";
+    private static final String DUMP_LOADED_CLASS_LIST = "-XX:DumpLoadedClassList=";
+    private static final String SHARED_CLASS_LIST_FILE = "-XX:SharedClassListFile=";
+    private static final String SHARED_ARCHIVE_FILE = "-XX:SharedArchiveFile=";
+    private static final String CLASS_LIST_FILE_NAME = "dependencies.classlist";
+    private static final String ARCHIVE_FILE_SUFFIX = ".jsa";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final long MAX_DUMP_SECONDS = 5 * 60;
+
+    private final Path directory;
+    private final Path classListFile;
+    private final ExecutorService executor;
+    private String recordedKey;
+    private String recordedClassPath;
+    private String archiveKey;
+    private String failedKey;
+    private CompletableFuture<Void> dump;
+
+    /**
+     * Returns a new instance that keeps its files in a temporary directory.
+     *
+     * @return The instance.
+     * @throws UncheckedIOException If the directory cannot be created.
+     */
+    public static DependencyArchive create() {
+        try {
+            final Path directory = Files.createTempDirectory("helidon-dev-cds");
+            directory.toFile().deleteOnExit();
+            return new DependencyArchive(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a new instance that keeps its files in the given directory.
+     *
+     * @param directory The directory.
+     * @return The instance.
+     */
+    public static DependencyArchive create(Path directory) {
+        return new DependencyArchive(directory);
+    }
+
+    private DependencyArchive(Path directory) {
+        this.directory = requireNonNull(directory);
+        this.classListFile = directory.resolve(CLASS_LIST_FILE_NAME);
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "dev-cds-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the JVM options with which to start the application: either to use the archive if it is ready and
+     * matches the dependencies, or to record the loaded classes so that it can be created.
+     *
+     * @param project The project.
+     * @return The options. Empty if neither is possible yet.
+     */
+    public synchronized List<String> jvmOptions(Project project) {
+        if (project.dependenciesChangedTime().isPresent()) {
+
+            // The project will be updated first
+
+            return emptyList();
+        }
+        final String key = key(project);
+        if (key.equals(archiveKey)) {
+            return List.of(SHARED_ARCHIVE_FILE + archiveFile(key), XSHARE_AUTO);
+        } else if (isDumping() || key.equals(failedKey)) {
+            return emptyList();
+        } else {
+            recordedKey = key;
+            recordedClassPath = String.join(File.pathSeparator, classPath(project));
+            classListFile.toFile().deleteOnExit();
+            return List.of(DUMP_LOADED_CLASS_LIST + classListFile);
+        }
+    }
+
+    /**
+     * Called when the application has stopped, to create the archive from the recorded classes if required.
+     */
+    public synchronized void applicationStopped() {
+        final String key = recordedKey;
+        recordedKey = null;
+        if (key != null && !isDumping() && hasClassList()) {
+            final Path archiveFile = archiveFile(key);
+            final List<String> command = List.of(JAVA_EXEC,
+                                                 XSHARE_DUMP,
+                                                 SHARED_CLASS_LIST_FILE + classListFile,
+                                                 SHARED_ARCHIVE_FILE + archiveFile,
+                                                 "-cp",
+                                                 recordedClassPath);
+            dump = CompletableFuture.runAsync(() -> dump(key, archiveFile, command), executor);
+        }
+    }
+
+    /**
+     * Wait for any archive creation in progress to complete.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit The time unit of the {@code timeout} argument.
+     * @throws Exception If the wait times out or is interrupted.
+     */
+    public void awaitDump(long timeout, TimeUnit unit) throws Exception {
+        final CompletableFuture<Void> current;
+        synchronized (this) {
+            current = dump;
+        }
+        if (current != null) {
+            current.get(timeout, unit);
+        }
+    }
+
+    private void dump(String key, Path archiveFile, List<String> command) {
+        try {
+            archiveFile.toFile().deleteOnExit();
+            ProcessMonitor.builder()
+                          .processBuilder(JavaProcessBuilder.newInstance().directory(directory.toFile()).command(command))
+                          .stdOut(Log::debug)
+                          .stdErr(Log::debug)
+                          .capture(false)
+                          .build()
+                          .execute(MAX_DUMP_SECONDS, TimeUnit.SECONDS);
+            synchronized (this) {
+                final String previousKey = archiveKey;
+                archiveKey = key;
+                if (previousKey != null) {
+                    Files.deleteIfExists(archiveFile(previousKey));
+                }
+            }
+            Log.debug("Created dependency class archive %s", archiveFile);
+        } catch (Exception e) {
+            Log.debug("Could not create dependency class archive: %s", e.getMessage());
+            synchronized (this) {
+                failedKey = key;
+            }
+        }
+    }
+
+    private boolean isDumping() {
+        return dump != null && !dump.isDone();
+    }
+
+    private boolean hasClassList() {
+        try {
+            return Files.isRegularFile(classListFile) && Files.size(classListFile) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path archiveFile(String key) {
+        return directory.resolve(key + ARCHIVE_FILE_SUFFIX);
+    }
+
+    /**
+     * Returns the dependency paths, which must be first on the class path and in this order for the archive to be used.
+     *
+     * @param project The project.
+     * @return The paths.
+     */
+    static List<String> classPath(Project project) {
+        final List<String> paths = new ArrayList<>();
+        for (BuildFile dependency : project.dependencies()) {
+            paths.add(dependency.path().toAbsolutePath().toString());
+        }
+        return paths;
+    }
+
+    private static String key(Project project) {
+        final StringBuilder key = new StringBuilder();
+        for (BuildFile dependency : project.dependencies()) {
+            key.append(dependency.path().toAbsolutePath())
+               .append('@')
+               .append(dependency.lastModifiedTime().toMillis())
+               .append(File.pathSeparatorChar);
+        }
+        try {
+            final StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance(DIGEST_ALGORITHM).digest(key.toString().getBytes(UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
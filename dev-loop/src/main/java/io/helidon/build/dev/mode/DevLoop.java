@@ -22,9 +22,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import io.helidon.build.dev.BuildComponent;
 import io.helidon.build.dev.BuildExecutor;
 import io.helidon.build.dev.BuildLoop;
 import io.helidon.build.dev.BuildMonitor;
+import io.helidon.build.dev.BuildStep;
 import io.helidon.build.dev.BuildType;
 import io.helidon.build.dev.ChangeType;
 import io.helidon.build.dev.Project;
@@ -84,8 +86,65 @@ public class DevLoop {
                    List<String> appJvmArgs,
                    List<String> appArgs,
                    DevLoopBuildConfig config) {
+        this(rootDir, projectSupplier, initialClean, forkBuilds, terminalMode, appJvmArgs, appArgs, false, config);
+    }
+
+    /**
+     * Create a dev loop.
+     *
+     * @param rootDir Project's root.
+     * @param projectSupplier Project supplier.
+     * @param initialClean Clean flag.
+     * @param forkBuilds {@code true} if builds should be forked.
+     * @param terminalMode {@code true} for terminal output.
+     * @param appJvmArgs The application JVM arguments.
+     * @param appArgs The application arguments.
+     * @param appReload {@code true} if the application classes should be reloaded after a source change rather than
+     * restarting the application JVM.
+     * @param config The build config.
+     */
+    public DevLoop(Path rootDir,
+                   ProjectSupplier projectSupplier,
+                   boolean initialClean,
+                   boolean forkBuilds,
+                   boolean terminalMode,
+                   List<String> appJvmArgs,
+                   List<String> appArgs,
+                   boolean appReload,
+                   DevLoopBuildConfig config) {
+        this(rootDir, projectSupplier, initialClean, forkBuilds, terminalMode, appJvmArgs, appArgs, appReload, false, config);
+    }
+
+    /**
+     * Create a dev loop.
+     *
+     * @param rootDir Project's root.
+     * @param projectSupplier Project supplier.
+     * @param initialClean Clean flag.
+     * @param forkBuilds {@code true} if builds should be forked.
+     * @param terminalMode {@code true} for terminal output.
+     * @param appJvmArgs The application JVM arguments.
+     * @param appArgs The application arguments.
+     * @param appReload {@code true} if the application classes should be reloaded after a source change rather than
+     * restarting the application JVM.
+     * @param appCds {@code true} if a class data sharing archive of the dependency classes should be created after the
+     * first run of the application and used by later runs, placing the dependencies before the application directories on
+     * the class path.
+     * @param config The build config.
+     */
+    public DevLoop(Path rootDir,
+                   ProjectSupplier projectSupplier,
+                   boolean initialClean,
+                   boolean forkBuilds,
+                   boolean terminalMode,
+                   List<String> appJvmArgs,
+                   List<String> appArgs,
+                   boolean appReload,
+                   boolean appCds,
+                   DevLoopBuildConfig config) {
         this.terminalMode = terminalMode;
-        this.monitor = new DevLoopMonitor(terminalMode, projectSupplier.buildFileName(), appJvmArgs, appArgs, config);
+        this.monitor = new DevLoopMonitor(terminalMode, projectSupplier.buildFileName(), appJvmArgs, appArgs, appReload,
+                                          appCds ? DependencyArchive.create() : null, config);
         this.buildExecutor = forkBuilds ? new ForkedMavenExecutor(rootDir, monitor, MAX_BUILD_WAIT_SECONDS)
                 : new EmbeddedMavenExecutor(rootDir, monitor);
         this.initialClean = initialClean;
@@ -117,6 +176,9 @@ public class DevLoop {
         private long buildStartTime;
         private final List<String> appJvmArgs;
         private final List<String> appArgs;
+        private final boolean appReload;
+        private final DependencyArchive archive;
+        private boolean reloadPending;
         private final AtomicInteger remainingFullBuildFailures;
         private final AtomicInteger remainingIncrementalBuildFailures;
         private final AtomicInteger remainingApplicationFailures;
@@ -125,11 +187,15 @@ public class DevLoop {
                                String buildFileName,
                                List<String> appJvmArgs,
                                List<String> appArgs,
+                               boolean appReload,
+                               DependencyArchive archive,
                                DevLoopBuildConfig config) {
             this.terminalMode = terminalMode;
             this.buildFileName = buildFileName;
             this.appJvmArgs = appJvmArgs;
             this.appArgs = appArgs;
+            this.appReload = appReload;
+            this.archive = archive;
             this.remainingFullBuildFailures = new AtomicInteger(config.fullBuild().maxBuildFailures());
             this.remainingIncrementalBuildFailures = new AtomicInteger(config.incrementalBuild().maxBuildFailures());
             this.remainingApplicationFailures = new AtomicInteger(config.maxApplicationFailures());
@@ -165,7 +231,15 @@ public class DevLoop {
             header();
             log("%s", BoldBlue.apply(type + " " + DEV_LOOP_PROJECT_CHANGED));
             lastChangeType = type;
-            ensureStop();
+            if (appReload && projectExecutor != null
+                && (type == ChangeType.SourceFile || type == ChangeType.BinaryFile)) {
+
+                // Keep the application running until the build completes, then reload it
+
+                reloadPending = true;
+            } else {
+                ensureStop();
+            }
         }
 
         @Override
@@ -183,6 +257,11 @@ public class DevLoop {
             }
         }
 
+        @Override
+        public void onBuildStepCompleted(int cycleNumber, BuildComponent component, BuildStep step, long elapsedMillis) {
+            Log.debug("%s completed for %s in %d ms", step.name(), component.sourceRoot().path(), elapsedMillis);
+        }
+
         @Override
         public void onBuildSuccess(int cycleNumber, BuildType type) {
             if (type != BuildType.Skipped) {
@@ -235,8 +314,15 @@ public class DevLoop {
 
         @Override
         public long onReady(int cycleNumber, Project project) {
+            if (reloadPending) {
+                reloadPending = false;
+                if (projectExecutor != null && (projectExecutor.project() != project || !projectExecutor.reload())) {
+                    ensureStop();
+                }
+            }
             if (projectExecutor == null) {
-                projectExecutor = new ProjectExecutor(project, terminalMode ? LOG_PREFIX : null, appJvmArgs, appArgs);
+                projectExecutor = new ProjectExecutor(project, terminalMode ? LOG_PREFIX : null, appJvmArgs, appArgs,
+                                                      appReload, archive);
                 projectExecutor.start();
             }
             return ON_READY_DELAY;
@@ -274,6 +360,7 @@ public class DevLoop {
         }
 
         private void ensureStop() {
+            reloadPending = false;
             if (projectExecutor != null) {
                 final ProjectExecutor executor = projectExecutor;
                 projectExecutor = null;
@@ -292,6 +379,7 @@ public class DevLoop {
                         .buildExecutor(executor)
                         .clean(initialClean)
                         .watchBinariesOnly(watchBinariesOnly)
+                        .fileEvents(true)
                         .projectSupplier(projectSupplier)
                         .build();
     }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.mode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches lines containing any of a set of fragments in a single pass, using an Aho-Corasick automaton compiled to a
+ * transition table so that each character costs one lookup regardless of the number of fragments.
+ */
+final class FragmentMatcher {
+    private static final int ASCII_SIZE = 128;
+    private static final int ROOT = 0;
+    private static final int UNKNOWN_SYMBOL = 0;
+
+    private final int[] asciiSymbols;
+    private final Map<Character, Integer> otherSymbols;
+    private final int width;
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    /**
+     * Returns a new matcher.
+     *
+     * @param fragments The fragments.
+     * @return The matcher.
+     * @throws IllegalArgumentException If any fragment is empty.
+     */
+    static FragmentMatcher create(Collection<String> fragments) {
+        return new FragmentMatcher(fragments);
+    }
+
+    private FragmentMatcher(Collection<String> fragments) {
+        this.asciiSymbols = new int[ASCII_SIZE];
+        this.otherSymbols = new HashMap<>();
+        int symbolCount = 0;
+        for (String fragment : fragments) {
+            if (fragment.isEmpty()) {
+                throw new IllegalArgumentException("empty fragment");
+            }
+            for (int i = 0; i < fragment.length(); i++) {
+                final char c = fragment.charAt(i);
+                if (symbol(c) == UNKNOWN_SYMBOL) {
+                    symbolCount++;
+                    if (c < ASCII_SIZE) {
+                        asciiSymbols[c] = symbolCount;
+                    } else {
+                        otherSymbols.put(c, symbolCount);
+                    }
+                }
+            }
+        }
+        this.width = symbolCount + 1;
+
+        // Build the trie
+
+        final List<int[]> next = new ArrayList<>();
+        final List<Boolean> terminal = new ArrayList<>();
+        next.add(new int[width]);
+        terminal.add(false);
+        for (String fragment : fragments) {
+            int state = ROOT;
+            for (int i = 0; i < fragment.length(); i++) {
+                final int symbol = symbol(fragment.charAt(i));
+                if (next.get(state)[symbol] == ROOT) {
+                    next.add(new int[width]);
+                    terminal.add(false);
+                    next.get(state)[symbol] = next.size() - 1;
+                }
+                state = next.get(state)[symbol];
+            }
+            terminal.set(state, true);
+        }
+
+        // Add the failure transitions breadth first, so that each state's failure state is already complete
+
+        final int[] failure = new int[next.size()];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 1; symbol < width; symbol++) {
+            final int state = next.get(ROOT)[symbol];
+            if (state != ROOT) {
+                queue.add(state);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.remove();
+            final int[] row = next.get(state);
+            final int[] failureRow = next.get(failure[state]);
+            terminal.set(state, terminal.get(state) || terminal.get(failure[state]));
+            for (int symbol = 1; symbol < width; symbol++) {
+                if (row[symbol] == ROOT) {
+                    row[symbol] = failureRow[symbol];
+                } else {
+                    failure[row[symbol]] = failureRow[symbol];
+                    queue.add(row[symbol]);
+                }
+            }
+        }
+
+        this.transitions = new int[next.size() * width];
+        this.accepting = new boolean[next.size()];
+        for (int state = 0; state < next.size(); state++) {
+            System.arraycopy(next.get(state), 0, transitions, state * width, width);
+            accepting[state] = terminal.get(state);
+        }
+    }
+
+    /**
+     * Returns whether or not the given line contains any fragment.
+     *
+     * @param line The line.
+     * @return {@code true} if any fragment was found.
+     */
+    boolean matches(CharSequence line) {
+        int state = ROOT;
+        for (int i = 0; i < line.length(); i++) {
+            state = transitions[state * width + symbol(line.charAt(i))];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int symbol(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiSymbols[c];
+        }
+        return otherSymbols.getOrDefault(c, UNKNOWN_SYMBOL);
+    }
+}
@@ -17,11 +17,23 @@
 package io.helidon.build.dev.mode;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import io.helidon.build.dev.BuildComponent;
+import io.helidon.build.dev.BuildFile;
+import io.helidon.build.dev.DirectoryType;
 import io.helidon.build.dev.Project;
 import io.helidon.build.util.Constants;
 import io.helidon.build.util.JavaProcessBuilder;
@@ -48,23 +60,32 @@ public class ProjectExecutor {
     private static final String JAVA_EXEC = Constants.OS.javaExecutable();
     private static final String JIT_LEVEL_ONE = "-XX:TieredStopAtLevel=1";
     private static final String JIT_TWO_COMPILER_THREADS = "-XX:CICompilerCount=2";
+    private static final String OPEN_JAVA_LANG = "--add-opens=java.base/java.lang=ALL-UNNAMED";
+    private static final String LAUNCHER_CLASS_FILE = AppLauncher.class.getName().replace('.', '/') + ".class";
+    private static final long RELOAD_WAIT_SECONDS = 10L;
     private static final String STARTING = BoldBrightGreen.apply(DEV_LOOP_APPLICATION_STARTING);
     private static final String STOPPING = BoldYellow.apply(DEV_LOOP_APPLICATION_STOPPING);
     private static final String STOPPED = BoldBrightRed.apply(DEV_LOOP_APPLICATION_STOPPED);
     private static final long ERROR_MESSAGES_DONE_NANOS = 100 * 1000;
-    private static final List<String> EXIT_MESSAGE_FRAGMENTS = List.of(
+    private static final FragmentMatcher EXIT_MESSAGE_MATCHER = FragmentMatcher.create(List.of(
             "JDWP exit error",
             "BindException: Address already in use",
             "--enable-preview"
-    );
+    ));
+
+    private static Path launcherDirectory;
 
     private final Project project;
     private final String logPrefix;
     private final String name;
     private ProcessMonitor processMonitor;
+    private ApplicationOutput output;
     private long pid;
     private final List<String> appJvmArgs;
     private final List<String> appArgs;
+    private final boolean reload;
+    private final DependencyArchive archive;
+    private volatile CompletableFuture<String> reloadResponse;
     private boolean hasExitMessage;
     private long lastErrorMessageTime;
 
@@ -80,11 +101,51 @@ public class ProjectExecutor {
                            String logPrefix,
                            List<String> appJvmArgs,
                            List<String> appArgs) {
+        this(project, logPrefix, appJvmArgs, appArgs, false);
+    }
+
+    /**
+     * Create an executor from a project.
+     *
+     * @param project The project.
+     * @param logPrefix The log prefix.
+     * @param appJvmArgs The application JVM arguments.
+     * @param appArgs The application arguments.
+     * @param reload {@code true} if the application should be run by an {@link AppLauncher} so that it can be reloaded
+     * without restarting the JVM.
+     */
+    public ProjectExecutor(Project project,
+                           String logPrefix,
+                           List<String> appJvmArgs,
+                           List<String> appArgs,
+                           boolean reload) {
+        this(project, logPrefix, appJvmArgs, appArgs, reload, null);
+    }
+
+    /**
+     * Create an executor from a project.
+     *
+     * @param project The project.
+     * @param logPrefix The log prefix.
+     * @param appJvmArgs The application JVM arguments.
+     * @param appArgs The application arguments.
+     * @param reload {@code true} if the application should be run by an {@link AppLauncher} so that it can be reloaded
+     * without restarting the JVM.
+     * @param archive The archive of the dependency classes to use or create, or {@code null} if none.
+     */
+    public ProjectExecutor(Project project,
+                           String logPrefix,
+                           List<String> appJvmArgs,
+                           List<String> appArgs,
+                           boolean reload,
+                           DependencyArchive archive) {
         this.project = project;
         this.logPrefix = logPrefix;
         this.name = BoldBrightCyan.apply(project.name());
         this.appJvmArgs = appJvmArgs;
         this.appArgs = appArgs;
+        this.reload = reload;
+        this.archive = archive;
     }
 
     /**
@@ -104,14 +165,58 @@ public class ProjectExecutor {
         command.add(JAVA_EXEC);
         command.add(JIT_LEVEL_ONE);             // Faster startup but longer warmup to peak perf
         command.add(JIT_TWO_COMPILER_THREADS);  // Faster startup but longer warmup to peak perf
-        command.add("-cp");
-        command.add(classPathString());
-        command.addAll(appJvmArgs);
-        command.add(project.mainClassName());
+        if (archive != null) {
+            command.addAll(archive.jvmOptions(project));
+        }
+        if (reload) {
+            command.add(OPEN_JAVA_LANG);        // Required by the launcher to find application shutdown hooks
+            command.add("-cp");
+            command.add(launcherClassPathString());
+            command.addAll(appJvmArgs);
+            command.add(AppLauncher.class.getName());
+            command.add(project.mainClassName());
+            command.add(applicationClassPathString());
+        } else {
+            command.add("-cp");
+            command.add(classPathString());
+            command.addAll(appJvmArgs);
+            command.add(project.mainClassName());
+        }
         command.addAll(appArgs);
         start(command);
     }
 
+    /**
+     * Reload the application classes without restarting the JVM, if possible.
+     *
+     * @return {@code true} if reloaded, {@code false} if the application must be restarted.
+     */
+    public boolean reload() {
+        if (!reload || !isRunning()) {
+            return false;
+        }
+        final CompletableFuture<String> response = new CompletableFuture<>();
+        reloadResponse = response;
+        lastErrorMessageTime = 0;
+        try {
+            stateChanged(STARTING);
+            Log.info();
+            final OutputStream input = processMonitor.processInput();
+            input.write((AppLauncher.RELOAD_COMMAND + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            input.flush();
+            final String result = response.get(RELOAD_WAIT_SECONDS, TimeUnit.SECONDS);
+            if (result.equals(AppLauncher.RELOADED)) {
+                return true;
+            }
+            Log.debug("%s cannot be stopped in process, restarting", project.name());
+        } catch (Exception e) {
+            Log.debug("Reload failed: %s", e.toString());
+        } finally {
+            reloadResponse = null;
+        }
+        return false;
+    }
+
     /**
      * Stop execution. Logs stopping message only if process does not stop quickly.
      *
@@ -161,6 +266,10 @@ public class ProjectExecutor {
                 }
             } finally {
                 processMonitor = null;
+                output.close();
+                if (archive != null) {
+                    archive.applicationStopped();
+                }
             }
             if (verbose) {
                 stateChanged(STOPPED);
@@ -221,37 +330,112 @@ public class ProjectExecutor {
         try {
             stateChanged(STARTING);
             Log.info();
+            this.output = ApplicationOutput.builder().build();
             this.processMonitor = ProcessMonitor.builder()
                                                 .processBuilder(processBuilder)
                                                 .stdOut(this::printStdOut)
                                                 .stdErr(this::printStdErr)
-                                                .capture(true)
+                                                .capture(false)
                                                 .build()
                                                 .start();
             this.pid = processMonitor.toHandle().pid();
         } catch (Exception e) {
+            output.close();
             throw new IllegalStateException(e);
         }
     }
 
     private void printStdOut(String line) {
-        System.out.println(line);
+        if (reload && line.startsWith(AppLauncher.RESPONSE_PREFIX)) {
+            final CompletableFuture<String> response = reloadResponse;
+            if (response != null) {
+                response.complete(line.substring(AppLauncher.RESPONSE_PREFIX.length()));
+            }
+        } else {
+            output.stdOut(line);
+        }
     }
 
     private void printStdErr(String line) {
         lastErrorMessageTime = System.nanoTime();
-        for (String exitMessageFragment : EXIT_MESSAGE_FRAGMENTS) {
-            if (line.contains(exitMessageFragment)) {
-                hasExitMessage = true;
-                break;
-            }
+        if (EXIT_MESSAGE_MATCHER.matches(line)) {
+            hasExitMessage = true;
         }
-        System.err.println(line);
+        output.stdErr(line);
     }
 
     private String classPathString() {
         List<String> paths = project.classpath().stream()
                                     .map(File::getAbsolutePath).collect(Collectors.toList());
+        if (archive != null) {
+
+            // Dependencies first, as the archive requires; see DependencyArchive
+
+            final Set<String> ordered = new LinkedHashSet<>(DependencyArchive.classPath(project));
+            ordered.addAll(paths);
+            return String.join(File.pathSeparator, ordered);
+        }
         return paths.stream().reduce("", (s1, s2) -> s1 + File.pathSeparator + s2);
     }
+
+    private String launcherClassPathString() {
+        final List<String> paths = new ArrayList<>();
+        if (archive == null) {
+            paths.add(launcherDirectory().toString());
+        }
+        for (BuildFile dependency : project.dependencies()) {
+            paths.add(dependency.path().toAbsolutePath().toString());
+        }
+        if (archive != null) {
+
+            // After the dependencies, as the archive requires; see DependencyArchive
+
+            paths.add(launcherDirectory().toString());
+        }
+        return String.join(File.pathSeparator, paths);
+    }
+
+    private String applicationClassPathString() {
+        final Set<String> paths = new LinkedHashSet<>();
+        for (BuildComponent component : project.components()) {
+            if (component.outputRoot().buildType().directoryType() == DirectoryType.JavaClasses) {
+                paths.add(component.outputRoot().path().toAbsolutePath().toString());
+            }
+        }
+        return String.join(File.pathSeparator, paths);
+    }
+
+    /**
+     * Returns a directory containing only the launcher class, so that nothing else from the dev loop is visible to the
+     * application.
+     *
+     * @return The directory.
+     */
+    private static synchronized Path launcherDirectory() {
+        if (launcherDirectory == null) {
+            try {
+                final Path directory = Files.createTempDirectory("helidon-dev-launcher");
+                final Path classFile = directory.resolve(LAUNCHER_CLASS_FILE);
+                Files.createDirectories(classFile.getParent());
+                try (InputStream in = ProjectExecutor.class.getClassLoader().getResourceAsStream(LAUNCHER_CLASS_FILE)) {
+                    if (in == null) {
+                        throw new IllegalStateException(LAUNCHER_CLASS_FILE + " not found");
+                    }
+                    Files.copy(in, classFile);
+                }
+
+                // Files are deleted on exit in reverse order of registration, so register the parents first
+
+                final Path relativePath = directory.relativize(classFile);
+                directory.toFile().deleteOnExit();
+                for (int i = 1; i <= relativePath.getNameCount(); i++) {
+                    directory.resolve(relativePath.subpath(0, i)).toFile().deleteOnExit();
+                }
+                launcherDirectory = directory;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return launcherDirectory;
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.util;
+
+import java.io.PrintStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@code PrintStream} that writes to a stream set for the current thread, or to the original stream if none is set.
+ * Installed as {@code System.out} and {@code System.err}, it allows output to be captured per thread rather than by
+ * replacing the system streams for all threads.
+ */
+public final class ThreadLocalPrintStream extends PrintStream {
+    private final PrintStream original;
+    private final ThreadLocal<PrintStream> stream;
+
+    /**
+     * Returns the stream installed as {@code System.out}, installing it if required.
+     *
+     * @return The stream.
+     */
+    public static synchronized ThreadLocalPrintStream systemOut() {
+        if (System.out instanceof ThreadLocalPrintStream) {
+            return (ThreadLocalPrintStream) System.out;
+        }
+        final ThreadLocalPrintStream result = new ThreadLocalPrintStream(System.out);
+        System.setOut(result);
+        return result;
+    }
+
+    /**
+     * Returns the stream installed as {@code System.err}, installing it if required.
+     *
+     * @return The stream.
+     */
+    public static synchronized ThreadLocalPrintStream systemErr() {
+        if (System.err instanceof ThreadLocalPrintStream) {
+            return (ThreadLocalPrintStream) System.err;
+        }
+        final ThreadLocalPrintStream result = new ThreadLocalPrintStream(System.err);
+        System.setErr(result);
+        return result;
+    }
+
+    private ThreadLocalPrintStream(PrintStream original) {
+        super(original, true);
+        this.original = original;
+        this.stream = new ThreadLocal<>();
+    }
+
+    /**
+     * Redirects output written by the current thread to the given stream.
+     *
+     * @param stream The stream.
+     */
+    public void redirect(PrintStream stream) {
+        this.stream.set(requireNonNull(stream));
+    }
+
+    /**
+     * Restores output written by the current thread to the original stream.
+     */
+    public void restore() {
+        final PrintStream current = stream.get();
+        if (current != null) {
+            current.flush();
+            stream.remove();
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        current().write(b);
+    }
+
+    @Override
+    @SuppressWarnings("NullableProblems")
+    public void write(byte[] bytes, int offset, int length) {
+        current().write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() {
+        current().flush();
+    }
+
+    private PrintStream current() {
+        final PrintStream current = stream.get();
+        return current == null ? original : current;
+    }
+}
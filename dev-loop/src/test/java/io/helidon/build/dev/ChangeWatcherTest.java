@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import io.helidon.build.util.FileUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit test for class {@link ChangeWatcher}.
+ */
+class ChangeWatcherTest {
+    private static final long MAX_WAIT_MILLIS = 10000;
+
+    private ChangeWatcher watcher;
+    private BuildRoot sourceDir;
+    private Path existing;
+    private Path other;
+
+    @BeforeEach
+    void setUp(@TempDir Path directory) {
+        final Optional<ChangeWatcher> watcher = ChangeWatcher.createChangeWatcher(10, 250);
+        assumeTrue(watcher.isPresent(), "native file change events not supported");
+        this.watcher = watcher.get();
+        final Path packageDir = FileUtils.ensureDirectory(directory.resolve("com/acme"));
+        existing = FileUtils.ensureFile(packageDir.resolve("Existing.java"));
+        other = FileUtils.ensureFile(packageDir.resolve("Other.java"));
+        sourceDir = BuildRoot.createBuildRoot(BuildRootType.javaSources(), directory);
+        this.watcher.watch(sourceDir);
+        assertThat(sourceDir.isWatched(), is(true));
+        assertThat(sourceDir.changes().isEmpty(), is(true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    private BuildRoot.Changes awaitChanges(int expectedSize) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+        BuildRoot.Changes changes = sourceDir.changes();
+        while (changes.size() < expectedSize && System.currentTimeMillis() < deadline) {
+            watcher.await(100);
+            changes = sourceDir.changes();
+        }
+        return changes;
+    }
+
+    @Test
+    void testFileChangeDetected() throws Exception {
+        FileUtils.touch(existing);
+        final BuildRoot.Changes changes = awaitChanges(1);
+        assertThat(changes.size(), is(1));
+        assertThat(changes.modified().contains(existing), is(true));
+
+        // Changes must be reported until updated
+
+        assertThat(sourceDir.changes().size(), is(1));
+        sourceDir.update();
+        assertThat(sourceDir.changes().isEmpty(), is(true));
+    }
+
+    @Test
+    void testFileRemovedDetected() throws Exception {
+        FileUtils.delete(existing);
+        final BuildRoot.Changes changes = awaitChanges(1);
+        assertThat(changes.size(), is(1));
+        assertThat(changes.removed().contains(existing), is(true));
+
+        sourceDir.update();
+        assertThat(sourceDir.changes().isEmpty(), is(true));
+        assertThat(sourceDir.list().size(), is(1));
+    }
+
+    @Test
+    void testFileInNewDirectoryDetected() throws Exception {
+        final Path newPackageDir = FileUtils.ensureDirectory(sourceDir.path().resolve("foo/bar"));
+        final Path added = FileUtils.ensureFile(newPackageDir.resolve("FooSource.java"));
+        final BuildRoot.Changes changes = awaitChanges(1);
+        assertThat(changes.size(), is(1));
+        assertThat(changes.added().contains(added), is(true));
+
+        sourceDir.update();
+        assertThat(sourceDir.changes().isEmpty(), is(true));
+        assertThat(sourceDir.list().size(), is(3));
+
+        // Files in the new directory must now be watched too
+
+        FileUtils.touch(added);
+        assertThat(awaitChanges(1).modified().contains(added), is(true));
+    }
+
+    @Test
+    void testDirectoryRemovedDetected() throws Exception {
+        FileUtils.deleteDirectory(existing.getParent());
+        final BuildRoot.Changes changes = awaitChanges(2);
+        assertThat(changes.size(), is(2));
+        assertThat(changes.removed().contains(existing), is(true));
+        assertThat(changes.removed().contains(other), is(true));
+
+        sourceDir.update();
+        assertThat(sourceDir.changes().isEmpty(), is(true));
+        assertThat(sourceDir.list().isEmpty(), is(true));
+    }
+
+    @Test
+    void testOverflowFallsBackToPolling() throws IOException {
+        sourceDir.overflowed();
+        assertThat(sourceDir.isWatched(), is(false));
+        final Path added = FileUtils.ensureFile(existing.getParent().resolve("Added.java"));
+
+        // Polling finds the change without waiting for any event
+
+        final BuildRoot.Changes changes = sourceDir.changes();
+        assertThat(changes.added().contains(added), is(true));
+
+        sourceDir.update();
+        assertThat(sourceDir.isWatched(), is(true));
+        assertThat(sourceDir.list().size(), is(3));
+    }
+}
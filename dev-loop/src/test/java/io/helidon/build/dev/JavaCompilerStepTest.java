@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import io.helidon.build.util.FileUtils;
+import io.helidon.build.util.ProjectConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.helidon.build.dev.BuildComponent.createBuildComponent;
+import static io.helidon.build.dev.BuildFile.createBuildFile;
+import static io.helidon.build.dev.BuildRoot.createBuildRoot;
+import static io.helidon.build.dev.ProjectDirectory.createProjectDirectory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for class {@link JavaCompilerStep}.
+ */
+class JavaCompilerStepTest {
+
+    private Path sourceDir;
+    private Path classesDir;
+    private BuildRoot sources;
+    private JavaCompilerStep step;
+    private List<String> stdOut;
+    private List<String> stdErr;
+
+    @BeforeEach
+    void setUp(@TempDir Path projectDir) throws Exception {
+        sourceDir = FileUtils.ensureDirectory(projectDir.resolve("src/main/java"));
+        classesDir = FileUtils.ensureDirectory(projectDir.resolve("target/classes"));
+        FileUtils.ensureFile(projectDir.resolve(ProjectConfig.DOT_HELIDON));
+        write("Base", "public class Base { public int value() { return 1; } }");
+        write("Derived", "public class Derived extends Base { }");
+        write("User", "public class User { int use() { return new Derived().value(); } }");
+        write("Other", "public class Other { }");
+        write("Constants", "public class Constants { public static final int MAX = 10; }");
+        write("ConstantUser", "public class ConstantUser { int max() { return Constants.MAX; } }");
+
+        // Compile everything, as the full build would
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final List<String> args = new ArrayList<>(List.of("-d", classesDir.toString()));
+        try (var stream = Files.walk(sourceDir)) {
+            stream.filter(Files::isRegularFile).forEach(file -> args.add(file.toString()));
+        }
+        assertThat(compiler.run(null, null, null, args.toArray(new String[0])), is(0));
+
+        step = JavaCompilerStep.create(List.of(), StandardCharsets.UTF_8);
+        sources = createBuildRoot(BuildRootType.javaSources(), sourceDir);
+        final BuildRoot classes = createBuildRoot(BuildRootType.javaClasses(), classesDir);
+        final ProjectDirectory root = createProjectDirectory(DirectoryType.Project, projectDir);
+        Project.builder()
+               .buildType(BuildType.Incremental)
+               .rootDirectory(root)
+               .buildFile(createBuildFile(root, FileUtils.ensureFile(projectDir.resolve("pom.xml"))))
+               .dependency(FileUtils.ensureDirectory(projectDir.resolve("target/libs")))
+               .mainClassName("com.acme.Other")
+               .component(createBuildComponent(sources, classes, step))
+               .build();
+        stdOut = new ArrayList<>();
+        stdErr = new ArrayList<>();
+    }
+
+    @Test
+    void testDependentsRecompiled() throws Exception {
+        write("Base", "public class Base { public int value() { return 2; } }");
+        build();
+        assertThat(stdOut, contains("Compiling 3 source files"));
+        assertThat(stdErr.isEmpty(), is(true));
+        assertThat(Files.exists(classFile("Base")), is(true));
+        assertThat(Files.exists(classFile("User")), is(true));
+    }
+
+    @Test
+    void testUnrelatedNotRecompiled() throws Exception {
+        write("Other", "public class Other { int other() { return 1; } }");
+        build();
+        assertThat(stdOut, contains("Compiling 1 source file"));
+    }
+
+    @Test
+    void testConstantChangeRecompilesAll() throws Exception {
+        write("Constants", "public class Constants { public static final int MAX = 20; }");
+        build();
+        assertThat(stdOut, contains("Compiling 6 source files"));
+    }
+
+    @Test
+    void testRemovedSourceClassesDeleted() throws Exception {
+        Files.delete(source("Other"));
+        build();
+        assertThat(stdOut.isEmpty(), is(true));
+        assertThat(Files.exists(classFile("Other")), is(false));
+    }
+
+    @Test
+    void testFailedSourcesRecompiledWithNextChange() throws Exception {
+        write("Base", "public class Base { public int count() { return 1; } }");
+        assertThrows(Exception.class, this::build);
+        assertThat(stdErr.isEmpty(), is(false));
+
+        // The build loop updates the project after a failure, so only the fix will be reported as a change
+
+        sources.update();
+        write("User", "public class User { int use() { return new Derived().count(); } }");
+        stdOut.clear();
+        build();
+        assertThat(stdOut, contains("Compiling 3 source files"));
+        assertThat(Files.exists(classFile("Base")), is(true));
+        assertThat(Files.exists(classFile("Derived")), is(true));
+        assertThat(Files.exists(classFile("User")), is(true));
+    }
+
+    private void build() throws Exception {
+        step.incrementalBuild(sources.changes(), stdOut::add, stdErr::add);
+    }
+
+    private Path source(String className) {
+        return sourceDir.resolve("com/acme/" + className + ".java");
+    }
+
+    private Path classFile(String className) {
+        return classesDir.resolve("com/acme/" + className + ".class");
+    }
+
+    private void write(String className, String body) throws IOException {
+        final Path file = source(className);
+        final FileTime previous = Files.exists(file) ? Files.getLastModifiedTime(file) : null;
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "package com.acme;\n" + body + "\n");
+        if (previous != null) {
+
+            // Ensure the change is detected even if the file system has a coarse timestamp resolution
+
+            Files.setLastModifiedTime(file, FileTime.fromMillis(previous.toMillis() + 1000));
+        }
+    }
+}
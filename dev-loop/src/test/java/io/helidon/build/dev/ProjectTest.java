@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.build.util.FileUtils;
+import io.helidon.build.util.ProjectConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.helidon.build.dev.BuildComponent.createBuildComponent;
+import static io.helidon.build.dev.BuildFile.createBuildFile;
+import static io.helidon.build.dev.BuildModule.createBuildModule;
+import static io.helidon.build.dev.BuildRoot.createBuildRoot;
+import static io.helidon.build.dev.ProjectDirectory.createProjectDirectory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for class {@link Project}.
+ */
+class ProjectTest {
+
+    private Path projectDir;
+    private List<String> built;
+    private Map<String, Integer> changeCounts;
+
+    @BeforeEach
+    void setUp(@TempDir Path projectDir) throws Exception {
+        this.projectDir = projectDir;
+        FileUtils.ensureFile(projectDir.resolve(ProjectConfig.DOT_HELIDON));
+        built = Collections.synchronizedList(new ArrayList<>());
+        changeCounts = new ConcurrentHashMap<>();
+    }
+
+    @Test
+    void testChangedModuleAndDependentsBuilt() throws Exception {
+        final Project project = project(module("a"), module("b", "a"), module("c", "b"), module("d"));
+        Files.writeString(source("a", "A"), "changed");
+        project.incrementalBuild(project.sourceChanges(), line -> {}, line -> {});
+
+        assertThat(built, containsInAnyOrder("a", "b", "c"));
+        assertThat(built.indexOf("a"), is(lessThan(built.indexOf("b"))));
+        assertThat(built.indexOf("b"), is(lessThan(built.indexOf("c"))));
+
+        // Dependents are rebuilt for all files
+
+        assertThat(changeCounts.get("a"), is(1));
+        assertThat(changeCounts.get("b"), is(2));
+        assertThat(changeCounts.get("c"), is(2));
+    }
+
+    @Test
+    void testIndependentModuleBuiltAlone() throws Exception {
+        final Project project = project(module("a"), module("b", "a"), module("c"));
+        Files.writeString(source("c", "C"), "changed");
+        project.incrementalBuild(project.sourceChanges(), line -> {}, line -> {});
+
+        assertThat(built, contains("c"));
+    }
+
+    @Test
+    void testIndependentComponentsBuiltInParallel() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final List<String> output = Collections.synchronizedList(new ArrayList<>());
+        final List<BuildStep> completed = new ArrayList<>();
+        final Project.Builder builder = builder();
+        final Path resourceFile = component(builder, BuildRootType.resources(), "resources", "file.txt", barrier, output);
+        final Path javaFile = component(builder, BuildRootType.javaSources(), "java", "File.java", barrier, output);
+        final Project project = builder.build();
+        Files.writeString(javaFile, "changed");
+        Files.writeString(resourceFile, "changed");
+        project.incrementalBuild(project.sourceChanges(), output::add, output::add,
+                                 (component, step, elapsedMillis) -> completed.add(step));
+
+        assertThat(output, containsInAnyOrder("resources started", "resources built", "java started", "java built"));
+        assertThat(completed.size(), is(2));
+    }
+
+    @Test
+    void testCustomComponentsBuiltAfterOthers() throws Exception {
+        final List<String> output = Collections.synchronizedList(new ArrayList<>());
+        final Project.Builder builder = builder();
+        final BuildRootType customType = BuildRootType.create(DirectoryType.Custom, (path, root) -> true);
+        final Path customFile = component(builder, customType, "custom", "file.txt", null, output);
+        final Path javaFile = component(builder, BuildRootType.javaSources(), "java", "File.java", null, output);
+        final Project project = builder.build();
+        Files.writeString(customFile, "changed");
+        Files.writeString(javaFile, "changed");
+        project.incrementalBuild(project.sourceChanges(), output::add, output::add);
+
+        assertThat(output, contains("java started", "java built", "custom started", "custom built"));
+    }
+
+    @Test
+    void testIndependentModulesBuiltInParallel() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final Project project = project(module("a", barrier), module("b", barrier), module("c", "a", "b"));
+        Files.writeString(source("a", "A"), "changed");
+        Files.writeString(source("b", "B"), "changed");
+        project.incrementalBuild(project.sourceChanges(), line -> {}, line -> {});
+
+        assertThat(built, containsInAnyOrder("a", "b", "c"));
+        assertThat(built.indexOf("c"), is(2));
+    }
+
+    @Test
+    void testModulesMustBeInBuildOrder() throws Exception {
+        final BuildModule a = module("a");
+        final BuildModule b = module("b", "a");
+        assertThrows(IllegalStateException.class, () -> project(b, a));
+    }
+
+    private Project project(BuildModule... modules) {
+        final Project.Builder builder = builder();
+        for (BuildModule module : modules) {
+            builder.module(module);
+        }
+        return builder.build();
+    }
+
+    private Project.Builder builder() {
+        final ProjectDirectory root = createProjectDirectory(DirectoryType.Project, projectDir);
+        final Path pomFile = FileUtils.ensureFile(projectDir.resolve("pom.xml"));
+        return Project.builder()
+                      .buildType(BuildType.Incremental)
+                      .rootDirectory(root)
+                      .buildFile(createBuildFile(root, pomFile))
+                      .dependency(FileUtils.ensureDirectory(projectDir.resolve("libs")))
+                      .mainClassName("com.acme.Main");
+    }
+
+    private BuildModule module(String name, String... dependencies) throws Exception {
+        return module(name, null, dependencies);
+    }
+
+    private BuildModule module(String name, CyclicBarrier barrier, String... dependencies) throws Exception {
+        final Path moduleDir = FileUtils.ensureDirectory(projectDir.resolve(name));
+        final Path sourceDir = FileUtils.ensureDirectory(moduleDir.resolve("src"));
+        Files.writeString(source(name, "First"), "");
+        Files.writeString(source(name, "Second"), "");
+        final BuildRoot sources = createBuildRoot(BuildRootType.javaSources(), sourceDir);
+        final BuildRoot classes = createBuildRoot(BuildRootType.javaClasses(),
+                                                  FileUtils.ensureDirectory(moduleDir.resolve("classes")));
+        final BuildStep step = (changes, stdOut, stdErr) -> {
+            if (barrier != null) {
+
+                // Both modules must be building at once to pass the barrier
+
+                barrier.await(10, TimeUnit.SECONDS);
+            }
+            built.add(name);
+            changeCounts.put(name, changes.size());
+        };
+        return createBuildModule(name, moduleDir, List.of(dependencies), List.of(createBuildComponent(sources, classes, step)));
+    }
+
+    private Path component(Project.Builder builder,
+                           BuildRootType type,
+                           String name,
+                           String fileName,
+                           CyclicBarrier barrier,
+                           List<String> output) throws Exception {
+        final Path sourceDir = FileUtils.ensureDirectory(projectDir.resolve(name));
+        final Path file = Files.writeString(sourceDir.resolve(fileName), "");
+        final BuildRoot sources = createBuildRoot(type, sourceDir);
+        final BuildRoot outputs = createBuildRoot(BuildRootType.javaClasses(),
+                                                  FileUtils.ensureDirectory(projectDir.resolve(name + "-out")));
+        final BuildStep step = (changes, stdOut, stdErr) -> {
+            output.add(name + " started");
+            if (barrier != null) {
+
+                // Both components must be building at once to pass the barrier
+
+                barrier.await(10, TimeUnit.SECONDS);
+            } else {
+                Thread.sleep(100);
+            }
+            output.add(name + " built");
+        };
+        builder.component(createBuildComponent(sources, outputs, step));
+        return file;
+    }
+
+    private Path source(String module, String className) {
+        return projectDir.resolve(module).resolve("src").resolve(className + ".java");
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.mode;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.ToolProvider;
+
+import io.helidon.build.util.Constants;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit test for class {@link AppLauncher}.
+ */
+class AppLauncherTest {
+    private static final String APP_SOURCE = "package acme;\n"
+                                             + "public class Main {\n"
+                                             + "    public static void main(String[] args) throws Exception {\n"
+                                             + "        final Object lock = new Object();\n"
+                                             + "        final Thread server = new Thread(() -> {\n"
+                                             + "            synchronized (lock) {\n"
+                                             + "                try { lock.wait(); } catch (InterruptedException e) { }\n"
+                                             + "            }\n"
+                                             + "        });\n"
+                                             + "        server.start();\n"
+                                             + "        Runtime.getRuntime().addShutdownHook(new Thread(() -> {\n"
+                                             + "            synchronized (lock) { lock.notifyAll(); }\n"
+                                             + "        }));\n"
+                                             + "        System.out.println(\"started %s \" + args[0]);\n"
+                                             + "    }\n"
+                                             + "}\n";
+
+    private Process process;
+
+    @AfterEach
+    void tearDown() {
+        if (process != null) {
+            process.destroyForcibly();
+        }
+    }
+
+    @Test
+    void testReload(@TempDir Path dir) throws Exception {
+        final Path classes = Files.createDirectories(dir.resolve("classes"));
+        compile(dir, classes, "one");
+        final Path launcherClasses = Path.of(AppLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        process = new ProcessBuilder(List.of(Constants.OS.javaExecutable(),
+                                             "--add-opens=java.base/java.lang=ALL-UNNAMED",
+                                             "-cp", launcherClasses.toString(),
+                                             AppLauncher.class.getName(), "acme.Main", classes.toString(), "arg"))
+                .redirectErrorStream(true)
+                .start();
+        final BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        assertThat(output.readLine(), is("started one arg"));
+
+        // Change the class and reload it
+
+        compile(dir, classes, "two");
+        final OutputStream input = process.getOutputStream();
+        input.write((AppLauncher.RELOAD_COMMAND + "\n").getBytes(StandardCharsets.UTF_8));
+        input.flush();
+        assertThat(output.readLine(), is(AppLauncher.RESPONSE_PREFIX + AppLauncher.RELOADED));
+        assertThat(output.readLine(), is("started two arg"));
+        assertThat(process.isAlive(), is(true));
+
+        // Closing stdin should stop the application
+
+        input.close();
+        assertThat(process.waitFor(10, TimeUnit.SECONDS), is(true));
+    }
+
+    private static void compile(Path dir, Path classes, String version) throws Exception {
+        final Path source = dir.resolve("src/acme/Main.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, APP_SOURCE.replace("%s", version));
+        final int result = ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                                                                    "-d", classes.toString(), source.toString());
+        assertThat(result, is(0));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.mode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit test for class {@link ApplicationOutput}.
+ */
+class ApplicationOutputTest {
+    private static final int LINES = 100;
+
+    @Test
+    void testOrderPreserved() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final PrintStream stream = new PrintStream(bytes, true);
+        final List<String> expected = new ArrayList<>();
+        try (ApplicationOutput output = ApplicationOutput.builder().stdOut(stream).stdErr(stream).build()) {
+            for (int i = 0; i < LINES; i++) {
+                final String line = "line " + i;
+                if (i % 3 == 0) {
+                    output.stdErr(line);
+                } else {
+                    output.stdOut(line);
+                }
+                expected.add(line);
+            }
+            assertThat(output.flush(10, TimeUnit.SECONDS), is(true));
+            assertThat(lines(bytes), is(expected));
+            assertThat(output.droppedLines(), is(0L));
+        }
+    }
+
+    @Test
+    void testBlockDelaysLines() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Thread releaser = new Thread(() -> {
+            sleep();
+            release.countDown();
+        });
+        releaser.start();
+        try (ApplicationOutput output = output(bytes, release, ApplicationOutput.Overflow.Block)) {
+            for (int i = 0; i < LINES; i++) {
+                output.stdOut(Integer.toString(i));
+            }
+            assertThat(output.flush(10, TimeUnit.SECONDS), is(true));
+            assertThat(lines(bytes).size(), is(LINES));
+            assertThat(output.delayedLines(), is(greaterThan(0L)));
+            assertThat(output.droppedLines(), is(0L));
+        }
+        releaser.join();
+    }
+
+    @Test
+    void testDropOldest() {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ApplicationOutput output = output(bytes, release, ApplicationOutput.Overflow.DropOldest)) {
+            for (int i = 0; i < LINES; i++) {
+                output.stdOut(Integer.toString(i));
+            }
+            release.countDown();
+            assertThat(output.flush(10, TimeUnit.SECONDS), is(true));
+            final List<String> lines = lines(bytes);
+            assertThat(output.droppedLines(), is(greaterThan(0L)));
+            assertThat(lines.size() + output.droppedLines(), is((long) LINES));
+            assertThat(lines.get(lines.size() - 1), is(Integer.toString(LINES - 1)));
+        }
+    }
+
+    private static ApplicationOutput output(ByteArrayOutputStream bytes,
+                                            CountDownLatch release,
+                                            ApplicationOutput.Overflow overflow) {
+        final OutputStream blocking = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                bytes.write(b, off, len);
+            }
+        };
+        return ApplicationOutput.builder()
+                                .capacity(4)
+                                .overflow(overflow)
+                                .stdOut(new PrintStream(blocking, true))
+                                .build();
+    }
+
+    private static List<String> lines(ByteArrayOutputStream bytes) {
+        return Arrays.asList(bytes.toString().split(System.lineSeparator()));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException ignore) {
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.mode;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.tools.ToolProvider;
+
+import io.helidon.build.dev.BuildRootType;
+import io.helidon.build.dev.BuildType;
+import io.helidon.build.dev.DirectoryType;
+import io.helidon.build.dev.Project;
+import io.helidon.build.dev.ProjectDirectory;
+import io.helidon.build.util.Constants;
+import io.helidon.build.util.FileUtils;
+import io.helidon.build.util.ProjectConfig;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.helidon.build.dev.BuildComponent.createBuildComponent;
+import static io.helidon.build.dev.BuildFile.createBuildFile;
+import static io.helidon.build.dev.BuildRoot.createBuildRoot;
+import static io.helidon.build.dev.ProjectDirectory.createProjectDirectory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Unit test for class {@link DependencyArchive}.
+ */
+class DependencyArchiveTest {
+    private static final String DEPENDENCY_SOURCE = "package acme.dep;\n"
+                                                    + "public class Greeting {\n"
+                                                    + "    public static String greet() { return \"hello\"; }\n"
+                                                    + "}\n";
+    private static final String APP_SOURCE = "package acme;\n"
+                                             + "public class Main {\n"
+                                             + "    public static void main(String[] args) {\n"
+                                             + "        System.out.println(acme.dep.Greeting.greet());\n"
+                                             + "    }\n"
+                                             + "}\n";
+
+    @Test
+    void testArchiveCreatedAfterFirstRun(@TempDir Path dir) throws Exception {
+        final Path jar = dependencyJar(dir);
+        final Path classes = compile(dir, "app", "acme/Main.java", APP_SOURCE, jar.toString());
+        final Project project = project(dir, jar);
+        final DependencyArchive archive = DependencyArchive.create(Files.createDirectories(dir.resolve("cds")));
+
+        final List<String> recordOptions = archive.jvmOptions(project);
+        assertThat(recordOptions.size(), is(1));
+        assertThat(recordOptions.get(0), startsWith("-XX:DumpLoadedClassList="));
+        assertThat(run(dir, recordOptions, jar, classes), hasItem("hello"));
+
+        archive.applicationStopped();
+        archive.awaitDump(2, TimeUnit.MINUTES);
+
+        final List<String> useOptions = new ArrayList<>(archive.jvmOptions(project));
+        assertThat(useOptions.get(0), startsWith("-XX:SharedArchiveFile="));
+        useOptions.add("-Xlog:class+load=info");
+        assertThat(run(dir, useOptions, jar, classes), hasItem(containsString("acme.dep.Greeting source: shared")));
+
+        // Not used once the dependency changes
+
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        assertThat(archive.jvmOptions(project).isEmpty(), is(true));
+    }
+
+    private static Project project(Path dir, Path jar) throws Exception {
+        FileUtils.ensureFile(dir.resolve(ProjectConfig.DOT_HELIDON));
+        final ProjectDirectory root = createProjectDirectory(DirectoryType.Project, dir);
+        return Project.builder()
+                      .buildType(BuildType.Incremental)
+                      .rootDirectory(root)
+                      .buildFile(createBuildFile(root, FileUtils.ensureFile(dir.resolve("pom.xml"))))
+                      .dependency(jar)
+                      .component(createBuildComponent(createBuildRoot(BuildRootType.javaSources(), dir.resolve("app-src")),
+                                                      createBuildRoot(BuildRootType.javaClasses(), dir.resolve("app-classes")),
+                                                      (changes, stdOut, stdErr) -> {}))
+                      .mainClassName("acme.Main")
+                      .build();
+    }
+
+    private static List<String> run(Path dir, List<String> jvmOptions, Path jar, Path classes) throws Exception {
+        final List<String> command = new ArrayList<>();
+        command.add(Constants.OS.javaExecutable());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(jar + File.pathSeparator + classes);
+        command.add("acme.Main");
+        final Path output = dir.resolve("output.txt");
+        final Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                                                          .redirectOutput(output.toFile())
+                                                          .start();
+        assertThat(process.waitFor(1, TimeUnit.MINUTES), is(true));
+        assertThat(process.exitValue(), is(0));
+        return Files.readAllLines(output);
+    }
+
+    private static Path dependencyJar(Path dir) throws Exception {
+        final Path classes = compile(dir, "dep", "acme/dep/Greeting.java", DEPENDENCY_SOURCE, null);
+        final Path jar = dir.resolve("dep.jar");
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = new JarOutputStream(out)) {
+            jarOut.putNextEntry(new JarEntry("acme/dep/Greeting.class"));
+            jarOut.write(Files.readAllBytes(classes.resolve("acme/dep/Greeting.class")));
+            jarOut.closeEntry();
+        }
+        return jar;
+    }
+
+    private static Path compile(Path dir, String name, String fileName, String source, String classPath) throws Exception {
+        final Path sourceFile = dir.resolve(name + "-src").resolve(fileName);
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source);
+        final Path classes = Files.createDirectories(dir.resolve(name + "-classes"));
+        final List<String> args = new ArrayList<>(List.of("-d", classes.toString()));
+        if (classPath != null) {
+            args.add("-cp");
+            args.add(classPath);
+        }
+        args.add(sourceFile.toString());
+        assertThat(ToolProvider.getSystemJavaCompiler().run(null, null, null, args.toArray(new String[0])), is(0));
+        return classes;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.dev.mode;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for class {@link FragmentMatcher}.
+ */
+class FragmentMatcherTest {
+
+    @Test
+    void testMatches() {
+        final FragmentMatcher matcher = FragmentMatcher.create(List.of("he", "she", "his", "hers"));
+        assertThat(matcher.matches("ushers"), is(true));
+        assertThat(matcher.matches("this"), is(true));
+        assertThat(matcher.matches("shhh"), is(false));
+        assertThat(matcher.matches(""), is(false));
+    }
+
+    @Test
+    void testFragmentFoundAfterPartialMatch() {
+        final FragmentMatcher matcher = FragmentMatcher.create(List.of("BindException: Address already in use",
+                                                                       "--enable-preview"));
+        assertThat(matcher.matches("java.net.BindException: Address already in use (Bind failed)"), is(true));
+        assertThat(matcher.matches("BindException: Address BindException: Address already in use"), is(true));
+        assertThat(matcher.matches("---enable-preview"), is(true));
+        assertThat(matcher.matches("BindException: Address in use"), is(false));
+        assertThat(matcher.matches("é--enable-previewé"), is(true));
+    }
+
+    @Test
+    void testEmptyFragmentRejected() {
+        assertThrows(IllegalArgumentException.class, () -> FragmentMatcher.create(List.of("a", "")));
+    }
+}
@@ -252,7 +252,7 @@ public final class ArchetypeCatalog  {
                     && name.equals(that.name)
                     && title.equals(that.title)
                     && Objects.equals(summary, that.summary)
-                    && description.equals(that.description)
+                    && Objects.equals(description, that.description)
                     && tags.equals(that.tags);
         }
 
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.build.archetype.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.helidon.build.archetype.engine.ArchetypeCatalog.ArchetypeEntry;
+
+import static io.helidon.build.archetype.engine.BinaryFormat.readInt;
+import static io.helidon.build.archetype.engine.BinaryFormat.writeInt;
+
+/**
+ * A compact binary form of an {@link ArchetypeCatalog}, so that a cached catalog can be loaded without parsing XML.
+ * <p>
+ * Each distinct string is written once, in a table that precedes the catalog; the catalog and its entries then refer to
+ * the strings by index. Since most entries share their group id, version and tags with each other, this is
+ * considerably smaller than the XML.
+ */
+public final class ArchetypeCatalogIndex {
+
+    private static final int MAGIC = 0x48414349;
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL_REF = 0;
+
+    private ArchetypeCatalogIndex() {
+    }
+
+    /**
+     * Write the given catalog to a file.
+     *
+     * @param catalog the catalog
+     * @param file the file
+     * @throws IOException on error
+     */
+    public static void write(ArchetypeCatalog catalog, Path file) throws IOException {
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(catalog, os);
+        }
+    }
+
+    /**
+     * Write the given catalog to an output stream.
+     *
+     * @param catalog the catalog
+     * @param os output stream
+     * @throws IOException on error
+     */
+    public static void write(ArchetypeCatalog catalog, OutputStream os) throws IOException {
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        addStrings(strings, catalog.modelVersion(), catalog.name(), catalog.groupId(), catalog.version());
+        for (ArchetypeEntry entry : catalog.entries()) {
+            addStrings(strings, entry.groupId(), entry.artifactId(), entry.version(), entry.name(), entry.title(),
+                       entry.summary(), entry.description().orElse(null));
+            addStrings(strings, entry.tags().toArray(new String[0]));
+        }
+        final DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        writeInt(out, FORMAT_VERSION);
+        writeInt(out, strings.size());
+        for (String string : strings.keySet()) {
+            out.writeUTF(string);
+        }
+        writeRefs(out, strings, catalog.modelVersion(), catalog.name(), catalog.groupId(), catalog.version());
+        writeInt(out, catalog.entries().size());
+        for (ArchetypeEntry entry : catalog.entries()) {
+            writeRefs(out, strings, entry.groupId(), entry.artifactId(), entry.version(), entry.name(), entry.title(),
+                      entry.summary(), entry.description().orElse(null));
+            writeInt(out, entry.tags().size());
+            writeRefs(out, strings, entry.tags().toArray(new String[0]));
+        }
+        out.flush();
+    }
+
+    /**
+     * Read a catalog from a file.
+     *
+     * @param file the file
+     * @return catalog, never {@code null}
+     * @throws IOException on error, or if the file is not a catalog index of this format version
+     */
+    public static ArchetypeCatalog read(Path file) throws IOException {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(is);
+        }
+    }
+
+    /**
+     * Read a catalog from an input stream.
+     *
+     * @param is input stream
+     * @return catalog, never {@code null}
+     * @throws IOException on error, or if the stream is not a catalog index of this format version
+     */
+    public static ArchetypeCatalog read(InputStream is) throws IOException {
+        final DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an archetype catalog index");
+        }
+        final int formatVersion = readInt(in);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported archetype catalog index version: " + formatVersion);
+        }
+        final String[] strings = new String[readInt(in)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUTF();
+        }
+        final String modelVersion = readRef(in, strings);
+        final String name = readRef(in, strings);
+        final String groupId = readRef(in, strings);
+        final String version = readRef(in, strings);
+        final int entryCount = readInt(in);
+        final List<ArchetypeEntry> entries = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            final String entryGroupId = readRef(in, strings);
+            final String artifactId = readRef(in, strings);
+            final String entryVersion = readRef(in, strings);
+            final String entryName = readRef(in, strings);
+            final String title = readRef(in, strings);
+            final String summary = readRef(in, strings);
+            final String description = readRef(in, strings);
+            final int tagCount = readInt(in);
+            final List<String> tags = new ArrayList<>(tagCount);
+            for (int j = 0; j < tagCount; j++) {
+                tags.add(readRef(in, strings));
+            }
+            entries.add(new ArchetypeEntry(entryGroupId, artifactId, entryVersion, entryName, title, summary, description,
+                                           Collections.unmodifiableList(tags)));
+        }
+        return new ArchetypeCatalog(modelVersion, name, groupId, version, entries);
+    }
+
+    private static void addStrings(Map<String, Integer> strings, String... values) {
+        for (String value : values) {
+            if (value != null) {
+                strings.putIfAbsent(value, strings.size());
+            }
+        }
+    }
+
+    private static void writeRefs(DataOutput out, Map<String, Integer> strings, String... values) throws IOException {
+        for (String value : values) {
+            writeInt(out, value == null ? NULL_REF : strings.get(value) + 1);
+        }
+    }
+
+    private static String readRef(DataInput in, String[] strings) throws IOException {
+        final int ref = readInt(in);
+        if (ref == NULL_REF) {
+            return null;
+        } else if (ref > strings.length) {
+            throw new IOException("Invalid string reference: " + ref);
+        }
+        return strings[ref - 1];
+    }
+}
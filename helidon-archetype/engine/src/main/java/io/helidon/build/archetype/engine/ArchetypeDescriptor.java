@@ -20,6 +20,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * Helidon archetype descriptor.
@@ -308,10 +309,12 @@ public final class ArchetypeDescriptor {
 
         private final String regex;
         private final String replacement;
+        private final Pattern pattern;
 
         Replacement(String regex, String replacement) {
             this.regex = Objects.requireNonNull(regex, "regex is null");
             this.replacement = Objects.requireNonNull(replacement, "replacement is null");
+            this.pattern = Pattern.compile(regex);
         }
 
         /**
@@ -332,6 +335,15 @@ public final class ArchetypeDescriptor {
             return replacement;
         }
 
+        /**
+         * Get the compiled source regular expression.
+         *
+         * @return pattern, never {@code null}
+         */
+        Pattern pattern() {
+            return pattern;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -18,11 +18,13 @@ package io.helidon.build.archetype.engine;
 import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -31,6 +33,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import io.helidon.build.archetype.engine.ArchetypeDescriptor.Conditional;
 import io.helidon.build.archetype.engine.ArchetypeDescriptor.FileSet;
@@ -45,6 +48,8 @@ import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Archetype engine.
  */
@@ -60,6 +65,13 @@ public final class ArchetypeEngine implements Closeable {
      */
     public static final String RESOURCES_LIST = "META-INF/helidon-archetype-resources.txt";
 
+    /**
+     * Constant for the compiled archetype path, see {@link CompiledArchetype}.
+     */
+    public static final String COMPILED_ARCHETYPE_RESOURCE_NAME = "META-INF/helidon-archetype.bin";
+
+    private static final int PARALLEL_MIN_FILES = 16;
+
     private final MustacheFactory mf;
     private final ArchetypeLoader loader;
     private final ArchetypeDescriptor descriptor;
@@ -87,18 +99,31 @@ public final class ArchetypeEngine implements Closeable {
     public ArchetypeEngine(ArchetypeLoader loader, Map<String, String> properties) {
         this.loader = loader;
         this.mf = new DefaultMustacheFactory();
-        this.descriptor = loadDescriptor(loader);
+        CompiledArchetype compiled = loadCompiled(loader);
+        this.descriptor = compiled == null ? loadDescriptor(loader) : compiled.descriptor();
         Objects.requireNonNull(properties, "properties is null");
         descriptor.properties().stream()
                 .filter(p -> p.value().isPresent() && !properties.containsKey(p.id()))
                 .forEach(p -> properties.put(p.id(), p.value().get()));
         this.properties = properties;
-        List<SourcePath> paths = loadResourcesList(loader);
-        this.templates = resolveFileSets(descriptor.templateSets().map(TemplateSets::templateSets).orElseGet(LinkedList::new),
-                descriptor.templateSets().map(TemplateSets::transformations).orElseGet(Collections::emptyList), paths,
-                properties);
-        this.files = resolveFileSets(descriptor.fileSets().map(FileSets::fileSets).orElseGet(LinkedList::new),
-                descriptor.fileSets().map(FileSets::transformations).orElseGet(Collections::emptyList), paths, properties);
+        List<FileSet> templateSets = CompiledArchetype.sets(descriptor, true);
+        List<FileSet> fileSets = CompiledArchetype.sets(descriptor, false);
+        List<List<String>> templatePaths;
+        List<List<String>> filePaths;
+        if (compiled == null) {
+            List<SourcePath> paths = loadResourcesList(loader);
+            templatePaths = CompiledArchetype.match(templateSets, paths);
+            filePaths = CompiledArchetype.match(fileSets, paths);
+        } else {
+            templatePaths = compiled.templatePaths();
+            filePaths = compiled.filePaths();
+        }
+        this.templates = resolveFileSets(templateSets,
+                descriptor.templateSets().map(TemplateSets::transformations).orElseGet(Collections::emptyList),
+                templatePaths, properties);
+        this.files = resolveFileSets(fileSets,
+                descriptor.fileSets().map(FileSets::transformations).orElseGet(Collections::emptyList),
+                filePaths, properties);
     }
 
     /**
@@ -134,25 +159,27 @@ public final class ArchetypeEngine implements Closeable {
         }
     }
 
+    private static CompiledArchetype loadCompiled(ArchetypeLoader loader) {
+        try (InputStream is = loader.loadResourceAsStream(COMPILED_ARCHETYPE_RESOURCE_NAME)) {
+            return is == null ? null : CompiledArchetype.read(is);
+        } catch (IOException e) {
+            // Not readable, e.g. built by a newer version of the archetype plugin, so use the descriptor
+            return null;
+        }
+    }
+
     private static Map<String, List<Transformation>> resolveFileSets(List<FileSet> fileSets,
                                                                      List<Transformation> transformations,
-                                                                     List<SourcePath> paths,
+                                                                     List<List<String>> paths,
                                                                      Map<String, String> properties) {
         Map<String, List<Transformation>> resolved = new HashMap<>();
-        for (FileSet fileSet : fileSets) {
+        for (int i = 0; i < fileSets.size(); i++) {
+            FileSet fileSet = fileSets.get(i);
             if (evaluateConditional(fileSet, properties)) {
                 List<Transformation> allTransformations = new LinkedList<>(transformations);
                 allTransformations.addAll(fileSet.transformations());
-                for (SourcePath path : SourcePath.filter(paths, fileSet.includes(), fileSet.excludes())) {
-                    String filteredPath = path.asString();
-                    String dir = fileSet.directory().orElse(null);
-                    if (dir == null || dir.isEmpty()) {
-                        continue;
-                    }
-                    String dirPath = new SourcePath(dir).asString();
-                    if (filteredPath.startsWith(dirPath)) {
-                        resolved.put(path.asString(), allTransformations);
-                    }
+                for (String path : paths.get(i)) {
+                    resolved.put(path, allTransformations);
                 }
             }
         }
@@ -174,7 +201,7 @@ public final class ArchetypeEngine implements Closeable {
                 .collect(Collectors.toList());
         for (Replacement rep : replacements) {
             String replacement = PropertyEvaluator.evaluate(rep.replacement(), properties);
-            output = output.replaceAll(rep.regex(), replacement);
+            output = rep.pattern().matcher(output).replaceAll(replacement);
         }
         return output;
     }
@@ -214,34 +241,53 @@ public final class ArchetypeEngine implements Closeable {
      * @param outputDirectory output directory
      */
     public void generate(File outputDirectory) {
+        Stream<Entry<String, List<Transformation>>> templateStream = templates.entrySet().stream();
+        Stream<Entry<String, List<Transformation>>> fileStream = files.entrySet().stream();
+        if (templates.size() + files.size() >= PARALLEL_MIN_FILES) {
+            templateStream = templateStream.parallel();
+            fileStream = fileStream.parallel();
+        }
         try {
-            for (Entry<String, List<Transformation>> entry : templates.entrySet()) {
-                String resourcePath = entry.getKey().substring(1);
-                try (InputStream is = loader.loadResourceAsStream(resourcePath)) {
-                    if (is == null) {
-                        throw new IllegalStateException(resourcePath + " not found");
-                    }
-                    Mustache m = mf.compile(new InputStreamReader(is), resourcePath);
-                    File outputFile = new File(outputDirectory, transform(resourcePath, entry.getValue(), properties));
-                    outputFile.getParentFile().mkdirs();
-                    try (FileWriter writer = new FileWriter(outputFile)) {
-                        m.execute(writer, properties).flush();
-                    }
+            templateStream.forEach(e -> generate(e.getKey().substring(1), e.getValue(), outputDirectory, true));
+            fileStream.forEach(e -> generate(e.getKey().substring(1), e.getValue(), outputDirectory, false));
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void generate(String resourcePath, List<Transformation> transformations, File outputDirectory, boolean template) {
+        try {
+            Path outputFile = outputDirectory.toPath().resolve(transform(resourcePath, transformations, properties));
+            Files.createDirectories(outputFile.getParent());
+            if (template) {
+                Mustache m = TemplateCache.get(loader, resourcePath, () -> compile(resourcePath));
+                try (Writer writer = Files.newBufferedWriter(outputFile, UTF_8)) {
+                    m.execute(writer, properties).flush();
                 }
-            }
-            for (Entry<String, List<Transformation>> entry : files.entrySet()) {
-                String resourcePath = entry.getKey().substring(1);
+            } else {
                 try (InputStream is = loader.loadResourceAsStream(resourcePath)) {
                     if (is == null) {
                         throw new IllegalStateException(resourcePath + " not found");
                     }
-                    File outputFile = new File(outputDirectory, transform(resourcePath, entry.getValue(), properties));
-                    outputFile.getParentFile().mkdirs();
-                    Files.copy(is, outputFile.toPath());
+                    Files.copy(is, outputFile);
                 }
             }
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Mustache compile(String resourcePath) throws IOException {
+        try (InputStream is = loader.loadResourceAsStream(resourcePath)) {
+            if (is == null) {
+                throw new IllegalStateException(resourcePath + " not found");
+            }
+
+            // The factory is not documented as thread safe
+
+            synchronized (mf) {
+                return mf.compile(new BufferedReader(new InputStreamReader(is, UTF_8)), resourcePath);
+            }
         }
     }
 
@@ -68,6 +68,20 @@ public class ArchetypeLoader implements Closeable {
         return jarFile != null;
     }
 
+    /**
+     * Returns a key that identifies the content of the JAR file, for use in caches that outlive this loader.
+     *
+     * @return The key, or {@code null} if loading from a directory, whose content may change at any time.
+     */
+    String cacheKey() {
+        if (isJarFile()) {
+            File file = new File(jarFile.getName());
+            return file.getAbsolutePath() + ":" + file.lastModified() + ":" + file.length();
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Loads a resource as a stream. It is the caller's responsibility to close
      * the stream at the end.
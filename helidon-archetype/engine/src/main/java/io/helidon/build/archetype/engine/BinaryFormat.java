@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.build.archetype.engine;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primitives shared by the binary forms of catalogs and descriptors.
+ */
+final class BinaryFormat {
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Write a non-negative integer using one byte per seven bits.
+     *
+     * @param out   output
+     * @param value value
+     * @throws IOException on error
+     */
+    static void writeInt(DataOutput out, int value) throws IOException {
+
+        // Seven bits per byte, low order first, with the high bit set on all but the last byte
+
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    /**
+     * Read an integer written by {@link #writeInt(DataOutput, int)}.
+     *
+     * @param in input
+     * @return value
+     * @throws IOException on error
+     */
+    static int readInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed integer");
+    }
+
+    /**
+     * Write a string that may be {@code null}.
+     *
+     * @param out   output
+     * @param value value, may be {@code null}
+     * @throws IOException on error
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Read a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in input
+     * @return value, may be {@code null}
+     * @throws IOException on error
+     */
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Write a list of strings.
+     *
+     * @param out    output
+     * @param values values
+     * @throws IOException on error
+     */
+    static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        writeInt(out, values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Read a list of strings written by {@link #writeStrings(DataOutput, List)}.
+     *
+     * @param in input
+     * @return values
+     * @throws IOException on error
+     */
+    static List<String> readStrings(DataInput in) throws IOException {
+        int size = readInt(in);
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.build.archetype.engine;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Choice;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Conditional;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.FileSet;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.FileSets;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.FlowNode;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Input;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.InputFlow;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.PathSets;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Property;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Replacement;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Select;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.TemplateSets;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Transformation;
+import io.helidon.build.util.SourcePath;
+
+import static io.helidon.build.archetype.engine.BinaryFormat.readInt;
+import static io.helidon.build.archetype.engine.BinaryFormat.readString;
+import static io.helidon.build.archetype.engine.BinaryFormat.readStrings;
+import static io.helidon.build.archetype.engine.BinaryFormat.writeInt;
+import static io.helidon.build.archetype.engine.BinaryFormat.writeString;
+import static io.helidon.build.archetype.engine.BinaryFormat.writeStrings;
+
+/**
+ * A precompiled archetype: the descriptor in binary form, together with the archetype resources matched by each template
+ * set and file set. It is created when the archetype is built, so that the engine need neither parse the descriptor nor
+ * match the include and exclude patterns against every resource each time a project is generated.
+ * <p>
+ * Only the matching is done ahead of time; the conditions of each set still depend on the user properties.
+ */
+public final class CompiledArchetype {
+
+    private static final int MAGIC = 0x48414344;
+    private static final int FORMAT_VERSION = 1;
+    private static final int SELECT_NODE = 0;
+    private static final int INPUT_NODE = 1;
+
+    private final ArchetypeDescriptor descriptor;
+    private final List<List<String>> templatePaths;
+    private final List<List<String>> filePaths;
+
+    private CompiledArchetype(ArchetypeDescriptor descriptor, List<List<String>> templatePaths, List<List<String>> filePaths) {
+        this.descriptor = descriptor;
+        this.templatePaths = templatePaths;
+        this.filePaths = filePaths;
+    }
+
+    /**
+     * Compile an archetype.
+     *
+     * @param descriptor archetype descriptor
+     * @param resources  archetype resources, as listed in {@link ArchetypeEngine#RESOURCES_LIST}
+     * @param os         output stream
+     * @throws IOException on error
+     */
+    public static void write(ArchetypeDescriptor descriptor, List<String> resources, OutputStream os) throws IOException {
+        List<SourcePath> paths = resources.stream().map(SourcePath::new).collect(Collectors.toList());
+        new Encoder(descriptor, new DataOutputStream(os)).write(paths);
+    }
+
+    /**
+     * Read a compiled archetype.
+     *
+     * @param is input stream
+     * @return compiled archetype, never {@code null}
+     * @throws IOException on error, or if the stream is not a compiled archetype of this format version
+     */
+    static CompiledArchetype read(InputStream is) throws IOException {
+        return new Decoder(new DataInputStream(new BufferedInputStream(is))).read();
+    }
+
+    /**
+     * Match archetype resources against sets.
+     *
+     * @param sets  template sets or file sets
+     * @param paths archetype resources
+     * @return the resources matched by each set, in the same order as the sets
+     */
+    static List<List<String>> match(List<FileSet> sets, List<SourcePath> paths) {
+        List<List<String>> matches = new ArrayList<>(sets.size());
+        for (FileSet set : sets) {
+            List<String> matched = new ArrayList<>();
+            String dir = set.directory().orElse(null);
+            if (dir != null && !dir.isEmpty()) {
+                String dirPath = new SourcePath(dir).asString();
+                for (SourcePath path : SourcePath.filter(paths, set.includes(), set.excludes())) {
+                    String filteredPath = path.asString();
+                    if (filteredPath.startsWith(dirPath)) {
+                        matched.add(filteredPath);
+                    }
+                }
+            }
+            matches.add(matched);
+        }
+        return matches;
+    }
+
+    /**
+     * Get the descriptor.
+     *
+     * @return descriptor, never {@code null}
+     */
+    ArchetypeDescriptor descriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Get the resources matched by each template set.
+     *
+     * @return list of matched resources per template set, never {@code null}
+     */
+    List<List<String>> templatePaths() {
+        return templatePaths;
+    }
+
+    /**
+     * Get the resources matched by each file set.
+     *
+     * @return list of matched resources per file set, never {@code null}
+     */
+    List<List<String>> filePaths() {
+        return filePaths;
+    }
+
+    /**
+     * Sets of the given kind, or an empty list if none.
+     *
+     * @param descriptor descriptor
+     * @param templates  {@code true} for template sets, {@code false} for file sets
+     * @return sets, never {@code null}
+     */
+    static List<FileSet> sets(ArchetypeDescriptor descriptor, boolean templates) {
+        if (templates) {
+            return descriptor.templateSets().map(TemplateSets::templateSets).orElseGet(LinkedList::new);
+        } else {
+            return descriptor.fileSets().map(FileSets::fileSets).orElseGet(LinkedList::new);
+        }
+    }
+
+    private static final class Encoder {
+
+        private final ArchetypeDescriptor descriptor;
+        private final DataOutputStream out;
+        private final Map<Property, Integer> properties;
+        private final Map<Transformation, Integer> transformations;
+
+        private Encoder(ArchetypeDescriptor descriptor, DataOutputStream out) {
+            this.descriptor = descriptor;
+            this.out = out;
+            this.properties = new IdentityHashMap<>();
+            this.transformations = new IdentityHashMap<>();
+        }
+
+        private void write(List<SourcePath> paths) throws IOException {
+            out.writeInt(MAGIC);
+            writeInt(out, FORMAT_VERSION);
+            out.writeUTF(descriptor.modelVersion());
+            out.writeUTF(descriptor.name());
+            writeInt(out, descriptor.properties().size());
+            for (Property property : descriptor.properties()) {
+                properties.put(property, properties.size());
+                out.writeUTF(property.id());
+                writeString(out, property.value().orElse(null));
+                out.writeBoolean(property.isExported());
+                out.writeBoolean(property.isReadonly());
+            }
+            writeInt(out, descriptor.transformations().size());
+            for (Transformation transformation : descriptor.transformations()) {
+                transformations.put(transformation, transformations.size());
+                out.writeUTF(transformation.id());
+                writeInt(out, transformation.replacements().size());
+                for (Replacement replacement : transformation.replacements()) {
+                    out.writeUTF(replacement.regex());
+                    out.writeUTF(replacement.replacement());
+                }
+            }
+            writeSets(descriptor.templateSets().orElse(null), sets(descriptor, true), paths);
+            writeSets(descriptor.fileSets().orElse(null), sets(descriptor, false), paths);
+            writeInt(out, descriptor.inputFlow().nodes().size());
+            for (FlowNode node : descriptor.inputFlow().nodes()) {
+                if (node instanceof Select) {
+                    Select select = (Select) node;
+                    writeInt(out, SELECT_NODE);
+                    writeNode(select);
+                    writeInt(out, select.choices().size());
+                    for (Choice choice : select.choices()) {
+                        writeInt(out, propertyRef(choice.property()));
+                        writeNode(choice);
+                    }
+                } else if (node instanceof Input) {
+                    Input input = (Input) node;
+                    writeInt(out, INPUT_NODE);
+                    writeInt(out, propertyRef(input.property()));
+                    writeString(out, input.defaultValue().orElse(null));
+                    writeNode(input);
+                } else {
+                    throw new IllegalStateException("Unknown flow node: " + node);
+                }
+            }
+            out.flush();
+        }
+
+        private void writeSets(PathSets pathSets, List<FileSet> sets, List<SourcePath> paths) throws IOException {
+            out.writeBoolean(pathSets != null);
+            if (pathSets != null) {
+                writeTransformationRefs(pathSets.transformations());
+                writeInt(out, sets.size());
+                List<List<String>> matches = match(sets, paths);
+                for (int i = 0; i < sets.size(); i++) {
+                    FileSet set = sets.get(i);
+                    writeTransformationRefs(set.transformations());
+                    writeConditional(set);
+                    writeString(out, set.directory().orElse(null));
+                    writeStrings(out, set.includes());
+                    writeStrings(out, set.excludes());
+                    writeStrings(out, matches.get(i));
+                }
+            }
+        }
+
+        private void writeNode(FlowNode node) throws IOException {
+            out.writeUTF(node.text());
+            writeConditional(node);
+        }
+
+        private void writeConditional(Conditional conditional) throws IOException {
+            writeInt(out, conditional.ifProperties().size());
+            for (Property property : conditional.ifProperties()) {
+                writeInt(out, propertyRef(property));
+            }
+            writeInt(out, conditional.unlessProperties().size());
+            for (Property property : conditional.unlessProperties()) {
+                writeInt(out, propertyRef(property));
+            }
+        }
+
+        private void writeTransformationRefs(List<Transformation> refs) throws IOException {
+            writeInt(out, refs.size());
+            for (Transformation transformation : refs) {
+                Integer ref = transformations.get(transformation);
+                if (ref == null) {
+                    throw new IllegalStateException("Unknown transformation: " + transformation.id());
+                }
+                writeInt(out, ref);
+            }
+        }
+
+        private int propertyRef(Property property) {
+            Integer ref = properties.get(property);
+            if (ref == null) {
+                throw new IllegalStateException("Unknown property: " + property.id());
+            }
+            return ref;
+        }
+    }
+
+    private static final class Decoder {
+
+        private final DataInput in;
+        private final List<Property> properties;
+        private final List<Transformation> transformations;
+
+        private Decoder(DataInput in) {
+            this.in = in;
+            this.properties = new ArrayList<>();
+            this.transformations = new ArrayList<>();
+        }
+
+        private CompiledArchetype read() throws IOException {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a compiled archetype");
+            }
+            int formatVersion = readInt(in);
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported compiled archetype version: " + formatVersion);
+            }
+            String modelVersion = in.readUTF();
+            String name = in.readUTF();
+            int propertyCount = readInt(in);
+            for (int i = 0; i < propertyCount; i++) {
+                properties.add(new Property(in.readUTF(), readString(in), in.readBoolean(), in.readBoolean()));
+            }
+            int transformationCount = readInt(in);
+            for (int i = 0; i < transformationCount; i++) {
+                Transformation transformation = new Transformation(in.readUTF());
+                int replacementCount = readInt(in);
+                for (int j = 0; j < replacementCount; j++) {
+                    transformation.replacements().add(new Replacement(in.readUTF(), in.readUTF()));
+                }
+                transformations.add(transformation);
+            }
+            List<List<String>> templatePaths = new ArrayList<>();
+            TemplateSets templateSets = null;
+            if (in.readBoolean()) {
+                templateSets = new TemplateSets(transformationRefs());
+                readSets(templateSets.templateSets(), templatePaths);
+            }
+            List<List<String>> filePaths = new ArrayList<>();
+            FileSets fileSets = null;
+            if (in.readBoolean()) {
+                fileSets = new FileSets(transformationRefs());
+                readSets(fileSets.fileSets(), filePaths);
+            }
+            InputFlow inputFlow = new InputFlow();
+            int nodeCount = readInt(in);
+            for (int i = 0; i < nodeCount; i++) {
+                int type = readInt(in);
+                if (type == SELECT_NODE) {
+                    Select select = new Select(in.readUTF(), propertyRefs(), propertyRefs());
+                    int choiceCount = readInt(in);
+                    for (int j = 0; j < choiceCount; j++) {
+                        Property property = propertyRef();
+                        select.choices().add(new Choice(property, in.readUTF(), propertyRefs(), propertyRefs()));
+                    }
+                    inputFlow.nodes().add(select);
+                } else if (type == INPUT_NODE) {
+                    Property property = propertyRef();
+                    String defaultValue = readString(in);
+                    inputFlow.nodes().add(new Input(property, defaultValue, in.readUTF(), propertyRefs(), propertyRefs()));
+                } else {
+                    throw new IOException("Unknown flow node type: " + type);
+                }
+            }
+            ArchetypeDescriptor descriptor = new ArchetypeDescriptor(modelVersion, name, properties, transformations,
+                    templateSets, fileSets, inputFlow);
+            return new CompiledArchetype(descriptor, templatePaths, filePaths);
+        }
+
+        private void readSets(List<FileSet> sets, List<List<String>> paths) throws IOException {
+            int setCount = readInt(in);
+            for (int i = 0; i < setCount; i++) {
+                FileSet set = new FileSet(transformationRefs(), propertyRefs(), propertyRefs());
+                String directory = readString(in);
+                if (directory != null) {
+                    set.directory(directory);
+                }
+                set.includes().addAll(readStrings(in));
+                set.excludes().addAll(readStrings(in));
+                sets.add(set);
+                paths.add(Collections.unmodifiableList(readStrings(in)));
+            }
+        }
+
+        private List<Transformation> transformationRefs() throws IOException {
+            int count = readInt(in);
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+            List<Transformation> refs = new LinkedList<>();
+            for (int i = 0; i < count; i++) {
+                refs.add(transformations.get(ref(transformations.size())));
+            }
+            return refs;
+        }
+
+        private List<Property> propertyRefs() throws IOException {
+            int count = readInt(in);
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+            List<Property> refs = new LinkedList<>();
+            for (int i = 0; i < count; i++) {
+                refs.add(propertyRef());
+            }
+            return refs;
+        }
+
+        private Property propertyRef() throws IOException {
+            return properties.get(ref(properties.size()));
+        }
+
+        private int ref(int size) throws IOException {
+            int ref = readInt(in);
+            if (ref >= size) {
+                throw new IOException("Invalid reference: " + ref);
+            }
+            return ref;
+        }
+    }
+}
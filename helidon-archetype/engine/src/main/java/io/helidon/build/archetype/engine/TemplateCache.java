@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.build.archetype.engine;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.mustachejava.Mustache;
+
+/**
+ * A cache of compiled templates, shared by all engines in the JVM so that generating from the same archetype again,
+ * e.g. in a long running CLI process, does not recompile its templates. Compiled templates are thread safe.
+ * <p>
+ * Entries are keyed by the archetype {@link ArchetypeLoader#cacheKey() cache key} and the resource path, and the least
+ * recently used are evicted once the cache is full.
+ */
+final class TemplateCache {
+
+    private static final int MAX_ENTRIES = 1024;
+    private static final Map<String, Mustache> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Mustache> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Compiles a template.
+     */
+    interface Compiler {
+
+        /**
+         * Compile the template.
+         *
+         * @return compiled template
+         * @throws IOException if an error occurs
+         */
+        Mustache compile() throws IOException;
+    }
+
+    private TemplateCache() {
+    }
+
+    /**
+     * Get the compiled template for a resource, compiling it if not cached.
+     *
+     * @param loader       archetype loader
+     * @param resourcePath resource path
+     * @param compiler     compiles the template if needed
+     * @return compiled template
+     * @throws IOException if an error occurs
+     */
+    static Mustache get(ArchetypeLoader loader, String resourcePath, Compiler compiler) throws IOException {
+        String archetypeKey = loader.cacheKey();
+        if (archetypeKey == null) {
+            return compiler.compile();
+        }
+        String key = archetypeKey + "!" + resourcePath;
+        Mustache template;
+        synchronized (CACHE) {
+            template = CACHE.get(key);
+        }
+        if (template == null) {
+
+            // Compiled outside the lock; if another thread compiles the same template, the last one wins
+
+            template = compiler.compile();
+            synchronized (CACHE) {
+                CACHE.put(key, template);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return size
+     */
+    static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.build.archetype.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link ArchetypeCatalogIndex}.
+ */
+public class ArchetypeCatalogIndexTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ArchetypeCatalog catalog = readCatalog();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ArchetypeCatalogIndex.write(catalog, os);
+
+        ArchetypeCatalog indexed = ArchetypeCatalogIndex.read(new ByteArrayInputStream(os.toByteArray()));
+        assertThat(indexed, is(catalog));
+        assertThat(indexed.entries(), is(catalog.entries()));
+        assertThat(indexed.entries().get(1).description().isPresent(), is(false));
+        assertThat(os.size(), is(lessThan(catalogSize())));
+    }
+
+    @Test
+    public void testInvalidIndex() {
+        byte[] bytes = "<archetype-catalog/>".getBytes();
+        assertThrows(IOException.class, () -> ArchetypeCatalogIndex.read(new ByteArrayInputStream(bytes)));
+    }
+
+    private static ArchetypeCatalog readCatalog() throws IOException {
+        try (InputStream is = ArchetypeCatalogIndexTest.class.getResourceAsStream("catalog.xml")) {
+            return ArchetypeCatalog.read(is);
+        }
+    }
+
+    private static int catalogSize() throws IOException {
+        try (InputStream is = ArchetypeCatalogIndexTest.class.getResourceAsStream("catalog.xml")) {
+            return is.readAllBytes().length;
+        }
+    }
+}
@@ -29,6 +29,8 @@ import java.util.Base64;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import java.util.stream.Collectors;
 
 import io.helidon.build.archetype.engine.ArchetypeDescriptor.FileSet;
@@ -38,6 +40,7 @@ import io.helidon.build.archetype.engine.ArchetypeDescriptor.Transformation;
 import io.helidon.build.util.Strings;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static io.helidon.build.util.TestUtils.pathOf;
 import static org.hamcrest.CoreMatchers.is;
@@ -154,6 +157,48 @@ public class ArchetypeEngineTest extends ArchetypeBaseTest {
                 is (new String(Base64.getDecoder().decode(mainBase64), StandardCharsets.UTF_8)));
     }
 
+    @Test
+    public void testTemplatesCachedForJar(@TempDir Path dir) throws IOException {
+        Path jarFile = dir.resolve("archetype.jar");
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            for (String resource : List.of(ArchetypeEngine.DESCRIPTOR_RESOURCE_NAME, ArchetypeEngine.RESOURCES_LIST,
+                    "pom.xml.mustache", "src/main/java/__pkg__/Main.java.mustache")) {
+                jar.putNextEntry(new JarEntry(resource));
+                jar.write(Files.readAllBytes(targetDir().toPath().resolve(resource)));
+                jar.closeEntry();
+            }
+        }
+        TemplateCache.clear();
+        new ArchetypeEngine(targetDir(), properties()).generate(dir.resolve("from-dir").toFile());
+        assertThat(TemplateCache.size(), is(0));
+
+        try (ArchetypeEngine engine = new ArchetypeEngine(jarFile.toFile(), properties())) {
+            engine.generate(dir.resolve("first").toFile());
+        }
+        assertThat(TemplateCache.size(), is(2));
+        try (ArchetypeEngine engine = new ArchetypeEngine(jarFile.toFile(), properties())) {
+            engine.generate(dir.resolve("second").toFile());
+        }
+        assertThat(TemplateCache.size(), is(2));
+
+        for (String file : List.of("pom.xml", "src/main/java/com/example/myproject/Main.java")) {
+            String expected = readFile(dir.resolve("from-dir").resolve(file));
+            assertThat(readFile(dir.resolve("first").resolve(file)), is(expected));
+            assertThat(readFile(dir.resolve("second").resolve(file)), is(expected));
+        }
+    }
+
+    private static Map<String, String> properties() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("groupId", "com.example");
+        properties.put("artifactId", "my-project");
+        properties.put("version", "1.0-SNAPSHOT");
+        properties.put("name", "my super project");
+        properties.put("package", "com.example.myproject");
+        properties.put("maven", "true");
+        return properties;
+    }
+
     private static String readFile(Path file) throws IOException {
         return Strings.normalizeNewLines(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
     }
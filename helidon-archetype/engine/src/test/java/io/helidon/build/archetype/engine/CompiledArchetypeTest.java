@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.build.archetype.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.FlowNode;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Input;
+import io.helidon.build.archetype.engine.ArchetypeDescriptor.Property;
+import io.helidon.build.util.SourcePath;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link CompiledArchetype}.
+ */
+public class CompiledArchetypeTest extends ArchetypeBaseTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ArchetypeDescriptor descriptor;
+        try (InputStream is = CompiledArchetypeTest.class.getClassLoader()
+                .getResourceAsStream(ArchetypeEngine.DESCRIPTOR_RESOURCE_NAME)) {
+            descriptor = ArchetypeDescriptor.read(is);
+        }
+        List<String> resources = List.of("src/main/java/Main.java.mustache", "pom.xml.mustache", "README.md",
+                "src/main/resources/application.yaml");
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        CompiledArchetype.write(descriptor, resources, os);
+
+        CompiledArchetype compiled = CompiledArchetype.read(new ByteArrayInputStream(os.toByteArray()));
+        ArchetypeDescriptor read = compiled.descriptor();
+        assertThat(read, is(descriptor));
+        assertThat(read.inputFlow(), is(descriptor.inputFlow()));
+
+        // Property references are resolved to the declared properties
+
+        for (FlowNode node : read.inputFlow().nodes()) {
+            if (node instanceof Input) {
+                Property property = ((Input) node).property();
+                assertThat(read.properties().stream().anyMatch(p -> p == property), is(true));
+            }
+        }
+
+        List<SourcePath> paths = resources.stream().map(SourcePath::new).collect(Collectors.toList());
+        assertThat(compiled.templatePaths(), is(CompiledArchetype.match(CompiledArchetype.sets(descriptor, true), paths)));
+        assertThat(compiled.filePaths(), is(CompiledArchetype.match(CompiledArchetype.sets(descriptor, false), paths)));
+    }
+
+    @Test
+    public void testInvalid() {
+        byte[] bytes = "<archetype-descriptor/>".getBytes();
+        assertThrows(IOException.class, () -> CompiledArchetype.read(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testEngineUsesCompiledArchetype(@TempDir Path dir) throws IOException {
+        Path archetypeDir = dir.resolve("archetype");
+        for (String resource : List.of(ArchetypeEngine.DESCRIPTOR_RESOURCE_NAME, ArchetypeEngine.RESOURCES_LIST,
+                "pom.xml.mustache", "src/main/java/__pkg__/Main.java.mustache")) {
+            Path file = archetypeDir.resolve(resource);
+            Files.createDirectories(file.getParent());
+            Files.copy(targetDir().toPath().resolve(resource), file);
+        }
+        Path descriptorFile = archetypeDir.resolve(ArchetypeEngine.DESCRIPTOR_RESOURCE_NAME);
+        try (InputStream is = Files.newInputStream(descriptorFile);
+             OutputStream os = Files.newOutputStream(archetypeDir.resolve(ArchetypeEngine.COMPILED_ARCHETYPE_RESOURCE_NAME))) {
+            CompiledArchetype.write(ArchetypeDescriptor.read(is), Files.readAllLines(
+                    archetypeDir.resolve(ArchetypeEngine.RESOURCES_LIST)), os);
+        }
+
+        new ArchetypeEngine(archetypeDir.toFile(), properties()).generate(dir.resolve("expected").toFile());
+
+        // Neither the descriptor nor the resources list are needed
+
+        Files.delete(descriptorFile);
+        Files.delete(archetypeDir.resolve(ArchetypeEngine.RESOURCES_LIST));
+        new ArchetypeEngine(archetypeDir.toFile(), properties()).generate(dir.resolve("actual").toFile());
+
+        for (String file : List.of("pom.xml", "src/main/java/com/example/myproject/Main.java")) {
+            assertThat(Files.readString(dir.resolve("actual").resolve(file)),
+                    is(Files.readString(dir.resolve("expected").resolve(file))));
+        }
+    }
+
+    private static Map<String, String> properties() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("groupId", "com.example");
+        properties.put("artifactId", "my-project");
+        properties.put("version", "1.0-SNAPSHOT");
+        properties.put("name", "my super project");
+        properties.put("package", "com.example.myproject");
+        properties.put("maven", "true");
+        return properties;
+    }
+}
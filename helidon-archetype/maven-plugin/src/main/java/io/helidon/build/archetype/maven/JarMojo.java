@@ -18,6 +18,8 @@ package io.helidon.build.archetype.maven;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
@@ -33,6 +35,7 @@ import java.util.stream.Collectors;
 
 import io.helidon.build.archetype.engine.ArchetypeDescriptor;
 import io.helidon.build.archetype.engine.ArchetypeEngine;
+import io.helidon.build.archetype.engine.CompiledArchetype;
 import io.helidon.build.util.MustacheHelper;
 import io.helidon.build.util.SourcePath;
 
@@ -176,6 +179,7 @@ public class JarMojo extends AbstractMojo {
             processMavenCompat(archetypeDir, archetypeDescriptor);
         }
         processArchetypeResources(resources, archetypeDir, baseDir, archetypeResourcesList);
+        processCompiledArchetype(archetypeDir, archetypeDescriptor, archetypeResourcesList);
 
         File jarFile = generateArchetypeJar(archetypeDir);
         project.getArtifact().setFile(jarFile);
@@ -324,6 +328,32 @@ public class JarMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * Compile the archetype descriptor together with the resources matched by each template set and file set, so that
+     * the engine does not have to parse the descriptor or match the resources when generating a project.
+     *
+     * @param archetypeDir           the exploded archetype directory
+     * @param archetypeDescriptor    the helidon archetype descriptor
+     * @param archetypeResourcesList the archetype resource list file
+     * @throws MojoExecutionException if an IO error occurs
+     */
+    private void processCompiledArchetype(Path archetypeDir, Path archetypeDescriptor, Path archetypeResourcesList)
+            throws MojoExecutionException {
+
+        getLog().info("Compiling archetype descriptor");
+
+        // create target/archetype/META-INF/helidon-archetype.bin
+        Path compiledArchetype = archetypeDir.resolve(ArchetypeEngine.COMPILED_ARCHETYPE_RESOURCE_NAME);
+        try (InputStream is = Files.newInputStream(archetypeDescriptor);
+             OutputStream os = Files.newOutputStream(compiledArchetype)) {
+            ArchetypeDescriptor desc = ArchetypeDescriptor.read(is);
+            List<String> resources = Files.readAllLines(archetypeResourcesList);
+            CompiledArchetype.write(desc, resources, os);
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+
     /**
      * Generate the archetype JAR file.
      *
@@ -392,8 +422,8 @@ public class JarMojo extends AbstractMojo {
         getLog().debug("Scanning project resources");
         Map<String, List<String>> allResources = new HashMap<>();
         for (Resource resource : project.getResources()) {
-            List<String> resources = SourcePath.scan(new File(resource.getDirectory())).stream()
-                    .filter(p -> p.matches(resource.getIncludes(), resource.getExcludes()))
+            List<String> resources = SourcePath.scan(new File(resource.getDirectory()),
+                                                     resource.getIncludes(), resource.getExcludes()).stream()
                     .map(p -> p.asString(false))
                     .collect(Collectors.toList());
             if (getLog().isDebugEnabled()) {
@@ -19,6 +19,7 @@ package io.helidon.build.cli.maven.dev;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -57,6 +58,7 @@ import static java.util.Collections.emptyList;
         defaultPhase = LifecyclePhase.NONE,
         requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME)
 public class DevMojo extends AbstractMojo {
+    private static final String POM_PACKAGING = "pom";
 
     /**
      * The Maven project this mojo executes on.
@@ -100,6 +102,21 @@ public class DevMojo extends AbstractMojo {
     @Parameter(property = "dev.appArgs")
     private String appArgs;
 
+    /**
+     * Reload application classes after a source change rather than restarting the application JVM.
+     */
+    @Parameter(defaultValue = "false", property = "dev.appReload")
+    private boolean appReload;
+
+    /**
+     * Create a class data sharing archive of the dependency classes after the first run of the application, and use it
+     * to start later runs faster until the dependencies change. The archive requires the dependencies to be placed before
+     * the application directories on the class path, so any class or resource of the application that a dependency
+     * also contains is loaded from the dependency instead.
+     */
+    @Parameter(defaultValue = "false", property = "dev.appCds")
+    private boolean appCds;
+
     /**
      * Skip execution for this plugin.
      */
@@ -158,6 +175,13 @@ public class DevMojo extends AbstractMojo {
             getLog().info("Skipping execution.");
             return;
         }
+        if (!project.isExecutionRoot()) {
+
+            // The loop runs in the top level project and covers all modules
+
+            getLog().debug("Skipping execution in module " + project.getArtifactId());
+            return;
+        }
         try {
             MavenProjectConfigCollector.assertSupportedProject(session);
             if (terminalMode) {
@@ -171,7 +195,8 @@ public class DevMojo extends AbstractMojo {
             final List<String> jvmArgs = toList(appJvmArgs);
             final List<String> args = toList(appArgs);
             final Path dir = devProjectDir.toPath();
-            final DevLoop loop = new DevLoop(dir, projectSupplier, clean, fork, terminalMode, jvmArgs, args, configuration);
+            final DevLoop loop = new DevLoop(dir, projectSupplier, clean, fork, terminalMode, jvmArgs, args, appReload,
+                                             appCds, configuration);
             loop.start(Integer.MAX_VALUE);
         } catch (Exception e) {
             throw new MojoExecutionException("Error", e);
@@ -182,14 +207,34 @@ public class DevMojo extends AbstractMojo {
         final DevLoopBuildConfig config = devLoop == null ? new DevLoopBuildConfig() : devLoop;
         config.validate();
         if (resolve) {
-            final MavenEnvironment env = new MavenEnvironment(project, session, mojoDescriptorCreator, defaultLifeCycles,
-                                                              standardDelegate, delegates, plugins);
-            final MavenGoalReferenceResolver resolver = new MavenGoalReferenceResolver(env);
-            config.resolve(resolver);
+            final MavenGoalReferenceResolver resolver = new MavenGoalReferenceResolver(environment(project, session));
+            if (session.getProjects().size() == 1) {
+                config.resolve(resolver);
+            } else {
+
+                // Resolve the incremental build goals in the context of each module, in a session of its own so that
+                // modules can be built concurrently
+
+                final Map<String, MavenGoalReferenceResolver> moduleResolvers = new HashMap<>();
+                for (MavenProject module : session.getProjects()) {
+                    if (!POM_PACKAGING.equals(module.getPackaging())) {
+                        final MavenSession moduleSession = session.clone();
+                        moduleSession.setCurrentProject(module);
+                        moduleResolvers.put(MavenProjectConfigCollector.moduleName(module),
+                                            new MavenGoalReferenceResolver(environment(module, moduleSession)));
+                    }
+                }
+                config.resolve(resolver, moduleResolvers);
+            }
         }
         return config;
     }
 
+    private MavenEnvironment environment(MavenProject project, MavenSession session) {
+        return new MavenEnvironment(project, session, mojoDescriptorCreator, defaultLifeCycles, standardDelegate, delegates,
+                                    plugins);
+    }
+
     private static List<String> toList(String args) {
         return args == null ? emptyList() : Arrays.asList(args.split(" "));
     }
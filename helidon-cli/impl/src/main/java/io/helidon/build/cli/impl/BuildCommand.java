@@ -42,6 +42,7 @@ public final class BuildCommand extends BaseCommand {
     private final BuildMode buildMode;
     private final String pluginVersion;
     private final boolean useCurrentPluginVersion;
+    private final boolean daemon;
 
     enum BuildMode {
         PLAIN,
@@ -57,13 +58,16 @@ public final class BuildCommand extends BaseCommand {
                          String pluginVersion,
                  @Flag(name = "current", description = "Use the build version as the helidon plugin(s) version",
                          visible = false)
-                         boolean useCurrentPluginVersion) {
+                         boolean useCurrentPluginVersion,
+                 @Flag(name = "daemon", description = "Build in a background Maven process that is kept for later builds")
+                         boolean daemon) {
         super(commonOptions, true);
         this.commonOptions = commonOptions;
         this.clean = clean;
         this.buildMode = buildMode;
         this.pluginVersion = pluginVersion;
         this.useCurrentPluginVersion = useCurrentPluginVersion;
+        this.daemon = daemon;
     }
 
     @Override
@@ -85,6 +89,7 @@ public final class BuildCommand extends BaseCommand {
                                                    .addOptionalArgument(cliPluginVersionProperty)
                                                    .addArguments(context.propertyArgs(true))
                                                    .verbose(context.verbosity() != NORMAL)
+                                                   .daemon(daemon)
                                                    .directory(commonOptions.project());
         switch (buildMode) {
             case PLAIN:
@@ -63,6 +63,7 @@ public final class DevCommand extends BaseCommand {
     private static final String TERMINAL_MODE_PROP_PREFIX = "-Ddev.terminalMode=";
     private static final String APP_JVM_ARGS_PROP_PREFIX = "-Ddev.appJvmArgs=";
     private static final String APP_ARGS_PROP_PREFIX = "-Ddev.appArgs=";
+    private static final String APP_RELOAD_PROP_PREFIX = "-Ddev.appReload=";
     private static final String CLI_MAVEN_PLUGIN = "io.helidon.build-tools:helidon-cli-maven-plugin";
     private static final String DEV_GOAL_SUFFIX = ":dev";
     private static final String MAVEN_LOG_LEVEL_START = "[";
@@ -81,6 +82,7 @@ public final class DevCommand extends BaseCommand {
     private final boolean fork;
     private final String appJvmArgs;
     private final String appArgs;
+    private final boolean appReload;
     private final String pluginVersion;
     private final boolean useCurrentPluginVersion;
     private TerminalModeOutput terminalModeOutput;
@@ -91,7 +93,7 @@ public final class DevCommand extends BaseCommand {
      * @param commonOptions Common options.
      */
     DevCommand(CommonOptions commonOptions) {
-        this(commonOptions, true, false, null, null, false, null,
+        this(commonOptions, true, false, null, null, false, false, null,
              false, null, false);
     }
 
@@ -103,6 +105,8 @@ public final class DevCommand extends BaseCommand {
                        String appJvmArgs,
                @KeyValue(name = "app-args", description = "Application args used when starting the application")
                        String appArgs,
+               @Flag(name = "app-reload", description = "Reload application classes on change rather than restarting")
+                       boolean appReload,
                @Flag(name = "app-debug", description = "Enable application debugger")
                        boolean appDebug,
                @KeyValue(name = "app-debug-port", description = "Specify application debugger port")
@@ -120,6 +124,7 @@ public final class DevCommand extends BaseCommand {
         this.fork = fork;
         this.appJvmArgs = appJvmArgs(appJvmArgs, appDebug, appDebugPort, appDebugNoWait);
         this.appArgs = appArgs;
+        this.appReload = appReload;
         this.pluginVersion = pluginVersion;
         this.useCurrentPluginVersion = useCurrentPluginVersion;
     }
@@ -204,6 +209,7 @@ public final class DevCommand extends BaseCommand {
                     .addArgument(CLEAN_PROP_PREFIX + clean)
                     .addArgument(FORK_PROP_PREFIX + fork)
                     .addArgument(TERMINAL_MODE_PROP_PREFIX + terminalMode)
+                    .addArgument(APP_RELOAD_PROP_PREFIX + appReload)
                     .addArguments(context.propertyArgs(true))
                     .addOptionalArgument(cliPluginVersionProperty)
                     .addOptionalArgument(jvmArgs)
@@ -15,8 +15,11 @@
  */
 package io.helidon.build.cli.impl;
 
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.FileTime;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -31,6 +34,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import io.helidon.build.archetype.engine.ArchetypeCatalog;
+import io.helidon.build.archetype.engine.ArchetypeCatalogIndex;
 import io.helidon.build.cli.harness.Config;
 import io.helidon.build.util.ConfigProperties;
 import io.helidon.build.util.Log;
@@ -48,6 +52,13 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * CLI metadata access.
+ * <p>
+ * If background refresh is enabled, stale metadata is used as is while a single detached process refreshes it for the
+ * next use; a lock file in the root directory prevents concurrent CLI invocations from each starting a refresh. Only
+ * missing metadata, or an update frequency of zero, requires an update before use.
+ * <p>
+ * Archetype jars are shared by all versions in a directory of the root, named by their SHA-256 checksum, and each catalog
+ * is read from a binary index that is created from the XML on first use.
  */
 public class Metadata {
     /**
@@ -69,6 +80,12 @@ public class Metadata {
     private static final String LAST_UPDATE_FILE_NAME = ".lastUpdate";
     private static final String METADATA_FILE_NAME = "metadata.properties";
     private static final String CATALOG_FILE_NAME = "archetype-catalog.xml";
+    private static final String CATALOG_INDEX_FILE_NAME = "archetype-catalog.idx";
+    private static final String ARCHETYPES_DIR_NAME = "archetypes";
+    private static final String ARCHETYPE_CHECKSUMS_FILE_NAME = "archetypes.sha256";
+    private static final String CHECKSUM_SEPARATOR = "  ";
+    private static final String REFRESH_LOCK_FILE_NAME = ".refresh.lock";
+    private static final long REFRESH_LOCK_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(5);
     private static final String PLUGIN_NAME = "UpdateMetadata";
     private static final String JAR_SUFFIX = ".jar";
     private static final int PLUGIN_MAX_WAIT_SECONDS = 30;
@@ -87,6 +104,8 @@ public class Metadata {
     private final Path latestVersionFile;
     private final long updateFrequencyMillis;
     private final boolean debugPlugin;
+    private final boolean backgroundRefresh;
+    private final Path refreshLockFile;
     private final Map<Path, Long> lastChecked;
     private final AtomicReference<Exception> latestVersionFailure;
     private final AtomicReference<MavenVersion> latestVersion;
@@ -132,7 +151,7 @@ public class Metadata {
     public static Metadata newInstance(String url, long updateFrequencyHours) {
         final Path cacheDir = Config.userConfig().cacheDir();
         final boolean debug = Log.isDebug();
-        return newInstance(cacheDir, url, updateFrequencyHours, DEFAULT_UPDATE_FREQUENCY_UNITS, debug);
+        return newInstance(cacheDir, url, updateFrequencyHours, DEFAULT_UPDATE_FREQUENCY_UNITS, debug, true);
     }
 
     /**
@@ -150,19 +169,42 @@ public class Metadata {
                                        long updateFrequency,
                                        TimeUnit updateFrequencyUnits,
                                        boolean debugPlugin) {
-        return new Metadata(rootDir, url, updateFrequency, updateFrequencyUnits, debugPlugin);
+        return newInstance(rootDir, url, updateFrequency, updateFrequencyUnits, debugPlugin, false);
+    }
+
+    /**
+     * Returns a new instance.
+     *
+     * @param rootDir The root directory.
+     * @param url The url.
+     * @param updateFrequency The update frequency.
+     * @param updateFrequencyUnits The update frequency units.
+     * @param debugPlugin {@code true} if should enable debug logging in plugin.
+     * @param backgroundRefresh {@code true} if stale metadata should be used while it is refreshed in the background.
+     * @return The instance.
+     */
+    public static Metadata newInstance(Path rootDir,
+                                       String url,
+                                       long updateFrequency,
+                                       TimeUnit updateFrequencyUnits,
+                                       boolean debugPlugin,
+                                       boolean backgroundRefresh) {
+        return new Metadata(rootDir, url, updateFrequency, updateFrequencyUnits, debugPlugin, backgroundRefresh);
     }
 
     private Metadata(Path rootDir,
                      String url,
                      long updateFrequency,
                      TimeUnit updateFrequencyUnits,
-                     boolean debugPlugin) {
+                     boolean debugPlugin,
+                     boolean backgroundRefresh) {
         this.rootDir = rootDir;
         this.url = url;
         this.latestVersionFile = rootDir.resolve(LATEST_VERSION_FILE_NAME);
         this.updateFrequencyMillis = updateFrequencyUnits.toMillis(updateFrequency);
         this.debugPlugin = debugPlugin;
+        this.backgroundRefresh = backgroundRefresh;
+        this.refreshLockFile = rootDir.resolve(REFRESH_LOCK_FILE_NAME);
         this.lastChecked = new HashMap<>();
         this.latestVersionFailure = new AtomicReference<>();
         this.latestVersion = new AtomicReference<>();
@@ -399,7 +441,20 @@ public class Metadata {
      * @throws Exception If an error occurs.
      */
     public ArchetypeCatalog catalogOf(MavenVersion helidonVersion) throws Exception {
-        return ArchetypeCatalog.read(versionedFile(helidonVersion, CATALOG_FILE_NAME, false));
+        final Path versionDir = versionDir(helidonVersion, false);
+        final Path indexFile = versionDir.resolve(CATALOG_INDEX_FILE_NAME);
+        if (Files.exists(indexFile)) {
+            try {
+                return ArchetypeCatalogIndex.read(indexFile);
+            } catch (IOException e) {
+                Log.debug("could not read %s: %s", indexFile, e.toString());
+            }
+        }
+        final Path catalogFile = assertFile(versionDir.resolve(CATALOG_FILE_NAME));
+        final FileTime catalogTime = Files.getLastModifiedTime(catalogFile);
+        final ArchetypeCatalog catalog = ArchetypeCatalog.read(catalogFile);
+        writeCatalogIndex(catalog, catalogFile, catalogTime, indexFile);
+        return catalog;
     }
 
     /**
@@ -412,7 +467,19 @@ public class Metadata {
     public Path archetypeOf(ArchetypeCatalog.ArchetypeEntry catalogEntry) throws Exception {
         final MavenVersion helidonVersion = toMavenVersion(catalogEntry.version());
         final String fileName = catalogEntry.artifactId() + "-" + helidonVersion + JAR_SUFFIX;
-        return versionedFile(helidonVersion, fileName, false);
+        Path jarFile = archetypeJar(versionDir(helidonVersion, false), fileName);
+        if (jarFile == null) {
+
+            // The entry may come from a catalog read before a background refresh replaced the version directory
+
+            Log.debug("%s not found, updating", fileName);
+            update(helidonVersion, false);
+            jarFile = archetypeJar(versionDir(helidonVersion, false), fileName);
+            if (jarFile == null) {
+                throw new IllegalStateException("No archetype " + fileName + " for Helidon version " + helidonVersion);
+            }
+        }
+        return jarFile;
     }
 
     private String requiredProperty(MavenVersion helidonVersion, String propertyName, boolean quiet) throws Exception {
@@ -457,12 +524,56 @@ public class Metadata {
         return CLI_MESSAGE_PREFIX + version.toString() + CLI_MESSAGE_SUFFIX;
     }
 
-    @SuppressWarnings("ConstantConditions")
     private Path versionedFile(MavenVersion helidonVersion, String fileName, boolean quiet) throws Exception {
+        return assertFile(versionDir(helidonVersion, quiet).resolve(fileName));
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    private Path versionDir(MavenVersion helidonVersion, boolean quiet) throws Exception {
         final Path versionDir = rootDir.resolve(requireNonNull(helidonVersion).toString());
         final Path checkFile = versionDir.resolve(LAST_UPDATE_FILE_NAME);
         checkForUpdates(helidonVersion, checkFile, quiet);
-        return assertFile(requireHelidonVersionDir(versionDir).resolve(fileName));
+        return requireHelidonVersionDir(versionDir);
+    }
+
+    private Path archetypeJar(Path versionDir, String fileName) throws IOException {
+        final Path jarFile = versionDir.resolve(fileName);
+        if (Files.exists(jarFile)) {
+            return jarFile;
+        }
+        final Path checksumsFile = versionDir.resolve(ARCHETYPE_CHECKSUMS_FILE_NAME);
+        if (Files.exists(checksumsFile)) {
+            for (String line : Files.readAllLines(checksumsFile, UTF_8)) {
+                if (line.endsWith(CHECKSUM_SEPARATOR + fileName)) {
+                    final String checksum = line.substring(0, line.indexOf(CHECKSUM_SEPARATOR));
+                    final Path storedFile = rootDir.resolve(ARCHETYPES_DIR_NAME).resolve(checksum + JAR_SUFFIX);
+                    return Files.exists(storedFile) ? storedFile : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void writeCatalogIndex(ArchetypeCatalog catalog, Path catalogFile, FileTime catalogTime, Path indexFile) {
+
+        // Written to a temp file and moved since another CLI invocation may be reading it, unless a refresh replaced
+        // the catalog since it was read
+
+        try {
+            final Path tempFile = Files.createTempFile(indexFile.getParent(), CATALOG_INDEX_FILE_NAME, null);
+            try {
+                ArchetypeCatalogIndex.write(catalog, tempFile);
+                if (!catalogTime.equals(Files.getLastModifiedTime(catalogFile))) {
+                    Log.debug("%s changed, not writing %s", catalogFile, indexFile);
+                    return;
+                }
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            Log.debug("could not write %s: %s", indexFile, e.toString());
+        }
     }
 
     private boolean checkForUpdates(MavenVersion helidonVersion, Path checkFile, boolean quiet) throws Exception {
@@ -471,6 +582,10 @@ public class Metadata {
 
     boolean checkForUpdates(MavenVersion helidonVersion, Path checkFile, long currentTimeMillis, boolean quiet) throws Exception {
         if (isStale(checkFile, currentTimeMillis)) {
+            if (backgroundRefresh && updateFrequencyMillis > 0 && Files.exists(checkFile)) {
+                refresh(helidonVersion, currentTimeMillis);
+                return false;
+            }
             update(helidonVersion, quiet);
             return true;
         } else {
@@ -533,14 +648,68 @@ public class Metadata {
         }
     }
 
+    private void refresh(MavenVersion helidonVersion, long currentTimeMillis) {
+        if (acquireRefreshLock(currentTimeMillis)) {
+            try {
+                final List<String> args = updateArgs(helidonVersion, PLUGIN_MAX_ATTEMPTS);
+                args.add("--lockFile");
+                args.add(refreshLockFile.toAbsolutePath().toString());
+                Plugins.executeDetached(PLUGIN_NAME, args);
+                Log.debug("refreshing metadata in background");
+            } catch (Exception e) {
+                Log.debug("could not start metadata refresh: %s", e.toString());
+                releaseRefreshLock();
+            }
+        } else {
+            Log.debug("metadata refresh already in progress");
+        }
+    }
+
+    private boolean acquireRefreshLock(long currentTimeMillis) {
+        if (createRefreshLock()) {
+            return true;
+        }
+
+        // Take over the lock if the refresh that holds it must have died
+
+        try {
+            final long ageMillis = currentTimeMillis - Files.getLastModifiedTime(refreshLockFile).to(MILLISECONDS);
+            if (ageMillis > REFRESH_LOCK_MAX_AGE_MILLIS) {
+                releaseRefreshLock();
+                return createRefreshLock();
+            }
+            return false;
+        } catch (IOException e) {
+
+            // Released since we tried
+
+            return createRefreshLock();
+        }
+    }
+
+    private boolean createRefreshLock() {
+        try {
+            Files.createFile(refreshLockFile);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (IOException e) {
+            Log.debug("could not create %s: %s", refreshLockFile, e.toString());
+            return false;
+        }
+    }
+
+    private void releaseRefreshLock() {
+        try {
+            Files.deleteIfExists(refreshLockFile);
+        } catch (IOException e) {
+            Log.debug("could not delete %s: %s", refreshLockFile, e.toString());
+        }
+    }
+
     private void update(MavenVersion helidonVersion, boolean quiet) throws Exception {
         final boolean logInfo = Log.isDebug() || !quiet;
         final int maxAttempts = quiet ? 1 : PLUGIN_MAX_ATTEMPTS;
-        final List<String> args = new ArrayList<>();
-        args.add("--baseUrl");
-        args.add(url);
-        args.add("--cacheDir");
-        args.add(rootDir.toAbsolutePath().toString());
         if (helidonVersion == null) {
             if (logInfo) {
                 Log.info("Looking up latest Helidon version");
@@ -549,13 +718,8 @@ public class Metadata {
             if (logInfo) {
                 Log.info("Updating metadata for Helidon version %s", helidonVersion);
             }
-            args.add("--version");
-            args.add(helidonVersion.toString());
         }
-        args.add("--cliVersion");
-        args.add(Config.buildVersion());
-        args.add("--maxAttempts");
-        args.add(Integer.toString(maxAttempts));
+        final List<String> args = updateArgs(helidonVersion, maxAttempts);
         if (debugPlugin) {
             args.add("--debug");
             Plugins.execute(PLUGIN_NAME, args, PLUGIN_MAX_WAIT_SECONDS, Metadata::info);
@@ -564,6 +728,23 @@ public class Metadata {
         }
     }
 
+    private List<String> updateArgs(MavenVersion helidonVersion, int maxAttempts) {
+        final List<String> args = new ArrayList<>();
+        args.add("--baseUrl");
+        args.add(url);
+        args.add("--cacheDir");
+        args.add(rootDir.toAbsolutePath().toString());
+        if (helidonVersion != null) {
+            args.add("--version");
+            args.add(helidonVersion.toString());
+        }
+        args.add("--cliVersion");
+        args.add(Config.buildVersion());
+        args.add("--maxAttempts");
+        args.add(Integer.toString(maxAttempts));
+        return args;
+    }
+
     private static void info(String line) {
         Log.info(line);
     }
@@ -17,11 +17,20 @@ package io.helidon.build.cli.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -37,14 +46,24 @@ import static java.util.Objects.requireNonNull;
 
 /**
  * Utility to execute plugins.
+ * <p>
+ * Plugins are executed in this process, using a class loader that sees only the plugins jar and the JDK. A new JVM is
+ * forked instead if the plugins cannot be loaded by this JVM, or if the {@code plugin.fork} or {@code plugin.debug.port}
+ * system property is set.
  */
 public class Plugins {
     private static final AtomicReference<Path> PLUGINS_JAR = new AtomicReference<>();
+    private static final AtomicReference<URLClassLoader> PLUGINS_LOADER = new AtomicReference<>();
+    private static final Semaphore IN_PROCESS_PERMIT = new Semaphore(1);
     private static final String JAR_NAME_PREFIX = "cli-plugins-";
     private static final String JAR_NAME_SUFFIX = ".jar";
     private static final String JAR_RESOURCE_DIR = "plugins";
     private static final String DEBUG_PORT_PROPERTY = "plugin.debug.port";
     private static final int DEFAULT_DEBUG_PORT = Integer.getInteger(DEBUG_PORT_PROPERTY, 0);
+    private static final String FORK_PROPERTY = "plugin.fork";
+    private static final boolean FORK = Boolean.getBoolean(FORK_PROPERTY);
+    private static final String PLUGIN_CLASS_NAME = "io.helidon.build.cli.plugin.Plugin";
+    private static final String PLUGIN_EXECUTE_METHOD = "execute";
     private static final String DEBUG_ARG_PREFIX = "-agentlib:jdwp=transport=dt_socket,server=y,suspend=y,address=*:";
     private static final String JIT_LEVEL_ONE = "-XX:TieredStopAtLevel=1";
     private static final String JIT_TWO_COMPILER_THREADS = "-XX:CICompilerCount=2";
@@ -75,6 +94,7 @@ public class Plugins {
      * @param deleteJar {@code true} if plugin jar should be deleted if present.
      */
     static void reset(boolean deleteJar) {
+        closeLoader();
         if (deleteJar) {
             final Path existing = PLUGINS_JAR.get();
             if (existing != null && Files.exists(existing)) {
@@ -115,29 +135,169 @@ public class Plugins {
                                List<String> pluginArgs,
                                int maxWaitSeconds,
                                Consumer<String> stdOut) throws Exception {
+        final List<String> args = new ArrayList<>();
+        args.add(requireNonNull(pluginName));
+        if (Log.isDebug()) {
+            args.add("--debug");
+        } else if (Log.isVerbose()) {
+            args.add("--verbose");
+        }
+        args.addAll(pluginArgs);
+        if (FORK || DEFAULT_DEBUG_PORT > 0 || !executeInProcess(pluginName, args, maxWaitSeconds, stdOut)) {
+            fork(pluginName, args, maxWaitSeconds, stdOut);
+        }
+    }
 
-        // Create the command
+    /**
+     * Start a plugin in a new JVM that is not monitored and may outlive this one. The plugin output is discarded.
+     *
+     * @param pluginName The plugin name.
+     * @param pluginArgs The plugin args.
+     * @throws Exception If the process could not be started.
+     */
+    public static void executeDetached(String pluginName, List<String> pluginArgs) throws Exception {
+        final List<String> args = new ArrayList<>();
+        args.add(requireNonNull(pluginName));
+        args.addAll(pluginArgs);
+        final List<String> command = forkCommand(args);
+        Log.debug("executing detached %s", command);
+        JavaProcessBuilder.newInstance()
+                          .command(command)
+                          .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                          .redirectError(ProcessBuilder.Redirect.DISCARD)
+                          .start()
+                          .getOutputStream()
+                          .close();
+    }
 
-        final List<String> command = new ArrayList<>();
-        command.add("java");
-        command.add(JIT_LEVEL_ONE);
-        command.add(JIT_TWO_COMPILER_THREADS);
-        if (DEFAULT_DEBUG_PORT > 0) {
-            command.add(DEBUG_ARG_PREFIX + DEFAULT_DEBUG_PORT);
+    /**
+     * Plugin failure.
+     */
+    public static class PluginFailed extends Exception {
+        private PluginFailed(String message) {
+            super(message);
         }
-        command.addAll(Proxies.javaProxyArgs());
-        command.add("-jar");
-        command.add(pluginJar().toString());
-        command.add(requireNonNull(pluginName));
-        if (Log.isDebug()) {
-            command.add("--debug");
-        } else if (Log.isVerbose()) {
-            command.add("--verbose");
+
+        private PluginFailed(Exception cause) {
+            super(cause);
+        }
+
+        private PluginFailed(String message, Exception cause) {
+            super(message, cause);
+        }
+    }
+
+    private static boolean executeInProcess(String pluginName,
+                                            List<String> args,
+                                            int maxWaitSeconds,
+                                            Consumer<String> stdOut) throws Exception {
+
+        // Only one at a time, since the plugin log is static. The permit is released by the plugin thread once the plugin
+        // ends, so one that timed out and ignored the interrupt still excludes the next one.
+
+        if (!IN_PROCESS_PERMIT.tryAcquire(maxWaitSeconds, TimeUnit.SECONDS)) {
+            throw new PluginFailed(pluginName + TIMED_OUT_SUFFIX);
+        }
+        boolean started = false;
+        try {
+            final Method execute;
+            try {
+                execute = pluginClass().getMethod(PLUGIN_EXECUTE_METHOD, String[].class, Consumer.class);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                Log.debug("cannot execute %s in process: %s", pluginName, e.toString());
+                return false;
+            }
+
+            // Run on a separate thread so that we can time out
+
+            final List<String> output = Collections.synchronizedList(new ArrayList<>());
+            final Consumer<String> logOutput = message -> {
+                for (String line : message.split("\\R", -1)) {
+                    output.add(line);
+                    stdOut.accept(line);
+                }
+            };
+            final CompletableFuture<Integer> result = new CompletableFuture<>();
+            final Thread thread = new Thread(() -> {
+                try {
+                    result.complete((Integer) execute.invoke(null, args.toArray(new String[0]), logOutput));
+                } catch (InvocationTargetException e) {
+                    result.completeExceptionally(e.getCause());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    IN_PROCESS_PERMIT.release();
+                }
+            }, "plugin-" + pluginName);
+            thread.setDaemon(true);
+            thread.setContextClassLoader(execute.getDeclaringClass().getClassLoader());
+            Log.debug("executing %s in process from %s", args, pluginJar());
+            thread.start();
+            started = true;
+            final int status;
+            try {
+                status = result.get(maxWaitSeconds, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+
+                // Blocking I/O ignores the interrupt, in which case the thread keeps the permit until it ends
+
+                thread.interrupt();
+                throw new PluginFailed(pluginName + TIMED_OUT_SUFFIX);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UnsupportedClassVersionError) {
+                    Log.debug("cannot execute %s in process: %s", pluginName, e.getCause().toString());
+                    return false;
+                }
+                if (output.isEmpty()) {
+                    throw new PluginFailed(toException(e.getCause()));
+                } else {
+                    throw new PluginFailed(String.join(EOL, output), toException(e.getCause()));
+                }
+            }
+            if (status != 0) {
+                throw new PluginFailed(String.join(EOL, output));
+            }
+            return true;
+        } finally {
+            if (!started) {
+                IN_PROCESS_PERMIT.release();
+            }
         }
-        command.addAll(pluginArgs);
+    }
+
+    private static Class<?> pluginClass() throws Exception {
+        URLClassLoader loader = PLUGINS_LOADER.get();
+        if (loader == null) {
+            final URL[] urls = {pluginJar().toUri().toURL()};
+            loader = new URLClassLoader("helidon-cli-plugins", urls, ClassLoader.getPlatformClassLoader());
+            PLUGINS_LOADER.set(loader);
+        }
+        return Class.forName(PLUGIN_CLASS_NAME, true, loader);
+    }
+
+    private static void closeLoader() {
+        final URLClassLoader loader = PLUGINS_LOADER.getAndSet(null);
+        if (loader != null) {
+            try {
+                loader.close();
+            } catch (IOException e) {
+                Log.debug("Could not close plugins class loader: %s", e.toString());
+            }
+        }
+    }
+
+    private static Exception toException(Throwable error) {
+        return error instanceof Exception ? (Exception) error : new ExecutionException(error);
+    }
+
+    private static void fork(String pluginName,
+                             List<String> args,
+                             int maxWaitSeconds,
+                             Consumer<String> stdOut) throws Exception {
 
         // Create the process builder
 
+        final List<String> command = forkCommand(args);
         final ProcessBuilder processBuilder = JavaProcessBuilder.newInstance().command(command);
 
         // Fork and wait...
@@ -171,21 +331,19 @@ public class Plugins {
         }
     }
 
-    /**
-     * Plugin failure.
-     */
-    public static class PluginFailed extends Exception {
-        private PluginFailed(String message) {
-            super(message);
-        }
-
-        private PluginFailed(Exception cause) {
-            super(cause);
-        }
-
-        private PluginFailed(String message, Exception cause) {
-            super(message, cause);
+    private static List<String> forkCommand(List<String> args) throws Exception {
+        final List<String> command = new ArrayList<>();
+        command.add("java");
+        command.add(JIT_LEVEL_ONE);
+        command.add(JIT_TWO_COMPILER_THREADS);
+        if (DEFAULT_DEBUG_PORT > 0) {
+            command.add(DEBUG_ARG_PREFIX + DEFAULT_DEBUG_PORT);
         }
+        command.addAll(Proxies.javaProxyArgs());
+        command.add("-jar");
+        command.add(pluginJar().toString());
+        command.addAll(args);
+        return command;
     }
 
     private static boolean containsUnsupportedClassVersionError(List<String> stdErr) {
@@ -18,6 +18,7 @@ package io.helidon.build.cli.impl;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -70,6 +71,7 @@ public class MetadataTest extends MetadataTestBase {
 
     static final String RC1_LAST_UPDATE = VERSION_RC1 + File.separator + LAST_UPDATE_FILE_NAME;
     static final String RC2_LAST_UPDATE = VERSION_RC2 + File.separator + LAST_UPDATE_FILE_NAME;
+    static final String RC1_UPDATE_DIR = ".tmp-" + VERSION_RC1 + "-";
 
     @BeforeEach
     public void beforeEach(TestInfo info) {
@@ -114,6 +116,7 @@ public class MetadataTest extends MetadataTestBase {
         assertThat(entriesById.get(HELIDON_BARE_SE).name(), is("bare"));
         assertThat(entriesById.get(HELIDON_BARE_MP), is(notNullValue()));
         assertThat(entriesById.get(HELIDON_BARE_MP).name(), is("bare"));
+        assertThat(Files.exists(cacheDir.resolve(VERSION_RC1).resolve("archetype-catalog.idx")), is(true));
         assertThat(logged.size(), is(1));
         logged.assertLinesContainingAll(1, "stale check", "is false", RC1_LAST_UPDATE);
 
@@ -123,7 +126,9 @@ public class MetadataTest extends MetadataTestBase {
         Path archetypeJar = meta.archetypeOf(entriesById.get("helidon-bare-se"));
         assertThat(archetypeJar, is(not(nullValue())));
         assertThat(Files.exists(archetypeJar), is(true));
-        assertThat(archetypeJar.getFileName().toString(), is("helidon-bare-se-2.0.0-RC1.jar"));
+        assertThat(archetypeJar.getParent().getFileName().toString(), is("archetypes"));
+        assertThat(Files.readString(cacheDir.resolve(VERSION_RC1).resolve("archetypes.sha256")),
+                   containsString(archetypeJar.getFileName().toString().replace(".jar", "  helidon-bare-se-2.0.0-RC1.jar")));
         assertThat(logged.size(), is(1));
         logged.assertLinesContainingAll(1, "stale check", "is false", RC1_LAST_UPDATE);
 
@@ -297,7 +302,7 @@ public class MetadataTest extends MetadataTestBase {
         assertThat(meta.latestVersion(), is(latestVersion));
 
         logged.assertLinesContainingAll(1, "stale check", "is true", LATEST_FILE_NAME);
-        logged.assertLinesContainingAll(1, "updated", RC1_LAST_UPDATE, "etag " + NO_ETAG);
+        logged.assertLinesContainingAll(1, "updated", RC1_UPDATE_DIR, LAST_UPDATE_FILE_NAME, "etag " + NO_ETAG);
         logged.assertLinesContainingAll("Looking up latest Helidon version");
         logged.assertNoLinesContainingAll("Updating metadata for Helidon version " + VERSION_RC1);
         logged.assertLinesContainingAll(1, "downloading", LATEST_FILE_NAME);
@@ -317,7 +322,7 @@ public class MetadataTest extends MetadataTestBase {
         assertThat(meta.propertiesOf(latestVersion), is(not(nullValue())));
 
         logged.assertLinesContainingAll(1, "stale check", "is true", RC1_LAST_UPDATE);
-        logged.assertLinesContainingAll(1, "updated", RC1_LAST_UPDATE, "etag " + NO_ETAG);
+        logged.assertLinesContainingAll(1, "updated", RC1_UPDATE_DIR, LAST_UPDATE_FILE_NAME, "etag " + NO_ETAG);
         logged.assertNoLinesContainingAll("Looking up latest Helidon version");
         logged.assertLinesContainingAll("Updating metadata for Helidon version " + VERSION_RC1);
         logged.assertLinesContainingAll(1, "downloading", LATEST_FILE_NAME);
@@ -337,7 +342,7 @@ public class MetadataTest extends MetadataTestBase {
         assertThat(meta.catalogOf(latestVersion), is(not(nullValue())));
 
         logged.assertLinesContainingAll(1, "stale check", "is true", RC1_LAST_UPDATE);
-        logged.assertLinesContainingAll(1, "updated", RC1_LAST_UPDATE, "etag " + NO_ETAG);
+        logged.assertLinesContainingAll(1, "updated", RC1_UPDATE_DIR, LAST_UPDATE_FILE_NAME, "etag " + NO_ETAG);
         logged.assertNoLinesContainingAll("Looking up latest Helidon version");
         logged.assertLinesContainingAll("Updating metadata for Helidon version " + VERSION_RC1);
         logged.assertLinesContainingAll(1, "downloading", LATEST_FILE_NAME);
@@ -410,9 +415,47 @@ public class MetadataTest extends MetadataTestBase {
         catalogRequest(VERSION_RC2, false);
         assertThat(meta.propertiesOf(VERSION_RC2), is(not(nullValue())));
         logged.assertLinesContainingAll(0, "not modified", RC2 + "/" + CLI_DATA_FILE_NAME);
-        logged.assertLinesContainingAll(0, "updated", RC2_LAST_UPDATE, "etag " + RC2_ETAG);
+        logged.assertLinesContainingAll(0, "updated", LAST_UPDATE_FILE_NAME, "etag " + RC2_ETAG);
         logged.assertLinesContainingAll(0, "downloading", LATEST_FILE_NAME);
         logged.assertLinesContainingAll(0, "connected", LATEST_FILE_NAME);
         logged.assertLinesContainingAll(0, "wrote", LATEST_FILE_NAME);
     }
+
+    @Test
+    void testStaleMetadataRefreshedInBackground() throws Exception {
+        assertInitialLatestVersionRequestPerformsUpdate(1, SECONDS, VERSION_RC1, NO_ETAG, false);
+        final Path lastUpdateFile = cacheDir.resolve(RC1_LAST_UPDATE);
+        final FileTime lastUpdateTime = Files.getLastModifiedTime(lastUpdateFile);
+        final Path lockFile = cacheDir.resolve(".refresh.lock");
+
+        // Wait 1.25 seconds and check properties while another refresh holds the lock. Should not refresh.
+
+        Log.info("sleeping 1.25 seconds before recheck");
+        Thread.sleep(1250);
+        Files.createFile(lockFile);
+        logged.clear();
+        meta = Metadata.newInstance(cacheDir, baseUrl, 1, SECONDS, true, true);
+        assertThat(meta.propertiesOf(latestVersion), is(not(nullValue())));
+        logged.assertLinesContainingAll(1, "stale check", "is true", RC1_LAST_UPDATE);
+        logged.assertLinesContainingAll(1, "metadata refresh already in progress");
+        logged.assertNoLinesContainingAll("Updating metadata for Helidon version " + VERSION_RC1);
+
+        // Check again without the lock. Should use the stale properties and start a refresh.
+
+        Files.delete(lockFile);
+        logged.clear();
+        meta = Metadata.newInstance(cacheDir, baseUrl, 1, SECONDS, true, true);
+        assertThat(meta.propertiesOf(latestVersion), is(not(nullValue())));
+        logged.assertLinesContainingAll(1, "refreshing metadata in background");
+        logged.assertNoLinesContainingAll("Updating metadata for Helidon version " + VERSION_RC1);
+
+        // The refresh should update the metadata and release the lock
+
+        final long deadline = System.currentTimeMillis() + 30 * 1000;
+        while (Files.exists(lockFile) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(Files.exists(lockFile), is(false));
+        assertThat(Files.getLastModifiedTime(lastUpdateFile).compareTo(lastUpdateTime) > 0, is(true));
+    }
 }
@@ -177,11 +177,14 @@ public class MetadataTestBase {
         Path versionDir = cacheDir.resolve(expectedVersion);
         Path propertiesFile = versionDir.resolve(TestMetadata.PROPERTIES_FILE_NAME);
         Path catalogFile = versionDir.resolve(TestMetadata.CATALOG_FILE_NAME);
-        Path seJarFile = versionDir.resolve(TestMetadata.HELIDON_BARE_SE + "-" + expectedVersion + ".jar");
-        Path mpJarFile = versionDir.resolve(TestMetadata.HELIDON_BARE_MP + "-" + expectedVersion + ".jar");
-        String zipPath = expectedVersion + File.separator + TestMetadata.CLI_DATA_FILE_NAME;
+        Path checksumsFile = versionDir.resolve("archetypes.sha256");
+        String seJarFileName = TestMetadata.HELIDON_BARE_SE + "-" + expectedVersion + ".jar";
+        String mpJarFileName = TestMetadata.HELIDON_BARE_MP + "-" + expectedVersion + ".jar";
+        // Unzipped into a temporary directory named after the version, which then replaces the version directory
+        String updateDirName = ".tmp-" + expectedVersion + "-";
+        String zipPath = File.separator + TestMetadata.CLI_DATA_FILE_NAME;
         String zipUriPath = expectedVersion + "/" + TestMetadata.CLI_DATA_FILE_NAME;
-        String lastUpdatePath = expectedVersion + File.separator + LAST_UPDATE_FILE_NAME;
+        String lastUpdatePath = File.separator + LAST_UPDATE_FILE_NAME;
 
         // Check expected latest file and version directory existence
 
@@ -198,9 +201,11 @@ public class MetadataTestBase {
         assertDir(versionDir);
         assertFile(propertiesFile);
         assertFile(catalogFile);
-        assertFile(seJarFile);
-        assertFile(mpJarFile);
-
+        assertFile(checksumsFile);
+        assertThat(Files.exists(versionDir.resolve(seJarFileName)), is(false));
+        assertThat(Files.exists(versionDir.resolve(mpJarFileName)), is(false));
+        logged.assertLinesContainingAll(1, "stored archetype", seJarFileName, "archetypes");
+        logged.assertLinesContainingAll(1, "stored archetype", mpJarFileName, "archetypes");
 
         logged.assertLinesContainingAll(1, "unpacked", "cli-plugins-", ".jar");
         logged.assertLinesContainingAll(1, "executing", "cli-plugins-", "UpdateMetadata");
@@ -211,9 +216,10 @@ public class MetadataTestBase {
         logged.assertLinesContainingAll(1, "connecting", zipUriPath);
         logged.assertLinesContainingAll(1, "connected", zipUriPath);
 
-        logged.assertLinesContainingAll(1, "unzipping", zipPath);
-        logged.assertLinesContainingAll(1, "deleting", zipPath);
-        logged.assertLinesContainingAll(1, "updated", lastUpdatePath, "etag " + expectedEtag);
+        logged.assertLinesContainingAll(1, "unzipping", updateDirName, zipPath);
+        logged.assertLinesContainingAll(1, "deleting", updateDirName, zipPath);
+        logged.assertLinesContainingAll(1, "updated", updateDirName, lastUpdatePath, "etag " + expectedEtag);
+        logged.assertLinesContainingAll(1, "replaced", versionDir.toString());
     }
 
     /**
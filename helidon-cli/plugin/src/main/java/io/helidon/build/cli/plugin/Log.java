@@ -18,6 +18,7 @@ package io.helidon.build.cli.plugin;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static io.helidon.build.cli.plugin.Style.style;
 import static java.util.Objects.requireNonNull;
@@ -27,6 +28,7 @@ import static java.util.Objects.requireNonNull;
  */
 public class Log {
     private static final AtomicReference<Verbosity> VERBOSITY = new AtomicReference<>(Verbosity.NORMAL);
+    private static final AtomicReference<Consumer<String>> OUTPUT = new AtomicReference<>(System.out::println);
     private static final String EOL = System.getProperty("line.separator");
     private static final String DEBUG_STYLE = "italic";
     private static final String WARN_STYLE = "YELLOW";
@@ -86,6 +88,15 @@ public class Log {
         VERBOSITY.set(requireNonNull(verbosity));
     }
 
+    /**
+     * Sets the consumer of log messages, which defaults to {@link System#out}.
+     *
+     * @param output The consumer.
+     */
+    public static void output(Consumer<String> output) {
+        OUTPUT.set(requireNonNull(output));
+    }
+
     /**
      * Returns the verbosity level.
      *
@@ -198,7 +209,7 @@ public class Log {
 
     private static void log(String message, Object... args) {
         if (message != null) {
-            System.out.println(String.format(message, args));
+            OUTPUT.get().accept(String.format(message, args));
         }
     }
 
@@ -208,7 +219,7 @@ public class Log {
         if (trace != null) {
             msg += (msg + EOL + trace);
         }
-        System.out.println(msg);
+        OUTPUT.get().accept(msg);
     }
 
     private static String toStackTrace(Throwable thrown) {
@@ -15,6 +15,8 @@
  */
 package io.helidon.build.cli.plugin;
 
+import java.util.function.Consumer;
+
 /**
  * An abstract CLI plugin.
  */
@@ -26,16 +28,38 @@ public abstract class Plugin {
      * @param args The arguments
      */
     public static void main(String[] args) {
+        if (run(args) != 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Entry point for execution in the process of the caller, which must load this class in its own class loader.
+     * Log messages are passed to the given consumer rather than written to {@link System#out}.
+     *
+     * @param args The arguments.
+     * @param output The log message consumer.
+     * @return The exit status: 0 on success, 1 on failure.
+     */
+    public static int execute(String[] args, Consumer<String> output) {
+        Log.output(output);
+        Log.verbosity(Log.Verbosity.NORMAL);
+        return run(args);
+    }
+
+    private static int run(String[] args) {
         try {
             if (args.length > 0) {
                 final Plugin plugin = Plugin.newInstance(args[0]);
                 plugin.parse(args).execute();
             }
+            return 0;
         } catch (IllegalArgumentException | Failed e) {
-            fail(e.getMessage());
+            Log.error(e.getMessage());
         } catch (Throwable e) {
-            fail(e.toString());
+            Log.error(e.toString());
         }
+        return 1;
     }
 
     /**
@@ -72,16 +96,6 @@ public abstract class Plugin {
         return (Plugin) Class.forName(className).getDeclaredConstructor().newInstance();
     }
 
-    /**
-     * Log an error message and exit the process with status 1.
-     *
-     * @param message The message.
-     */
-    static void fail(String message) {
-        Log.error(message);
-        System.exit(1);
-    }
-
     /**
      * Returns the argument after the current index or fails if missing.
      *
@@ -20,29 +20,58 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.net.HttpURLConnection;
 import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.UnknownHostException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 import javax.net.ssl.SSLException;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 /**
  * A plugin that fetches the latest metadata and updates the cache.
+ * <p>
+ * After a version is updated, the jar of each archetype in its catalog is moved into a cache directory shared by all
+ * versions, named by its SHA-256 checksum, and the checksums are recorded in the version directory. Jars that are not
+ * included in the metadata zip are downloaded from the version directory of the base url, in parallel.
+ * <p>
+ * Other CLI invocations may read the cache while it is updated, so files are written to a temporary file that is then
+ * moved into place, and a version is unzipped into a temporary directory that then replaces the version directory. A
+ * directory cannot be replaced atomically, so the version directory is briefly missing; a reader that finds it missing
+ * updates it synchronously, as it does when an update was killed in between. When run with a lock file, this is a
+ * background refresh, which ignores the interrupt and hangup signals of the terminal it was started from.
  */
 public class UpdateMetadata extends Plugin {
     private static final int DEFAULT_TIMEOUT_MILLIS = 500;
@@ -53,6 +82,7 @@ public class UpdateMetadata extends Plugin {
     private static final String CONNECT_TIMEOUT_ARG = "--connectTimeout";
     private static final String READ_TIMEOUT_ARG = "--readTimeout";
     private static final String MAX_ATTEMPTS_ARG = "--maxAttempts";
+    private static final String LOCK_FILE_ARG = "--lockFile";
     private static final String LATEST_VERSION_FILE_NAME = "latest";
     private static final String LAST_UPDATE_FILE_NAME = ".lastUpdate";
     private static final String ETAG_HEADER = "Etag";
@@ -64,6 +94,23 @@ public class UpdateMetadata extends Plugin {
     private static final int STATUS_OK = 200;
     private static final int STATUS_NOT_MODIFIED = 304;
     private static final String USER_AGENT_PREFIX = "Helidon-CLI/";
+    private static final String CATALOG_FILE_NAME = "archetype-catalog.xml";
+    private static final String CATALOG_VERSION_ATTRIBUTE = "version";
+    private static final String ARCHETYPE_ELEMENT = "archetype";
+    private static final String ARTIFACT_ID_ATTRIBUTE = "artifactId";
+    private static final String ARCHETYPES_DIR_NAME = "archetypes";
+    private static final String ARCHETYPE_CHECKSUMS_FILE_NAME = "archetypes.sha256";
+    private static final String CHECKSUM_SEPARATOR = "  ";
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+    private static final String JAR_SUFFIX = ".jar";
+    private static final int MAX_PREFETCH_THREADS = 4;
+    private static final String TEMP_FILE_PREFIX = ".tmp-";
+    private static final long STALE_TEMP_FILE_MILLIS = 60 * 60 * 1000;
+    private static final String SIGNAL_CLASS_NAME = "sun.misc.Signal";
+    private static final String SIGNAL_HANDLER_CLASS_NAME = "sun.misc.SignalHandler";
+    private static final String SIGNAL_IGNORE_FIELD = "SIG_IGN";
+    private static final String SIGNAL_HANDLE_METHOD = "handle";
+    private static final String[] IGNORED_SIGNALS = {"INT", "HUP"};
 
     private String version;
     private String cliVersion;
@@ -73,6 +120,7 @@ public class UpdateMetadata extends Plugin {
     private int readTimeout;
     private int maxAttempts;
     private Path latestVersionFile;
+    private Path lockFile;
 
     /**
      * Constructor.
@@ -107,6 +155,9 @@ public class UpdateMetadata extends Plugin {
             case MAX_ATTEMPTS_ARG:
                 maxAttempts = Integer.parseInt(nextArg(argIndex, allArgs));
                 return argIndex + 1;
+            case LOCK_FILE_ARG:
+                lockFile = Path.of(nextArg(argIndex, allArgs));
+                return argIndex + 1;
             default:
                 return -1;
         }
@@ -125,7 +176,11 @@ public class UpdateMetadata extends Plugin {
 
     @Override
     void execute() throws Exception {
+        if (lockFile != null) {
+            ignoreSignals();
+        }
         try {
+            deleteStaleTempFiles();
             if (version == null) {
                 updateLatestVersion();
                 updateVersion(readLatestVersion());
@@ -151,6 +206,60 @@ public class UpdateMetadata extends Plugin {
             }
         } catch (Throwable e) {
             throw new Failed(e.toString());
+        } finally {
+            releaseLock();
+        }
+    }
+
+    private void releaseLock() {
+        if (lockFile != null) {
+            try {
+                Files.deleteIfExists(lockFile);
+            } catch (IOException e) {
+                Log.debug("could not delete %s: %s", lockFile, e);
+            }
+        }
+    }
+
+    private static void ignoreSignals() {
+
+        // A background refresh must not be killed partway by a Ctrl-C in, or the closing of, the terminal. Reflection
+        // is used since this module does not read jdk.unsupported.
+
+        try {
+            final Class<?> signalClass = Class.forName(SIGNAL_CLASS_NAME);
+            final Class<?> handlerClass = Class.forName(SIGNAL_HANDLER_CLASS_NAME);
+            final Object ignore = handlerClass.getField(SIGNAL_IGNORE_FIELD).get(null);
+            final Method handle = signalClass.getMethod(SIGNAL_HANDLE_METHOD, signalClass, handlerClass);
+            for (String name : IGNORED_SIGNALS) {
+                try {
+                    handle.invoke(null, signalClass.getConstructor(String.class).newInstance(name), ignore);
+                } catch (InvocationTargetException ignored) {
+                    // Not supported on this platform
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            Log.debug("could not ignore signals: %s", e);
+        }
+    }
+
+    private void deleteStaleTempFiles() throws IOException {
+
+        // Left behind by updates that were killed
+
+        final long now = System.currentTimeMillis();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            for (Path file : (Iterable<Path>) stream::iterator) {
+                if (file.getFileName().toString().startsWith(TEMP_FILE_PREFIX)) {
+                    try {
+                        if (now - Files.getLastModifiedTime(file).toMillis() > STALE_TEMP_FILE_MILLIS) {
+                            deleteDirectory(file);
+                        }
+                    } catch (IOException | UncheckedIOException e) {
+                        Log.debug("could not delete %s: %s", file, e);
+                    }
+                }
+            }
         }
     }
 
@@ -187,7 +296,9 @@ public class UpdateMetadata extends Plugin {
                                                           .connectTimeout(connectTimeout)
                                                           .readTimeout(readTimeout)
                                                           .connect();
-        Files.copy(connection.getInputStream(), latestVersionFile, REPLACE_EXISTING);
+        try (InputStream input = connection.getInputStream()) {
+            write(input, latestVersionFile);
+        }
         if (Log.isDebug()) {
             Log.debug("wrote %s to %s", readLatestVersion(), latestVersionFile);
         }
@@ -207,10 +318,19 @@ public class UpdateMetadata extends Plugin {
                                                           .connect();
         final int status = status(connection);
         if (status == STATUS_OK) {
-            download(connection, versionDir);
-            writeLastUpdate(connection, lastUpdateFile);
+            final Path updateDir = Files.createTempDirectory(cacheDir, TEMP_FILE_PREFIX + version + "-");
+            try {
+                download(connection, updateDir);
+                prefetchArchetypes(version, updateDir, readChecksums(versionDir.resolve(ARCHETYPE_CHECKSUMS_FILE_NAME)));
+                writeLastUpdate(connection, updateDir.resolve(LAST_UPDATE_FILE_NAME));
+                replaceDirectory(updateDir, versionDir);
+            } finally {
+                deleteDirectory(updateDir);
+            }
         } else if (status == STATUS_NOT_MODIFIED) {
             Log.debug("not modified %s", url);
+            // in case a previous prefetch failed
+            prefetchArchetypes(version, versionDir, readChecksums(versionDir.resolve(ARCHETYPE_CHECKSUMS_FILE_NAME)));
             writeLastUpdate(connection, lastUpdateFile); // just to touch it
         } else {
             throw new IllegalStateException("connection failed with " + status + " " + url);
@@ -263,29 +383,22 @@ public class UpdateMetadata extends Plugin {
     private void writeLastUpdate(URLConnection connection, Path lastUpdateFile) throws IOException {
         final String etag = connection.getHeaderField(ETAG_HEADER);
         final String content = etag == null ? NO_ETAG : etag;
-        final InputStream input = new ByteArrayInputStream(content.getBytes(UTF_8));
-        Files.copy(input, lastUpdateFile, REPLACE_EXISTING);
+        write(new ByteArrayInputStream(content.getBytes(UTF_8)), lastUpdateFile);
         Log.debug("updated %s with etag %s", lastUpdateFile, content);
     }
 
-    private void download(URLConnection connection, Path versionDir) throws IOException {
-
-        // Prepare directory
-
-        if (Files.exists(versionDir)) {
-            deleteDirectoryContent(versionDir);
-        } else {
-            Files.createDirectories(versionDir);
-        }
+    private void download(URLConnection connection, Path updateDir) throws IOException {
 
         // Download zip file
 
-        final Path zipFile = versionDir.resolve(ZIP_FILE_NAME);
-        Files.copy(connection.getInputStream(), zipFile);
+        final Path zipFile = updateDir.resolve(ZIP_FILE_NAME);
+        try (InputStream input = connection.getInputStream()) {
+            Files.copy(input, zipFile);
+        }
 
         // Unzip
 
-        unzip(zipFile, versionDir);
+        unzip(zipFile, updateDir);
 
         // Delete zip file
 
@@ -293,6 +406,148 @@ public class UpdateMetadata extends Plugin {
         Files.delete(zipFile);
     }
 
+    private void prefetchArchetypes(String version, Path versionDir, Map<String, String> checksums) throws Exception {
+        final Path catalogFile = versionDir.resolve(CATALOG_FILE_NAME);
+        if (!Files.exists(catalogFile)) {
+            return;
+        }
+        final List<String> fileNames = archetypeFileNames(catalogFile, version);
+        if (fileNames.isEmpty()) {
+            return;
+        }
+        final Path checksumsFile = versionDir.resolve(ARCHETYPE_CHECKSUMS_FILE_NAME);
+        final Path storeDir = Files.createDirectories(cacheDir.resolve(ARCHETYPES_DIR_NAME));
+        final int threads = Math.min(fileNames.size(), MAX_PREFETCH_THREADS);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            final Thread thread = new Thread(task, "archetype-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final Map<String, Future<String>> futures = new LinkedHashMap<>();
+            for (String fileName : fileNames) {
+                final String checksum = checksums.get(fileName);
+                futures.put(fileName, executor.submit(() -> storeArchetype(version, versionDir, storeDir, fileName, checksum)));
+            }
+            final Map<String, String> stored = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<String>> entry : futures.entrySet()) {
+                try {
+                    stored.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            writeChecksums(stored, checksumsFile);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String storeArchetype(String version,
+                                  Path versionDir,
+                                  Path storeDir,
+                                  String fileName,
+                                  String knownChecksum) throws Exception {
+        final Path zipped = versionDir.resolve(fileName);
+        final Path source;
+        if (Files.exists(zipped)) {
+            source = zipped;
+        } else if (knownChecksum != null && Files.exists(storeDir.resolve(knownChecksum + JAR_SUFFIX))) {
+            Log.debug("archetype %s already cached as %s", fileName, knownChecksum);
+            return knownChecksum;
+        } else {
+            final URL url = resolve(version + "/" + fileName);
+            final Map<String, String> headers = commonHeaders();
+            debugDownload(url, headers, false);
+            final URLConnection connection = NetworkConnection.builder()
+                                                              .url(url)
+                                                              .headers(headers)
+                                                              .connectTimeout(connectTimeout)
+                                                              .readTimeout(readTimeout)
+                                                              .maxAttempts(maxAttempts)
+                                                              .connect();
+            source = Files.createTempFile(storeDir, TEMP_FILE_PREFIX + fileName, null);
+            try (InputStream input = connection.getInputStream()) {
+                Files.copy(input, source, REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(source);
+                throw e;
+            }
+        }
+        final String checksum = checksum(source);
+        final Path target = storeDir.resolve(checksum + JAR_SUFFIX);
+        if (Files.exists(target)) {
+            Files.delete(source);
+        } else {
+            Files.move(source, target, REPLACE_EXISTING, ATOMIC_MOVE);
+        }
+        Log.debug("stored archetype %s as %s", fileName, target);
+        return checksum;
+    }
+
+    private static List<String> archetypeFileNames(Path catalogFile, String version) throws Exception {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setExpandEntityReferences(false);
+        final Element catalog = factory.newDocumentBuilder().parse(catalogFile.toFile()).getDocumentElement();
+        final String catalogVersion = catalog.getAttribute(CATALOG_VERSION_ATTRIBUTE);
+        final NodeList archetypes = catalog.getElementsByTagName(ARCHETYPE_ELEMENT);
+        final List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < archetypes.getLength(); i++) {
+            final Element archetype = (Element) archetypes.item(i);
+            final String entryVersion = archetype.hasAttribute(CATALOG_VERSION_ATTRIBUTE)
+                    ? archetype.getAttribute(CATALOG_VERSION_ATTRIBUTE)
+                    : catalogVersion;
+
+            // Entries for other versions are cached with those versions
+
+            if (entryVersion.equals(version)) {
+                fileNames.add(archetype.getAttribute(ARTIFACT_ID_ATTRIBUTE) + "-" + version + JAR_SUFFIX);
+            }
+        }
+        return fileNames;
+    }
+
+    private static String checksum(Path file) throws Exception {
+        final MessageDigest digest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        final byte[] buffer = new byte[8192];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        final StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return result.toString();
+    }
+
+    private static Map<String, String> readChecksums(Path checksumsFile) throws IOException {
+        final Map<String, String> checksums = new HashMap<>();
+        if (Files.exists(checksumsFile)) {
+            for (String line : Files.readAllLines(checksumsFile, UTF_8)) {
+                final int separator = line.indexOf(CHECKSUM_SEPARATOR);
+                if (separator > 0) {
+                    checksums.put(line.substring(separator + CHECKSUM_SEPARATOR.length()), line.substring(0, separator));
+                }
+            }
+        }
+        return checksums;
+    }
+
+    private static void writeChecksums(Map<String, String> checksums, Path checksumsFile) throws IOException {
+
+        // Same format as the sha256sum command
+
+        final StringBuilder lines = new StringBuilder();
+        checksums.forEach((fileName, checksum) -> lines.append(checksum).append(CHECKSUM_SEPARATOR).append(fileName)
+                                                       .append(System.lineSeparator()));
+        write(new ByteArrayInputStream(lines.toString().getBytes(UTF_8)), checksumsFile);
+        Log.debug("wrote %d archetype checksums to %s", checksums.size(), checksumsFile);
+    }
+
     private static void unzip(Path zipFile, Path destDir) throws IOException {
         Log.debug("unzipping %s to %s", zipFile, destDir);
         try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(zipFile))) {
@@ -306,18 +561,46 @@ public class UpdateMetadata extends Plugin {
         }
     }
 
-    private static void deleteDirectoryContent(Path directory) throws IOException {
-        Log.debug("deleting %s", directory);
-        try (Stream<Path> stream = Files.walk(directory)) {
-            stream.sorted(Comparator.reverseOrder())
-                  .filter(file -> !file.equals(directory))
-                  .forEach(file -> {
-                      try {
-                          Files.delete(file);
-                      } catch (IOException e) {
-                          throw new UncheckedIOException(e);
-                      }
-                  });
+    private static void write(InputStream content, Path file) throws IOException {
+        final Path tempFile = Files.createTempFile(file.getParent(), TEMP_FILE_PREFIX + file.getFileName(), null);
+        try {
+            Files.copy(content, tempFile, REPLACE_EXISTING);
+            Files.move(tempFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void replaceDirectory(Path source, Path target) throws IOException {
+        final Path previous = target.resolveSibling(TEMP_FILE_PREFIX + target.getFileName() + "-" + UUID.randomUUID());
+        try {
+            Files.move(target, previous, ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            // First update, or one being replaced concurrently
+        }
+        try {
+            Files.move(source, target, ATOMIC_MOVE);
+            Log.debug("replaced %s", target);
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            Log.debug("%s was replaced concurrently", target);
+        } finally {
+            deleteDirectory(previous);
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            Log.debug("deleting %s", directory);
+            try (Stream<Path> stream = Files.walk(directory)) {
+                stream.sorted(Comparator.reverseOrder())
+                      .forEach(file -> {
+                          try {
+                              Files.delete(file);
+                          } catch (IOException e) {
+                              throw new UncheckedIOException(e);
+                          }
+                      });
+            }
         }
     }
 }
@@ -18,6 +18,7 @@
  * Helidon CLI plugin.
  */
 module io.helidon.build.cli.plugin {
+    requires java.xml;
     exports io.helidon.build.cli.plugin;
     opens io.helidon.build.cli.plugin;
 }
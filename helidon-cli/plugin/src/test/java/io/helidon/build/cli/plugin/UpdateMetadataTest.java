@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.helidon.build.cli.plugin;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Unit test for class {@link UpdateMetadata}.
+ */
+class UpdateMetadataTest {
+
+    private static final String VERSION = "2.0.0";
+    private static final String CATALOG = "<archetype-catalog modelVersion=\"1.0\" name=\"test\" groupId=\"io.helidon\""
+                                          + " version=\"" + VERSION + "\">\n"
+                                          + "    <archetype artifactId=\"zipped\" name=\"z\" title=\"Z\" summary=\"Z\""
+                                          + " tags=\"se\"/>\n"
+                                          + "    <archetype artifactId=\"remote\" name=\"r\" title=\"R\" summary=\"R\""
+                                          + " tags=\"mp\"/>\n"
+                                          + "</archetype-catalog>\n";
+
+    private final Map<String, byte[]> responses = new ConcurrentHashMap<>();
+    private final Map<String, Integer> requests = new ConcurrentHashMap<>();
+    private ServerSocket server;
+    private Path cacheDir;
+
+    @BeforeEach
+    void setUp(@TempDir Path cacheDir) throws Exception {
+        this.cacheDir = cacheDir;
+        responses.put("/latest", VERSION.getBytes(UTF_8));
+        responses.put("/" + VERSION + "/cli-data.zip", zip(Map.of("metadata.properties", "cli.version=" + VERSION,
+                                                                  "archetype-catalog.xml", CATALOG,
+                                                                  "zipped-" + VERSION + ".jar", "zipped jar")));
+        responses.put("/" + VERSION + "/remote-" + VERSION + ".jar", "remote jar".getBytes(UTF_8));
+        server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        final Thread acceptor = new Thread(this::accept, "test-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void testArchetypesStoredByChecksum() throws Exception {
+        assertThat(update(), is(0));
+
+        final Path versionDir = cacheDir.resolve(VERSION);
+        final Path storeDir = cacheDir.resolve("archetypes");
+        final List<String> checksums = Files.readAllLines(versionDir.resolve("archetypes.sha256"));
+        final List<String> fileNames = new ArrayList<>();
+        for (String line : checksums) {
+            final String[] fields = line.split("  ");
+            fileNames.add(fields[1]);
+            assertThat(Files.exists(storeDir.resolve(fields[0] + ".jar")), is(true));
+        }
+        assertThat(fileNames, containsInAnyOrder("zipped-" + VERSION + ".jar", "remote-" + VERSION + ".jar"));
+        assertThat(Files.readString(storeDir.resolve(checksum(checksums, "remote") + ".jar")), is("remote jar"));
+        assertThat(Files.exists(versionDir.resolve("zipped-" + VERSION + ".jar")), is(false));
+        assertThat(requests.get("/" + VERSION + "/remote-" + VERSION + ".jar"), is(1));
+
+        // Not modified, so the cached jars are used
+
+        assertThat(update(), is(0));
+        assertThat(Files.readAllLines(versionDir.resolve("archetypes.sha256")), is(checksums));
+        assertThat(requests.get("/" + VERSION + "/remote-" + VERSION + ".jar"), is(1));
+    }
+
+    @Test
+    void testMissingArchetypeFails() throws Exception {
+        responses.remove("/" + VERSION + "/remote-" + VERSION + ".jar");
+        final List<String> output = new ArrayList<>();
+        assertThat(update(output), is(not(0)));
+        assertThat(String.join(" ", output).contains("remote-" + VERSION + ".jar"), is(true));
+    }
+
+    @Test
+    void testUpdateReplacesVersion() throws Exception {
+        assertThat(update(), is(0));
+
+        final Path versionDir = cacheDir.resolve(VERSION);
+        responses.put("/" + VERSION + "/cli-data.zip", zip(Map.of("metadata.properties", "cli.version=" + VERSION + "\nupdated",
+                                                                  "archetype-catalog.xml", CATALOG,
+                                                                  "zipped-" + VERSION + ".jar", "zipped jar")));
+        assertThat(update(), is(0));
+        assertThat(Files.readString(versionDir.resolve("metadata.properties")), is("cli.version=" + VERSION + "\nupdated"));
+        assertThat(Files.exists(versionDir.resolve("archetypes.sha256")), is(true));
+        assertThat(Files.exists(versionDir.resolve(".lastUpdate")), is(true));
+        assertThat(tempFiles(), is(List.of()));
+    }
+
+    @Test
+    void testFailedUpdateKeepsVersion() throws Exception {
+        assertThat(update(), is(0));
+
+        final Path versionDir = cacheDir.resolve(VERSION);
+        final List<String> checksums = Files.readAllLines(versionDir.resolve("archetypes.sha256"));
+        final String lastUpdate = Files.readString(versionDir.resolve(".lastUpdate"));
+        final String catalog = CATALOG.replace("</archetype-catalog>", "    <archetype artifactId=\"added\" name=\"a\""
+                                                                       + " title=\"A\" summary=\"A\" tags=\"se\"/>\n"
+                                                                       + "</archetype-catalog>");
+        responses.put("/" + VERSION + "/cli-data.zip", zip(Map.of("metadata.properties", "cli.version=" + VERSION + "\nupdated",
+                                                                  "archetype-catalog.xml", catalog,
+                                                                  "zipped-" + VERSION + ".jar", "zipped jar")));
+        assertThat(update(), is(not(0)));
+        assertThat(Files.readString(versionDir.resolve("metadata.properties")), is("cli.version=" + VERSION));
+        assertThat(Files.readString(versionDir.resolve("archetype-catalog.xml")), is(CATALOG));
+        assertThat(Files.readAllLines(versionDir.resolve("archetypes.sha256")), is(checksums));
+        assertThat(Files.readString(versionDir.resolve(".lastUpdate")), is(lastUpdate));
+        assertThat(tempFiles(), is(List.of()));
+    }
+
+    @Test
+    void testStaleTempFilesDeleted() throws Exception {
+        final Path stale = Files.createDirectory(cacheDir.resolve(".tmp-" + VERSION + "-stale"));
+        Files.writeString(stale.resolve("metadata.properties"), "stale");
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - 2 * 60 * 60 * 1000));
+        final Path recent = Files.createDirectory(cacheDir.resolve(".tmp-" + VERSION + "-recent"));
+
+        assertThat(update(), is(0));
+        assertThat(Files.exists(stale), is(false));
+        assertThat(Files.exists(recent), is(true));
+    }
+
+    private List<String> tempFiles() throws IOException {
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            return stream.map(file -> file.getFileName().toString())
+                         .filter(fileName -> fileName.startsWith(".tmp-"))
+                         .collect(Collectors.toList());
+        }
+    }
+
+    private int update() {
+        return update(new ArrayList<>());
+    }
+
+    private int update(List<String> output) {
+        final String[] args = {
+            "UpdateMetadata",
+            "--baseUrl", "http://localhost:" + server.getLocalPort(),
+            "--cacheDir", cacheDir.toString(),
+            "--cliVersion", VERSION,
+            "--maxAttempts", "1"
+        };
+        return Plugin.execute(args, output::add);
+    }
+
+    private void accept() {
+
+        // A minimal HTTP/1.0 server: one request per connection, without a body
+
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+                final String path = reader.readLine().split(" ")[1];
+                String ifNoneMatch = null;
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    if (line.toLowerCase(Locale.ENGLISH).startsWith("if-none-match:")) {
+                        ifNoneMatch = line.substring(line.indexOf(':') + 1).trim();
+                    }
+                }
+                respond(path, ifNoneMatch, socket.getOutputStream());
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private void respond(String path, String ifNoneMatch, OutputStream out) throws IOException {
+        requests.merge(path, 1, Integer::sum);
+        final byte[] body = responses.get(path);
+        final String etag = "\"" + (body == null ? 0 : Arrays.hashCode(body)) + "\"";
+        if (body == null) {
+            out.write("HTTP/1.0 404 Not Found\r\nContent-Length: 0\r\n\r\n".getBytes(UTF_8));
+        } else if (etag.equals(ifNoneMatch)) {
+            out.write(("HTTP/1.0 304 Not Modified\r\nEtag: " + etag + "\r\n\r\n").getBytes(UTF_8));
+        } else {
+            out.write(("HTTP/1.0 200 OK\r\nEtag: " + etag + "\r\nContent-Length: " + body.length + "\r\n\r\n")
+                              .getBytes(UTF_8));
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    private static String checksum(List<String> checksums, String artifactId) {
+        return checksums.stream()
+                        .filter(line -> line.endsWith("  " + artifactId + "-" + VERSION + ".jar"))
+                        .map(line -> line.substring(0, line.indexOf(' ')))
+                        .findFirst()
+                        .orElseThrow();
+    }
+
+    private static byte[] zip(Map<String, String> entries) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -22,8 +22,13 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import io.helidon.build.util.FileUtils;
@@ -52,6 +57,7 @@ public final class Application implements ResourceContainer {
     private final List<Jar> classPath;
     private final boolean isMicroprofile;
     private final String version;
+    private final AtomicReference<ResourceIndex> resourceIndex;
 
     /**
      * Returns a new instance with the given main jar.
@@ -68,6 +74,7 @@ public final class Application implements ResourceContainer {
         this.classPath = collectClassPath();
         this.isMicroprofile = classPath.stream().anyMatch(jar -> jar.name().startsWith(MP_FILE_PREFIX));
         this.version = extractHelidonVersion();
+        this.resourceIndex = new AtomicReference<>();
     }
 
     /**
@@ -90,13 +97,20 @@ public final class Application implements ResourceContainer {
     public Path install(JavaRuntime jri, boolean stripDebug) {
         final Path appRootDir = mainJar.path().getParent();
         final Path appInstallDir = jri.ensureDirectory(APP_DIR);
-        final Path installedAppJar = mainJar.copyToDirectory(appInstallDir, isMicroprofile(), stripDebug);
+        final Map<Jar, Path> installDirs = new LinkedHashMap<>();
+        installDirs.put(mainJar, appInstallDir);
         classPath.forEach(jar -> {
             final Path relativeDir = appRootDir.relativize(jar.path().getParent());
-            final Path installDir = jri.ensureDirectory(appInstallDir.resolve(relativeDir));
-            jar.copyToDirectory(installDir, isMicroprofile(), stripDebug);
+            installDirs.put(jar, jri.ensureDirectory(appInstallDir.resolve(relativeDir)));
         });
-        return installedAppJar;
+
+        // The directories exist, so the jars can be copied in parallel
+
+        final Map<Jar, Path> installed = installDirs.entrySet()
+                                                    .parallelStream()
+                                                    .collect(Collectors.toConcurrentMap(Map.Entry::getKey, e -> e.getKey()
+                                                            .copyToDirectory(e.getValue(), isMicroprofile(), stripDebug)));
+        return installed.get(mainJar);
     }
 
     /**
@@ -179,7 +193,32 @@ public final class Application implements ResourceContainer {
 
     @Override
     public boolean containsResource(String resourcePath) {
-        return jars().anyMatch(jar -> jar.containsResource(resourcePath));
+        return resourceIndex().containsResource(resourcePath);
+    }
+
+    /**
+     * Returns the jar that contains the given resource, the first one on the class path if more than one does.
+     *
+     * @param resourcePath The path, e.g. "com/acme/Dynamite.class".
+     * @return The jar, if present.
+     */
+    public Optional<Jar> jarContaining(String resourcePath) {
+        return resourceIndex().container(resourcePath)
+                              .flatMap(path -> jars().filter(jar -> jar.path().toString().equals(path)).findFirst());
+    }
+
+    private ResourceIndex resourceIndex() {
+        ResourceIndex result = resourceIndex.get();
+        if (result == null) {
+            synchronized (resourceIndex) {
+                result = resourceIndex.get();
+                if (result == null) {
+                    result = ResourceIndex.create(jars());
+                    resourceIndex.set(result);
+                }
+            }
+        }
+        return result;
     }
 
     private Stream<Jar> jars() {
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.linker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.helidon.build.util.FileUtils;
+import io.helidon.build.util.Log;
+import io.helidon.linker.util.JavaRuntime;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A cache of base images created by {@code jlink}, keyed by a fingerprint of its inputs, so that an image can be
+ * created by copying a previous base image when only the application has changed.
+ */
+public final class BaseImageCache {
+    private static final String OUTPUT_ARG = "--output";
+    private static final String JAVA_BASE_JMOD = "java.base.jmod";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String TEMP_DIR_PREFIX = ".";
+    private static final int MAX_IMAGES = 4;
+
+    private final Path cacheDir;
+    private final Path imageDir;
+
+    /**
+     * Returns the cache entry for the given {@code jlink} inputs.
+     *
+     * @param cacheDir The cache directory.
+     * @param jdk The JDK from which the image is created.
+     * @param jlinkArgs The {@code jlink} arguments. The {@code --output} argument is ignored.
+     * @return The cache entry.
+     */
+    public static BaseImageCache create(Path cacheDir, JavaRuntime jdk, List<String> jlinkArgs) {
+        return new BaseImageCache(cacheDir, fingerprint(jdk, jlinkArgs));
+    }
+
+    private BaseImageCache(Path cacheDir, String fingerprint) {
+        this.cacheDir = requireNonNull(cacheDir);
+        this.imageDir = cacheDir.resolve(fingerprint);
+    }
+
+    /**
+     * Copy the cached base image to the given directory.
+     *
+     * @param jriDirectory The directory. Must not exist.
+     * @return {@code true} if the image was copied, {@code false} if it is not present.
+     * @throws UncheckedIOException If the copy fails.
+     */
+    public boolean copyTo(Path jriDirectory) {
+        final Optional<Path> image = image();
+        if (image.isPresent()) {
+            FileUtils.copyDirectory(image.get(), jriDirectory);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Add the given base image to the cache, removing the least recently used ones if there are too many. Failures are
+     * logged rather than thrown since the cache is only an optimization.
+     *
+     * @param jriDirectory The base image, before anything has been added to it.
+     */
+    public void store(Path jriDirectory) {
+
+        // Copy to a temp dir and move it, so that a concurrent build never sees a partial image
+
+        Path tempDir = null;
+        try {
+            Files.createDirectories(cacheDir);
+            tempDir = cacheDir.resolve(TEMP_DIR_PREFIX + imageDir.getFileName() + "-" + ProcessHandle.current().pid());
+            if (Files.exists(tempDir)) {
+                FileUtils.deleteDirectory(tempDir);
+            }
+            FileUtils.copyDirectory(jriDirectory, tempDir);
+            if (Files.exists(imageDir)) {
+                FileUtils.deleteDirectory(tempDir);
+            } else {
+                Files.move(tempDir, imageDir, StandardCopyOption.ATOMIC_MOVE);
+            }
+            prune();
+        } catch (IOException | UncheckedIOException e) {
+            Log.debug("Could not cache base image in %s: %s", imageDir, e.getMessage());
+            try {
+                if (tempDir != null && Files.exists(tempDir)) {
+                    FileUtils.deleteDirectory(tempDir);
+                }
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private Optional<Path> image() {
+        if (Files.isDirectory(imageDir)) {
+            try {
+
+                // Mark it as recently used so that it is not pruned
+
+                Files.setLastModifiedTime(imageDir, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                Log.debug("Could not update %s: %s", imageDir, e.getMessage());
+            }
+            return Optional.of(imageDir);
+        }
+        return Optional.empty();
+    }
+
+    private void prune() throws IOException {
+        final List<Path> images;
+        try (Stream<Path> dirs = Files.list(cacheDir)) {
+            images = dirs.filter(Files::isDirectory)
+                         .filter(dir -> !dir.getFileName().toString().startsWith(TEMP_DIR_PREFIX))
+                         .sorted(Comparator.comparing(FileUtils::lastModifiedMillis).reversed())
+                         .collect(Collectors.toList());
+        }
+        for (Path image : images.subList(Math.min(MAX_IMAGES, images.size()), images.size())) {
+            Log.debug("Removing cached base image %s", image);
+            FileUtils.deleteDirectory(image);
+        }
+    }
+
+    private static String fingerprint(JavaRuntime jdk, List<String> jlinkArgs) {
+        final List<String> inputs = new ArrayList<>();
+        inputs.add(jdk.path().toAbsolutePath().toString());
+        inputs.add(jdk.version().toString());
+        inputs.add(Runtime.version().toString());
+        try {
+            inputs.add(Long.toString(Files.getLastModifiedTime(jdk.jmodsDir().resolve(JAVA_BASE_JMOD)).toMillis()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < jlinkArgs.size(); i++) {
+            if (jlinkArgs.get(i).equals(OUTPUT_ARG)) {
+                i++;
+            } else {
+                inputs.add(jlinkArgs.get(i));
+            }
+        }
+        try {
+            final StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance(DIGEST_ALGORITHM).digest(String.join("\n", inputs).getBytes(UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
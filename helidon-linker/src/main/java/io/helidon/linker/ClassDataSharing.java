@@ -18,6 +18,11 @@ package io.helidon.linker;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -38,6 +43,7 @@ import static io.helidon.build.util.FileUtils.assertDir;
 import static io.helidon.build.util.FileUtils.assertFile;
 import static io.helidon.build.util.FileUtils.fileName;
 import static io.helidon.linker.Configuration.Builder.DEFAULT_MAX_APP_START_SECONDS;
+import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 
@@ -135,6 +141,7 @@ public final class ClassDataSharing {
         private static final String JAR_SUFFIX = ".jar";
         private static final String XSHARE_OFF = "-Xshare:off";
         private static final String XSHARE_DUMP = "-Xshare:dump";
+        private static final String XX_ARCHIVE_CLASSES_AT_EXIT = "-XX:ArchiveClassesAtExit=";
         private static final String XX_DUMP_LOADED_CLASS_LIST = "-XX:DumpLoadedClassList=";
         private static final String XX_SHARED_ARCHIVE_FILE = "-XX:SharedArchiveFile=";
         private static final String XX_SHARED_CLASS_LIST_FILE = "-XX:SharedClassListFile=";
@@ -144,6 +151,9 @@ public final class ClassDataSharing {
         private static final String SKIPPED_CLASS_PREFIX = "skip writing class";
         private static final String CANNOT_FIND_PREFIX = "Preload Warning: Cannot find";
         private static final String LIB_DIR_NAME = "lib";
+        private static final String BIN_DIR_NAME = "bin";
+        private static final String BASE_ARCHIVE_PATH = "server" + File.separator + "classes.jsa";
+        private static final long TRAINING_POLL_MILLIS = 250;
         private Path jri;
         private String archiveDir;
         private String applicationModule;
@@ -160,6 +170,8 @@ public final class ClassDataSharing {
         private List<String> args;
         private String exitOnStartedValue;
         private int maxWaitSeconds;
+        private boolean dynamicArchive;
+        private List<URI> trainingRequests;
 
         private Builder() {
             this.createArchive = true;
@@ -168,6 +180,7 @@ public final class ClassDataSharing {
             this.args = emptyList();
             this.exitOnStartedValue = EXIT_ON_STARTED_VALUE;
             this.maxWaitSeconds = DEFAULT_MAX_APP_START_SECONDS;
+            this.trainingRequests = emptyList();
         }
 
         /**
@@ -290,6 +303,33 @@ public final class ClassDataSharing {
             return this;
         }
 
+        /**
+         * Sets whether or not to create a dynamic archive of the classes loaded when the application exits, in a single
+         * run of the application. Requires JDK 13 or later; ignored if a class list file is provided. Defaults to
+         * {@code false}.
+         *
+         * @param dynamicArchive {@code true} if a dynamic archive should be created.
+         * @return The builder.
+         */
+        public Builder dynamicArchive(boolean dynamicArchive) {
+            this.dynamicArchive = dynamicArchive;
+            return this;
+        }
+
+        /**
+         * Sets HTTP requests to send to the application before it exits, so that the classes used to handle them are
+         * included in the class list. If empty, the application exits as soon as it has started. Otherwise the
+         * application is stopped after the requests have been sent, which must allow it to exit normally (e.g. on
+         * {@code SIGTERM}), and the first request is retried until the application accepts connections.
+         *
+         * @param trainingRequests The request URIs.
+         * @return The builder.
+         */
+        public Builder trainingRequests(List<URI> trainingRequests) {
+            this.trainingRequests = requireNonNull(trainingRequests);
+            return this;
+        }
+
         /**
          * Sets the {@code -Dexit.on.started} property value.
          *
@@ -326,30 +366,59 @@ public final class ClassDataSharing {
                 this.targetDescription = "module " + target + " in " + jri;
             }
 
-            if (classListFile == null) {
-                this.classListFile = tempFile(CLASS_LIST_FILE_SUFFIX);
-                this.classList = buildClassList();
-            } else {
-                this.classList = loadClassList();
+            if (dynamicArchive && !Constants.CDS_SUPPORTS_DYNAMIC_ARCHIVE) {
+                Log.warn("Dynamic Class Data Sharing archives require JDK 13 or later, creating a static archive");
+                dynamicArchive = false;
             }
+            if (createArchive && archiveFile == null) {
+                archiveFile = assertDir(jri.resolve(archiveDir)).resolve(ARCHIVE_NAME);
+            }
+
+            if (classListFile == null && createArchive && dynamicArchive) {
 
-            if (createArchive) {
-                if (archiveFile == null) {
-                    archiveFile = assertDir(jri.resolve(archiveDir)).resolve(ARCHIVE_NAME);
+                // Collect the class list while creating the archive, in a single run
+
+                this.classListFile = tempFile(CLASS_LIST_FILE_SUFFIX);
+                buildDynamicArchive();
+                this.classList = loadClassList();
+            } else {
+                if (classListFile == null) {
+                    this.classListFile = tempFile(CLASS_LIST_FILE_SUFFIX);
+                    this.classList = buildClassList();
+                } else {
+                    this.classList = loadClassList();
+                }
+                if (createArchive) {
+                    buildCdsArchive();
                 }
-                buildCdsArchive();
             }
 
             return new ClassDataSharing(this);
         }
 
         private List<String> buildClassList() throws Exception {
-            execute("Creating startup class list for " + targetDescription,
-                    XSHARE_OFF, XX_DUMP_LOADED_CLASS_LIST + classListFile, UTF_8_ENCODING);
+            run("Creating startup class list for " + targetDescription,
+                XSHARE_OFF, XX_DUMP_LOADED_CLASS_LIST + classListFile, UTF_8_ENCODING);
             return loadClassList();
         }
 
-        @SuppressWarnings("ResultOfMethodCallIgnored")
+        private void buildDynamicArchive() throws Exception {
+
+            // A dynamic archive is layered on the default archive of the JRI, which jlink does not create
+
+            if (!hasBaseArchive()) {
+                monitor("Creating base Class Data Sharing archive for " + jri, List.of(javaPath().toString(), XSHARE_DUMP))
+                        .execute(maxWaitSeconds, TimeUnit.SECONDS);
+            }
+            run("Creating dynamic Class Data Sharing archive for " + targetDescription,
+                XX_ARCHIVE_CLASSES_AT_EXIT + archiveFile, XX_DUMP_LOADED_CLASS_LIST + classListFile, UTF_8_ENCODING);
+            if (!Files.isRegularFile(archiveFile)) {
+                throw new IllegalStateException("Class Data Sharing archive not created, the application may not have exited"
+                                                + " normally: " + archiveFile);
+            }
+            makeWritable();
+        }
+
         private void buildCdsArchive() throws Exception {
             final String action = "Creating Class Data Sharing archive for " + targetDescription;
             if (Constants.CDS_REQUIRES_UNLOCK_OPTION) {
@@ -359,41 +428,124 @@ public final class ClassDataSharing {
                 execute(action, XSHARE_DUMP, XX_SHARED_ARCHIVE_FILE + archiveFile,
                         XX_SHARED_CLASS_LIST_FILE + classListFile, UTF_8_ENCODING);
             }
+            makeWritable();
+        }
+
+        @SuppressWarnings("ResultOfMethodCallIgnored")
+        private void makeWritable() {
             if (Constants.OS == OSType.Windows) {
                 // Try to make the archive file writable so that a second run can delete the image
                 archiveFile.toFile().setWritable(true);
             }
         }
 
+        private boolean hasBaseArchive() {
+            return Files.isRegularFile(jri.resolve(LIB_DIR_NAME).resolve(BASE_ARCHIVE_PATH))
+                   || Files.isRegularFile(jri.resolve(BIN_DIR_NAME).resolve(BASE_ARCHIVE_PATH));
+        }
+
         private List<String> loadClassList() throws IOException {
             return Files.readAllLines(classListFile);
         }
 
+        private void run(String action, String... jvmArgs) throws Exception {
+            if (trainingRequests.isEmpty()) {
+                execute(action, jvmArgs);
+            } else {
+                train(action, jvmArgs);
+            }
+        }
+
         private void execute(String action, String... jvmArgs) throws Exception {
+            monitor(action, command(true, jvmArgs)).execute(maxWaitSeconds, TimeUnit.SECONDS);
+        }
+
+        private void train(String action, String... jvmArgs) throws Exception {
+            final ProcessMonitor monitor = monitor(action, command(false, jvmArgs)).start();
+            try {
+                awaitStarted(monitor, trainingRequests.get(0));
+                trainingRequests.forEach(this::send);
+            } finally {
+                if (monitor.isAlive()) {
+                    try {
+                        monitor.stop(maxWaitSeconds, TimeUnit.SECONDS);
+                    } catch (ProcessMonitor.ProcessFailedException e) {
+                        // Expected, since the exit code reflects the signal
+                        Log.debug("Training run exited with %d", e.exitCode());
+                    }
+                }
+            }
+        }
+
+        private void awaitStarted(ProcessMonitor monitor, URI request) throws Exception {
+            final int port = request.getPort() < 0 ? request.toURL().getDefaultPort() : request.getPort();
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(maxWaitSeconds);
+            while (true) {
+                if (!monitor.isAlive()) {
+                    throw new IllegalStateException("Application exited before training: " + monitor.output());
+                }
+                try (Socket socket = new Socket()) {
+                    socket.connect(new InetSocketAddress(request.getHost(), port), (int) TRAINING_POLL_MILLIS);
+                    return;
+                } catch (IOException e) {
+                    if (System.currentTimeMillis() > deadline) {
+                        throw new IllegalStateException("Application did not accept connections on " + request);
+                    }
+                    Thread.sleep(TRAINING_POLL_MILLIS);
+                }
+            }
+        }
+
+        private void send(URI request) {
+            HttpURLConnection connection = null;
+            try {
+                connection = (HttpURLConnection) request.toURL().openConnection();
+                final int timeout = (int) TimeUnit.SECONDS.toMillis(maxWaitSeconds);
+                connection.setConnectTimeout(timeout);
+                connection.setReadTimeout(timeout);
+                final int status = connection.getResponseCode();
+                try (InputStream in = status < HTTP_BAD_REQUEST ? connection.getInputStream() : connection.getErrorStream()) {
+                    if (in != null) {
+                        in.readAllBytes();
+                    }
+                }
+                Log.debug("Training request %s returned %d", request, status);
+            } catch (IOException e) {
+                Log.warn("Training request %s failed: %s", request, e.getMessage());
+            } finally {
+                if (connection != null) {
+                    connection.disconnect();
+                }
+            }
+        }
+
+        private ProcessMonitor monitor(String action, List<String> command) {
             final ProcessBuilder processBuilder = new ProcessBuilder();
             final Consumer<String> stdOut = logOutput ? Log::debug : null;
             final Consumer<String> stdErr = logOutput ? Log::warn : null;
-            final List<String> command = new ArrayList<>();
+            processBuilder.command(command);
+            processBuilder.directory(jri.toFile());
+            return ProcessMonitor.builder()
+                                 .description(action)
+                                 .processBuilder(processBuilder)
+                                 .stdOut(stdOut)
+                                 .stdErr(stdErr)
+                                 .filter(Builder::filter)
+                                 .build();
+        }
 
+        private List<String> command(boolean exitOnStarted, String... jvmArgs) {
+            final List<String> command = new ArrayList<>();
             command.add(javaPath().toString());
             command.addAll(jvmOptions);
-            command.add(EXIT_ON_STARTED + exitOnStartedValue);
+            if (exitOnStarted) {
+                command.add(EXIT_ON_STARTED + exitOnStartedValue);
+            }
             command.addAll(Arrays.asList(jvmArgs));
             command.add(targetOption);
             command.add(target);
             command.addAll(args);
-            processBuilder.command(command);
-
-            processBuilder.directory(jri.toFile());
-
-            ProcessMonitor.builder()
-                          .description(action)
-                          .processBuilder(processBuilder)
-                          .stdOut(stdOut)
-                          .stdErr(stdErr)
-                          .filter(Builder::filter)
-                          .build()
-                          .execute(maxWaitSeconds, TimeUnit.SECONDS);
+            return command;
         }
 
         private static boolean filter(String line) {
@@ -17,11 +17,16 @@
 package io.helidon.linker;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import io.helidon.build.util.FileUtils;
 import io.helidon.build.util.Log;
@@ -29,7 +34,9 @@ import io.helidon.build.util.Strings;
 import io.helidon.build.util.SystemLogWriter;
 import io.helidon.linker.util.JavaRuntime;
 
+import static io.helidon.build.util.FileUtils.USER_HOME_DIR;
 import static io.helidon.build.util.FileUtils.assertFile;
+import static io.helidon.build.util.ProjectConfig.DOT_HELIDON;
 import static io.helidon.linker.util.Constants.DOCKER_BUILD;
 import static io.helidon.linker.util.Constants.MINIMUM_DOCKER_JDK_VERSION;
 import static io.helidon.linker.util.Constants.MINIMUM_JDK_VERSION;
@@ -51,6 +58,9 @@ public final class Configuration {
     private final boolean cds;
     private final boolean test;
     private final int maxAppStartSeconds;
+    private final Path baseImageCache;
+    private final boolean dynamicCds;
+    private final List<URI> cdsTrainingRequests;
 
     /**
      * Returns a new configuration builder.
@@ -73,6 +83,9 @@ public final class Configuration {
         this.cds = builder.cds;
         this.test = builder.test;
         this.maxAppStartSeconds = builder.maxAppStartSeconds;
+        this.baseImageCache = builder.baseImageCache;
+        this.dynamicCds = builder.dynamicCds;
+        this.cdsTrainingRequests = builder.cdsTrainingRequests;
     }
 
     /**
@@ -138,6 +151,24 @@ public final class Configuration {
         return cds;
     }
 
+    /**
+     * Returns whether or not to create a dynamic CDS archive in a single run of the application.
+     *
+     * @return {@code true} if a dynamic CDS archive should be created.
+     */
+    public boolean dynamicCds() {
+        return dynamicCds;
+    }
+
+    /**
+     * Returns the HTTP requests to send to the application when creating the CDS archive.
+     *
+     * @return The request URIs. Empty if the application should exit as soon as it has started.
+     */
+    public List<URI> cdsTrainingRequests() {
+        return cdsTrainingRequests;
+    }
+
     /**
      * Returns whether or not to test the start script.
      *
@@ -174,12 +205,22 @@ public final class Configuration {
         return maxAppStartSeconds;
     }
 
+    /**
+     * Returns the directory in which to cache base images for reuse.
+     *
+     * @return The directory, empty if base images should not be reused.
+     */
+    public Optional<Path> baseImageCache() {
+        return Optional.ofNullable(baseImageCache);
+    }
+
     /**
      * A {@link Configuration} builder.
      */
     public static final class Builder {
         static final String DEFAULT_DEBUG = "-agentlib:jdwp=transport=dt_socket,server=y,suspend=y,address=*:5005";
         static final int DEFAULT_MAX_APP_START_SECONDS = 1000;
+        static final Path DEFAULT_BASE_IMAGE_CACHE = USER_HOME_DIR.resolve(DOT_HELIDON).resolve("cache").resolve("jri");
         private JavaRuntime jdk;
         private Path mainJar;
         private List<String> defaultJvm;
@@ -193,6 +234,9 @@ public final class Configuration {
         private boolean test;
         private Log.Writer logWriter;
         private int maxAppStartSeconds;
+        private Path baseImageCache;
+        private boolean dynamicCds;
+        private List<URI> cdsTrainingRequests;
 
         private Builder() {
             defaultJvm = emptyList();
@@ -201,6 +245,8 @@ public final class Configuration {
             maxAppStartSeconds = DEFAULT_MAX_APP_START_SECONDS;
             cds = true;
             test = true;
+            baseImageCache = DEFAULT_BASE_IMAGE_CACHE;
+            cdsTrainingRequests = emptyList();
         }
 
         /**
@@ -215,9 +261,14 @@ public final class Configuration {
          *     --jri directory                The directory at which to create the JRI.
          *     --replace                      Delete the JRI directory if it exists.
          *     --skipCds                      Do not create a CDS archive.
+         *     --dynamicCds                   Create a dynamic CDS archive in a single run of the application.
+         *     --cdsTraining file             A file containing HTTP request URLs, one per line, to send to the
+         *                                    application when creating the CDS archive.
          *     --skipTest                     Do not test the start script.
          *     --verbose                      Log detail messages.
          *     --stripDebug                   Strip debug information from JDK classes. Defaults to false.
+         *     --baseImageCache directory     The directory in which to cache base images for reuse.
+         *     --skipBaseImageCache           Do not reuse base images.
          * </pre>
          * @return The builder.
          */
@@ -239,12 +290,20 @@ public final class Configuration {
                         replace(true);
                     } else if (arg.equalsIgnoreCase("--skipCds")) {
                         cds(false);
+                    } else if (arg.equalsIgnoreCase("--dynamicCds")) {
+                        dynamicCds(true);
+                    } else if (arg.equalsIgnoreCase("--cdsTraining")) {
+                        cdsTrainingFile(Paths.get(argAt(++i, args)));
                     } else if (arg.equalsIgnoreCase("--skipTest")) {
                         test(false);
                     } else if (arg.equalsIgnoreCase("--verbose")) {
                         verbose(true);
                     } else if (arg.equalsIgnoreCase("--stripDebug")) {
                         stripDebug(true);
+                    } else if (arg.equalsIgnoreCase("--baseImageCache")) {
+                        baseImageCache(Paths.get(argAt(++i, args)));
+                    } else if (arg.equalsIgnoreCase("--skipBaseImageCache")) {
+                        reuseBaseImage(false);
                     } else {
                         throw new IllegalArgumentException("Unknown argument: " + arg);
                     }
@@ -375,6 +434,55 @@ public final class Configuration {
             return this;
         }
 
+        /**
+         * Sets whether or not to create a dynamic CDS archive, in a single run of the application rather than one to
+         * collect the class list and another to create the archive. Requires JDK 13 or later. Defaults to {@code false}.
+         *
+         * @param dynamicCds {@code true} if a dynamic CDS archive should be created.
+         * @return The builder.
+         */
+        public Builder dynamicCds(boolean dynamicCds) {
+            this.dynamicCds = dynamicCds;
+            return this;
+        }
+
+        /**
+         * Sets HTTP requests to send to the application when creating the CDS archive, so that the classes used to
+         * handle them are included. The application is then stopped rather than exiting once started.
+         *
+         * @param requests The request URLs.
+         * @return The builder.
+         */
+        public Builder cdsTrainingRequests(List<String> requests) {
+            if (requests != null) {
+                this.cdsTrainingRequests = requests.stream()
+                                                   .map(String::trim)
+                                                   .filter(request -> !request.isEmpty())
+                                                   .map(URI::create)
+                                                   .collect(Collectors.toList());
+            }
+            return this;
+        }
+
+        /**
+         * Sets HTTP requests to send to the application when creating the CDS archive from a file containing one
+         * request URL per line. Empty lines and lines starting with {@code #} are ignored.
+         *
+         * @param requestsFile The file.
+         * @return The builder.
+         * @throws UncheckedIOException If the file cannot be read.
+         */
+        public Builder cdsTrainingFile(Path requestsFile) {
+            try {
+                return cdsTrainingRequests(Files.readAllLines(assertFile(requestsFile))
+                                                .stream()
+                                                .filter(line -> !line.startsWith("#"))
+                                                .collect(Collectors.toList()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
         /**
          * Sets whether or not to test the start script. Defaults to {@code true}.
          *
@@ -419,6 +527,30 @@ public final class Configuration {
             return this;
         }
 
+        /**
+         * Sets whether or not to reuse a base image previously created by {@code jlink} from the same JDK modules and
+         * options. Defaults to {@code true}.
+         *
+         * @param reuseBaseImage {@code true} if base images should be cached and reused.
+         * @return The builder.
+         */
+        public Builder reuseBaseImage(boolean reuseBaseImage) {
+            this.baseImageCache = reuseBaseImage ? DEFAULT_BASE_IMAGE_CACHE : null;
+            return this;
+        }
+
+        /**
+         * Sets the directory in which to cache base images for reuse. Defaults to a directory in the user's
+         * {@code .helidon} directory.
+         *
+         * @param baseImageCache The directory, or {@code null} if base images should not be reused.
+         * @return The builder.
+         */
+        public Builder baseImageCache(Path baseImageCache) {
+            this.baseImageCache = baseImageCache;
+            return this;
+        }
+
         /**
          * Sets the maximum number of seconds to wait for application startup.
          *
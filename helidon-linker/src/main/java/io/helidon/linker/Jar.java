@@ -24,10 +24,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.lang.module.ModuleDescriptor;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFilePermission;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -77,6 +81,10 @@ public final class Jar implements ResourceContainer {
     private static final String MODULE_INFO_CLASS = "module-info.class";
     private static final String SIGNATURE_PREFIX = "META-INF/";
     private static final String SIGNATURE_SUFFIX = ".SF";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+    private static final int COPY_BATCH_SIZE = 1024;
+    private static final int PARALLEL_STRIP_MIN_ENTRIES = 64;
     private final Path path;
     private final boolean isJmod;
     private final JarFile jar;
@@ -86,6 +94,7 @@ public final class Jar implements ResourceContainer {
     private final boolean isSigned;
     private final ModuleDescriptor descriptor;
     private final AtomicReference<Set<String>> resources;
+    private final AtomicReference<String> digest;
     private Index index;
     private boolean builtIndex;
 
@@ -168,6 +177,7 @@ public final class Jar implements ResourceContainer {
                 this.descriptor = null;
             }
             this.resources = new AtomicReference<>();
+            this.digest = new AtomicReference<>();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -251,6 +261,36 @@ public final class Jar implements ResourceContainer {
         return paths.contains(resourcePath);
     }
 
+    /**
+     * Returns a digest of the content of this jar, as a hex string.
+     *
+     * @return The digest.
+     */
+    public String digest() {
+        String result = digest.get();
+        if (result == null) {
+            try (InputStream in = Files.newInputStream(path)) {
+                final MessageDigest md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+                final byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    md.update(buffer, 0, read);
+                }
+                final StringBuilder hex = new StringBuilder();
+                for (byte b : md.digest()) {
+                    hex.append(String.format("%02x", b));
+                }
+                result = hex.toString();
+                digest.set(result);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return result;
+    }
+
     /**
      * Returns whether or not this jar is signed.
      *
@@ -320,16 +360,16 @@ public final class Jar implements ResourceContainer {
         if (ensureIndex) {
             ensureIndex();
         }
-        try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(targetFile))) {
+        try {
 
             // Add the index if we built it, and/or strip debug information if required; otherwise just copy the whole jar file
 
-            if (builtIndex) {
-                copy(out, true, stripDebug);
-            } else if (stripDebug) {
-                copy(out, false, true);
+            if (builtIndex || stripDebug) {
+                try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(targetFile))) {
+                    copy(out, builtIndex, stripDebug);
+                }
             } else {
-                StreamUtils.transfer(Files.newInputStream(path), out);
+                transfer(targetFile);
             }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -436,6 +476,18 @@ public final class Jar implements ResourceContainer {
         return entries().filter(Jar::isNormalClassFile);
     }
 
+    private void transfer(Path targetFile) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(targetFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
     private void copy(OutputStream out, boolean addIndex, boolean stripDebug) throws IOException {
         try (JarOutputStream jar = new JarOutputStream(out)) {
 
@@ -443,32 +495,43 @@ public final class Jar implements ResourceContainer {
                 addIndex(jar);
             }
 
-            // Copy all entries, filtering out any previous index (that could not be read)
-
-            entries().filter(e -> !e.path().equals(JANDEX_INDEX_RESOURCE_PATH))
-                     .forEach(entry -> {
-                         try {
-                             jar.putNextEntry(newJarEntry(entry));
-                             if (!entry.isDirectory()) {
-                                 StreamUtils.transfer(data(entry, stripDebug), jar);
-                             }
-                             jar.flush();
-                             jar.closeEntry();
-                         } catch (IOException e) {
-                             throw new UncheckedIOException(e);
-                         }
-                     });
+            // Copy all entries, filtering out any previous index (that could not be read). Entries are handled in
+            // batches so that classes can be stripped in parallel while keeping the entry order and bounding memory.
+
+            final List<Entry> entries = entries().filter(e -> !e.path().equals(JANDEX_INDEX_RESOURCE_PATH))
+                                                 .collect(Collectors.toList());
+            for (int start = 0; start < entries.size(); start += COPY_BATCH_SIZE) {
+                final List<Entry> batch = entries.subList(start, Math.min(entries.size(), start + COPY_BATCH_SIZE));
+                final List<byte[]> stripped = stripDebug && !isSigned ? stripDebug(batch) : null;
+                for (int i = 0; i < batch.size(); i++) {
+                    final Entry entry = batch.get(i);
+                    jar.putNextEntry(newJarEntry(entry));
+                    if (stripped != null && stripped.get(i) != null) {
+                        jar.write(stripped.get(i));
+                    } else if (!entry.isDirectory()) {
+                        StreamUtils.transfer(entry.data(), jar);
+                    }
+                    jar.flush();
+                    jar.closeEntry();
+                }
+            }
         }
     }
 
-    private InputStream data(Entry entry, boolean stripDebug) throws IOException {
-        if (stripDebug && isNormalClassFile(entry) && !isSigned) {
-            ClassReader reader = new ClassReader(entry.data());
-            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    private static List<byte[]> stripDebug(List<Entry> entries) {
+        final Stream<Entry> stream = entries.size() < PARALLEL_STRIP_MIN_ENTRIES ? entries.stream() : entries.parallelStream();
+        return stream.map(entry -> isNormalClassFile(entry) ? stripDebug(entry) : null)
+                     .collect(Collectors.toList());
+    }
+
+    private static byte[] stripDebug(Entry entry) {
+        try (InputStream in = entry.data()) {
+            final ClassReader reader = new ClassReader(in);
+            final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
             reader.accept(writer, ClassReader.SKIP_DEBUG);
-            return new ByteArrayInputStream(writer.toByteArray());
-        } else {
-            return entry.data();
+            return writer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
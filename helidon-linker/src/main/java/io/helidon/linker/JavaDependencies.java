@@ -17,21 +17,33 @@
 package io.helidon.linker;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.module.ModuleDescriptor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiConsumer;
 import java.util.spi.ToolProvider;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import io.helidon.build.util.Log;
 import io.helidon.build.util.StreamUtils;
 import io.helidon.linker.util.JavaRuntime;
 
+import static io.helidon.build.util.FileUtils.USER_HOME_DIR;
+import static io.helidon.build.util.ProjectConfig.DOT_HELIDON;
 import static io.helidon.build.util.StreamUtils.toPrintStream;
 import static io.helidon.linker.util.Constants.EOL;
 import static io.helidon.linker.util.Constants.EXCLUDED_MODULES;
@@ -39,7 +51,8 @@ import static io.helidon.linker.util.Constants.JDEPS_REQUIRES_MISSING_DEPS_OPTIO
 import static java.util.Objects.requireNonNull;
 
 /**
- * Collects Java module dependencies for a set of jars.
+ * Collects Java module dependencies for a set of jars. Jars without a module descriptor are analyzed with {@code jdeps}
+ * in parallel, and the results are cached by jar content and JDK version so that only new jars are analyzed again.
  */
 public final class JavaDependencies {
     private static final ToolProvider JDEPS = ToolProvider.findFirst("jdeps")
@@ -49,6 +62,8 @@ public final class JavaDependencies {
     private static final String LIST_DEPS_ARG = "--list-deps";
     private static final String IGNORE_MISSING_DEPS_ARG = "--ignore-missing-deps";
     private static final String JAVA_BASE_MODULE_NAME = "java.base";
+    private static final Path DEFAULT_CACHE_DIR = USER_HOME_DIR.resolve(DOT_HELIDON).resolve("cache").resolve("jdeps");
+    private static final String CACHE_FILE_SUFFIX = ".deps";
     private static final Set<String> KNOWN_SPLIT_PACKAGES = Set.of("javax.annotation", "javax.activation");
     private static final Map<String, BiConsumer<String, Jar>> PREFIX_HANDLERS = Map.of(
         "split package", JavaDependencies::split,
@@ -59,35 +74,65 @@ public final class JavaDependencies {
     );
 
     private final JavaRuntime javaHome;
+    private final Path cacheDir;
     private final Set<String> javaModuleNames;
     private final Set<String> dependencies;
 
     /**
-     * Collect the dependencies of the given jars on the given Java Runtime.
+     * Collect the dependencies of the given jars on the given Java Runtime, caching the analysis of each jar in the
+     * user's {@code .helidon} directory.
      *
      * @param jars The jars.
      * @param javaHome The Java Home.
      * @return The module names.
      */
     public static Set<String> collect(Stream<Jar> jars, JavaRuntime javaHome) {
-        return new JavaDependencies(javaHome).collect(jars);
+        return collect(jars, javaHome, DEFAULT_CACHE_DIR);
+    }
+
+    /**
+     * Collect the dependencies of the given jars on the given Java Runtime.
+     *
+     * @param jars The jars.
+     * @param javaHome The Java Home.
+     * @param cacheDir The directory in which to cache the analysis of each jar, or {@code null} for none.
+     * @return The module names.
+     */
+    public static Set<String> collect(Stream<Jar> jars, JavaRuntime javaHome, Path cacheDir) {
+        return new JavaDependencies(javaHome, cacheDir).collect(jars);
     }
 
-    private JavaDependencies(JavaRuntime javaHome) {
+    private JavaDependencies(JavaRuntime javaHome, Path cacheDir) {
         this.javaHome = requireNonNull(javaHome);
+        this.cacheDir = cacheDir == null ? null : cacheDir.resolve(cacheKey(javaHome));
         this.javaModuleNames = javaHome.moduleNames();
         this.dependencies = new HashSet<>();
         this.dependencies.add(JAVA_BASE_MODULE_NAME);
     }
 
     private Set<String> collect(Stream<Jar> jars) {
-        jars.forEach(jar -> {
-            if (jar.hasModuleDescriptor()) {
-                addModule(jar);
-            } else {
-                addJar(jar);
+        final List<Jar> jarList = jars.collect(Collectors.toList());
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+
+            // Start the analysis of all jars, then handle the results in order
+
+            final Map<Jar, CompletableFuture<List<String>>> analyses = new HashMap<>();
+            for (Jar jar : jarList) {
+                if (!jar.hasModuleDescriptor()) {
+                    analyses.put(jar, CompletableFuture.supplyAsync(() -> analyze(jar), executor));
+                }
+            }
+            for (Jar jar : jarList) {
+                if (jar.hasModuleDescriptor()) {
+                    addModule(jar);
+                } else {
+                    addJar(jar, result(analyses.get(jar)));
+                }
             }
-        });
+        } finally {
+            executor.shutdownNow();
+        }
 
         final Set<String> closure = new HashSet<>();
         dependencies.forEach(moduleName -> addDependency(moduleName, closure));
@@ -112,8 +157,30 @@ public final class JavaDependencies {
                   .forEach(dependencies::add);
     }
 
-    private void addJar(Jar jar) {
+    private void addJar(Jar jar, List<String> jdepsResult) {
         Log.info("  checking %s", jar);
+        jdepsResult.forEach(line -> handleJdepsResultLine(line, jar));
+    }
+
+    private List<String> analyze(Jar jar) {
+        final Path cacheFile = cacheDir == null ? null : cacheDir.resolve(jar.digest() + CACHE_FILE_SUFFIX);
+        if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+            try {
+                final List<String> result = Files.readAllLines(cacheFile);
+                Log.debug("Using cached dependencies of %s", jar);
+                return result;
+            } catch (IOException e) {
+                Log.debug("Could not read %s: %s", cacheFile, e.getMessage());
+            }
+        }
+        final List<String> result = jdeps(jar);
+        if (cacheFile != null) {
+            store(result, cacheFile);
+        }
+        return result;
+    }
+
+    private List<String> jdeps(Jar jar) {
         final List<String> args = new ArrayList<>();
         if (!javaHome.isCurrent()) {
             args.add(SYSTEM_ARG);
@@ -135,10 +202,10 @@ public final class JavaDependencies {
             throw new RuntimeException("Could not collect dependencies of " + jar);
         }
 
-        Arrays.stream(StreamUtils.toString(out).split(EOL))
-              .map(String::trim)
-              .filter(line -> !line.isEmpty())
-              .forEach(line -> handleJdepsResultLine(line, jar));
+        return Arrays.stream(StreamUtils.toString(out).split(EOL))
+                     .map(String::trim)
+                     .filter(line -> !line.isEmpty())
+                     .collect(Collectors.toList());
     }
 
     private void handleJdepsResultLine(String line, Jar jar) {
@@ -159,6 +226,46 @@ public final class JavaDependencies {
         }
     }
 
+    private static List<String> result(CompletableFuture<List<String>> analysis) {
+        try {
+            return analysis.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void store(List<String> jdepsResult, Path cacheFile) {
+
+        // Write to a temp file and move it, so that a concurrent build never reads a partial file
+
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            tempFile = Files.createTempFile(cacheFile.getParent(), null, null);
+            Files.write(tempFile, jdepsResult);
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Log.debug("Could not write %s: %s", cacheFile, e.getMessage());
+            try {
+                if (tempFile != null) {
+                    Files.deleteIfExists(tempFile);
+                }
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private static String cacheKey(JavaRuntime javaHome) {
+
+        // The jdeps output also depends on the version of jdeps itself when analyzing for another JDK
+
+        final String version = javaHome.version().toString();
+        return javaHome.isCurrent() ? version : version + "-" + Runtime.version();
+    }
+
     private static String toString(String line, Jar jar) {
         return jar + " -> " + line;
     }
@@ -175,7 +175,9 @@ public final class Linker {
 
         // Tell jlink which jdk modules to include
 
-        addArgument("--add-modules", String.join(",", javaDependencies));
+        final List<String> modules = new ArrayList<>(javaDependencies);
+        modules.sort(null);
+        addArgument("--add-modules", String.join(",", modules));
 
         // Tell jlink the directory in which to create and write the JRI
 
@@ -192,10 +194,20 @@ public final class Linker {
     }
 
     private void buildJri() {
-        Log.info("Creating base image: %s", jriDirectory());
-        final int result = jlink.run(System.out, System.err, jlinkArgs.toArray(new String[0]));
-        if (result != 0) {
-            throw new Error("JRI creation failed.");
+        final BaseImageCache cache = config.baseImageCache()
+                                           .map(dir -> BaseImageCache.create(dir, config.jdk(), jlinkArgs))
+                                           .orElse(null);
+        if (cache != null && cache.copyTo(config.jriDirectory())) {
+            Log.info("Reusing cached base image: %s", jriDirectory());
+        } else {
+            Log.info("Creating base image: %s", jriDirectory());
+            final int result = jlink.run(System.out, System.err, jlinkArgs.toArray(new String[0]));
+            if (result != 0) {
+                throw new Error("JRI creation failed.");
+            }
+            if (cache != null) {
+                cache.store(config.jriDirectory());
+            }
         }
         jri = JavaRuntime.jri(config.jriDirectory(), config.jdk().version());
     }
@@ -218,6 +230,8 @@ public final class Linker {
                                                              .args((config.defaultArgs()))
                                                              .archiveFile(application.archivePath())
                                                              .exitOnStartedValue(exitOnStarted)
+                                                             .dynamicArchive(config.dynamicCds())
+                                                             .trainingRequests(config.cdsTrainingRequests())
                                                              .maxWaitSeconds(config.maxAppStartSeconds())
                                                              .logOutput(config.verbose())
                                                              .build();
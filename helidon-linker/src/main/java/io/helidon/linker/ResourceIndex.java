@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.linker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.helidon.build.util.Log;
+import io.helidon.linker.util.JavaRuntime;
+
+import static io.helidon.build.util.FileUtils.USER_HOME_DIR;
+import static io.helidon.build.util.ProjectConfig.DOT_HELIDON;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An index of resource paths to the name of the container that owns them, so that lookups across many jars or
+ * {@code .jmod} files are a single hash lookup. If a resource is present in more than one container, the first one
+ * added owns it, as on a class path.
+ * <p>
+ * The index of a JDK is cached in a compact file per JDK, since building it requires reading all of its {@code .jmod}
+ * files.
+ */
+public final class ResourceIndex implements ResourceContainer {
+    private static final Path DEFAULT_CACHE_DIR = USER_HOME_DIR.resolve(DOT_HELIDON).resolve("cache").resolve("jdk-index");
+    private static final String CACHE_FILE_SUFFIX = ".idx";
+    private static final String JMOD_CLASSES_PREFIX = "classes/";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int CACHE_FILE_MAGIC = 0x48524958;
+    private static final int CACHE_FILE_FORMAT = 1;
+    private static final int CACHE_KEY_LENGTH = 16;
+
+    private final Map<String, String> containers;
+
+    /**
+     * Returns a new index of the given jars, with containers named by jar path.
+     *
+     * @param jars The jars, in class path order.
+     * @return The index.
+     */
+    public static ResourceIndex create(Stream<Jar> jars) {
+        final Map<String, List<String>> resources = new LinkedHashMap<>();
+        jars.forEach(jar -> resources.put(jar.path().toString(), jar.entries()
+                                                                    .map(Jar.Entry::getName)
+                                                                    .collect(Collectors.toList())));
+        return new ResourceIndex(resources);
+    }
+
+    /**
+     * Returns the index of the given JDK, with containers named by module, caching it in the user's {@code .helidon}
+     * directory.
+     *
+     * @param jdk The JDK.
+     * @return The index. Empty if the JDK does not contain {@code .jmod} files.
+     */
+    public static ResourceIndex create(JavaRuntime jdk) {
+        return create(jdk, DEFAULT_CACHE_DIR);
+    }
+
+    /**
+     * Returns the index of the given JDK, with containers named by module. Resources in the {@code classes} section of
+     * a {@code .jmod} file are indexed by their path within that section, others (e.g. {@code conf/net.properties}) by
+     * their full path.
+     *
+     * @param jdk The JDK.
+     * @param cacheDir The directory in which to cache the index, or {@code null} for none.
+     * @return The index. Empty if the JDK does not contain {@code .jmod} files.
+     */
+    public static ResourceIndex create(JavaRuntime jdk, Path cacheDir) {
+        final List<String> moduleNames = new ArrayList<>(new TreeSet<>(jdk.moduleNames()));
+        if (moduleNames.isEmpty()) {
+            return new ResourceIndex(Map.of());
+        }
+        final String stamp = stamp(jdk, moduleNames);
+        final Path cacheFile = cacheDir == null ? null : cacheDir.resolve(cacheKey(jdk) + CACHE_FILE_SUFFIX);
+        if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+            final Optional<ResourceIndex> cached = read(cacheFile, stamp);
+            if (cached.isPresent()) {
+                Log.debug("Using cached resource index of %s", jdk);
+                return cached.get();
+            }
+        }
+
+        // Read the jmods in parallel, then add them in a stable order
+
+        final Map<String, List<String>> entries = moduleNames.parallelStream()
+                                                             .collect(Collectors.toMap(name -> name,
+                                                                                       name -> jmodResources(jdk, name)));
+        final Map<String, List<String>> resources = new LinkedHashMap<>();
+        moduleNames.forEach(name -> resources.put(name, entries.get(name)));
+        final ResourceIndex result = new ResourceIndex(resources);
+        if (cacheFile != null) {
+            write(resources, cacheFile, stamp);
+        }
+        return result;
+    }
+
+    private ResourceIndex(Map<String, List<String>> resources) {
+        this.containers = new HashMap<>();
+        resources.forEach((container, paths) -> paths.forEach(path -> containers.putIfAbsent(path, container)));
+    }
+
+    /**
+     * Returns the name of the container that owns the given resource.
+     *
+     * @param resourcePath The path, e.g. "com/acme/Dynamite.class".
+     * @return The container name, if present.
+     */
+    public Optional<String> container(String resourcePath) {
+        return Optional.ofNullable(containers.get(requireNonNull(resourcePath)));
+    }
+
+    @Override
+    public boolean containsResource(String resourcePath) {
+        return containers.containsKey(requireNonNull(resourcePath));
+    }
+
+    /**
+     * Returns the number of resources.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return containers.size();
+    }
+
+    private static List<String> jmodResources(JavaRuntime jdk, String moduleName) {
+        return jdk.jmod(moduleName)
+                  .entries()
+                  .filter(entry -> !entry.isDirectory())
+                  .map(Jar.Entry::getName)
+                  .map(name -> name.startsWith(JMOD_CLASSES_PREFIX) ? name.substring(JMOD_CLASSES_PREFIX.length()) : name)
+                  .collect(Collectors.toList());
+    }
+
+    private static Optional<ResourceIndex> read(Path cacheFile, String stamp) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(cacheFile))))) {
+            if (in.readInt() != CACHE_FILE_MAGIC || in.readInt() != CACHE_FILE_FORMAT || !in.readUTF().equals(stamp)) {
+                return Optional.empty();
+            }
+            final Map<String, List<String>> resources = new LinkedHashMap<>();
+            final int containerCount = in.readInt();
+            for (int i = 0; i < containerCount; i++) {
+                final String container = in.readUTF();
+                final int pathCount = in.readInt();
+                final List<String> paths = new ArrayList<>(pathCount);
+                String previous = "";
+                for (int j = 0; j < pathCount; j++) {
+                    final String path = previous.substring(0, in.readUnsignedShort()) + in.readUTF();
+                    paths.add(path);
+                    previous = path;
+                }
+                resources.put(container, paths);
+            }
+            return Optional.of(new ResourceIndex(resources));
+        } catch (IOException | RuntimeException e) {
+            Log.debug("Could not read %s: %s", cacheFile, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void write(Map<String, List<String>> resources, Path cacheFile, String stamp) {
+
+        // Paths are sorted and stored as the length of the prefix shared with the previous one plus the remainder.
+        // Write to a temp file and move it, so that a concurrent build never reads a partial file.
+
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            tempFile = Files.createTempFile(cacheFile.getParent(), null, null);
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(CACHE_FILE_MAGIC);
+                out.writeInt(CACHE_FILE_FORMAT);
+                out.writeUTF(stamp);
+                out.writeInt(resources.size());
+                for (Map.Entry<String, List<String>> entry : resources.entrySet()) {
+                    final List<String> paths = entry.getValue().stream().sorted().collect(Collectors.toList());
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(paths.size());
+                    String previous = "";
+                    for (String path : paths) {
+                        final int shared = sharedPrefixLength(previous, path);
+                        out.writeShort(shared);
+                        out.writeUTF(path.substring(shared));
+                        previous = path;
+                    }
+                }
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Log.debug("Could not write %s: %s", cacheFile, e.getMessage());
+            try {
+                if (tempFile != null) {
+                    Files.deleteIfExists(tempFile);
+                }
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private static int sharedPrefixLength(String first, String second) {
+        final int max = Math.min(first.length(), second.length());
+        int length = 0;
+        while (length < max && first.charAt(length) == second.charAt(length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static String stamp(JavaRuntime jdk, List<String> moduleNames) {
+
+        // Detects a JDK updated in place
+
+        final StringBuilder stamp = new StringBuilder(jdk.version().toString());
+        for (String moduleName : moduleNames) {
+            final Path jmod = jdk.jmod(moduleName).path();
+            try {
+                stamp.append(';')
+                     .append(moduleName)
+                     .append(':')
+                     .append(Files.size(jmod))
+                     .append(':')
+                     .append(Files.getLastModifiedTime(jmod).toMillis());
+            } catch (IOException e) {
+                stamp.append(';').append(moduleName);
+            }
+        }
+        return hex(stamp.toString());
+    }
+
+    private static String cacheKey(JavaRuntime jdk) {
+        return jdk.version() + "-" + hex(jdk.path().toAbsolutePath().toString()).substring(0, CACHE_KEY_LENGTH);
+    }
+
+    private static String hex(String value) {
+        try {
+            final StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance(DIGEST_ALGORITHM).digest(value.getBytes(UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -72,6 +72,11 @@ public final class Constants {
      */
     public static final boolean CDS_SUPPORTS_IMAGE_COPY = Runtime.version().feature() >= 10;
 
+    /**
+     * Whether or not CDS supports dynamic archives.
+     */
+    public static final boolean CDS_SUPPORTS_DYNAMIC_ARCHIVE = Runtime.version().feature() >= 13;
+
     /**
      * End of line string.
      */
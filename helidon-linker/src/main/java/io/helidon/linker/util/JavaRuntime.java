@@ -37,6 +37,7 @@ import java.util.zip.ZipFile;
 import io.helidon.build.util.FileUtils;
 import io.helidon.linker.Jar;
 import io.helidon.linker.ResourceContainer;
+import io.helidon.linker.ResourceIndex;
 
 import static io.helidon.build.util.Constants.OS;
 import static io.helidon.build.util.Constants.javaHome;
@@ -86,6 +87,7 @@ public final class JavaRuntime implements ResourceContainer {
     private final boolean isJdk;
     private final Path jmodsDir;
     private final Map<String, Jar> modules;
+    private final AtomicReference<ResourceIndex> resourceIndex;
 
     private static Path currentJavaHomeDir() {
         Path result = CURRENT_JAVA_HOME_DIR.get();
@@ -236,6 +238,7 @@ public final class JavaRuntime implements ResourceContainer {
             this.modules = Map.of();
         }
         this.isJdk = isJdk;
+        this.resourceIndex = new AtomicReference<>();
     }
 
     /**
@@ -267,8 +270,36 @@ public final class JavaRuntime implements ResourceContainer {
 
     @Override
     public boolean containsResource(String resourcePath) {
-        final String path = resourcePath.endsWith(".class") ? JMOD_CLASSES_PREFIX + resourcePath : resourcePath;
-        return modules.values().stream().anyMatch(jar -> jar.containsResource(path));
+        return resourceIndex().containsResource(resourcePath);
+    }
+
+    /**
+     * Returns the name of the module that contains the given resource.
+     *
+     * @param resourcePath The path, e.g. "java/lang/Object.class".
+     * @return The module name, if present. Always empty if this instance does not contain {@code .jmod} files.
+     */
+    public Optional<String> moduleContaining(String resourcePath) {
+        return resourceIndex().container(resourcePath);
+    }
+
+    /**
+     * Returns the index of the resources in the {@code .jmod} files, building or loading it from the cache if required.
+     *
+     * @return The index.
+     */
+    public ResourceIndex resourceIndex() {
+        ResourceIndex result = resourceIndex.get();
+        if (result == null) {
+            synchronized (resourceIndex) {
+                result = resourceIndex.get();
+                if (result == null) {
+                    result = ResourceIndex.create(this);
+                    resourceIndex.set(result);
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.linker;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.helidon.linker.util.JavaRuntime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit test for class {@link BaseImageCache}.
+ */
+class BaseImageCacheTest {
+
+    @Test
+    void testReuseWhenInputsUnchanged(@TempDir Path dir) throws Exception {
+        final JavaRuntime jdk = JavaRuntime.current(true);
+        final Path cacheDir = dir.resolve("cache");
+        final Path image = Files.createDirectories(dir.resolve("first").resolve("bin"));
+        Files.writeString(image.resolve("java"), "java");
+        final List<String> args = List.of("--add-modules", "java.base", "--output", "first");
+
+        final BaseImageCache cache = BaseImageCache.create(cacheDir, jdk, args);
+        assertThat(cache.copyTo(dir.resolve("missed")), is(false));
+        cache.store(dir.resolve("first"));
+
+        // Only the output differs
+
+        final BaseImageCache same = BaseImageCache.create(cacheDir, jdk, List.of("--add-modules", "java.base", "--output", "second"));
+        assertThat(same.copyTo(dir.resolve("second")), is(true));
+        assertThat(Files.readString(dir.resolve("second").resolve("bin").resolve("java")), is("java"));
+
+        final BaseImageCache other = BaseImageCache.create(cacheDir, jdk, List.of("--add-modules", "java.sql", "--output", "third"));
+        assertThat(other.copyTo(dir.resolve("third")), is(false));
+    }
+}
@@ -16,9 +16,16 @@
 
 package io.helidon.linker;
 
+import java.net.ServerSocket;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.spi.ToolProvider;
 
 import io.helidon.build.test.TestFiles;
 
@@ -27,6 +34,7 @@ import io.helidon.build.util.Log;
 import io.helidon.build.util.SystemLogWriter;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static io.helidon.build.util.TestUtils.isDebugLogEnabled;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -43,6 +51,27 @@ class ClassDataSharingTest {
 
     private static final Path JAVA_HOME = Path.of(Constants.javaHome());
     private static final String APP_CLASS = "org/jboss/weld/environment/deployment/discovery/BeanArchiveScanner";
+    private static final String SERVER_SOURCE = "package acme;\n"
+                                                + "import com.sun.net.httpserver.HttpServer;\n"
+                                                + "import java.net.InetSocketAddress;\n"
+                                                + "public class Main {\n"
+                                                + "    public static void main(String[] args) throws Exception {\n"
+                                                + "        int port = Integer.parseInt(args[0]);\n"
+                                                + "        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);\n"
+                                                + "        server.createContext(\"/greet\", exchange -> {\n"
+                                                + "            byte[] body = new Greeting().toString().getBytes();\n"
+                                                + "            exchange.sendResponseHeaders(200, body.length);\n"
+                                                + "            exchange.getResponseBody().write(body);\n"
+                                                + "            exchange.close();\n"
+                                                + "        });\n"
+                                                + "        server.start();\n"
+                                                + "    }\n"
+                                                + "}\n"
+                                                + "class Greeting {\n"
+                                                + "    public String toString() {\n"
+                                                + "        return \"Hello\";\n"
+                                                + "    }\n"
+                                                + "}\n";
 
     @BeforeAll
     static void setup() {
@@ -91,6 +120,51 @@ class ClassDataSharingTest {
         assertThat(Files.isRegularFile(archive), is(true));
     }
 
+    @Test
+    void testDynamicArchiveWithTraining(@TempDir Path dir) throws Exception {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final Path archiveFile = dir.resolve("start.jsa");
+        final ClassDataSharing cds = ClassDataSharing.builder()
+                                                     .jri(JAVA_HOME)
+                                                     .applicationJar(serverJar(dir))
+                                                     .args(List.of(Integer.toString(port)))
+                                                     .archiveFile(archiveFile)
+                                                     .dynamicArchive(true)
+                                                     .trainingRequests(List.of(URI.create("http://localhost:" + port + "/greet")))
+                                                     .logOutput(true)
+                                                     .maxWaitSeconds(60)
+                                                     .build();
+
+        // The class used only to handle the request must have been loaded
+
+        assertContains(cds.classList(), "acme/Greeting");
+        assertThat(Files.isRegularFile(archiveFile), is(true));
+    }
+
+    private static Path serverJar(Path dir) throws Exception {
+        final Path source = dir.resolve("src/acme/Main.java");
+        final Path classes = Files.createDirectories(dir.resolve("classes"));
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, SERVER_SOURCE);
+        final ToolProvider javac = ToolProvider.findFirst("javac").orElseThrow();
+        assertThat(javac.run(System.out, System.err, "-d", classes.toString(), source.toString()), is(0));
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "acme.Main");
+        final Path jar = dir.resolve("server.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            for (String name : List.of("acme/Main.class", "acme/Greeting.class")) {
+                out.putNextEntry(new JarEntry(name));
+                out.write(Files.readAllBytes(classes.resolve(name)));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
     private static void assertContains(List<String> list, String value) {
         assertThat(list.indexOf(value), is(greaterThan(-1)));
     }
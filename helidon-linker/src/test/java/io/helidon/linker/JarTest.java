@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2020 Oracle and/or its affiliates.
+ * Copyright (c) 2020 Oracle and/or its affiliates.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,20 +16,38 @@
 
 package io.helidon.linker;
 
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.spi.ToolProvider;
+import java.util.stream.Collectors;
 
 import io.helidon.build.test.TestFiles;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 
 /**
  * Unit test for class {@link Jar}.
  */
 class JarTest {
+    private static final String SOURCE = "package acme;\n"
+                                         + "public class Main {\n"
+                                         + "    public static void main(String[] args) {\n"
+                                         + "        String greeting = \"Hello\";\n"
+                                         + "        System.out.println(greeting);\n"
+                                         + "    }\n"
+                                         + "}\n";
+    private static final int CLASS_COUNT = 200;
 
     @Test
     @Disabled
@@ -38,4 +56,55 @@ class JarTest {
         Jar jar = Jar.open(signed);
         assertThat(jar.isSigned(), is(true));
     }
+
+    @Test
+    void testCopy(@TempDir Path dir) throws Exception {
+        final Jar jar = Jar.open(jar(dir));
+        final Path copy = jar.copyToDirectory(Files.createDirectories(dir.resolve("copy")), false, false);
+        assertThat(Files.readAllBytes(copy), is(Files.readAllBytes(jar.path())));
+    }
+
+    @Test
+    void testCopyStripDebug(@TempDir Path dir) throws Exception {
+        final Jar jar = Jar.open(jar(dir));
+        final Jar copy = Jar.open(jar.copyToDirectory(Files.createDirectories(dir.resolve("copy")), false, true));
+
+        // Entries are stripped in parallel but must keep their order
+
+        assertThat(paths(copy), is(paths(jar)));
+        for (Jar.Entry entry : copy.entries().collect(Collectors.toList())) {
+            final Jar.Entry originalEntry = jar.entries().filter(e -> e.path().equals(entry.path())).findFirst().orElseThrow();
+            try (InputStream original = originalEntry.data(); InputStream stripped = entry.data()) {
+                assertThat(stripped.readAllBytes().length, is(lessThan(original.readAllBytes().length)));
+            }
+        }
+    }
+
+    private static List<String> paths(Jar jar) {
+        return jar.entries().map(Jar.Entry::path).collect(Collectors.toList());
+    }
+
+    private static Path jar(Path dir) throws Exception {
+        final Path source = dir.resolve("src/acme/Main.java");
+        final Path classes = Files.createDirectories(dir.resolve("classes"));
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, SOURCE);
+        final ToolProvider javac = ToolProvider.findFirst("javac").orElseThrow();
+        final int result = javac.run(System.out, System.err, "-g", "--release", "11", "-d", classes.toString(), source.toString());
+        assertThat(result, is(0));
+        final byte[] data = Files.readAllBytes(classes.resolve("acme/Main.class"));
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            names.add("acme/Main" + i + ".class");
+        }
+        final Path jar = dir.resolve("app.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (String name : names) {
+                out.putNextEntry(new JarEntry(name));
+                out.write(data);
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
 }
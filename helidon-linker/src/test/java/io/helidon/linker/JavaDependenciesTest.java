@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.linker;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.spi.ToolProvider;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.helidon.linker.util.JavaRuntime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Unit test for class {@link JavaDependencies}.
+ */
+class JavaDependenciesTest {
+    private static final String SOURCE = "package acme;\n"
+                                         + "public class Main {\n"
+                                         + "    public static void main(String[] args) throws Exception {\n"
+                                         + "        java.sql.DriverManager.getDrivers();\n"
+                                         + "    }\n"
+                                         + "}\n";
+
+    @Test
+    void testCachedAnalysis(@TempDir Path dir) throws Exception {
+        final Jar jar = Jar.open(jar(dir));
+        final Path cacheDir = dir.resolve("cache");
+        final JavaRuntime jdk = JavaRuntime.current(true);
+
+        Set<String> dependencies = JavaDependencies.collect(Stream.of(jar), jdk, cacheDir);
+        assertThat(dependencies, hasItem("java.sql"));
+
+        // Replace the cached result and check that it is used rather than analyzing again
+
+        final List<Path> cacheFiles;
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            cacheFiles = files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        assertThat(cacheFiles.size(), is(1));
+        Files.write(cacheFiles.get(0), List.of("java.logging"));
+
+        dependencies = JavaDependencies.collect(Stream.of(jar), jdk, cacheDir);
+        assertThat(dependencies, hasItem("java.logging"));
+        assertThat(dependencies, not(hasItem("java.sql")));
+    }
+
+    private static Path jar(Path dir) throws Exception {
+        final Path source = dir.resolve("src/acme/Main.java");
+        final Path classes = Files.createDirectories(dir.resolve("classes"));
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, SOURCE);
+        final ToolProvider javac = ToolProvider.findFirst("javac").orElseThrow();
+        final int result = javac.run(System.out, System.err, "-d", classes.toString(), source.toString());
+        assertThat(result, is(0));
+        final Path jar = dir.resolve("app.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("acme/Main.class"));
+            out.write(Files.readAllBytes(classes.resolve("acme/Main.class")));
+            out.closeEntry();
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.linker;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.helidon.linker.util.JavaRuntime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit test for class {@link ResourceIndex}.
+ */
+class ResourceIndexTest {
+
+    @Test
+    void testFirstJarOwnsResource(@TempDir Path dir) throws Exception {
+        final Jar first = Jar.open(jar(dir.resolve("first.jar"), "acme/A.class", "acme/Shared.class"));
+        final Jar second = Jar.open(jar(dir.resolve("second.jar"), "acme/B.class", "acme/Shared.class"));
+        final ResourceIndex index = ResourceIndex.create(Stream.of(first, second));
+
+        assertThat(index.size(), is(3));
+        assertThat(index.container("acme/B.class"), is(Optional.of(second.path().toString())));
+        assertThat(index.container("acme/Shared.class"), is(Optional.of(first.path().toString())));
+        assertThat(index.containsResource("acme/C.class"), is(false));
+    }
+
+    @Test
+    void testCachedJdkIndex(@TempDir Path dir) throws Exception {
+        final JavaRuntime jdk = JavaRuntime.current(true);
+        final Path cacheDir = dir.resolve("cache");
+        final ResourceIndex index = ResourceIndex.create(jdk, cacheDir);
+
+        assertThat(index.container("java/lang/Object.class"), is(Optional.of("java.base")));
+        assertThat(index.container("java/sql/Driver.class"), is(Optional.of("java.sql")));
+
+        final List<Path> cacheFiles;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            cacheFiles = files.collect(Collectors.toList());
+        }
+        assertThat(cacheFiles.size(), is(1));
+
+        final ResourceIndex cached = ResourceIndex.create(jdk, cacheDir);
+        assertThat(cached.size(), is(index.size()));
+        assertThat(cached.container("java/sql/Driver.class"), is(Optional.of("java.sql")));
+
+        // A damaged cache file is rebuilt
+
+        Files.write(cacheFiles.get(0), new byte[] {1, 2, 3});
+        assertThat(ResourceIndex.create(jdk, cacheDir).size(), is(index.size()));
+    }
+
+    private static Path jar(Path jar, String... resourcePaths) throws Exception {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (String resourcePath : resourcePaths) {
+                out.putNextEntry(new JarEntry(resourcePath));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
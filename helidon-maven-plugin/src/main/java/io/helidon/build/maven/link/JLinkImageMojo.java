@@ -69,6 +69,20 @@ public class JLinkImageMojo extends AbstractMojo {
     @Parameter(defaultValue = "true", property = "jlink.image.addClassDataSharingArchive")
     private boolean addClassDataSharingArchive;
 
+    /**
+     * Create the Class Data Sharing archive in a single run of the application, using a dynamic archive. Requires
+     * JDK 13 or later.
+     */
+    @Parameter(defaultValue = "false", property = "jlink.image.dynamicClassDataSharingArchive")
+    private boolean dynamicClassDataSharingArchive;
+
+    /**
+     * HTTP requests to send to the application when creating the Class Data Sharing archive, so that the classes used
+     * to handle them are included. The application is stopped after the requests rather than exiting once started.
+     */
+    @Parameter(property = "jlink.image.classDataSharingTrainingRequests")
+    private List<String> classDataSharingTrainingRequests;
+
     /**
      * Test the image after creation.
      */
@@ -105,6 +119,13 @@ public class JLinkImageMojo extends AbstractMojo {
     @Parameter(defaultValue = "false", property = "jlink.image.stripDebug")
     private boolean stripDebug;
 
+    /**
+     * Reuse the base image created by {@code jlink} in a previous build if the JDK, the Java modules and the options
+     * have not changed, rather than creating it again.
+     */
+    @Parameter(defaultValue = "true", property = "jlink.image.reuseBaseImage")
+    private boolean reuseBaseImage;
+
     /**
      * Skip execution for this plugin.
      */
@@ -130,7 +151,10 @@ public class JLinkImageMojo extends AbstractMojo {
                                                 .defaultArgs(defaultArgs)
                                                 .defaultDebugOptions(defaultDebugOptions)
                                                 .cds(addClassDataSharingArchive)
+                                                .dynamicCds(dynamicClassDataSharingArchive)
+                                                .cdsTrainingRequests(classDataSharingTrainingRequests)
                                                 .stripDebug(stripDebug)
+                                                .reuseBaseImage(reuseBaseImage)
                                                 .test(testImage)
                                                 .jriDirectory(outputDir)
                                                 .maxAppStartSeconds(maxAppStartSeconds)
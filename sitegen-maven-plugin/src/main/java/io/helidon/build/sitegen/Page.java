@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import io.helidon.build.util.SourcePath;
 
@@ -136,6 +137,24 @@ public class Page implements Model {
                                            File sourcedir,
                                            Backend backend) {
 
+        return create(sourcePaths, pageFilters, (sourcePath, sourceExt) -> backend
+                .getPageRenderer(sourceExt)
+                .readMetadata(new File(sourcedir, sourcePath)));
+    }
+
+    /**
+     * Create {@link Page} instances for each matched {@link SourcePath}.
+     * @param sourcePaths a {@code List} of {@link SourcePath} to match
+     * @param pageFilters a {@code List} of {@link SourcePathFilter} to apply
+     * @param metadataReader the function reading the {@link Metadata} of a
+     * page, given its source path and source file extension
+     * @return the created {@link Page} instances in {@code Map} indexed by their
+     * relative source path
+     */
+    static Map<String, Page> create(List<SourcePath> sourcePaths,
+                                    List<SourcePathFilter> pageFilters,
+                                    BiFunction<String, String, Metadata> metadataReader) {
+
         checkNonNull(sourcePaths, "sourcePaths");
         checkNonNull(pageFilters, "pageFilters");
         List<SourcePath> filteredSourcePaths;
@@ -157,9 +176,7 @@ public class Page implements Model {
             }
             String sourceExt = getFileExt(sourcePathStr);
             String targetPath = replaceFileExt(sourcePathStr, "");
-            Metadata metadata = backend
-                    .getPageRenderer(sourceExt)
-                    .readMetadata(new File(sourcedir, sourcePathStr));
+            Metadata metadata = metadataReader.apply(sourcePathStr, sourceExt);
             pages.put(sourcePathStr,
                     new Page(sourcePathStr, sourceExt, targetPath, metadata));
         }
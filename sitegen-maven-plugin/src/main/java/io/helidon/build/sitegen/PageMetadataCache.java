@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.helidon.build.sitegen.Page.Metadata;
+
+import static io.helidon.build.sitegen.SiteManifest.readString;
+import static io.helidon.build.sitegen.SiteManifest.writeString;
+
+/**
+ * A cache of {@link Metadata} read from the document headers, so that the
+ * headers of unchanged documents are not parsed again.
+ * <p>
+ * Entries are indexed by a key computed from the document and the files it
+ * includes, see {@link #key(String, Map)}. Only the entries used during a
+ * generation are saved.
+ */
+final class PageMetadataCache {
+
+    private static final int MAGIC = 0x48534D43;
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_SUFFIX = ".sitegen-headers";
+
+    private final File file;
+    private final String seed;
+    private final Map<String, Metadata> entries;
+    private final Map<String, Metadata> usedEntries;
+    private boolean modified;
+
+    private PageMetadataCache(File file, String seed, Map<String, Metadata> entries, boolean modified) {
+        this.file = file;
+        this.seed = seed;
+        this.entries = entries;
+        this.usedEntries = new HashMap<>();
+        this.modified = modified;
+    }
+
+    /**
+     * Get the cache file for a given output directory. The file is a sibling
+     * of the directory so that it is not packaged with the site.
+     * @param outputdir the output directory
+     * @return the cache file
+     */
+    static File file(File outputdir) {
+        File dir = outputdir.getAbsoluteFile();
+        return new File(dir.getParentFile(), "." + dir.getName() + FILE_SUFFIX);
+    }
+
+    /**
+     * Read a cache. Entries are discarded if the seed does not match.
+     * @param file the cache file
+     * @param seed the digest of the configuration that the headers depend on
+     * @return the cache, never {@code null}
+     */
+    static PageMetadataCache read(File file, String seed) {
+        Map<String, Metadata> entries = new HashMap<>();
+        if (!file.exists()) {
+            return new PageMetadataCache(file, seed, entries, true);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !seed.equals(in.readUTF())) {
+                return new PageMetadataCache(file, seed, entries, true);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                entries.put(key, new Metadata(readString(in), readString(in), readString(in),
+                        readString(in), readString(in)));
+            }
+            return new PageMetadataCache(file, seed, entries, false);
+        } catch (IOException | IllegalArgumentException ex) {
+            // not readable, all headers will be parsed
+            return new PageMetadataCache(file, seed, new HashMap<>(), true);
+        }
+    }
+
+    /**
+     * Compute the key of a document.
+     * @param sourcePath the source path of the document
+     * @param inputs the digests of the document and the files it includes,
+     * indexed by path
+     * @return the key
+     */
+    static String key(String sourcePath, Map<String, String> inputs) {
+        String[] values = new String[inputs.size() * 2 + 1];
+        int i = 0;
+        values[i++] = sourcePath;
+        for (Map.Entry<String, String> input : inputs.entrySet()) {
+            values[i++] = input.getKey();
+            values[i++] = input.getValue();
+        }
+        return SiteManifest.digest(Arrays.asList(values));
+    }
+
+    /**
+     * Get the metadata for a key.
+     * @param key the key of the document
+     * @return the metadata, or {@code null} if not cached
+     */
+    Metadata get(String key) {
+        Metadata metadata = entries.get(key);
+        if (metadata != null) {
+            usedEntries.put(key, metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Add the metadata for a key.
+     * @param key the key of the document
+     * @param metadata the metadata
+     */
+    void put(String key, Metadata metadata) {
+        usedEntries.put(key, metadata);
+        modified = true;
+    }
+
+    /**
+     * Write the cache if it was modified or has unused entries.
+     * @throws IOException if an error occurs
+     */
+    void save() throws IOException {
+        if (!modified && usedEntries.size() == entries.size()) {
+            return;
+        }
+        Path target = file.toPath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), null);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(seed);
+            out.writeInt(usedEntries.size());
+            for (Map.Entry<String, Metadata> entry : usedEntries.entrySet()) {
+                Metadata metadata = entry.getValue();
+                out.writeUTF(entry.getKey());
+                writeString(out, metadata.getDescription());
+                writeString(out, metadata.getKeywords());
+                writeString(out, metadata.getH1());
+                writeString(out, metadata.getTitle());
+                writeString(out, metadata.getH1Prefix());
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -17,6 +17,7 @@
 package io.helidon.build.sitegen;
 
 import java.io.File;
+import java.util.List;
 
 import io.helidon.build.sitegen.Page.Metadata;
 
@@ -40,4 +41,15 @@ public interface PageRenderer {
      * @param ext the file extension to use for the rendered pages
      */
     void process(Page page, RenderingContext ctx, File pagesdir, String ext);
+
+    /**
+     * Read the files included by a given document, recursively. The document
+     * is rendered again when any of them changes.
+     * @param source the file to read the includes from
+     * @return the included files, or {@code null} if they cannot be
+     * determined, in which case the document is always rendered
+     */
+    default List<File> readIncludes(File source) {
+        return null;
+    }
 }
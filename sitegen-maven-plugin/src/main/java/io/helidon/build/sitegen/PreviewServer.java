@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.helidon.build.sitegen.Helper.checkNonNull;
+import static io.helidon.build.sitegen.Helper.getFileExt;
+
+/**
+ * A loopback HTTP server that serves a generated site for previewing.
+ * The HTML pages are served with a script that reloads them when
+ * {@link #reload()} is invoked, using server-sent events.
+ */
+public final class PreviewServer implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreviewServer.class);
+    private static final String OUTPUTDIR_PROP = "outputdir";
+    private static final String INDEX_FILE = "index.html";
+    private static final String BODY_END_TAG = "</body>";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html; charset=utf-8"),
+            Map.entry("js", "application/javascript; charset=utf-8"),
+            Map.entry("json", "application/json; charset=utf-8"),
+            Map.entry("css", "text/css; charset=utf-8"),
+            Map.entry("txt", "text/plain; charset=utf-8"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("ttf", "font/ttf"));
+
+    /**
+     * The path of the server-sent events stream notifying the reloads.
+     */
+    static final String RELOAD_PATH = "/__sitegen/reload";
+
+    /**
+     * The script added to the served HTML pages.
+     */
+    static final String RELOAD_SCRIPT = "<script>new EventSource('" + RELOAD_PATH + "')"
+            + ".onmessage = function () { location.reload(); };</script>";
+
+    private final Path root;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<OutputStream> clients;
+
+    private PreviewServer(Path root, HttpServer server, ExecutorService executor) {
+        this.root = root;
+        this.server = server;
+        this.executor = executor;
+        this.clients = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Start a server for the given output directory.
+     *
+     * @param outputdir the directory containing the generated site files
+     * @param port the port to listen to on the loopback address, any free port
+     * if {@code 0}
+     * @return the started server, never {@code null}
+     * @throws IOException if the server cannot be started
+     */
+    public static PreviewServer start(File outputdir, int port) throws IOException {
+        checkNonNull(outputdir, OUTPUTDIR_PROP);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sitegen-preview");
+            thread.setDaemon(true);
+            return thread;
+        });
+        PreviewServer preview = new PreviewServer(outputdir.toPath().toAbsolutePath().normalize(), server, executor);
+        server.createContext(RELOAD_PATH, preview::handleEvents);
+        server.createContext("/", preview::handleFile);
+        server.setExecutor(executor);
+        server.start();
+        return preview;
+    }
+
+    /**
+     * Get the port the server listens to.
+     *
+     * @return port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Reload the pages currently opened in a browser.
+     */
+    public void reload() {
+        byte[] event = "data: reload\n\n".getBytes(StandardCharsets.UTF_8);
+        for (OutputStream client : clients) {
+            try {
+                synchronized (client) {
+                    client.write(event);
+                    client.flush();
+                }
+            } catch (IOException ex) {
+                // the page was closed
+                clients.remove(client);
+                closeQuietly(client);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        clients.forEach(PreviewServer::closeQuietly);
+        clients.clear();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        // the stream stays open to push the reload events
+        synchronized (body) {
+            clients.add(body);
+            body.write("retry: 500\n\n".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+        }
+    }
+
+    private void handleFile(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            boolean head = "HEAD".equals(method);
+            if (!head && !"GET".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            Path file = root.resolve(exchange.getRequestURI().getPath().substring(1)).normalize();
+            if (Files.isDirectory(file)) {
+                file = file.resolve(INDEX_FILE);
+            }
+            if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+                LOGGER.debug("Preview file not found: {}", exchange.getRequestURI());
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String ext = getFileExt(file.getFileName().toString());
+            ext = ext == null ? "" : ext.toLowerCase(Locale.ENGLISH);
+            byte[] content = Files.readAllBytes(file);
+            if ("html".equals(ext)) {
+                content = injectReloadScript(new String(content, StandardCharsets.UTF_8))
+                        .getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPES.getOrDefault(ext, DEFAULT_CONTENT_TYPE));
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            if (head) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, content.length);
+            exchange.getResponseBody().write(content);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Add the reload script to the given HTML page.
+     *
+     * @param html the page content
+     * @return the page content including the script
+     */
+    static String injectReloadScript(String html) {
+        int index = html.toLowerCase(Locale.ENGLISH).lastIndexOf(BODY_END_TAG);
+        if (index < 0) {
+            return html + RELOAD_SCRIPT;
+        }
+        return html.substring(0, index) + RELOAD_SCRIPT + html.substring(index);
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -18,12 +18,29 @@ package io.helidon.build.sitegen;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
+import io.helidon.build.sitegen.Page.Metadata;
+import io.helidon.build.sitegen.SiteManifest.PageEntry;
+import io.helidon.build.sitegen.asciidoctor.AsciidocEngine;
 import io.helidon.build.sitegen.freemarker.TemplateSession;
 import io.helidon.build.util.SourcePath;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import static io.helidon.build.sitegen.Helper.checkNonNull;
 import static io.helidon.build.sitegen.Helper.checkNonNullNonEmpty;
 import static io.helidon.build.sitegen.Helper.checkValidDir;
@@ -34,24 +51,78 @@ import static io.helidon.build.sitegen.Helper.copyResources;
  */
 public class RenderingContext {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(RenderingContext.class);
+
     private final Site site;
     private final TemplateSession templateSession;
     private final Map<String, Page> pages;
     private final File sourcedir;
     private final File outputdir;
     private final List<SourcePath> sourcePaths;
+    private final String fingerprint;
+    private final String metadataDigest;
+    private final Map<String, PageEntry> previousPages;
+    private final Map<String, PageEntry> renderedPages;
+    private final int renderingThreads;
+    private final PageMetadataCache metadataCache;
+    private final Map<String, Map<String, String>> pageInputs;
+    private final Map<File, String> digests;
+    private boolean changed;
 
-    RenderingContext(Site site, File sourcedir, File outputdir) {
+    RenderingContext(Site site, File sourcedir, File outputdir, int renderingThreads) {
         checkNonNull(site, "site");
         checkValidDir(sourcedir, "sourcedir");
         checkNonNull(outputdir, "outputdir");
         this.site = site;
         this.sourcedir = sourcedir;
         this.outputdir = outputdir;
+        this.renderingThreads = renderingThreads < 1
+                ? Runtime.getRuntime().availableProcessors()
+                : renderingThreads;
         this.templateSession = new TemplateSession();
         this.sourcePaths = SourcePath.scan(sourcedir);
-        this.pages = Page.create(
-                sourcePaths, site.getPages(), sourcedir, site.getBackend());
+        this.pageInputs = new HashMap<>();
+        this.digests = new HashMap<>();
+        this.metadataCache = PageMetadataCache.read(PageMetadataCache.file(outputdir), metadataSeed(site));
+        this.pages = Page.create(sourcePaths, site.getPages(), this::readMetadata);
+        this.fingerprint = site.getFingerprint() == null ? null
+                : SiteManifest.fingerprint(site.getFingerprint(), site.getBackend().getName());
+        this.metadataDigest = metadataDigest(pages);
+        this.renderedPages = new TreeMap<>();
+        SiteManifest manifest = fingerprint == null ? null
+                : SiteManifest.read(SiteManifest.file(outputdir));
+        if (manifest != null
+                && manifest.fingerprint().equals(fingerprint)
+                && manifest.metadataDigest().equals(metadataDigest)) {
+            this.previousPages = manifest.pages();
+            this.changed = !previousPages.keySet().equals(pages.keySet());
+        } else {
+            this.previousPages = Collections.emptyMap();
+            this.changed = true;
+        }
+    }
+
+    /**
+     * Create a context to render a single page, with its own template session.
+     * @param ctx the site context
+     * @param templateSession the template session of the page
+     */
+    private RenderingContext(RenderingContext ctx, TemplateSession templateSession) {
+        this.site = ctx.site;
+        this.sourcedir = ctx.sourcedir;
+        this.outputdir = ctx.outputdir;
+        this.templateSession = templateSession;
+        this.sourcePaths = ctx.sourcePaths;
+        this.pages = ctx.pages;
+        this.fingerprint = ctx.fingerprint;
+        this.metadataDigest = ctx.metadataDigest;
+        this.previousPages = ctx.previousPages;
+        this.renderedPages = ctx.renderedPages;
+        this.renderingThreads = ctx.renderingThreads;
+        this.metadataCache = ctx.metadataCache;
+        this.pageInputs = ctx.pageInputs;
+        this.digests = ctx.digests;
+        this.changed = ctx.changed;
     }
 
     /**
@@ -133,14 +204,199 @@ public class RenderingContext {
 
     /**
      * Process the rendering of all pages.
+     * <p>
+     * A page is not rendered again if its source file and included files are
+     * unchanged since the last generation, its rendered file still exists and
+     * the site configuration and page metadata are unchanged; the
+     * contributions of such a page to the {@link TemplateSession} are
+     * restored instead.
+     * <p>
+     * Pages are rendered concurrently if more than one rendering thread is
+     * configured. Each page is rendered with its own template session, which
+     * is merged in page order so that the result does not depend on the
+     * number of threads.
      *
      * @param pagesdir the directory where to generate the rendered files
      * @param ext the file extension to use for the rendered files
      */
     public void processPages(File pagesdir, String ext) {
+        Map<String, PageEntry> entries = new LinkedHashMap<>();
+        Map<String, Supplier<PageEntry>> tasks = new LinkedHashMap<>();
         for (Page page : pages.values()) {
             PageRenderer renderer = site.getBackend().getPageRenderer(page.getSourceExt());
-            renderer.process(page, this, pagesdir, ext);
+            File target = new File(pagesdir, page.getTargetPath() + "." + ext);
+            String output = Helper.getRelativePath(outputdir.getAbsoluteFile(), target.getAbsoluteFile());
+            Map<String, String> inputs = fingerprint == null ? null : pageInputs.get(page.getSourcePath());
+            PageEntry previous = previousPages.get(page.getSourcePath());
+            if (inputs != null
+                    && previous != null
+                    && previous.inputs().equals(inputs)
+                    && previous.output().equals(output)
+                    && target.exists()) {
+                entries.put(page.getSourcePath(), previous);
+            } else {
+                entries.put(page.getSourcePath(), null);
+                tasks.put(page.getSourcePath(), () -> render(page, renderer, inputs, output, pagesdir, ext));
+            }
+        }
+        int upToDate = entries.size() - tasks.size();
+        if (!tasks.isEmpty()) {
+            changed = true;
+            entries.putAll(render(tasks));
+        }
+        for (Map.Entry<String, PageEntry> entry : entries.entrySet()) {
+            PageEntry pageEntry = entry.getValue();
+            templateSession.getSearchIndex().getEntries().addAll(pageEntry.searchEntries());
+            if (pageEntry.bindings() != null) {
+                templateSession.getVueBindings().getBindings().put(entry.getKey(), pageEntry.bindings());
+            }
+            if (pageEntry.customLayout() != null) {
+                templateSession.getCustomLayouts().getMappings().put(entry.getKey(), pageEntry.customLayout());
+            }
+            if (pageEntry.inputs() != null) {
+                renderedPages.put(entry.getKey(), pageEntry);
+            }
+        }
+        if (upToDate > 0) {
+            LOGGER.info("{} of {} pages up to date", upToDate, pages.size());
+        }
+    }
+
+    /**
+     * Indicate if the generated site changed since the last generation, i.e.
+     * if any page was rendered or if pages were added or removed. Resources
+     * that depend on all pages, such as the navigation or the search index,
+     * only need to be generated again if this returns {@code true}.
+     *
+     * @return {@code true} if the site changed, {@code false} otherwise
+     */
+    public boolean hasChanges() {
+        return changed;
+    }
+
+    /**
+     * Save the manifest used to render only the changed pages and the cache
+     * of page metadata used during the next generation.
+     */
+    void saveManifest() {
+        File file = SiteManifest.file(outputdir);
+        try {
+            if (fingerprint == null) {
+                Files.deleteIfExists(file.toPath());
+            } else {
+                new SiteManifest(fingerprint, metadataDigest, renderedPages).write(file);
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to save site manifest: {} - {}", file, ex.getMessage());
+        }
+        try {
+            metadataCache.save();
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to save page metadata cache: {} - {}", PageMetadataCache.file(outputdir), ex.getMessage());
+        }
+    }
+
+    private Map<String, PageEntry> render(Map<String, Supplier<PageEntry>> tasks) {
+        Map<String, PageEntry> entries = new HashMap<>();
+        int threads = Math.min(renderingThreads, tasks.size());
+        if (threads == 1) {
+            tasks.forEach((sourcePath, task) -> entries.put(sourcePath, task.get()));
+            return entries;
+        }
+        LOGGER.info("rendering {} pages with {} threads", tasks.size(), threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Map<String, Future<PageEntry>> futures = new LinkedHashMap<>();
+            tasks.forEach((sourcePath, task) -> futures.put(sourcePath, executor.submit(task::get)));
+            for (Map.Entry<String, Future<PageEntry>> future : futures.entrySet()) {
+                entries.put(future.getKey(), future.getValue().get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RenderingException("Interrupted while rendering pages", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RenderingException) {
+                throw (RenderingException) cause;
+            }
+            throw new RenderingException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+        return entries;
+    }
+
+    private PageEntry render(Page page,
+                             PageRenderer renderer,
+                             Map<String, String> inputs,
+                             String output,
+                             File pagesdir,
+                             String ext) {
+        TemplateSession session = new TemplateSession();
+        renderer.process(page, new RenderingContext(this, session), pagesdir, ext);
+        return new PageEntry(inputs,
+                output,
+                new ArrayList<>(session.getSearchIndex().getEntries()),
+                session.getVueBindings().getBindings().get(page.getSourcePath()),
+                session.getCustomLayouts().getMappings().get(page.getSourcePath()));
+    }
+
+    private Metadata readMetadata(String sourcePath, String sourceExt) {
+        PageRenderer renderer = site.getBackend().getPageRenderer(sourceExt);
+        File source = new File(sourcedir, sourcePath);
+        Map<String, String> inputs = inputs(source, sourcePath, renderer);
+        pageInputs.put(sourcePath, inputs);
+        if (inputs == null) {
+            return renderer.readMetadata(source);
+        }
+        String key = PageMetadataCache.key(sourcePath, inputs);
+        Metadata metadata = metadataCache.get(key);
+        if (metadata == null) {
+            metadata = renderer.readMetadata(source);
+            metadataCache.put(key, metadata);
+        }
+        return metadata;
+    }
+
+    private Map<String, String> inputs(File source, String sourcePath, PageRenderer renderer) {
+        List<File> includes = renderer.readIncludes(source);
+        if (includes == null) {
+            return null;
+        }
+        File dir = sourcedir.getAbsoluteFile().toPath().normalize().toFile();
+        Map<String, String> inputs = new TreeMap<>();
+        inputs.put(sourcePath, digests.computeIfAbsent(source, SiteManifest::digest));
+        for (File include : includes) {
+            File file = include.getAbsoluteFile().toPath().normalize().toFile();
+            inputs.put(Helper.getRelativePath(dir, file), digests.computeIfAbsent(file, SiteManifest::digest));
+        }
+        return inputs;
+    }
+
+    private static String metadataSeed(Site site) {
+        AsciidocEngine asciidoc = site.getEngine().asciidoc();
+        List<String> values = new ArrayList<>();
+        values.add(site.getBackend().getName());
+        new TreeMap<>(asciidoc.getAttributes()).forEach((name, value) -> {
+            values.add(name);
+            values.add(String.valueOf(value));
+        });
+        values.addAll(asciidoc.getLibraries());
+        return SiteManifest.digest(values);
+    }
+
+    private static String metadataDigest(Map<String, Page> pages) {
+        List<String> values = new ArrayList<>();
+        for (Page page : new TreeMap<>(pages).values()) {
+            Metadata metadata = page.getMetadata();
+            values.add(page.getSourcePath());
+            values.add(page.getTargetPath());
+            values.add(metadata.getTitle());
+            values.add(metadata.getH1());
+            values.add(metadata.getH1Prefix());
+            values.add(metadata.getDescription());
+            values.add(metadata.getKeywords());
         }
+        return SiteManifest.digest(values);
     }
 }
@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * An inverted index of the search entries, built at generation time so that
+ * the browser does not have to download and index the text of all pages.
+ * <p>
+ * The index is written as a documents file, which holds the location, title
+ * and a snippet of each entry as well as the list of shards, and one file per
+ * shard. A shard holds the postings of the terms that start with the shard
+ * key: for each document, the document index followed by the positions of the
+ * term. Title terms come first, the number of title terms of each document is
+ * in the documents file. Shards that hold too many terms are split by the
+ * next character, so a client loads the shards whose key is a prefix of a
+ * query term, or starts with it.
+ * <p>
+ * Terms are the lower case runs of Unicode letters and numbers, i.e. the
+ * code points matched by {@code \p{L}} and {@code \p{N}}, with common
+ * English stop words removed and plural forms folded. The client must
+ * tokenize queries the same way.
+ */
+final class SearchIndex {
+
+    /**
+     * The documents file name.
+     */
+    static final String DOCS_FILE = "search-index.json";
+
+    /**
+     * The shards directory name.
+     */
+    static final String SHARDS_DIR = "search";
+
+    /**
+     * The prefix of the shard file names.
+     */
+    static final String SHARD_FILE_PREFIX = "shard-";
+
+    /**
+     * The maximum length of a snippet.
+     */
+    static final int SNIPPET_LENGTH = 400;
+
+    /**
+     * The number of terms above which a shard is split.
+     */
+    static final int MAX_SHARD_TERMS = 1000;
+
+    private static final int MAX_SHARD_KEY_LENGTH = 3;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it", "no",
+            "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they", "this",
+            "to", "was", "will", "with");
+
+    private final List<SearchEntry> entries;
+    private final int[] titleTerms;
+    private final Map<String, Map<Integer, List<Integer>>> postings;
+
+    private SearchIndex(List<SearchEntry> entries) {
+        this.entries = entries;
+        this.titleTerms = new int[entries.size()];
+        this.postings = new TreeMap<>();
+        for (int doc = 0; doc < entries.size(); doc++) {
+            SearchEntry entry = entries.get(doc);
+            int docIndex = doc;
+            int[] position = {0};
+            Consumer<String> indexer = term -> postings
+                    .computeIfAbsent(term, t -> new LinkedHashMap<>())
+                    .computeIfAbsent(docIndex, d -> new ArrayList<>())
+                    .add(position[0]++);
+            tokenize(entry.getTitle(), indexer);
+            titleTerms[doc] = position[0];
+            tokenize(entry.getText(), indexer);
+        }
+    }
+
+    /**
+     * Create the index of the given entries.
+     * @param entries the search entries
+     * @return the created index
+     */
+    static SearchIndex create(List<SearchEntry> entries) {
+        return new SearchIndex(entries);
+    }
+
+    /**
+     * Get the postings of a term.
+     * @param term the term
+     * @return the positions of the term indexed by document, or {@code null}
+     * if the term is not indexed
+     */
+    Map<Integer, List<Integer>> postings(String term) {
+        return postings.get(term);
+    }
+
+    /**
+     * Get the shards of this index.
+     * @return the sorted terms of each shard, indexed by shard key
+     */
+    Map<String, List<String>> shards() {
+        Map<String, List<String>> shards = new TreeMap<>();
+        split("", new ArrayList<>(postings.keySet()), shards);
+        return shards;
+    }
+
+    /**
+     * Write this index. Shard files of a previous index are deleted.
+     * @param dir the directory to write the documents file to
+     * @throws IOException if an error occurs
+     */
+    void write(File dir) throws IOException {
+        Map<String, List<String>> shards = shards();
+        Path shardsDir = dir.toPath().resolve(SHARDS_DIR);
+        Files.createDirectories(shardsDir);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(shardsDir, SHARD_FILE_PREFIX + "*.json")) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+        try (Writer writer = newWriter(dir.toPath().resolve(DOCS_FILE))) {
+            writer.write("{\"docs\":[");
+            for (int doc = 0; doc < entries.size(); doc++) {
+                SearchEntry entry = entries.get(doc);
+                writer.write(doc == 0 ? "{" : ",{");
+                writer.write("\"location\":");
+                writeString(writer, entry.getLocation());
+                writer.write(",\"title\":");
+                writeString(writer, entry.getTitle());
+                writer.write(",\"text\":");
+                writeString(writer, snippet(entry.getText()));
+                writer.write(",\"titleTerms\":");
+                writer.write(Integer.toString(titleTerms[doc]));
+                writer.write("}");
+            }
+            writer.write("],\"shards\":[");
+            boolean first = true;
+            for (String key : shards.keySet()) {
+                writer.write(first ? "" : ",");
+                writeString(writer, key);
+                first = false;
+            }
+            writer.write("]}");
+        }
+        for (Map.Entry<String, List<String>> shard : shards.entrySet()) {
+            try (Writer writer = newWriter(shardsDir.resolve(SHARD_FILE_PREFIX + shard.getKey() + ".json"))) {
+                writer.write("{\"terms\":{");
+                boolean firstTerm = true;
+                for (String term : shard.getValue()) {
+                    writer.write(firstTerm ? "" : ",");
+                    writeString(writer, term);
+                    writer.write(":[");
+                    boolean firstDoc = true;
+                    for (Map.Entry<Integer, List<Integer>> posting : postings.get(term).entrySet()) {
+                        writer.write(firstDoc ? "[" : ",[");
+                        writer.write(Integer.toString(posting.getKey()));
+                        for (Integer position : posting.getValue()) {
+                            writer.write(",");
+                            writer.write(Integer.toString(position));
+                        }
+                        writer.write("]");
+                        firstDoc = false;
+                    }
+                    writer.write("]");
+                    firstTerm = false;
+                }
+                writer.write("}}");
+            }
+        }
+    }
+
+    /**
+     * Split a text into terms.
+     * @param text the text to split, may be {@code null}
+     * @param consumer the consumer of the terms
+     */
+    static void tokenize(String text, Consumer<String> consumer) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        int i = 0;
+        while (i <= text.length()) {
+            int c = i < text.length() ? text.codePointAt(i) : ' ';
+            if (isLetterOrNumber(c)) {
+                token.appendCodePoint(c);
+            } else if (token.length() > 0) {
+                String term = token.toString().toLowerCase(Locale.ROOT);
+                token.setLength(0);
+                if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term)) {
+                    consumer.accept(stem(term));
+                }
+            }
+            i += Character.charCount(c);
+        }
+    }
+
+    /**
+     * Test if a code point is a letter or a number, i.e. if it is matched by
+     * {@code [\p{L}\p{N}]}. Unlike {@link Character#isLetterOrDigit(int)},
+     * this includes the letter and other numbers such as roman numerals or
+     * fractions.
+     * @param codePoint the code point
+     * @return {@code true} if the code point is a letter or a number
+     */
+    private static boolean isLetterOrNumber(int codePoint) {
+        switch (Character.getType(codePoint)) {
+            case Character.UPPERCASE_LETTER:
+            case Character.LOWERCASE_LETTER:
+            case Character.TITLECASE_LETTER:
+            case Character.MODIFIER_LETTER:
+            case Character.OTHER_LETTER:
+            case Character.DECIMAL_DIGIT_NUMBER:
+            case Character.LETTER_NUMBER:
+            case Character.OTHER_NUMBER:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Fold the plural form of a term.
+     * @param term the term, in lower case
+     * @return the folded term
+     */
+    static String stem(String term) {
+        int length = term.length();
+        if (length > 4 && term.endsWith("ies") && !term.endsWith("eies") && !term.endsWith("aies")) {
+            return term.substring(0, length - 3) + "y";
+        }
+        if (length > 3 && (term.endsWith("sses") || term.endsWith("xes") || term.endsWith("zes")
+                || term.endsWith("ches") || term.endsWith("shes"))) {
+            return term.substring(0, length - 2);
+        }
+        if (length > 3 && term.endsWith("s")
+                && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is")) {
+            return term.substring(0, length - 1);
+        }
+        return term;
+    }
+
+    /**
+     * Get the shard key of a term, i.e. the term with the characters other
+     * than {@code a-z} and {@code 0-9} replaced by {@code _}.
+     * @param term the term
+     * @return the shard key
+     */
+    static String shardKey(String term) {
+        char[] chars = term.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'))) {
+                chars[i] = '_';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Truncate a text at a word boundary, or in the middle of the first word
+     * if it is longer than {@link #SNIPPET_LENGTH}.
+     * @param text the text, may be {@code null}
+     * @return the truncated text, never {@code null}
+     */
+    static String snippet(String text) {
+        if (text == null) {
+            return "";
+        }
+        if (text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+        int i = text.lastIndexOf(' ', SNIPPET_LENGTH);
+        if (i <= 0) {
+            // do not split a surrogate pair
+            i = Character.isHighSurrogate(text.charAt(SNIPPET_LENGTH - 1)) ? SNIPPET_LENGTH - 1 : SNIPPET_LENGTH;
+        }
+        return text.substring(0, i) + "...";
+    }
+
+    private static void split(String prefix, List<String> terms, Map<String, List<String>> shards) {
+        Map<String, List<String>> groups = new TreeMap<>();
+        for (String term : terms) {
+            String key = shardKey(term);
+            String group = key.length() > prefix.length() ? key.substring(0, prefix.length() + 1) : prefix;
+            groups.computeIfAbsent(group, g -> new ArrayList<>()).add(term);
+        }
+        for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+            String key = group.getKey();
+            List<String> groupTerms = group.getValue();
+            if (key.equals(prefix)
+                    || groupTerms.size() <= MAX_SHARD_TERMS
+                    || key.length() >= MAX_SHARD_KEY_LENGTH) {
+                shards.computeIfAbsent(key, k -> new ArrayList<>()).addAll(groupTerms);
+            } else {
+                split(key, groupTerms, shards);
+            }
+        }
+    }
+
+    private static Writer newWriter(Path file) throws IOException {
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+}
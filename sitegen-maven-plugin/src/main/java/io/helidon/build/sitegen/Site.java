@@ -19,10 +19,12 @@ package io.helidon.build.sitegen;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import io.helidon.config.Config;
@@ -43,6 +45,7 @@ public class Site {
     private static final String HEADER_PROP = "header";
     private static final String PAGES_PROP = "pages";
     private static final String BACKEND_PROP = "backend";
+    private static final String FINGERPRINT_PROP = "fingerprint";
 
     /**
      * Ugly!
@@ -54,12 +57,14 @@ public class Site {
     private final Header header;
     private final List<SourcePathFilter> pages;
     private final Backend backend;
+    private final String fingerprint;
 
     private Site(SiteEngine engine,
                 List<StaticAsset> assets,
                 Header header,
                 List<SourcePathFilter> pages,
-                Backend backend) {
+                Backend backend,
+                String fingerprint) {
         this.backend = backend == null ? new BasicBackend() : backend;
         final String backendName = this.backend.getName();
         THREADLOCAL.set(backendName);
@@ -67,6 +72,7 @@ public class Site {
         this.assets = assets == null ? Collections.emptyList() : assets;
         this.header = header == null ? new Header() : header;
         this.pages = pages == null ? Collections.emptyList() : pages;
+        this.fingerprint = fingerprint;
         SiteEngine.register(backendName, this.engine);
     }
 
@@ -110,8 +116,21 @@ public class Site {
         return backend;
     }
 
+    /**
+     * Get the fingerprint of the configuration of this site.
+     * @return the fingerprint, or {@code null} if the site was not configured
+     * from a file
+     */
+    String getFingerprint() {
+        return fingerprint;
+    }
+
     /**
      * Triggers rendering of the site.
+     * <p>
+     * If the site was configured from a file, only the pages whose source
+     * file or included files changed since the last generation in the same
+     * output directory are rendered.
      *
      * @param sourcedir the source directory containing the site documents, must
      * be an existing directory
@@ -120,12 +139,29 @@ public class Site {
      * @throws RenderingException if any error occurs while processing the site
      */
     public void generate(File sourcedir, File outputdir) throws RenderingException {
+        generate(sourcedir, outputdir, 1);
+    }
+
+    /**
+     * Triggers rendering of the site, rendering the pages concurrently.
+     *
+     * @param sourcedir the source directory containing the site documents, must
+     * be an existing directory
+     * @param outputdir the output directory where to generate the site files,
+     * the directory and the missing parents will be automatically created
+     * @param renderingThreads the number of threads rendering the pages, the
+     * number of available processors if less than {@code 1}
+     * @throws RenderingException if any error occurs while processing the site
+     */
+    public void generate(File sourcedir, File outputdir, int renderingThreads) throws RenderingException {
         try {
             Files.createDirectories(outputdir.toPath());
         } catch (IOException ex) {
             throw new RenderingException(ex.getMessage(), ex);
         }
-        backend.generate(new RenderingContext(this, sourcedir, outputdir));
+        RenderingContext ctx = new RenderingContext(this, sourcedir, outputdir, renderingThreads);
+        backend.generate(ctx);
+        ctx.saveManifest();
     }
 
     /**
@@ -158,6 +194,7 @@ public class Site {
                 .addMapper(Properties.class, (Config c) -> ConfigMappers.toProperties(c.detach()))
                 .sources(ConfigSources.file(configFile.getAbsolutePath()), ConfigSources.from(properties))
                 .build();
+            put(FINGERPRINT_PROP, fingerprint(configFile, properties));
 
             // backend
             config.get(BACKEND_PROP).ifExistsOrElse(c -> {
@@ -264,6 +301,7 @@ public class Site {
             Header header = null;
             List<SourcePathFilter> pages = null;
             Backend backend = null;
+            String fingerprint = null;
             for (Map.Entry<String, Object> entry : values()) {
                 String attr = entry.getKey();
                 Object val = entry.getValue();
@@ -283,12 +321,25 @@ public class Site {
                     case(BACKEND_PROP):
                         backend = asType(val, Backend.class);
                         break;
+                    case(FINGERPRINT_PROP):
+                        fingerprint = asType(val, String.class);
+                        break;
                     default:
                         throw new IllegalStateException(
                                 "Unkown attribute: " + attr);
                 }
             }
-            return new Site(engine, assets, header, pages, backend);
+            return new Site(engine, assets, header, pages, backend, fingerprint);
+        }
+
+        private static String fingerprint(File configFile, Properties properties) {
+            List<String> values = new ArrayList<>();
+            values.add(SiteManifest.digest(configFile));
+            for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+                values.add(name);
+                values.add(properties.getProperty(name));
+            }
+            return SiteManifest.digest(values);
         }
     }
 
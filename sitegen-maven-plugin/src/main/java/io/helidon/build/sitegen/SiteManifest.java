@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The inputs and outputs of the last generation of a site, used to render
+ * only the pages whose inputs changed.
+ * <p>
+ * For each page, the manifest holds the SHA-256 digest of its source file and
+ * of every file it includes, along with the entries it contributed to the
+ * template session, which are restored when the page is not rendered again.
+ * The manifest only applies to the same site configuration, templates and
+ * page metadata; if any of these change, all pages are rendered.
+ */
+final class SiteManifest {
+
+    private static final int MAGIC = 0x48534D46;
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_SUFFIX = ".sitegen";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String TEMPLATES_RESOURCE = "/helidon-sitegen-templates/";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static volatile String templatesDigest;
+
+    private final String fingerprint;
+    private final String metadataDigest;
+    private final Map<String, PageEntry> pages;
+
+    /**
+     * Create a new manifest.
+     * @param fingerprint the fingerprint of the site configuration
+     * @param metadataDigest the digest of the metadata of all pages
+     * @param pages the entries of the rendered pages, indexed by source path
+     */
+    SiteManifest(String fingerprint, String metadataDigest, Map<String, PageEntry> pages) {
+        this.fingerprint = fingerprint;
+        this.metadataDigest = metadataDigest;
+        this.pages = pages;
+    }
+
+    /**
+     * Get the fingerprint of the site configuration.
+     * @return the fingerprint, never {@code null}
+     */
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Get the digest of the metadata of all pages.
+     * @return the digest, never {@code null}
+     */
+    String metadataDigest() {
+        return metadataDigest;
+    }
+
+    /**
+     * Get the page entries.
+     * @return the entries indexed by source path, never {@code null}
+     */
+    Map<String, PageEntry> pages() {
+        return pages;
+    }
+
+    /**
+     * Get the manifest file for a given output directory. The file is a
+     * sibling of the directory so that it is not packaged with the site.
+     * @param outputdir the output directory
+     * @return the manifest file
+     */
+    static File file(File outputdir) {
+        File dir = outputdir.getAbsoluteFile();
+        return new File(dir.getParentFile(), "." + dir.getName() + FILE_SUFFIX);
+    }
+
+    /**
+     * Read a manifest.
+     * @param file the manifest file
+     * @return the manifest, or {@code null} if the file does not exist or is
+     * not readable
+     */
+    static SiteManifest read(File file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String fingerprint = in.readUTF();
+            String metadataDigest = in.readUTF();
+            int pageCount = in.readInt();
+            Map<String, PageEntry> pages = new HashMap<>();
+            for (int i = 0; i < pageCount; i++) {
+                String sourcePath = in.readUTF();
+                Map<String, String> inputs = new TreeMap<>();
+                int inputCount = in.readInt();
+                for (int j = 0; j < inputCount; j++) {
+                    inputs.put(in.readUTF(), in.readUTF());
+                }
+                String output = in.readUTF();
+                int entryCount = in.readInt();
+                List<SearchEntry> searchEntries = new ArrayList<>(entryCount);
+                for (int j = 0; j < entryCount; j++) {
+                    searchEntries.add(new SearchEntry(readString(in), readString(in), readString(in)));
+                }
+                pages.put(sourcePath, new PageEntry(inputs, output, searchEntries, readString(in), readString(in)));
+            }
+            return new SiteManifest(fingerprint, metadataDigest, pages);
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            // not readable, all pages will be rendered
+            return null;
+        }
+    }
+
+    /**
+     * Write this manifest.
+     * @param file the manifest file
+     * @throws IOException if an error occurs
+     */
+    void write(File file) throws IOException {
+        Path target = file.toPath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), null);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(fingerprint);
+            out.writeUTF(metadataDigest);
+            out.writeInt(pages.size());
+            for (Map.Entry<String, PageEntry> page : pages.entrySet()) {
+                PageEntry entry = page.getValue();
+                out.writeUTF(page.getKey());
+                out.writeInt(entry.inputs.size());
+                for (Map.Entry<String, String> input : entry.inputs.entrySet()) {
+                    out.writeUTF(input.getKey());
+                    out.writeUTF(input.getValue());
+                }
+                out.writeUTF(entry.output);
+                out.writeInt(entry.searchEntries.size());
+                for (SearchEntry searchEntry : entry.searchEntries) {
+                    writeString(out, searchEntry.getLocation());
+                    writeString(out, searchEntry.getText());
+                    writeString(out, searchEntry.getTitle());
+                }
+                writeString(out, entry.bindings);
+                writeString(out, entry.customLayout);
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Compute the fingerprint of a site configuration, which includes the
+     * templates shipped with the site generator.
+     * @param configDigest the digest of the site configuration
+     * @param backendName the backend name
+     * @return the fingerprint
+     */
+    static String fingerprint(String configDigest, String backendName) {
+        return digest(List.of(String.valueOf(FORMAT_VERSION), configDigest, templatesDigest(), backendName));
+    }
+
+    /**
+     * Compute the digest of the given values.
+     * @param values the values, {@code null} values are allowed
+     * @return the digest
+     */
+    static String digest(Iterable<String> values) {
+        MessageDigest md = messageDigest();
+        for (String value : values) {
+            byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+            md.update(new byte[] {
+                    (byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16), (byte) (bytes.length >>> 8), (byte) bytes.length
+            });
+            md.update(bytes);
+        }
+        return hex(md.digest());
+    }
+
+    /**
+     * Compute the digest of a file.
+     * @param file the file
+     * @return the digest, empty if the file does not exist or is not readable
+     */
+    static String digest(File file) {
+        MessageDigest md = messageDigest();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                md.update(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            return "";
+        }
+        return hex(md.digest());
+    }
+
+    /**
+     * Write a string that may be {@code null}.
+     * @param out the output stream
+     * @param value the string to write
+     * @throws IOException if an error occurs
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Read a string written with {@link #writeString(DataOutputStream, String)}.
+     * @param in the input stream
+     * @return the string, may be {@code null}
+     * @throws IOException if an error occurs
+     */
+    static String readString(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String templatesDigest() {
+        String digest = templatesDigest;
+        if (digest == null) {
+            try {
+                Path templatesDir = Helper.loadResourceDirAsPath(TEMPLATES_RESOURCE);
+                List<String> values = new ArrayList<>();
+                try (Stream<Path> stream = Files.walk(templatesDir)) {
+                    for (Path template : stream.filter(Files::isRegularFile)
+                                               .sorted()
+                                               .collect(Collectors.toList())) {
+                        values.add(templatesDir.relativize(template).toString());
+                        values.add(new String(Files.readAllBytes(template), StandardCharsets.UTF_8));
+                    }
+                }
+                digest = digest(values);
+                templatesDigest = digest;
+            } catch (URISyntaxException | IOException | IllegalStateException ex) {
+                throw new IllegalStateException("Unable to get templates directory", ex);
+            }
+        }
+        return digest;
+    }
+
+    private static MessageDigest messageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * The inputs and outputs of a rendered page.
+     */
+    static final class PageEntry {
+
+        private final Map<String, String> inputs;
+        private final String output;
+        private final List<SearchEntry> searchEntries;
+        private final String bindings;
+        private final String customLayout;
+
+        /**
+         * Create a new page entry.
+         * @param inputs the digests of the page source and includes, indexed
+         * by path relative to the source directory, may be {@code null} if the
+         * includes are unknown
+         * @param output the path of the rendered page relative to the output
+         * directory
+         * @param searchEntries the search entries of the page
+         * @param bindings the vue bindings of the page, may be {@code null}
+         * @param customLayout the custom layout of the page, may be {@code null}
+         */
+        PageEntry(Map<String, String> inputs,
+                  String output,
+                  List<SearchEntry> searchEntries,
+                  String bindings,
+                  String customLayout) {
+            this.inputs = inputs;
+            this.output = output;
+            this.searchEntries = Collections.unmodifiableList(searchEntries);
+            this.bindings = bindings;
+            this.customLayout = customLayout;
+        }
+
+        /**
+         * Get the digests of the page source and includes.
+         * @return the digests indexed by path, or {@code null} if unknown
+         */
+        Map<String, String> inputs() {
+            return inputs;
+        }
+
+        /**
+         * Get the path of the rendered page.
+         * @return the path relative to the output directory, never {@code null}
+         */
+        String output() {
+            return output;
+        }
+
+        /**
+         * Get the search entries of the page.
+         * @return the search entries, never {@code null}
+         */
+        List<SearchEntry> searchEntries() {
+            return searchEntries;
+        }
+
+        /**
+         * Get the vue bindings of the page.
+         * @return the bindings, or {@code null} if none
+         */
+        String bindings() {
+            return bindings;
+        }
+
+        /**
+         * Get the custom layout of the page.
+         * @return the custom layout, or {@code null} if none
+         */
+        String customLayout() {
+            return customLayout;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -174,7 +175,6 @@ public class VuetifyBackend extends Backend {
         Map<String, String> allBindings = session.getVueBindings().getBindings();
 
         Map<String, Object> model = new HashMap<>();
-        model.put("searchEntries", session.getSearchIndex().getEntries());
         model.put("navRouteEntries", navRouteEntries);
         model.put("routeEntries", routeEntries);
         model.put("customLayoutEntries", session.getCustomLayouts().getMappings());
@@ -189,27 +189,46 @@ public class VuetifyBackend extends Backend {
 
         FreemarkerEngine freemarker = ctx.getSite().getEngine().freemarker();
 
-        // custom bindings
+        // the resources below depend on all pages, they are generated again
+        // if the site changed or if any of them was deleted
+        List<File> globalOutputs = new ArrayList<>();
+        globalOutputs.add(new File(ctx.getOutputdir(), "index.html"));
+        globalOutputs.add(new File(ctx.getOutputdir(), "main/config.js"));
+        globalOutputs.add(new File(ctx.getOutputdir(), "main/" + SearchIndex.DOCS_FILE));
         for (Page page : ctx.getPages().values()) {
-            String bindings = allBindings.get(page.getSourcePath());
-            if (bindings != null) {
-                Map<String, Object> bindingsModel = new HashMap<>(model);
-                bindingsModel.put("bindings", bindings);
-                bindingsModel.put("page", page);
-                freemarker.renderFile("custom_bindings",
-                        "pages/" + page.getTargetPath() + "_custom.js",
-                        bindingsModel, ctx);
+            if (allBindings.containsKey(page.getSourcePath())) {
+                globalOutputs.add(new File(pagesdir, page.getTargetPath() + "_custom.js"));
             }
         }
+        if (ctx.hasChanges() || !globalOutputs.stream().allMatch(File::exists)) {
+            // custom bindings
+            for (Page page : ctx.getPages().values()) {
+                String bindings = allBindings.get(page.getSourcePath());
+                if (bindings != null) {
+                    Map<String, Object> bindingsModel = new HashMap<>(model);
+                    bindingsModel.put("bindings", bindings);
+                    bindingsModel.put("page", page);
+                    freemarker.renderFile("custom_bindings",
+                            "pages/" + page.getTargetPath() + "_custom.js",
+                            bindingsModel, ctx);
+                }
+            }
 
-        // render search-index.js
-        freemarker.renderFile("search_index", "main/search-index.json", model, ctx);
+            // write the search index
+            try {
+                SearchIndex.create(session.getSearchIndex().getEntries())
+                        .write(new File(ctx.getOutputdir(), "main"));
+            } catch (IOException ex) {
+                throw new RenderingException(
+                        "An error occurred while writing the search index", ex);
+            }
 
-        // render index.html
-        freemarker.renderFile("index", "index.html", model, ctx);
+            // render index.html
+            freemarker.renderFile("index", "index.html", model, ctx);
 
-        // render main/config.js
-        freemarker.renderFile("config", "main/config.js", model, ctx);
+            // render main/config.js
+            freemarker.renderFile("config", "main/config.js", model, ctx);
+        }
 
         // copy vuetify resources
         try {
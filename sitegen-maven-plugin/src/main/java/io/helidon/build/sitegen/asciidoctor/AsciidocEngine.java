@@ -21,11 +21,19 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import io.helidon.build.sitegen.AbstractBuilder;
 import io.helidon.build.sitegen.Page;
@@ -58,19 +66,25 @@ public class AsciidocEngine {
     private static final String LIBRARIES_PROP = "libraries";
     private static final String ATTRIBUTES_PROP = "attributes";
     private static final String IMAGESDIR_PROP = "imagesdir";
+    private static final String DOCDIR_ATTR = "docdir";
+    private static final int MAX_INCLUDE_DEPTH = 64;
+    private static final Pattern INCLUDE_PATTERN = Pattern.compile("^include::([^\\[]+)\\[");
+    private static final Pattern ATTRIBUTE_ENTRY_PATTERN = Pattern.compile("^:([\\w-]+):\\s*(.*)$");
+    private static final Pattern ATTRIBUTE_REFERENCE_PATTERN = Pattern.compile("\\{([\\w-]+)\\}");
 
     /**
      * Constant for the default images directory.
      */
     public static final String DEFAULT_IMAGESDIR = "./images";
 
-    private static volatile Asciidoctor asciidoctorInstance = null;
+    private static final List<Asciidoctor> ASCIIDOCTOR_INSTANCES = new ArrayList<>();
 
     private final String backend;
     private final List<String> libraries;
     private final Map<String, Object> attributes;
     private final String imagesdir;
-    private final Asciidoctor asciidoctor;
+    private final List<Asciidoctor> instances;
+    private final Queue<Asciidoctor> idleInstances;
 
     /**
      * Create a new instance of {@link AsciidocEngine}.
@@ -89,18 +103,18 @@ public class AsciidocEngine {
         this.attributes = attributes == null ? Collections.emptyMap() : attributes;
         this.libraries = libraries == null ? Collections.emptyList() : libraries;
         this.imagesdir = imagesdir == null ? DEFAULT_IMAGESDIR : imagesdir;
-        if (asciidoctorInstance == null) {
-            asciidoctorInstance = Asciidoctor.Factory.create();
-        }
-        this.asciidoctor = asciidoctorInstance;
-        new AsciidocExtensionRegistry(backend).register(asciidoctor);
+        this.instances = new ArrayList<>();
+        this.idleInstances = new ConcurrentLinkedQueue<>();
+        idleInstances.add(acquire());
     }
 
     /**
      * Unregister asciidoctor extensions.
      */
     public void unregister(){
-        this.asciidoctor.unregisterAllExtensions();
+        synchronized (ASCIIDOCTOR_INSTANCES) {
+            instances.forEach(Asciidoctor::unregisterAllExtensions);
+        }
     }
 
     /**
@@ -147,6 +161,28 @@ public class AsciidocEngine {
         return null;
     }
 
+    /**
+     * Read the files included by a document, recursively. Include targets may
+     * reference the configured attributes, {@code docdir} and the attributes
+     * defined in the document or its includes before the include directive.
+     * Includes in conditional blocks are always returned.
+     *
+     * @param source the document to read the includes of
+     * @return the included files, or {@code null} if an include target cannot
+     * be resolved to a local file
+     */
+    public List<File> readIncludes(File source) {
+        checkValidFile(source, "source");
+        Map<String, String> attrs = new HashMap<>();
+        attributes.forEach((name, value) -> attrs.put(name, String.valueOf(value)));
+        attrs.put(DOCDIR_ATTR, source.getAbsoluteFile().getParent());
+        Set<File> includes = new LinkedHashSet<>();
+        if (!readIncludes(source, attrs, includes, 0)) {
+            return null;
+        }
+        return new ArrayList<>(includes);
+    }
+
     /**
      * Read a document's header.
      * @param source the document to read the header from
@@ -167,7 +203,13 @@ public class AsciidocEngine {
         if (backend != null) {
             optionsBuilder.backend(this.backend);
         }
-        Document doc = asciidoctor.loadFile(source, optionsBuilder.asMap());
+        Asciidoctor asciidoctor = acquire();
+        Document doc;
+        try {
+            doc = asciidoctor.loadFile(source, optionsBuilder.asMap());
+        } finally {
+            idleInstances.add(asciidoctor);
+        }
         Map<String, Object> headerMap = new HashMap<>();
         String h1 = parseSection0Title(source);
         if (h1 != null) {
@@ -179,6 +221,9 @@ public class AsciidocEngine {
 
     /**
      * Render the document represented by the given {@link Page} instance.
+     * Documents can be rendered concurrently, each thread uses a separate
+     * asciidoctor instance.
+     *
      * @param page the {@link Page} instance representing the document to render
      * @param ctx the context representing this site processing invocation
      * @param target the file to create as a result of the rendering
@@ -192,8 +237,6 @@ public class AsciidocEngine {
         checkNonNull(page, "page");
         checkNonNull(ctx, "ctx");
 
-        asciidoctor.requireLibraries(libraries);
-
         if (extraAttributes == null) {
             extraAttributes = Collections.emptyMap();
         }
@@ -243,9 +286,16 @@ public class AsciidocEngine {
             optionsBuilder.backend(this.backend);
         }
         LOGGER.info("rendering {} to {}", source.getPath(), target.getPath());
-        Document document = asciidoctor.loadFile(source, optionsBuilder.asMap());
-        document.setAttribute("templateSession", ctx.getTemplateSession(), true);
-        String output = document.convert();
+        Asciidoctor asciidoctor = acquire();
+        String output;
+        try {
+            asciidoctor.requireLibraries(libraries);
+            Document document = asciidoctor.loadFile(source, optionsBuilder.asMap());
+            document.setAttribute("templateSession", ctx.getTemplateSession(), true);
+            output = document.convert();
+        } finally {
+            idleInstances.add(asciidoctor);
+        }
         FileWriter writer;
         try {
             target.getParentFile().mkdirs();
@@ -346,6 +396,97 @@ public class AsciidocEngine {
         return new Builder();
     }
 
+    /**
+     * Get an idle asciidoctor instance, or an instance not yet used by this
+     * engine. Instances are shared by all engines, a new one is only created
+     * if all instances are in use by this engine.
+     * The instance must be added back to {@link #idleInstances} when done.
+     */
+    private Asciidoctor acquire() {
+        Asciidoctor instance = idleInstances.poll();
+        if (instance != null) {
+            return instance;
+        }
+        synchronized (ASCIIDOCTOR_INSTANCES) {
+            for (Asciidoctor candidate : ASCIIDOCTOR_INSTANCES) {
+                if (!instances.contains(candidate)) {
+                    instance = candidate;
+                    break;
+                }
+            }
+            if (instance != null) {
+                instances.add(instance);
+            }
+        }
+        if (instance == null) {
+            // creating a runtime is slow, do not hold the lock
+            instance = Asciidoctor.Factory.create();
+            synchronized (ASCIIDOCTOR_INSTANCES) {
+                ASCIIDOCTOR_INSTANCES.add(instance);
+                instances.add(instance);
+            }
+        }
+        new AsciidocExtensionRegistry(backend).register(instance);
+        return instance;
+    }
+
+    private static boolean readIncludes(File file,
+                                        Map<String, String> attrs,
+                                        Set<File> includes,
+                                        int depth) {
+        if (depth > MAX_INCLUDE_DEPTH) {
+            return false;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file.toPath());
+        } catch (IOException ex) {
+            // a missing include is reported when rendering
+            return true;
+        }
+        for (String line : lines) {
+            Matcher entry = ATTRIBUTE_ENTRY_PATTERN.matcher(line);
+            if (entry.matches()) {
+                String value = resolveAttributes(entry.group(2), attrs);
+                if (value != null) {
+                    attrs.put(entry.group(1), value);
+                }
+                continue;
+            }
+            Matcher include = INCLUDE_PATTERN.matcher(line);
+            if (include.find()) {
+                String target = resolveAttributes(include.group(1), attrs);
+                if (target == null || target.contains("://")) {
+                    return false;
+                }
+                File included = new File(target);
+                if (!included.isAbsolute()) {
+                    included = new File(file.getAbsoluteFile().getParentFile(), target);
+                }
+                included = included.toPath().normalize().toFile();
+                if (includes.add(included)
+                        && !readIncludes(included, attrs, includes, depth + 1)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String resolveAttributes(String value, Map<String, String> attrs) {
+        Matcher matcher = ATTRIBUTE_REFERENCE_PATTERN.matcher(value);
+        StringBuilder sb = new StringBuilder();
+        while (matcher.find()) {
+            String attr = attrs.get(matcher.group(1));
+            if (attr == null) {
+                return null;
+            }
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(attr));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
     /**
      * Setup the SLF4J to JUL bridge.
      */
@@ -17,6 +17,7 @@
 package io.helidon.build.sitegen.asciidoctor;
 
 import java.io.File;
+import java.util.List;
 import java.util.Map;
 
 import io.helidon.build.sitegen.Page;
@@ -77,4 +78,11 @@ public class AsciidocPageRenderer implements PageRenderer {
                 asString(docHeader.get("doctitle")),
                 asString(docHeader.get("h1prefix")));
     }
+
+    @Override
+    public List<File> readIncludes(File source) {
+        checkNonNull(source, "source");
+        SiteEngine siteEngine = SiteEngine.get(backendName);
+        return siteEngine.asciidoc().readIncludes(source);
+    }
 }
@@ -93,15 +93,62 @@ public class SearchIndexDirective implements TemplateDirectiveModel {
         entries.add(entry);
     }
 
-    // TODO write a unit test for this
-    private static String stripHtmlMarkups(String content){
+    /**
+     * Strip the HTML markups of a content in a single pass: tags are replaced
+     * with a space, escaped new lines are removed and whitespace sequences are
+     * collapsed into a single space.
+     *
+     * @param content the content to strip, may be {@code null}
+     * @return the stripped content, {@code null} if the content is {@code null}
+     */
+    static String stripHtmlMarkups(String content){
         if (content == null) {
             return null;
         }
-        return content
-                .replaceAll("\\<.*?\\>", " ")
-                .replaceAll("\\\\n", "")
-                .replaceAll("\\s+", " ");
+        int length = content.length();
+        StringBuilder sb = new StringBuilder(length);
+        boolean space = false;
+        for (int i = 0; i < length; i++) {
+            char c = content.charAt(i);
+            if (c == '<') {
+                int end = tagEnd(content, i + 1);
+                if (end > 0) {
+                    space = true;
+                    i = end;
+                    continue;
+                }
+            } else if (c == '\\' && i + 1 < length && content.charAt(i + 1) == 'n') {
+                i++;
+                continue;
+            }
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B') {
+                space = true;
+                continue;
+            }
+            if (space) {
+                sb.append(' ');
+                space = false;
+            }
+            sb.append(c);
+        }
+        if (space) {
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static int tagEnd(String content, int index) {
+        for (int i = index; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '>') {
+                return i;
+            }
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                // tags do not span lines
+                return -1;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -75,6 +75,16 @@ public class GenerateMojo extends AbstractMojo {
             required = false)
     private boolean siteGenerateSkip;
 
+    /**
+     * Number of threads rendering the site pages, each using its own
+     * asciidoctor instance. Values lower than {@code 1} use one thread per
+     * available processor.
+     */
+    @Parameter(property = PROPERTY_PREFIX + "renderingThreads",
+            defaultValue = "1",
+            required = false)
+    private int renderingThreads;
+
     @SuppressWarnings("CanBeFinal")
     private Site site = null;
 
@@ -87,15 +97,8 @@ public class GenerateMojo extends AbstractMojo {
 
         project.addCompileSourceRoot(siteSourceDirectory.getAbsolutePath());
 
-        Properties properties = new Properties();
-        properties.putAll(project.getProperties());
-        properties.setProperty("project.groupId", project.getGroupId());
-        properties.setProperty("project.artifactId", project.getArtifactId());
-        properties.setProperty("project.version", project.getVersion());
-        properties.setProperty("project.basedir", project.getBasedir().getAbsolutePath());
-
         site = Site.builder()
-                .config(siteConfigFile, properties)
+                .config(siteConfigFile, siteProperties(project))
                 .build();
 
         // enable jruby verbose mode on debugging
@@ -104,7 +107,7 @@ public class GenerateMojo extends AbstractMojo {
         }
 
         try {
-            site.generate(siteSourceDirectory, siteOutputDirectory);
+            site.generate(siteSourceDirectory, siteOutputDirectory, renderingThreads);
         } catch (RenderingException ex) {
             throw new MojoExecutionException(ex.getMessage(), ex);
         }
@@ -117,4 +120,19 @@ public class GenerateMojo extends AbstractMojo {
     public Site getSite() {
         return site;
     }
+
+    /**
+     * Get the properties used to resolve the site configuration file.
+     * @param project the maven project
+     * @return {@code Properties} instance
+     */
+    static Properties siteProperties(MavenProject project) {
+        Properties properties = new Properties();
+        properties.putAll(project.getProperties());
+        properties.setProperty("project.groupId", project.getGroupId());
+        properties.setProperty("project.artifactId", project.getArtifactId());
+        properties.setProperty("project.version", project.getVersion());
+        properties.setProperty("project.basedir", project.getBasedir().getAbsolutePath());
+        return properties;
+    }
 }
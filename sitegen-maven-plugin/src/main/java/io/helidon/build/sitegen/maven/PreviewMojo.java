@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import io.helidon.build.sitegen.PreviewServer;
+import io.helidon.build.sitegen.Site;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import static io.helidon.build.sitegen.maven.Constants.DEFAULT_SITE_OUTPUT_DIR;
+import static io.helidon.build.sitegen.maven.Constants.DEFAULT_SITE_SOURCE_DIR;
+import static io.helidon.build.sitegen.maven.Constants.PROPERTY_PREFIX;
+
+/**
+ * Goal that generates the site files, serves them on the loopback address
+ * and generates them again whenever a site source or the site configuration
+ * file changes, until interrupted. Only the pages whose source or included
+ * files changed are rendered again, and the pages opened in a browser are
+ * reloaded.
+ */
+@Mojo(name = "preview",
+      defaultPhase = LifecyclePhase.NONE,
+      requiresProject = true)
+public class PreviewMojo extends AbstractMojo {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * Directory containing the generated site files.
+     */
+    @Parameter(property = PROPERTY_PREFIX + "siteOutputDirectory",
+               defaultValue = DEFAULT_SITE_OUTPUT_DIR,
+               required = true)
+    private File siteOutputDirectory;
+
+    /**
+     * Directory containing the site sources.
+     */
+    @Parameter(property = PROPERTY_PREFIX + "siteSourceDirectory",
+               defaultValue = DEFAULT_SITE_SOURCE_DIR,
+               required = true)
+    private File siteSourceDirectory;
+
+    /**
+     * Site configuration file.
+     */
+    @Parameter(property = PROPERTY_PREFIX + "siteConfigFile", required = true)
+    private File siteConfigFile;
+
+    /**
+     * Number of threads rendering the site pages, each using its own
+     * asciidoctor instance. Values lower than {@code 1} use one thread per
+     * available processor.
+     */
+    @Parameter(property = PROPERTY_PREFIX + "renderingThreads",
+            defaultValue = "1",
+            required = false)
+    private int renderingThreads;
+
+    /**
+     * Port of the preview server, any free port if {@code 0}.
+     */
+    @Parameter(property = PROPERTY_PREFIX + "previewPort",
+            defaultValue = "8080",
+            required = false)
+    private int previewPort;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        Properties properties = GenerateMojo.siteProperties(project);
+        Path configFile = siteConfigFile.toPath().toAbsolutePath();
+        Site site = configure(null, properties);
+        try (PreviewServer server = PreviewServer.start(siteOutputDirectory, previewPort)) {
+            Map<Path, Long> sources = sources();
+            generate(site);
+            getLog().info("Site preview available at http://localhost:" + server.getPort() + "/");
+            while (true) {
+                Map<Path, Long> changed = awaitChanges(sources);
+                if (site == null || !Objects.equals(changed.get(configFile), sources.get(configFile))) {
+                    site = configure(site, properties);
+                }
+                sources = changed;
+                long startTime = System.nanoTime();
+                if (generate(site)) {
+                    server.reload();
+                    getLog().info("Site generated in "
+                            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+                }
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Site configure(Site previous, Properties properties) {
+        if (previous != null) {
+            // the asciidoctor instances are shared with the new engine
+            previous.getEngine().asciidoc().unregister();
+        }
+        try {
+            return Site.builder()
+                    .config(siteConfigFile, properties)
+                    .build();
+        } catch (RuntimeException ex) {
+            // keep previewing until the configuration is fixed
+            getLog().error(ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    private boolean generate(Site site) {
+        if (site == null) {
+            return false;
+        }
+        try {
+            site.generate(siteSourceDirectory, siteOutputDirectory, renderingThreads);
+            return true;
+        } catch (RuntimeException ex) {
+            // keep previewing until the sources are fixed
+            getLog().error(ex.getMessage(), ex);
+            return false;
+        }
+    }
+
+    private Map<Path, Long> awaitChanges(Map<Path, Long> sources) throws IOException, InterruptedException {
+        Map<Path, Long> changed = sources;
+        while (changed.equals(sources)) {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+            changed = sources();
+        }
+        // wait for the changes to complete, e.g. a file being copied
+        Map<Path, Long> current = changed;
+        do {
+            changed = current;
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+            current = sources();
+        } while (!current.equals(changed));
+        return changed;
+    }
+
+    private Map<Path, Long> sources() throws IOException {
+        Map<Path, Long> sources = new HashMap<>();
+        Path configFile = siteConfigFile.toPath().toAbsolutePath();
+        Path outputdir = siteOutputDirectory.toPath().toAbsolutePath();
+        if (Files.exists(configFile)) {
+            sources.put(configFile, Files.getLastModifiedTime(configFile).toMillis());
+        }
+        Files.walkFileTree(siteSourceDirectory.toPath().toAbsolutePath(), new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                return dir.startsWith(outputdir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                sources.put(file, attrs.lastModifiedTime().toMillis());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                // deleted while walking
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return sources;
+    }
+}
@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-/* global Vue, lunr, search_index, searchIndex */
+/* global Vue, searchIndex, searchShard */
 
 window.allComponents['docToolbar'] = {
     init: function(){
@@ -104,16 +104,33 @@ window.allComponents['docToolbar'] = {
             other: "# matching documents"
         };
 
-        const truncate = (string, n) => {
-            let i = n;
-            if (string.length > i) {
-                while (string[i] !== " " && --i > 0)
-                    ;
-                return `${string.substring(0, i)}...`;
-            }
-            return string;
+        /* Stop words and plural folding, must match the generated search index */
+        const stopWords = new Set([
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it", "no",
+            "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they", "this",
+            "to", "was", "will", "with"]);
+
+        const stem = term => {
+            const length = term.length;
+            if (length > 4 && term.endsWith("ies") && !term.endsWith("eies") && !term.endsWith("aies"))
+                return `${term.substring(0, length - 3)}y`;
+            if (length > 3 && ["sses", "xes", "zes", "ches", "shes"].some(suffix => term.endsWith(suffix)))
+                return term.substring(0, length - 2);
+            if (length > 3 && term.endsWith("s") && !["ss", "us", "is"].some(suffix => term.endsWith(suffix)))
+                return term.substring(0, length - 1);
+            return term;
+        };
+
+        /* Split a query into terms, the last term is kept even if it is a stop word as it may not be complete */
+        const queryTerms = query => {
+            const terms = query.toLowerCase().split(/[^\p{L}\p{N}]+/u).filter(Boolean);
+            return terms.filter((term, i) => i === terms.length - 1 || !stopWords.has(term)).map(stem);
         };
 
+        const shardKey = term => term.replace(/[^a-z0-9]/g, "_");
+
+        const escapeRegExp = string => string.replace(/[.*+?^${}()|[\]\\]/g, "\\$&");
+
         Vue.component('docToolbar', {
             template: '#doc-toolbar',
             data: function () {
@@ -128,7 +145,7 @@ window.allComponents['docToolbar'] = {
 
             watch: {
                 search(val) {
-                    /* Abort early, if index is not build or input hasn't changed */
+                    /* Abort early, if index is not loaded or input hasn't changed */
                     if (!this.index_ || val === this.value_)
                         return;
 
@@ -141,28 +158,105 @@ window.allComponents['docToolbar'] = {
                         return;
                     }
 
-                    /* Perform search on index and group sections by document */
-                    const result = this.index_
+                    /* Query the index, the results are discarded if the input changed meanwhile */
+                    this.queryIndex(val).then(scores => {
+                        if (val === this.value_)
+                            this.showResults(scores);
+                    }).catch(ex => {
+                        console.error("search error", ex);
+                    });
+                }
+            },
+            mounted() {
+                this.init();
+            },
+            methods: {
+                init() {
+                    const _this = this;
+                    searchIndex.then(function (search_index) {
+                        _this.initDocSearch(search_index);
+                    }).catch(function (ex){
+                        console.error("searchIndex error", ex);
+                    });
+                },
+                setIsSearching(val) {
+                    this.$refs.toolbar.isScrolling = !val;
+                    this.$store.commit('sitegen/ISSEARCHING', val);
+                    if (val) {
+                        this.$nextTick(() => {
+                            this.$refs.search.focus();
+                        });
+                    } else {
+                        this.search = null;
+                    }
+                },
+                initDocSearch(search_index) {
+                    /* Preprocess sections and documents */
+                    const data = search_index.docs;
+                    this.docs_ = data.reduce((docs, doc) => {
+                        const [path, hash] = doc.location.split("#");
 
-                            /* Append trailing wildcard to all terms for prefix querying */
-                            .query(query => {
-                                this.value_.toLowerCase().split(" ")
-                                        .filter(Boolean)
-                                        .forEach(term => {
-                                            query.term(term, {wildcard: lunr.Query.wildcard.LEADING | lunr.Query.wildcard.TRAILING});
-                                        });
-                            })
+                        /* Associate section with parent document */
+                        if (hash) {
+                            doc.parent = docs.get(path);
+
+                            /* Override page title with document title if first section */
+                            if (doc.parent && !doc.parent.done) {
+                                doc.parent.title = doc.title;
+                                doc.parent.text = doc.text;
+                                doc.parent.done = true;
+                            }
+                        }
+
+                        /* Keep sections and documents, but skip top-level headline */
+                        if (!doc.parent || doc.parent.title !== doc.title)
+                            docs.set(doc.location, doc);
+                        return docs;
+                    }, new Map);
+                    this.index_ = search_index;
+                },
+                queryIndex(value) {
+                    const index = this.index_;
+                    const terms = queryTerms(value);
+
+                    /* Load the shards holding the terms that start with a query term */
+                    const keys = new Set();
+                    terms.map(shardKey).forEach(key => {
+                        index.shards
+                                .filter(shard => shard.startsWith(key) || key.startsWith(shard))
+                                .forEach(shard => keys.add(shard));
+                    });
+                    return Promise.all([...keys].map(searchShard)).then(shards => {
+                        const scores = new Map();
+                        shards.forEach(shard => {
+                            Object.keys(shard.terms)
+                                    .filter(indexTerm => terms.some(term => indexTerm.startsWith(term)))
+                                    .forEach(indexTerm => {
+                                        shard.terms[indexTerm].forEach(posting => {
+                                            const entry = index.docs[posting[0]];
+
+                                            /* Skipped top-level headlines count for their document */
+                                            const doc = this.docs_.get(entry.location) || entry.parent;
+                                            if (!doc)
+                                                return;
 
-                            /* Process query results */
-                            .reduce((items, item) => {
-                                const doc = this.docs_.get(item.ref);
-                                //if (doc.parent) {
-                                //  const ref = doc.parent.location
-                                //  items.set(ref, (items.get(ref) || []).concat(item))
-                                //} else {
-                                const ref = doc.location;
-                                items.set(ref, (items.get(ref) || []));
-                                //}
+                                            /* Title terms come first and weigh more */
+                                            let score = scores.get(doc) || 0;
+                                            for (let i = 1; i < posting.length; i++)
+                                                score += posting[i] < entry.titleTerms ? 10 : 1;
+                                            scores.set(doc, score);
+                                        });
+                                    });
+                        });
+                        return scores;
+                    });
+                },
+                showResults(scores) {
+                    /* Group sections by document, best matches first */
+                    const result = [...scores.entries()]
+                            .sort((a, b) => b[1] - a[1])
+                            .reduce((items, [doc]) => {
+                                items.set(doc.location, []);
                                 return items;
                             }, new Map);
 
@@ -171,7 +265,7 @@ window.allComponents['docToolbar'] = {
                     this.value_.toLowerCase().split(" ")
                             .filter(Boolean)
                             .forEach(query => {
-                                matches.push(new RegExp(`(|${lunr.tokenizer.separator})(${query})`, "img"));
+                                matches.push(new RegExp(`(|[\\s\\-]+)(${escapeRegExp(query)})`, "img"));
                             });
 
                     const highlight = (_, separator, token) =>
@@ -202,7 +296,7 @@ window.allComponents['docToolbar'] = {
                             sectionEntry.location = section.location;
                             sectionEntry.title = section.title;
                             sectionEntry.h1 = section.title;
-                            sectionEntry.text = truncate(section.text, 400);
+                            sectionEntry.text = section.text;
                             matches.forEach(match => {
                                 sectionEntry.h1 = sectionEntry.h1.replace(match, highlight);
                                 sectionEntry.text = sectionEntry.text.replace(match, highlight);
@@ -224,86 +318,6 @@ window.allComponents['docToolbar'] = {
                         default:
                             this.searchMeta = messages.other.replace("#", result.size);
                     }
-                }
-            },
-            mounted() {
-                this.init();
-            },
-            methods: {
-                init() {
-                    const _this = this;
-                    searchIndex.then(function (search_index) {
-                        _this.initDocSearch(search_index);
-                    }).catch(function (ex){
-                        console.error("searchIndex error", ex);
-                    });
-                },
-                setIsSearching(val) {
-                    this.$refs.toolbar.isScrolling = !val;
-                    this.$store.commit('sitegen/ISSEARCHING', val);
-                    if (val) {
-                        this.$nextTick(() => {
-                            this.$refs.search.focus();
-                        });
-                    } else {
-                        this.search = null;
-                    }
-                },
-                initDocSearch(search_index) {
-                    /* Preprocess and index sections and documents */
-                    const data = search_index.docs;
-                    this.docs_ = data.reduce((docs, doc) => {
-                        const [path, hash] = doc.location.split("#");
-
-                        /* Associate section with parent document */
-                        if (hash) {
-                            doc.parent = docs.get(path);
-
-                            /* Override page title with document title if first section */
-                            if (doc.parent && !doc.parent.done) {
-                                doc.parent.title = doc.title;
-                                doc.parent.text = doc.text;
-                                doc.parent.done = true;
-                            }
-                        }
-
-                        /* Index sections and documents, but skip top-level headline */
-                        if (!doc.parent || doc.parent.title !== doc.title)
-                            docs.set(doc.location, doc);
-                        return docs;
-                    }, new Map);
-
-                    /* eslint-disable no-invalid-this */
-                    const docs = this.docs_,
-                            lang = this.lang_;
-
-                    /* Create stack and index */
-                    this.stack_ = [];
-                    this.index_ = lunr(function () {
-                        const filters = {
-                            "search.pipeline.trimmer": lunr.trimmer,
-                            "search.pipeline.stopwords": lunr.stopWordFilter
-                        };
-
-                        /* Disable stop words filter and trimmer, if desired */
-                        const pipeline = Object.keys(filters).reduce((result, name) => {
-                            result.push(filters[name]);
-                            return result;
-                        }, []);
-
-                        /* Remove stemmer, as it cripples search experience */
-                        this.pipeline.reset();
-                        if (pipeline)
-                            this.pipeline.add(...pipeline);
-
-                        /* Index fields */
-                        this.field("title", {boost: 10});
-                        this.field("text");
-                        this.ref("location");
-
-                        /* Index documents */
-                        docs.forEach(doc => this.add(doc));
-                    });
                 },
                 toggleSidebar() {
                     this.$store.commit('vuetify/SIDEBAR', !this.$store.state.sidebar);
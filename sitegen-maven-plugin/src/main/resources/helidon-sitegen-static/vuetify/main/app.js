@@ -27,6 +27,26 @@ const searchIndex = new Promise(function(resolve, reject){
       resolve(JSON.parse(response.text));
     });
 });
+const searchShards = new Map();
+
+/* Load a search index shard, once */
+function searchShard(key) {
+    let shard = searchShards.get(key);
+    if (!shard) {
+        shard = new Promise(function(resolve, reject){
+            superagent.get("main/search/shard-" + key + ".json").end(function (error, response) {
+              if(error){
+                searchShards.delete(key);
+                reject("unable to load search shard " + key + ": " + error);
+                return;
+              }
+              resolve(JSON.parse(response.text));
+            });
+        });
+        searchShards.set(key, shard);
+    }
+    return shard;
+}
 
 function main() {
 
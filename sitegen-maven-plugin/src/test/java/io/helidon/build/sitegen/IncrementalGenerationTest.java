@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the incremental generation of a site.
+ */
+public class IncrementalGenerationTest {
+
+    private static final String CONFIG = "pages:\n"
+            + "  - includes:\n"
+            + "      - \"**/*.adoc\"\n"
+            + "    excludes:\n"
+            + "      - \"**/_*\"\n";
+    private static final String MARKER = "not rendered";
+
+    private File sourcedir;
+    private File outputdir;
+    private File configFile;
+
+    @BeforeEach
+    public void setUp(@TempDir Path dir) throws Exception {
+        sourcedir = Files.createDirectories(dir.resolve("src")).toFile();
+        outputdir = dir.resolve("site").toFile();
+        configFile = Files.writeString(dir.resolve("sitegen.yaml"), CONFIG).toFile();
+        write("a.adoc", "= Page A\n\n:inc: _include.adoc\ninclude::{inc}[]\n");
+        write("b.adoc", "= Page B\n\nSecond page.\n");
+        write("_include.adoc", "First version.\n");
+    }
+
+    @Test
+    public void testUnchangedPagesNotRendered() throws Exception {
+        generate();
+        assertTrue(read("a.html").contains("First version."));
+        Files.writeString(new File(outputdir, "b.html").toPath(), MARKER);
+        write("_include.adoc", "Second version.\n");
+        generate();
+        assertTrue(read("a.html").contains("Second version."));
+        assertEquals(MARKER, read("b.html"));
+    }
+
+    @Test
+    public void testConfigChangeRendersAllPages() throws Exception {
+        generate();
+        Files.writeString(new File(outputdir, "b.html").toPath(), MARKER);
+        Files.writeString(configFile.toPath(), CONFIG + "\n");
+        generate();
+        assertFalse(read("b.html").equals(MARKER));
+    }
+
+    @Test
+    public void testChangedTitleRendersAllPages() throws Exception {
+        generate();
+        Files.writeString(new File(outputdir, "b.html").toPath(), MARKER);
+        write("a.adoc", "= New Title\n\n:inc: _include.adoc\ninclude::{inc}[]\n");
+        generate();
+        assertTrue(read("a.html").contains("New Title"));
+        assertFalse(read("b.html").equals(MARKER));
+    }
+
+    @Test
+    public void testDeletedOutputRendered() throws Exception {
+        generate();
+        Files.delete(new File(outputdir, "b.html").toPath());
+        generate();
+        assertTrue(read("b.html").contains("Second page."));
+    }
+
+    @Test
+    public void testDeletedVuetifyOutputsGenerated() throws Exception {
+        Files.writeString(configFile.toPath(), CONFIG
+                + "backend:\n"
+                + "  name: \"vuetify\"\n"
+                + "  homePage: \"a.adoc\"\n");
+        generate();
+        Files.delete(new File(outputdir, "index.html").toPath());
+        Files.delete(new File(outputdir, "main/config.js").toPath());
+        Files.delete(new File(outputdir, "main/search-index.json").toPath());
+        generate();
+        assertTrue(new File(outputdir, "index.html").exists());
+        assertTrue(new File(outputdir, "main/config.js").exists());
+        assertTrue(new File(outputdir, "main/search-index.json").exists());
+    }
+
+    private void generate() {
+        Site.builder()
+                .config(configFile)
+                .build()
+                .generate(sourcedir, outputdir);
+    }
+
+    private void write(String path, String content) throws Exception {
+        Files.writeString(new File(sourcedir, path).toPath(), content);
+    }
+
+    private String read(String path) throws Exception {
+        return Files.readString(new File(outputdir, path).toPath());
+    }
+}
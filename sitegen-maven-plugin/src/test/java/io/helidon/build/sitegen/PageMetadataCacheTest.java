@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+
+import io.helidon.build.sitegen.Page.Metadata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests {@link PageMetadataCache}.
+ */
+public class PageMetadataCacheTest {
+
+    private static final Map<String, String> INPUTS = Map.of("a.adoc", "1234", "_include.adoc", "5678");
+
+    @Test
+    public void testSavedEntries(@TempDir Path dir) throws Exception {
+        File file = PageMetadataCache.file(dir.resolve("site").toFile());
+        String key = PageMetadataCache.key("a.adoc", INPUTS);
+        PageMetadataCache cache = PageMetadataCache.read(file, "seed");
+        assertNull(cache.get(key));
+        cache.put(key, new Metadata("description", null, "h1", "title", null));
+        cache.save();
+
+        Metadata metadata = PageMetadataCache.read(file, "seed").get(key);
+        assertEquals("description", metadata.getDescription());
+        assertNull(metadata.getKeywords());
+        assertEquals("h1", metadata.getH1());
+        assertEquals("title", metadata.getTitle());
+        assertNull(metadata.getH1Prefix());
+
+        assertNull(PageMetadataCache.read(file, "other-seed").get(key));
+    }
+
+    @Test
+    public void testUnusedEntriesRemoved(@TempDir Path dir) throws Exception {
+        File file = PageMetadataCache.file(dir.resolve("site").toFile());
+        PageMetadataCache cache = PageMetadataCache.read(file, "seed");
+        cache.put("a", new Metadata(null, null, null, "a", null));
+        cache.put("b", new Metadata(null, null, null, "b", null));
+        cache.save();
+
+        cache = PageMetadataCache.read(file, "seed");
+        assertEquals("a", cache.get("a").getTitle());
+        cache.save();
+
+        cache = PageMetadataCache.read(file, "seed");
+        assertEquals("a", cache.get("a").getTitle());
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void testKeyDependsOnInputs() {
+        assertNotEquals(PageMetadataCache.key("a.adoc", INPUTS),
+                PageMetadataCache.key("a.adoc", Map.of("a.adoc", "1234", "_include.adoc", "0000")));
+        assertNotEquals(PageMetadataCache.key("a.adoc", INPUTS), PageMetadataCache.key("b.adoc", INPUTS));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.helidon.build.sitegen.TestHelper.SOURCE_DIR_PREFIX;
+import static io.helidon.build.sitegen.TestHelper.getFile;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the concurrent rendering of site pages.
+ */
+public class ParallelRenderingTest {
+
+    @Test
+    public void testSameOutputAsSerial(@TempDir Path dir) throws Exception {
+        File sourcedir = getFile(SOURCE_DIR_PREFIX + "testvuetify1");
+        Path serial = dir.resolve("serial").resolve("site");
+        Path parallel = dir.resolve("parallel").resolve("site");
+        generate(sourcedir, serial, 1);
+        generate(sourcedir, parallel, 4);
+
+        List<Path> files = files(serial);
+        assertEquals(files, files(parallel));
+        for (Path file : files) {
+            assertArrayEquals(Files.readAllBytes(serial.resolve(file)),
+                    Files.readAllBytes(parallel.resolve(file)),
+                    file.toString());
+        }
+    }
+
+    private static void generate(File sourcedir, Path outputdir, int renderingThreads) {
+        Properties properties = new Properties();
+        properties.setProperty("project.version", "1.0");
+        Site.builder()
+                .config(new File(sourcedir, "sitegen.yaml"), properties)
+                .build()
+                .generate(sourcedir, outputdir.toFile(), renderingThreads);
+    }
+
+    private static List<Path> files(Path dir) throws Exception {
+        try (Stream<Path> stream = Files.walk(dir)) {
+            return stream.filter(Files::isRegularFile)
+                    .map(dir::relativize)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests {@link PreviewServer}.
+ */
+public class PreviewServerTest {
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    @Test
+    public void testServedFiles(@TempDir Path tempDir) throws Exception {
+        Files.writeString(tempDir.resolve("secret.txt"), "secret");
+        Path dir = Files.createDirectories(tempDir.resolve("site"));
+        Files.writeString(dir.resolve("index.html"), "<html><body><p>index</p></body></html>");
+        Files.writeString(dir.resolve("app.js"), "var app;");
+        Files.createDirectories(dir.resolve("main"));
+        Files.writeString(dir.resolve("main/config.js"), "var config;");
+        try (PreviewServer server = PreviewServer.start(dir.toFile(), 0)) {
+            HttpResponse<String> response = get(server, "/");
+            assertEquals(200, response.statusCode());
+            assertEquals("text/html; charset=utf-8", response.headers().firstValue("Content-Type").orElse(null));
+            assertEquals("<html><body><p>index</p>" + PreviewServer.RELOAD_SCRIPT + "</body></html>", response.body());
+
+            response = get(server, "/main/config.js");
+            assertEquals(200, response.statusCode());
+            assertEquals("application/javascript; charset=utf-8",
+                    response.headers().firstValue("Content-Type").orElse(null));
+            assertEquals("var config;", response.body());
+
+            assertEquals(404, get(server, "/missing.js").statusCode());
+            assertEquals(404, get(server, "/main/%2e%2e/%2e%2e/secret.txt").statusCode());
+        }
+    }
+
+    @Test
+    public void testInjectReloadScript() {
+        assertEquals("<p>text</p>" + PreviewServer.RELOAD_SCRIPT,
+                PreviewServer.injectReloadScript("<p>text</p>"));
+        assertEquals("<BODY>text" + PreviewServer.RELOAD_SCRIPT + "</BODY>",
+                PreviewServer.injectReloadScript("<BODY>text</BODY>"));
+    }
+
+    @Test
+    public void testReloadEvent(@TempDir Path dir) throws Exception {
+        try (PreviewServer server = PreviewServer.start(dir.toFile(), 0)) {
+            HttpRequest request = HttpRequest.newBuilder(uri(server, PreviewServer.RELOAD_PATH)).build();
+            HttpResponse<InputStream> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            assertEquals("text/event-stream", response.headers().firstValue("Content-Type").orElse(null));
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                assertEquals("retry: 500", reader.readLine());
+                assertEquals("", reader.readLine());
+                server.reload();
+                assertEquals("data: reload", reader.readLine());
+            }
+        }
+    }
+
+    private static HttpResponse<String> get(PreviewServer server, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(server, path)).build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(PreviewServer server, String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.helidon.common.CollectionsHelper.listOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link SearchIndex}.
+ */
+public class SearchIndexTest {
+
+    @Test
+    public void testTokenize() {
+        List<String> terms = new ArrayList<>();
+        SearchIndex.tokenize("The Config-Sources of a Helidon app, in 2 classes!", terms::add);
+        assertEquals(listOf("config", "source", "helidon", "app", "class"), terms);
+    }
+
+    @Test
+    public void testTokenizeCodePoints() {
+        List<String> terms = new ArrayList<>();
+        // mathematical bold AB, outside of the basic multilingual plane, and roman numeral 12 followed by 1/2
+        SearchIndex.tokenize("\uD835\uDC00\uD835\uDC01 \u216B\u00BD", terms::add);
+        assertEquals(listOf("\uD835\uDC00\uD835\uDC01", "\u217B\u00BD"), terms);
+    }
+
+    @Test
+    public void testStem() {
+        assertEquals("property", SearchIndex.stem("properties"));
+        assertEquals("box", SearchIndex.stem("boxes"));
+        assertEquals("class", SearchIndex.stem("class"));
+        assertEquals("status", SearchIndex.stem("status"));
+        assertEquals("route", SearchIndex.stem("routes"));
+    }
+
+    @Test
+    public void testPostings() {
+        SearchIndex index = SearchIndex.create(listOf(
+                new SearchEntry("a", "config config", "Config"),
+                new SearchEntry("b", "the config", "Other")));
+        Map<Integer, List<Integer>> postings = index.postings("config");
+        assertEquals(listOf(0, 1, 2), postings.get(0));
+        assertEquals(listOf(1), postings.get(1));
+        assertNull(index.postings("the"));
+    }
+
+    @Test
+    public void testShardsSplit() {
+        List<SearchEntry> entries = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i <= SearchIndex.MAX_SHARD_TERMS / 2; i++) {
+            text.append(" ca").append(i).append(" co").append(i);
+        }
+        entries.add(new SearchEntry("a", text.toString(), "Zebra"));
+        Map<String, List<String>> shards = SearchIndex.create(entries).shards();
+        assertTrue(shards.containsKey("ca"));
+        assertTrue(shards.containsKey("co"));
+        assertTrue(shards.containsKey("z"));
+        assertFalse(shards.containsKey("c"));
+        shards.forEach((key, terms) -> terms.forEach(term -> assertTrue(term.startsWith(key), term)));
+    }
+
+    @Test
+    public void testWrite(@TempDir Path dir) throws Exception {
+        Files.createDirectories(dir.resolve("search"));
+        Files.writeString(dir.resolve("search").resolve("shard-old.json"), "{}");
+        SearchIndex.create(listOf(new SearchEntry("a#b", "Some \"quoted\" text", "Title")))
+                .write(dir.toFile());
+        String docs = Files.readString(dir.resolve(SearchIndex.DOCS_FILE));
+        assertEquals("{\"docs\":[{\"location\":\"a#b\",\"title\":\"Title\","
+                + "\"text\":\"Some \\\"quoted\\\" text\",\"titleTerms\":1}],"
+                + "\"shards\":[\"q\",\"s\",\"t\"]}", docs);
+        assertEquals("{\"terms\":{\"some\":[[0,1]]}}",
+                Files.readString(dir.resolve("search").resolve("shard-s.json")));
+        assertFalse(new File(dir.toFile(), "search/shard-old.json").exists());
+    }
+
+    @Test
+    public void testSnippet() {
+        String text = "word ".repeat(100);
+        String snippet = SearchIndex.snippet(text);
+        assertTrue(snippet.length() <= SearchIndex.SNIPPET_LENGTH + 3);
+        assertTrue(snippet.endsWith("word..."));
+        assertEquals("short", SearchIndex.snippet("short"));
+    }
+
+    @Test
+    public void testSnippetWithoutSpace() {
+        String text = "x".repeat(SearchIndex.SNIPPET_LENGTH + 100);
+        assertEquals("x".repeat(SearchIndex.SNIPPET_LENGTH) + "...", SearchIndex.snippet(text));
+        text = "x".repeat(SearchIndex.SNIPPET_LENGTH - 1) + "\uD835\uDC00" + "x".repeat(100);
+        assertEquals("x".repeat(SearchIndex.SNIPPET_LENGTH - 1) + "...", SearchIndex.snippet(text));
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.sitegen.freemarker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests {@link SearchIndexDirective}.
+ */
+public class SearchIndexDirectiveTest {
+
+    @Test
+    public void testStripHtmlMarkups() {
+        assertNull(SearchIndexDirective.stripHtmlMarkups(null));
+        assertEquals(" Some bold text ",
+                SearchIndexDirective.stripHtmlMarkups("<p>Some <b>bold</b>\n\n  text</p>"));
+        assertEquals("line one line two", SearchIndexDirective.stripHtmlMarkups("line one\\n line two"));
+        assertEquals("a < b and c > d", SearchIndexDirective.stripHtmlMarkups("a < b and c\n> d"));
+        assertEquals("a d", SearchIndexDirective.stripHtmlMarkups("a <b and c> d"));
+    }
+}
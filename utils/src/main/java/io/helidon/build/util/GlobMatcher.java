@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A compiled set of include and exclude <a href="http://ant.apache.org/manual/dirtasks.html#patterns">Ant path patterns</a>,
+ * matched against relative paths. As with {@link SourcePath}, a pattern that matches a directory also matches any path
+ * below it.
+ * <p>
+ * Each set of patterns is compiled into a single non-deterministic automaton over path segments, with one state per
+ * pattern segment. The states are packed into blocks of 64 so that each block is run with a single {@code long}, and a
+ * path is matched by scanning its segments in place; neither the path nor the patterns are split or copied.
+ * <p>
+ * Since the automaton tracks all patterns at once, {@link #canMatchUnder(String)} can also tell when no path below a
+ * directory can match, so that a file tree walk may skip that directory.
+ */
+public final class GlobMatcher {
+    private static final String DOUBLE_WILDCARD = "**";
+    private static final char WILDCARD_CHAR = '*';
+    private static final char SINGLE_CHAR_WILDCARD_CHAR = '?';
+    private static final char PATH_SEPARATOR_CHAR = '/';
+    private static final char WINDOWS_SEPARATOR_CHAR = '\\';
+    private static final char CURRENT_DIR_CHAR = '.';
+    private static final List<String> DEFAULT_INCLUDES = List.of(DOUBLE_WILDCARD);
+    private static final int MAX_STATES = Long.SIZE;
+    private static final int DEAD = 0;
+    private static final int ALIVE = 1;
+    private static final int MATCHED = 2;
+
+    private final Automaton includes;
+    private final Automaton excludes;
+
+    /**
+     * Returns a matcher for the given patterns.
+     *
+     * @param includes The include patterns. If {@code null} or empty, all paths are included.
+     * @param excludes The exclude patterns. If {@code null} or empty, no path is excluded.
+     * @return The matcher.
+     * @throws IllegalArgumentException If a pattern has more than 63 segments.
+     */
+    public static GlobMatcher create(Collection<String> includes, Collection<String> excludes) {
+        return new GlobMatcher(includes == null || includes.isEmpty() ? DEFAULT_INCLUDES : includes, excludes);
+    }
+
+    private GlobMatcher(Collection<String> includes, Collection<String> excludes) {
+        this.includes = new Automaton(includes);
+        this.excludes = excludes == null || excludes.isEmpty() ? null : new Automaton(excludes);
+    }
+
+    /**
+     * Returns whether or not the given relative path is included and not excluded.
+     *
+     * @param path The path.
+     * @return {@code true} if the path matches.
+     */
+    public boolean matches(Path path) {
+        return matches(path.toString());
+    }
+
+    /**
+     * Returns whether or not the given relative path is included and not excluded.
+     *
+     * @param path The path, using {@code '/'} or {@code '\'} as separator.
+     * @return {@code true} if the path matches.
+     */
+    public boolean matches(String path) {
+        return includes.run(path, false) == MATCHED && (excludes == null || excludes.run(path, false) != MATCHED);
+    }
+
+    /**
+     * Returns whether or not any path below the given relative directory can match, i.e. whether or not some include
+     * pattern can match below it and no exclude pattern matches it.
+     *
+     * @param directory The directory, empty for the root.
+     * @return {@code false} if no path below the directory can match.
+     */
+    public boolean canMatchUnder(Path directory) {
+        return canMatchUnder(directory.toString());
+    }
+
+    /**
+     * Returns whether or not any path below the given relative directory can match, i.e. whether or not some include
+     * pattern can match below it and no exclude pattern matches it.
+     *
+     * @param directory The directory, using {@code '/'} or {@code '\'} as separator and empty for the root.
+     * @return {@code false} if no path below the directory can match.
+     */
+    public boolean canMatchUnder(String directory) {
+        return includes.run(directory, true) != DEAD && (excludes == null || excludes.run(directory, true) != MATCHED);
+    }
+
+    /**
+     * Returns whether or not the given path segments are included and not excluded.
+     *
+     * @param segments The segments.
+     * @return {@code true} if the path matches.
+     */
+    boolean matches(String[] segments) {
+        return includes.run(segments) == MATCHED && (excludes == null || excludes.run(segments) != MATCHED);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == PATH_SEPARATOR_CHAR || c == WINDOWS_SEPARATOR_CHAR;
+    }
+
+    private static boolean isEmpty(String path) {
+        final int length = path.length();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            while (end < length && !isSeparator(path.charAt(end))) {
+                end++;
+            }
+            if (!isSkipped(path, start, end)) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return true;
+    }
+
+    private static boolean isSkipped(String path, int start, int end) {
+        return end == start || (end == start + 1 && path.charAt(start) == CURRENT_DIR_CHAR);
+    }
+
+    /**
+     * The patterns of a set, in blocks of up to 64 states. The states of a pattern with {@code n} segments are numbered
+     * from {@code 0} to {@code n} within its block, state {@code i} matching segment {@code i} and state {@code n} being
+     * the accepting one. A {@code "**"} state loops on any segment and, since it may match none, is always followed by
+     * the next state.
+     */
+    private static final class Automaton {
+        private final List<Block> blocks;
+
+        private Automaton(Collection<String> patterns) {
+            this.blocks = new ArrayList<>();
+            BlockBuilder builder = new BlockBuilder();
+            for (String pattern : patterns) {
+                final List<Segment> segments = parse(pattern);
+                if (segments.isEmpty()) {
+                    continue;
+                }
+                if (segments.size() >= MAX_STATES) {
+                    throw new IllegalArgumentException("pattern has too many segments: " + pattern);
+                }
+                if (!builder.add(segments)) {
+                    blocks.add(builder.build());
+                    builder = new BlockBuilder();
+                    builder.add(segments);
+                }
+            }
+            if (!builder.isEmpty()) {
+                blocks.add(builder.build());
+            }
+        }
+
+        private int run(String path, boolean directory) {
+
+            // An empty path never matches, though a walk may continue below the root
+
+            if (!directory && isEmpty(path)) {
+                return DEAD;
+            }
+            int result = DEAD;
+            for (Block block : blocks) {
+                long states = block.start;
+                final int length = path.length();
+                int start = 0;
+                while (states != 0 && (states & block.accepts) == 0 && start <= length) {
+                    int end = start;
+                    while (end < length && !isSeparator(path.charAt(end))) {
+                        end++;
+                    }
+                    if (!isSkipped(path, start, end)) {
+                        states = block.step(states, path, start, end);
+                    }
+                    start = end + 1;
+                }
+                result = Math.max(result, block.result(states));
+                if (result == MATCHED) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        private int run(String[] segments) {
+            if (segments.length == 0) {
+                return DEAD;
+            }
+            int result = DEAD;
+            for (Block block : blocks) {
+                long states = block.start;
+                for (int i = 0; i < segments.length && states != 0 && (states & block.accepts) == 0; i++) {
+                    final String segment = segments[i];
+                    states = block.step(states, segment, 0, segment.length());
+                }
+                result = Math.max(result, block.result(states));
+                if (result == MATCHED) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        private static List<Segment> parse(String pattern) {
+            final List<Segment> segments = new ArrayList<>();
+            final int length = pattern.length();
+            int start = 0;
+            while (start < length) {
+                int end = start;
+                while (end < length && !isSeparator(pattern.charAt(end))) {
+                    end++;
+                }
+                if (!isSkipped(pattern, start, end)) {
+                    segments.add(new Segment(pattern.substring(start, end)));
+                }
+                start = end + 1;
+            }
+
+            // A trailing separator means the directory and anything below it
+
+            if (length > 0 && isSeparator(pattern.charAt(length - 1)) && !segments.isEmpty()) {
+                segments.add(new Segment(DOUBLE_WILDCARD));
+            }
+            return segments;
+        }
+    }
+
+    private static final class Block {
+        private final long start;
+        private final long doubleWildcards;
+        private final long accepts;
+        private final Segment[] segments;
+
+        private Block(long initial, long doubleWildcards, long accepts, Segment[] segments) {
+            this.doubleWildcards = doubleWildcards;
+            this.accepts = accepts;
+            this.segments = segments;
+            this.start = closure(initial);
+        }
+
+        private long step(long states, String path, int start, int end) {
+            long next = states & doubleWildcards;
+            long candidates = states & ~doubleWildcards & ~accepts;
+            while (candidates != 0) {
+                final int state = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                if (segments[state].matches(path, start, end)) {
+                    next |= 1L << (state + 1);
+                }
+            }
+            return closure(next);
+        }
+
+        private int result(long states) {
+            if ((states & accepts) != 0) {
+                return MATCHED;
+            }
+            return states == 0 ? DEAD : ALIVE;
+        }
+
+        private long closure(long states) {
+            long result = states;
+            long previous;
+            do {
+                previous = result;
+                result |= (result & doubleWildcards) << 1;
+            } while (result != previous);
+            return result;
+        }
+    }
+
+    private static final class BlockBuilder {
+        private final Segment[] segments = new Segment[MAX_STATES];
+        private int size;
+        private long initial;
+        private long doubleWildcards;
+        private long accepts;
+
+        private boolean add(List<Segment> pattern) {
+            if (size + pattern.size() + 1 > MAX_STATES) {
+                return false;
+            }
+            initial |= 1L << size;
+            for (Segment segment : pattern) {
+                if (segment.isDoubleWildcard()) {
+                    doubleWildcards |= 1L << size;
+                }
+                segments[size++] = segment;
+            }
+            accepts |= 1L << size++;
+            return true;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private Block build() {
+            return new Block(initial, doubleWildcards, accepts, segments.clone());
+        }
+    }
+
+    private static final class Segment {
+        private final String pattern;
+        private final boolean literal;
+
+        private Segment(String pattern) {
+            this.pattern = pattern;
+            this.literal = pattern.indexOf(WILDCARD_CHAR) < 0 && pattern.indexOf(SINGLE_CHAR_WILDCARD_CHAR) < 0;
+        }
+
+        private boolean isDoubleWildcard() {
+            return pattern.equals(DOUBLE_WILDCARD);
+        }
+
+        private boolean matches(String path, int start, int end) {
+            if (literal) {
+                return end - start == pattern.length() && path.regionMatches(start, pattern, 0, pattern.length());
+            }
+
+            // Backtrack to the last '*' on a mismatch, extending what it matches by one character
+
+            final int length = pattern.length();
+            int p = 0;
+            int s = start;
+            int wildcard = -1;
+            int wildcardEnd = start;
+            while (s < end) {
+                final char c = p < length ? pattern.charAt(p) : 0;
+                if (c == WILDCARD_CHAR) {
+                    wildcard = p++;
+                    wildcardEnd = s;
+                } else if (p < length && (c == SINGLE_CHAR_WILDCARD_CHAR || c == path.charAt(s))) {
+                    p++;
+                    s++;
+                } else if (wildcard >= 0) {
+                    p = wildcard + 1;
+                    s = ++wildcardEnd;
+                } else {
+                    return false;
+                }
+            }
+            while (p < length && pattern.charAt(p) == WILDCARD_CHAR) {
+                p++;
+            }
+            return p == length;
+        }
+    }
+}
@@ -44,7 +44,7 @@ import static java.io.File.pathSeparatorChar;
 import static java.util.Objects.requireNonNull;
 
 /**
- * Executes maven in a separate process.
+ * Executes maven in a separate process, or optionally in a background process that is reused across builds.
  */
 public class MavenCommand {
     private static final String MAVEN_BINARY_NAME = Constants.OS.mavenExec();
@@ -70,6 +70,8 @@ public class MavenCommand {
     private final Consumer<String> stdErr;
     private final Predicate<String> filter;
     private final Function<String, String> transform;
+    private final MavenDaemonClient daemon;
+    private final List<String> daemonArgs;
 
     /**
      * Returns a new builder.
@@ -88,6 +90,8 @@ public class MavenCommand {
         this.stdErr = builder.stdErr;
         this.filter = builder.filter;
         this.transform = builder.transform;
+        this.daemon = builder.daemonClient;
+        this.daemonArgs = builder.daemonArgs;
     }
 
     /**
@@ -204,10 +208,14 @@ public class MavenCommand {
      * @throws Exception if an error occurs.
      */
     public void execute() throws Exception {
-        // Fork process and wait for its completion
         if (name != null) {
             Log.info("%s", Bold.apply(name));
         }
+        if (daemon != null && daemon.execute(daemonArgs, stdOut, stdErr, filter, transform)) {
+            return;
+        }
+
+        // Fork process and wait for its completion
         ProcessMonitor processMonitor = ProcessMonitor.builder()
                                                       .processBuilder(processBuilder)
                                                       .stdOut(stdOut)
@@ -265,6 +273,9 @@ public class MavenCommand {
         private Predicate<String> filter;
         private Function<String, String> transform;
         private MavenVersion requiredMinimumVersion;
+        private boolean daemon;
+        private MavenDaemonClient daemonClient;
+        private List<String> daemonArgs;
         private ProcessBuilder processBuilder;
 
         private Builder() {
@@ -385,6 +396,19 @@ public class MavenCommand {
             return this;
         }
 
+        /**
+         * Executes the build in a background Maven process for the project directory, started if not already
+         * running, rather than in a new process. Falls back to a new process if the background process cannot be
+         * used, e.g. if it is busy with another build or a debug port is set. Defaults to {@code false}.
+         *
+         * @param daemon {@code true} to use a background Maven process.
+         * @return This instance, for chaining.
+         */
+        public Builder daemon(boolean daemon) {
+            this.daemon = daemon;
+            return this;
+        }
+
         /**
          * Sets the consumer for process {@code stdout} stream.
          *
@@ -465,6 +489,10 @@ public class MavenCommand {
             if (!AnsiConsoleInstaller.areAnsiEscapesEnabled()) {
                 command.add("--batch-mode");
             }
+            if (daemon && debugPort <= 0 && MavenDaemonClient.isAvailable()) {
+                daemonClient = MavenDaemonClient.daemonClient(directory);
+                daemonArgs = command.subList(1, command.size());
+            }
 
             // Create the process builder
 
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.util;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A background process that executes Maven builds in process, so that repeated builds of a project avoid the JVM
+ * startup, Maven bootstrap and cold JIT of a new {@code mvn} process. Builds are requested over a loopback socket by
+ * {@link MavenDaemonClient}, one at a time; the process exits after being idle for the given time or when asked to stop.
+ * <p>
+ * A request is a line containing the token from the state file, then either {@link #STOP_REQUEST} or
+ * {@link #BUILD_REQUEST} followed by the working directory and the Maven arguments, one per line, terminated by an
+ * empty line. The build output is returned, with each line of the error output preceded by {@link #ERROR_PREFIX}, followed
+ * by {@link #RESPONSE_PREFIX} and the result on the last line; since the output may not end with a line separator, the
+ * prefixes need not start a line.
+ * <p>
+ * This class runs in the daemon JVM with only its own class file and the Maven distribution on the class path, so it
+ * must depend on JDK classes only and must not have nested classes.
+ */
+public final class MavenDaemon {
+
+    /**
+     * The request to execute a build.
+     */
+    static final String BUILD_REQUEST = "build";
+
+    /**
+     * The request to stop the daemon.
+     */
+    static final String STOP_REQUEST = "stop";
+
+    /**
+     * The prefix of a response, written after any build output.
+     */
+    static final String RESPONSE_PREFIX = "@@helidon.maven.daemon@@ ";
+
+    /**
+     * The prefix of a line of error output.
+     */
+    static final String ERROR_PREFIX = "@@helidon.maven.daemon.err@@ ";
+
+    /**
+     * The response when a build is already in progress.
+     */
+    static final String BUSY = "busy";
+
+    /**
+     * The response when stopping.
+     */
+    static final String STOPPING = "stopping";
+
+    /**
+     * The prefix of the response when a build has completed, followed by the exit code.
+     */
+    static final String EXIT_PREFIX = "exit ";
+
+    /**
+     * The state file key for the port.
+     */
+    static final String PORT_KEY = "port";
+
+    /**
+     * The state file key for the token that a request must start with.
+     */
+    static final String TOKEN_KEY = "token";
+
+    /**
+     * The state file key for the process id.
+     */
+    static final String PID_KEY = "pid";
+
+    /**
+     * The state file key for the fingerprint of the build files the daemon was started for.
+     */
+    static final String FINGERPRINT_KEY = "fingerprint";
+
+    private static final String MAVEN_CLI_CLASS_NAME = "org.apache.maven.cli.MavenCli";
+    private static final String DO_MAIN_METHOD_NAME = "doMain";
+    private static final String MULTI_MODULE_PROJECT_DIRECTORY = "maven.multiModuleProjectDirectory";
+    private static final String MVN_DIR = ".mvn";
+    private static final String SIGNAL_CLASS_NAME = "sun.misc.Signal";
+    private static final String SIGNAL_HANDLER_CLASS_NAME = "sun.misc.SignalHandler";
+    private static final String SIGNAL_IGNORE_FIELD = "SIG_IGN";
+    private static final String SIGNAL_HANDLE_METHOD = "handle";
+    private static final String[] IGNORED_SIGNALS = {"INT", "HUP"};
+    private static final String OWNER_ONLY = "rw-------";
+    private static final int ACCEPT_TIMEOUT_MILLIS = 1000;
+    private static final long ERROR_FORWARD_MILLIS = 100;
+    private static final int TOKEN_BYTES = 32;
+
+    private final Path stateFile;
+    private final long idleTimeoutMillis;
+    private final String fingerprint;
+    private final String token;
+    private final AtomicBoolean busy;
+    private volatile long lastActive;
+    private volatile boolean stopped;
+
+    /**
+     * Run the daemon.
+     *
+     * @param args The state file, the idle timeout in milliseconds and the build files fingerprint.
+     * @throws Exception If an error occurs.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("usage: MavenDaemon stateFile idleTimeoutMillis fingerprint");
+        }
+        ignoreSignals();
+        new MavenDaemon(Path.of(args[0]), Long.parseLong(args[1]), args[2]).run();
+
+        // Builds may leave non-daemon threads behind
+
+        System.exit(0);
+    }
+
+    private MavenDaemon(Path stateFile, long idleTimeoutMillis, String fingerprint) {
+        final byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        this.stateFile = stateFile;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.fingerprint = fingerprint;
+        this.token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        this.busy = new AtomicBoolean();
+        this.lastActive = System.currentTimeMillis();
+    }
+
+    private void run() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+            writeState(server.getLocalPort());
+            while (!stopped && (busy.get() || System.currentTimeMillis() - lastActive < idleTimeoutMillis)) {
+                try {
+                    final Socket socket = server.accept();
+                    final Thread handler = new Thread(() -> handle(socket), "maven-daemon-request");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (SocketTimeoutException ignore) {
+                }
+            }
+        } finally {
+            deleteState();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+             PrintStream out = new PrintStream(socket.getOutputStream(), true, UTF_8)) {
+            if (!token.equals(reader.readLine())) {
+                return;
+            }
+            final String request = reader.readLine();
+            if (STOP_REQUEST.equals(request)) {
+                stopped = true;
+                respond(out, STOPPING);
+            } else if (BUILD_REQUEST.equals(request)) {
+                final String workingDir = reader.readLine();
+                final List<String> args = new ArrayList<>();
+                String line;
+                while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                    args.add(line);
+                }
+                if (workingDir == null || line == null) {
+                    return;
+                }
+                if (busy.compareAndSet(false, true)) {
+                    try {
+                        final int exitCode = build(workingDir, args, out);
+                        respond(out, EXIT_PREFIX + exitCode);
+                    } finally {
+                        lastActive = System.currentTimeMillis();
+                        busy.set(false);
+                    }
+                } else {
+                    respond(out, BUSY);
+                }
+            }
+        } catch (IOException ignore) {
+        }
+    }
+
+    private static int build(String workingDir, List<String> args, PrintStream out) {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader origLoader = thread.getContextClassLoader();
+        final Properties origProperties = (Properties) System.getProperties().clone();
+
+        // Error output is collected and its complete lines forwarded periodically, since the output streams cannot be
+        // subclassed here without a nested class
+
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final PrintStream err = new PrintStream(errors, true, UTF_8);
+        final Thread errorForwarder = new Thread(() -> forwardErrors(errors, out), "maven-daemon-errors");
+        errorForwarder.setDaemon(true);
+        errorForwarder.start();
+        try {
+            System.setProperty(MULTI_MODULE_PROJECT_DIRECTORY, multiModuleProjectDirectory(Path.of(workingDir)).toString());
+            thread.setContextClassLoader(MavenDaemon.class.getClassLoader());
+
+            // A new instance per build, since each creates its own class world and container
+
+            final Class<?> cliClass = Class.forName(MAVEN_CLI_CLASS_NAME);
+            final Object cli = cliClass.getDeclaredConstructor().newInstance();
+            final Method doMain = cliClass.getMethod(DO_MAIN_METHOD_NAME,
+                                                     String[].class, String.class, PrintStream.class, PrintStream.class);
+            final Object result = doMain.invoke(cli, args.toArray(new String[0]), workingDir, out, err);
+            return ((Number) result).intValue();
+        } catch (InvocationTargetException e) {
+            e.getCause().printStackTrace(err);
+            return 1;
+        } catch (Exception e) {
+            e.printStackTrace(err);
+            return 1;
+        } finally {
+            errorForwarder.interrupt();
+            try {
+                errorForwarder.join();
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+            forwardErrors(errors, out, true);
+            out.flush();
+            System.setProperties(origProperties);
+            thread.setContextClassLoader(origLoader);
+        }
+    }
+
+    private static void forwardErrors(ByteArrayOutputStream errors, PrintStream out) {
+        try {
+            while (true) {
+                Thread.sleep(ERROR_FORWARD_MILLIS);
+                forwardErrors(errors, out, false);
+            }
+        } catch (InterruptedException ignore) {
+        }
+    }
+
+    private static void forwardErrors(ByteArrayOutputStream errors, PrintStream out, boolean all) {
+        final byte[] bytes;
+        int end;
+        synchronized (errors) {
+            bytes = errors.toByteArray();
+            end = bytes.length;
+            if (!all) {
+                while (end > 0 && bytes[end - 1] != '\n') {
+                    end--;
+                }
+            }
+            errors.reset();
+            errors.write(bytes, end, bytes.length - end);
+        }
+        if (end > 0) {
+            for (String line : new String(bytes, 0, end, UTF_8).split("\\R")) {
+                out.println(ERROR_PREFIX + line);
+            }
+        }
+    }
+
+    private static Path multiModuleProjectDirectory(Path workingDir) {
+        Path dir = workingDir.toAbsolutePath();
+        while (dir != null) {
+            if (Files.isDirectory(dir.resolve(MVN_DIR))) {
+                return dir;
+            }
+            dir = dir.getParent();
+        }
+        return workingDir;
+    }
+
+    private void writeState(int port) throws IOException {
+        final Properties state = new Properties();
+        state.setProperty(PORT_KEY, Integer.toString(port));
+        state.setProperty(TOKEN_KEY, token);
+        state.setProperty(PID_KEY, Long.toString(ProcessHandle.current().pid()));
+        state.setProperty(FINGERPRINT_KEY, fingerprint);
+        final Path tempFile = Files.createTempFile(stateFile.getParent(), stateFile.getFileName().toString(), null);
+        if (stateFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(tempFile, PosixFilePermissions.fromString(OWNER_ONLY));
+        }
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            state.store(out, null);
+        }
+        Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteState() {
+
+        // Only if it is ours, since a replacement daemon may already have been started
+
+        try {
+            final Properties state = new Properties();
+            try (BufferedReader reader = Files.newBufferedReader(stateFile)) {
+                state.load(reader);
+            }
+            if (token.equals(state.getProperty(TOKEN_KEY))) {
+                Files.delete(stateFile);
+            }
+        } catch (IOException ignore) {
+        }
+    }
+
+    private static void ignoreSignals() {
+
+        // The daemon is started from a terminal and must outlive a Ctrl-C of the client or closing the terminal.
+        // Reflection is used since this module does not read jdk.unsupported.
+
+        try {
+            final Class<?> signalClass = Class.forName(SIGNAL_CLASS_NAME);
+            final Class<?> handlerClass = Class.forName(SIGNAL_HANDLER_CLASS_NAME);
+            final Object ignore = handlerClass.getField(SIGNAL_IGNORE_FIELD).get(null);
+            final Method handle = signalClass.getMethod(SIGNAL_HANDLE_METHOD, signalClass, handlerClass);
+            for (String name : IGNORED_SIGNALS) {
+                try {
+                    handle.invoke(null, signalClass.getConstructor(String.class).newInstance(name), ignore);
+                } catch (InvocationTargetException ignored) {
+                    // Not supported on this platform
+                }
+            }
+        } catch (ReflectiveOperationException ignored) {
+        }
+    }
+
+    private static void respond(PrintStream out, String response) {
+        out.println(RESPONSE_PREFIX + response);
+        out.flush();
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Model;
+
+import static io.helidon.build.util.FileUtils.USER_HOME_DIR;
+import static io.helidon.build.util.FileUtils.assertJavaExecutable;
+import static io.helidon.build.util.MavenDaemon.BUILD_REQUEST;
+import static io.helidon.build.util.MavenDaemon.BUSY;
+import static io.helidon.build.util.MavenDaemon.ERROR_PREFIX;
+import static io.helidon.build.util.MavenDaemon.EXIT_PREFIX;
+import static io.helidon.build.util.MavenDaemon.FINGERPRINT_KEY;
+import static io.helidon.build.util.MavenDaemon.PORT_KEY;
+import static io.helidon.build.util.MavenDaemon.RESPONSE_PREFIX;
+import static io.helidon.build.util.MavenDaemon.STOP_REQUEST;
+import static io.helidon.build.util.MavenDaemon.TOKEN_KEY;
+import static io.helidon.build.util.ProjectConfig.DOT_HELIDON;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Executes Maven builds for a project in a {@link MavenDaemon}, starting one if none is running. A daemon is started
+ * per project directory and is replaced when the pom file of any module or parent within the project directory, a
+ * {@code .mvn} file, the Maven installation or the JVM options change.
+ */
+final class MavenDaemonClient {
+    private static final Path DEFAULT_DAEMON_DIR = USER_HOME_DIR.resolve(DOT_HELIDON).resolve("daemon");
+    private static final String IDLE_MINUTES_PROPERTY = "mvn.daemon.idle.minutes";
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong(IDLE_MINUTES_PROPERTY, 30));
+    private static final long START_TIMEOUT_MILLIS = 30_000;
+    private static final long START_POLL_MILLIS = 50;
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final String DAEMON_CLASS_FILE = MavenDaemon.class.getSimpleName() + ".class";
+    private static final String CLASSES_DIR = "classes";
+    private static final String STATE_FILE_SUFFIX = ".properties";
+    private static final String LOG_FILE_SUFFIX = ".log";
+    private static final String POM_FILE = "pom.xml";
+    private static final String MVN_DIR = ".mvn";
+    private static final String JVM_CONFIG_FILE = "jvm.config";
+    private static final String MAVEN_OPTS_VAR = "MAVEN_OPTS";
+    private static final String BOOT_DIR = "boot";
+    private static final String LIB_DIR = "lib";
+    private static final String EXT_DIR = "ext";
+    private static final String CONF_DIR = "conf";
+    private static final String LOGGING_DIR = "logging";
+    private static final String JANSI_NATIVE_DIR = "jansi-native";
+    private static final String MAVEN_CONF_OPTION = "-Dmaven.conf=";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int STATE_FILE_NAME_LENGTH = 16;
+
+    private final Path projectDir;
+    private final Path daemonDir;
+    private final Path stateFile;
+    private final Path logFile;
+
+    /**
+     * Returns a new client for the given project directory, using a daemon directory in the user's home directory.
+     *
+     * @param projectDir The project directory.
+     * @return The client.
+     */
+    static MavenDaemonClient daemonClient(Path projectDir) {
+        return new MavenDaemonClient(projectDir, DEFAULT_DAEMON_DIR);
+    }
+
+    /**
+     * Returns a new client for the given project directory.
+     *
+     * @param projectDir The project directory.
+     * @param daemonDir The directory in which to keep the daemon state and log files.
+     * @return The client.
+     */
+    static MavenDaemonClient daemonClient(Path projectDir, Path daemonDir) {
+        return new MavenDaemonClient(projectDir, daemonDir);
+    }
+
+    private MavenDaemonClient(Path projectDir, Path daemonDir) {
+        this.projectDir = requireNonNull(projectDir).toAbsolutePath().normalize();
+        this.daemonDir = requireNonNull(daemonDir);
+        final String name = hash(this.projectDir.toString()).substring(0, STATE_FILE_NAME_LENGTH);
+        this.stateFile = daemonDir.resolve(name + STATE_FILE_SUFFIX);
+        this.logFile = daemonDir.resolve(name + LOG_FILE_SUFFIX);
+    }
+
+    /**
+     * Returns whether the daemon can be used, i.e. whether its class file is available to copy, which is not the case
+     * in a native image.
+     *
+     * @return {@code true} if available.
+     */
+    static boolean isAvailable() {
+        return MavenDaemon.class.getResource(DAEMON_CLASS_FILE) != null;
+    }
+
+    /**
+     * Executes a build in the daemon, starting it if required.
+     *
+     * @param args The Maven arguments.
+     * @param stdOut The consumer for the build output.
+     * @param stdErr The consumer for the build error output.
+     * @param filter The filter for the build output, may be {@code null}.
+     * @param transform The transformer for the build output, may be {@code null}.
+     * @return {@code true} if the build was executed, or {@code false} if the daemon could not be started or is busy
+     * with another build.
+     * @throws Exception If the build failed.
+     */
+    boolean execute(List<String> args,
+                    Consumer<String> stdOut,
+                    Consumer<String> stdErr,
+                    Predicate<String> filter,
+                    Function<String, String> transform) throws Exception {
+        final Properties state = ensureStarted();
+        if (state == null) {
+            return false;
+        }
+        final List<String> request = new ArrayList<>();
+        request.add(BUILD_REQUEST);
+        request.add(projectDir.toString());
+        request.addAll(args);
+        request.add("");
+        try (Socket socket = connect(state)) {
+            final BufferedReader reader = send(socket, state, request);
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                // Error output may have been written in the middle of a line of output
+
+                final int errorIndex = line.indexOf(ERROR_PREFIX);
+                if (errorIndex >= 0) {
+                    if (errorIndex > 0) {
+                        output(line.substring(0, errorIndex), stdOut, filter, transform);
+                    }
+                    output(line.substring(errorIndex + ERROR_PREFIX.length()), stdErr, filter, transform);
+                    continue;
+                }
+                final int index = line.indexOf(RESPONSE_PREFIX);
+                if (index != 0) {
+                    output(index < 0 ? line : line.substring(0, index), stdOut, filter, transform);
+                }
+                if (index >= 0) {
+                    final String response = line.substring(index + RESPONSE_PREFIX.length());
+                    if (response.equals(BUSY)) {
+                        Log.debug("Maven daemon for %s is busy", projectDir);
+                        return false;
+                    } else if (response.startsWith(EXIT_PREFIX)) {
+                        final int exitCode = Integer.parseInt(response.substring(EXIT_PREFIX.length()));
+                        if (exitCode != 0) {
+                            throw new Exception("mvn " + String.join(" ", args) + " failed with exit code " + exitCode);
+                        }
+                        return true;
+                    }
+                }
+            }
+        }
+        throw new IOException("Lost connection to Maven daemon, see " + logFile);
+    }
+
+    /**
+     * Stops the daemon, if running.
+     */
+    void stop() {
+        final Properties state = readState();
+        if (state != null) {
+            try (Socket socket = connect(state)) {
+                send(socket, state, List.of(STOP_REQUEST)).readLine();
+            } catch (IOException e) {
+                Log.debug("Could not stop Maven daemon: %s", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the state file.
+     *
+     * @return The file.
+     */
+    Path stateFile() {
+        return stateFile;
+    }
+
+    private Properties ensureStarted() {
+        try {
+            final String fingerprint = fingerprint();
+            final Properties state = readState();
+            if (state != null) {
+                if (fingerprint.equals(state.getProperty(FINGERPRINT_KEY)) && isListening(state)) {
+                    return state;
+                }
+                Log.debug("Replacing Maven daemon for %s", projectDir);
+                stop();
+            }
+            return start(fingerprint);
+        } catch (Exception e) {
+            Log.debug("Could not start Maven daemon: %s", e.getMessage());
+            return null;
+        }
+    }
+
+    private Properties start(String fingerprint) throws Exception {
+        final Path mavenHome = MavenCommand.mavenHome();
+        final Path classesDir = FileUtils.ensureDirectory(daemonDir.resolve(CLASSES_DIR));
+        final Path classFile = classesDir.resolve(MavenDaemon.class.getName().replace('.', File.separatorChar) + ".class");
+        FileUtils.ensureDirectory(classFile.getParent());
+        try (InputStream in = requireNonNull(MavenDaemon.class.getResourceAsStream(DAEMON_CLASS_FILE))) {
+            Files.copy(in, classFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        final List<String> jvmOptions = jvmOptions();
+        final Path mavenConf = mavenConf(mavenHome, jvmOptions);
+
+        // The class path of the plexus.core realm in bin/m2.conf, plus the boot directory since MavenCli is used directly
+
+        final List<String> classPath = new ArrayList<>();
+        classPath.add(classesDir.toString());
+        classPath.add(mavenHome.resolve(BOOT_DIR).resolve("*").toString());
+        classPath.add(mavenConf.resolve(LOGGING_DIR).toString());
+        classPath.add(mavenHome.resolve(LIB_DIR).resolve(EXT_DIR).resolve("*").toString());
+        classPath.add(mavenHome.resolve(LIB_DIR).resolve("*").toString());
+        final List<String> command = new ArrayList<>();
+        command.add(assertJavaExecutable().toString());
+        command.addAll(jvmOptions);
+        command.add("-Dmaven.home=" + mavenHome);
+        command.add(MAVEN_CONF_OPTION + mavenConf);
+        command.add("-Dlibrary.jansi.path=" + mavenHome.resolve(LIB_DIR).resolve(JANSI_NATIVE_DIR));
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, classPath));
+        command.add(MavenDaemon.class.getName());
+        command.add(stateFile.toString());
+        command.add(Long.toString(IDLE_TIMEOUT_MILLIS));
+        command.add(fingerprint);
+
+        Log.debug("Starting Maven daemon for %s", projectDir);
+        Files.deleteIfExists(stateFile);
+        final Process process = new ProcessBuilder(command).directory(projectDir.toFile())
+                                                           .redirectErrorStream(true)
+                                                           .redirectOutput(logFile.toFile())
+                                                           .start();
+        process.getOutputStream().close();
+        final long deadline = System.currentTimeMillis() + START_TIMEOUT_MILLIS;
+        while (process.isAlive() && System.currentTimeMillis() < deadline) {
+            final Properties state = readState();
+            if (state != null) {
+                return state;
+            }
+            Thread.sleep(START_POLL_MILLIS);
+        }
+        process.destroy();
+        throw new IllegalStateException("Maven daemon did not start, see " + logFile);
+    }
+
+    private List<String> jvmOptions() throws IOException {
+        final List<String> options = new ArrayList<>();
+        final Path jvmConfig = projectDir.resolve(MVN_DIR).resolve(JVM_CONFIG_FILE);
+        if (Files.isRegularFile(jvmConfig)) {
+            options.addAll(split(Files.readString(jvmConfig)));
+        }
+        final String mavenOpts = System.getenv(MAVEN_OPTS_VAR);
+        if (mavenOpts != null) {
+            options.addAll(split(mavenOpts));
+        }
+        options.addAll(split(AnsiConsoleInstaller.childProcessArgument()));
+        return options;
+    }
+
+    private static Path mavenConf(Path mavenHome, List<String> jvmOptions) {
+
+        // A default, as in bin/m2.conf
+
+        Path mavenConf = mavenHome.resolve(CONF_DIR);
+        for (String option : jvmOptions) {
+            if (option.startsWith(MAVEN_CONF_OPTION)) {
+                mavenConf = Path.of(option.substring(MAVEN_CONF_OPTION.length()));
+            }
+        }
+        return mavenConf;
+    }
+
+    private String fingerprint() throws IOException {
+        final StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(MavenCommand.mavenHome()).append('|');
+        fingerprint.append(assertJavaExecutable()).append('|');
+        fingerprint.append(String.join(" ", jvmOptions())).append('|');
+        addPomFiles(projectDir.resolve(POM_FILE), fingerprint, new HashSet<>());
+        final Path mvnDir = projectDir.resolve(MVN_DIR);
+        if (Files.isDirectory(mvnDir)) {
+            try (Stream<Path> files = Files.list(mvnDir)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                    addFile(file, fingerprint);
+                }
+            }
+        }
+        return hash(fingerprint.toString());
+    }
+
+    private void addPomFiles(Path pomFile, StringBuilder fingerprint, Set<Path> added) throws IOException {
+
+        // Only the pom files of the reactor, found through the modules and parents, so that the sources are not walked
+
+        if (!pomFile.startsWith(projectDir) || !Files.isRegularFile(pomFile) || !added.add(pomFile)) {
+            return;
+        }
+        addFile(pomFile, fingerprint);
+        final Model model;
+        try {
+            model = PomUtils.readPomModel(pomFile);
+        } catch (RuntimeException e) {
+            return;
+        }
+        final Path dir = pomFile.getParent();
+        if (model.getParent() != null) {
+            addPomFiles(pomFile(dir.resolve(model.getParent().getRelativePath()).normalize()), fingerprint, added);
+        }
+        final Set<String> modules = new LinkedHashSet<>(model.getModules());
+        model.getProfiles().forEach(profile -> modules.addAll(profile.getModules()));
+        for (String module : modules) {
+            addPomFiles(pomFile(dir.resolve(module).normalize()), fingerprint, added);
+        }
+    }
+
+    private void addFile(Path file, StringBuilder fingerprint) throws IOException {
+        final BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        fingerprint.append(projectDir.relativize(file)).append(':')
+                   .append(attrs.lastModifiedTime().toMillis()).append(':')
+                   .append(attrs.size()).append('|');
+    }
+
+    private static Path pomFile(Path path) {
+        return Files.isDirectory(path) ? path.resolve(POM_FILE) : path;
+    }
+
+    private Properties readState() {
+        if (Files.isRegularFile(stateFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(stateFile)) {
+                final Properties state = new Properties();
+                state.load(reader);
+                return state;
+            } catch (IOException ignore) {
+            }
+        }
+        return null;
+    }
+
+    private static boolean isListening(Properties state) {
+        try (Socket ignored = connect(state)) {
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Socket connect(Properties state) throws IOException {
+        final int port = Integer.parseInt(state.getProperty(PORT_KEY));
+        final Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static BufferedReader send(Socket socket, Properties state, List<String> request) throws IOException {
+        final PrintStream out = new PrintStream(socket.getOutputStream(), false, UTF_8);
+        out.println(state.getProperty(TOKEN_KEY));
+        request.forEach(out::println);
+        out.flush();
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+    }
+
+    private static void output(String line,
+                               Consumer<String> consumer,
+                               Predicate<String> filter,
+                               Function<String, String> transform) {
+        if (filter == null || filter.test(line)) {
+            consumer.accept(transform == null ? line : transform.apply(line));
+        }
+    }
+
+    private static List<String> split(String options) {
+        final String trimmed = options.trim();
+        return trimmed.isEmpty() ? List.of() : Arrays.asList(trimmed.split("\\s+"));
+    }
+
+    private static String hash(String value) {
+        try {
+            final byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(value.getBytes(UTF_8));
+            final StringBuilder result = new StringBuilder();
+            for (byte b : digest) {
+                result.append(String.format("%02x", b));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -19,8 +19,8 @@ import java.io.File;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.function.BiPredicate;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+
+import static java.util.Collections.emptyList;
 
 /**
  * Provides both common and custom filters for path matching; they do <em>not</em> check that the path exists or make
@@ -37,23 +37,7 @@ public class PathFilters {
     private static final BiPredicate<Path, Path> NONE = (path, root) -> false;
 
     private static final Path ROOT = Path.of(File.separator);
-    private static final String SINGLE_CHAR_WILDCARD = "?";
-    private static final String MULTI_CHAR_WILDCARD = "*";
-    private static final char SINGLE_CHAR_WILDCARD_CHAR = '?';
-    private static final char MULTI_CHAR_WILDCARD_CHAR = '*';
-    private static final String DIRECTORY_WILDCARD = "**";
-    private static final String PATH_SEPARATOR = "/";
-    private static final char PATH_SEPARATOR_CHAR = '/';
-    private static final char WINDOWS_SEPARATOR_CHAR = '\\';
-
-    private static final String ANY_PARENT_WILDCARD_PATTERN = "**/";
-    private static final String ANY_CHILD_WILDCARD_PATTERN = "/**";
     private static final String ANY_FILE_PATTERN = "**/*";
-    private static final String ESCAPED_MULTI_CHAR_WILDCARD = "\\*";
-    private static final char SINGLE_CHAR_WILDCARD_REGEX_CHAR = '.';
-    private static final String MULTI_CHAR_WILDCARD_REGEX = ".*";
-    private static final String SINGLE_CHAR_REGEX_WILDCARD = ".";
-    private static final String ESCAPED_DOT_LITERAL = "\\.";
 
     /**
      * Returns a filter that returns {@code true} for any path.
@@ -100,48 +84,8 @@ public class PathFilters {
      * @return The filter, where the first path parameter is made relative if required using the second parameter as the root.
      */
     public static BiPredicate<Path, Path> matches(String pattern) {
-        pattern = normalizePattern(pattern);
-
-        // Handle some common cases directly
-
-        if (pattern.equals(ANY_FILE_PATTERN)) {
-
-            // Match any path
-
-            return matchesAny();
-
-        } else if (pattern.startsWith(ANY_PARENT_WILDCARD_PATTERN)) {
-            final String patternSuffix = stripConstantPrefix(pattern, ANY_PARENT_WILDCARD_PATTERN);
-            if (patternSuffix.indexOf(PATH_SEPARATOR_CHAR) < 0) {
-
-                // Match a filename within any directory
-
-                return toFileNamePredicate(patternSuffix);
-
-            } else if (patternSuffix.endsWith(ANY_CHILD_WILDCARD_PATTERN)) {
-
-                // Match any path containing a constant path
-
-                final String containedPath = stripConstantSuffix(patternSuffix, ANY_CHILD_WILDCARD_PATTERN);
-                return (path, root) -> normalizePath(path, root).contains(containedPath);
-            }
-        } else if (pattern.endsWith(ANY_CHILD_WILDCARD_PATTERN)) {
-            final String patternPrefix = stripConstantSuffix(pattern, DIRECTORY_WILDCARD);
-            if (!containsWildcardChar(patternPrefix)) {
-
-                // Match any path starting with a constant prefix
-
-                return (path, root) -> normalizePath(path, root).startsWith(patternPrefix);
-            }
-        }
-
-        // Not a common case we handle, so use SourcePath
-
-        final String[] patternSegments = SourcePath.parseSegments(pattern);
-        return (path, root) -> {
-            final String[] pathSegments = SourcePath.parseSegments(normalizePath(path, root));
-            return SourcePath.matches(pathSegments, patternSegments);
-        };
+        validatePattern(pattern);
+        return matchesAny(List.of(pattern));
     }
 
     /**
@@ -151,24 +95,7 @@ public class PathFilters {
      * @return The filter, where the first path parameter is made relative if required using the second parameter as the root.
      */
     public static BiPredicate<Path, Path> matchesAny(List<String> patterns) {
-        if (patterns.isEmpty()) {
-            return matchesAny();
-        } else if (patterns.size() == 1) {
-            return matches(patterns.get(0));
-        } else {
-            final List<BiPredicate<Path, Path>> filters = patterns.stream()
-                                                                  .map(PathFilters::matches)
-                                                                  .collect(Collectors.toList());
-            return (path, root) -> {
-                final Path relativePath = relativizePath(path, root);
-                for (BiPredicate<Path, Path> filter : filters) {
-                    if (filter.test(relativePath, root)) {
-                        return true;
-                    }
-                }
-                return false;
-            };
-        }
+        return matches(patterns, emptyList());
     }
 
     /**
@@ -178,82 +105,45 @@ public class PathFilters {
      * @return The filter.
      */
     public static BiPredicate<Path, Path> matchesNone(List<String> patterns) {
-        if (patterns.isEmpty()) {
-            return matchesAny();
-        } else {
-            final BiPredicate<Path, Path> filter = matchesAny(patterns);
-            return (path, root) -> !filter.test(path, root);
-        }
+        return matches(emptyList(), patterns);
     }
 
     /**
      * Returns a filter that returns {@code true} if any of the given include patterns match and
-     * none of the given exclude patterns match.
+     * none of the given exclude patterns match. The patterns are compiled into a {@link GlobMatcher}.
      *
      * @param includes The included patterns. If empty, acts as if all files are included.
      * @param excludes The excluded patterns.
      * @return The filter, where the first path parameter is made relative if required using the second parameter as the root.
      */
     public static BiPredicate<Path, Path> matches(List<String> includes, List<String> excludes) {
-        if (includes.isEmpty()) {
-            if (excludes.size() == 1 && excludes.get(0).equals(ANY_FILE_PATTERN)) {
-                return matchesNone();
-            } else {
-                return matchesNone(excludes);
-            }
+        includes.forEach(PathFilters::validatePattern);
+        excludes.forEach(PathFilters::validatePattern);
+        if (excludes.isEmpty() && (includes.isEmpty() || includes.contains(ANY_FILE_PATTERN))) {
+            return matchesAny();
+        } else if (excludes.contains(ANY_FILE_PATTERN)) {
+            return matchesNone();
         }
-        return matchesAny(includes).and(matchesNone(excludes));
+        return new GlobFilter(GlobMatcher.create(includes, excludes));
     }
 
-    private static BiPredicate<Path, Path> toFileNamePredicate(String fileNamePattern) {
-        if (fileNamePattern.contains(SINGLE_CHAR_WILDCARD)) {
-            return toFileNameRegexPredicate(fileNamePattern);
-        } else {
-            final String[] segments = fileNamePattern.split(ESCAPED_MULTI_CHAR_WILDCARD);
-            final int segmentCount = segments.length;
-            if (segmentCount == 1) {
-                // **/foo.txt
-                final String fileName = segments[0];
-                return matchesFileName(fileName);
-            } else if (segmentCount == 2) {
-                final String prefix = segments[0];
-                final String suffix = segments[1];
-                if (prefix.isEmpty()) {
-                    // **/*.txt
-                    return matchesFileNameSuffix(suffix);
-                } else {
-                    // **/Foo*.txt
-                    return (path, root) -> {
-                        final String name = path.getFileName().toString();
-                        return name.startsWith(prefix) && name.endsWith(suffix);
-                    };
-                }
-            } else {
-                // more than 1 wildcard, e.g. Foo*Bar*.java, use a regex
-                return toFileNameRegexPredicate(fileNamePattern);
-            }
+    /**
+     * Returns a filter for directories that returns {@code false} if the given filter cannot match any path below the
+     * directory, so that walking the file tree may skip it. Only filters created from patterns can be used to skip
+     * directories; for any other filter, the returned filter always returns {@code true}.
+     *
+     * @param filter The file filter.
+     * @return The directory filter, where the first path parameter is made relative if required using the second parameter as
+     * the root.
+     */
+    public static BiPredicate<Path, Path> matchesDirectory(BiPredicate<Path, Path> filter) {
+        if (filter instanceof GlobFilter) {
+            final GlobMatcher matcher = ((GlobFilter) filter).matcher;
+            return (directory, root) -> matcher.canMatchUnder(relativizePath(directory, root));
+        } else if (filter == NONE) {
+            return matchesNone();
         }
-    }
-
-    private static BiPredicate<Path, Path> toFileNameRegexPredicate(String fileNamePattern) {
-        final String regex = fileNamePattern.replace(SINGLE_CHAR_REGEX_WILDCARD, ESCAPED_DOT_LITERAL)
-                                            .replace(SINGLE_CHAR_WILDCARD_CHAR, SINGLE_CHAR_WILDCARD_REGEX_CHAR)
-                                            .replace(MULTI_CHAR_WILDCARD, MULTI_CHAR_WILDCARD_REGEX);
-        final Pattern pattern = Pattern.compile(regex);
-        return (path, root) -> pattern.matcher(path.getFileName().toString()).matches();
-    }
-
-    private static boolean containsWildcardChar(String value) {
-        return value.indexOf(SINGLE_CHAR_WILDCARD_CHAR) >= 0
-               || value.indexOf(MULTI_CHAR_WILDCARD_CHAR) >= 0;
-    }
-
-    private static String stripConstantPrefix(String value, String constant) {
-        return value.substring(constant.length());
-    }
-
-    private static String stripConstantSuffix(String value, String constant) {
-        return value.substring(0, value.length() - constant.length());
+        return matchesAny();
     }
 
     private static boolean isAbsolute(Path path) {
@@ -264,27 +154,23 @@ public class PathFilters {
         return isAbsolute(path) ? root.relativize(path) : path;
     }
 
-    private static String normalizePath(Path path, Path root) {
-        return normalizePathSeparators(relativizePath(path, root).toString());
-    }
-
-    private static String normalizePathSeparators(String path) {
-        return path.replace(WINDOWS_SEPARATOR_CHAR, PATH_SEPARATOR_CHAR);
-    }
-
-    private static String normalizePattern(String pattern) {
+    private static void validatePattern(String pattern) {
         if (Strings.isNotValid(pattern)) {
             throw new IllegalArgumentException("pattern cannot be null or empty");
         }
+    }
 
-        // Normalize separators
-        pattern = normalizePathSeparators(pattern);
+    private static final class GlobFilter implements BiPredicate<Path, Path> {
+        private final GlobMatcher matcher;
+
+        private GlobFilter(GlobMatcher matcher) {
+            this.matcher = matcher;
+        }
 
-        // Convert trailing slash to "/**"
-        if (pattern.endsWith(PATH_SEPARATOR)) {
-            pattern += DIRECTORY_WILDCARD;
+        @Override
+        public boolean test(Path path, Path root) {
+            return matcher.matches(relativizePath(path, root));
         }
-        return pattern;
     }
 
     private PathFilters() {
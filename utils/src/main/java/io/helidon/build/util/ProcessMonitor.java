@@ -16,19 +16,19 @@
 
 package io.helidon.build.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -39,9 +39,21 @@ import static java.util.Objects.requireNonNullElseGet;
 
 /**
  * Executes a process and waits for completion, monitoring the output.
+ * <p>
+ * The output streams are read by dedicated daemon threads rather than a shared pool, since each read blocks until the
+ * process writes or exits.
  */
 public final class ProcessMonitor {
-    private static final ExecutorService EXECUTOR = ForkJoinPool.commonPool();
+    private static final AtomicInteger READER_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(task -> {
+        final Thread thread = new Thread(task, "process-monitor-" + READER_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Consumer<String> DISCARD = line -> {
+    };
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final int INITIAL_LINE_SIZE = 256;
     private final ProcessBuilder builder;
     private final String description;
     private final boolean capturing;
@@ -54,10 +66,11 @@ public final class ProcessMonitor {
     private final Consumer<String> stdErr;
     private final Predicate<String> filter;
     private final Function<String, String> transform;
-    private final AtomicBoolean running;
+    private final StreamStats stdOutStats;
+    private final StreamStats stdErrStats;
     private volatile Process process;
-    private volatile MonitorTask out;
-    private volatile MonitorTask err;
+    private volatile Future<?> out;
+    private volatile Future<?> err;
 
     /**
      * Returns a new builder.
@@ -68,6 +81,15 @@ public final class ProcessMonitor {
         return new Builder();
     }
 
+    /**
+     * Returns a consumer that discards output. Lines that are neither captured nor consumed are not decoded.
+     *
+     * @return The consumer.
+     */
+    public static Consumer<String> discard() {
+        return DISCARD;
+    }
+
     /**
      * Builder for a {@link ProcessMonitor}.
      */
@@ -199,12 +221,12 @@ public final class ProcessMonitor {
             monitorOut = stdOut;
             if (stdOut == null) {
                 capture = true;
-                stdOut = ProcessMonitor::devNull;
+                stdOut = DISCARD;
                 monitorOut = Log::info;
             }
             if (stdErr == null) {
                 capture = true;
-                stdErr = ProcessMonitor::devNull;
+                stdErr = DISCARD;
             }
             if (filter == null) {
                 filter = line -> true;
@@ -229,7 +251,8 @@ public final class ProcessMonitor {
         this.capturedStdErr = capturing ? new ArrayList<>() : emptyList();
         this.filter = builder.filter;
         this.transform = builder.transform;
-        this.running = new AtomicBoolean();
+        this.stdOutStats = new StreamStats();
+        this.stdErrStats = new StreamStats();
     }
 
     /**
@@ -271,9 +294,8 @@ public final class ProcessMonitor {
         Log.debug("Executing command: %s", builder.command().stream().collect(Collectors.joining(" ")));
         process = builder.start();
         Log.debug("Process ID: %d", process.pid());
-        running.set(true);
-        out = monitor(process.getInputStream(), filter, transform, capturing ? this::captureStdOut : stdOut, running);
-        err = monitor(process.getErrorStream(), filter, transform, capturing ? this::captureStdErr : stdErr, running);
+        out = monitor(process.getInputStream(), filter, transform, capturing ? this::captureStdOut : stdOut, stdOutStats);
+        err = monitor(process.getErrorStream(), filter, transform, capturing ? this::captureStdErr : stdErr, stdErrStats);
         return this;
     }
 
@@ -287,6 +309,16 @@ public final class ProcessMonitor {
         return process().toHandle();
     }
 
+    /**
+     * Returns the output stream connected to the standard input of the process.
+     *
+     * @return The stream.
+     * @throws IllegalStateException If the process was not started or has already been completed.
+     */
+    public OutputStream processInput() {
+        return process().getOutputStream();
+    }
+
     /**
      * Stops the process and waits for it to exit.
      *
@@ -304,7 +336,6 @@ public final class ProcessMonitor {
             InterruptedException {
         assertRunning();
         process.destroy();
-        running.set(false);
         return waitForCompletion(timeout, unit);
     }
 
@@ -400,6 +431,69 @@ public final class ProcessMonitor {
         return capturedStdErr;
     }
 
+    /**
+     * Returns the statistics for the {@code stdout} stream.
+     *
+     * @return The statistics.
+     */
+    public StreamStats stdOutStats() {
+        return stdOutStats;
+    }
+
+    /**
+     * Returns the statistics for the {@code stderr} stream.
+     *
+     * @return The statistics.
+     */
+    public StreamStats stdErrStats() {
+        return stdErrStats;
+    }
+
+    /**
+     * Statistics for a process output stream. Updated by the thread reading the stream.
+     */
+    public static final class StreamStats {
+        private volatile long bytesRead;
+        private volatile long linesRead;
+        private volatile long blockedNanos;
+
+        private StreamStats() {
+        }
+
+        /**
+         * Returns the number of bytes read.
+         *
+         * @return The count.
+         */
+        public long bytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * Returns the number of lines read.
+         *
+         * @return The count.
+         */
+        public long linesRead() {
+            return linesRead;
+        }
+
+        /**
+         * Returns the time spent waiting for the process to write.
+         *
+         * @param unit The time unit of the result.
+         * @return The time.
+         */
+        public long blockedTime(TimeUnit unit) {
+            return unit.convert(blockedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d bytes, %d lines, %d ms blocked", bytesRead, linesRead, blockedTime(TimeUnit.MILLISECONDS));
+        }
+    }
+
     /**
      * Process exception.
      */
@@ -464,20 +558,25 @@ public final class ProcessMonitor {
 
     private void stopTasks() {
         if (out != null) {
-            running.set(false);
-            out.join();
-            err.join();
+            join(out);
+            join(err);
             out = null;
             err = null;
         }
     }
 
     private void cancelTasks() {
-        if (out != null) {
-            out.cancel();
-            err.cancel();
-            out = null;
-            err = null;
+
+        // The readers complete by themselves at the end of the streams, which follows the process exit
+
+        out = null;
+        err = null;
+    }
+
+    private static void join(Future<?> task) {
+        try {
+            task.get();
+        } catch (Exception ignore) {
         }
     }
 
@@ -515,9 +614,6 @@ public final class ProcessMonitor {
         return requireNonNullElseGet(description, () -> String.join(" ", builder.command()));
     }
 
-    private static void devNull(String line) {
-    }
-
     private void captureStdOut(String line) {
         stdOut.accept(line);
         synchronized (capturedOutput) {
@@ -534,90 +630,108 @@ public final class ProcessMonitor {
         }
     }
 
-    private static final class MonitorTask {
-
-        private final MonitorReader reader;
-        private final Future<?> task;
-
-        MonitorTask(MonitorReader reader, Future<?> task) {
-            this.reader = reader;
-            this.task = task;
-        }
-
-        void join() {
-            try {
-                task.get();
-            } catch (Exception ignore) {
-            } finally {
-                close();
-            }
-        }
-
-        void cancel() {
-            try {
-                task.cancel(true);
-            } catch (Exception ignore) {
-            } finally {
-                close();
-            }
-        }
-
-        private void close() {
-            try {
-                reader.close();
-            } catch (IOException e) {
-            }
-        }
-    }
-
-    private static final class MonitorReader extends BufferedReader {
+    /**
+     * Reads lines from a stream into a reused buffer, decoding them only if they are consumed.
+     */
+    private static final class LineReader implements Runnable {
 
+        private final InputStream input;
         private final Predicate<String> filter;
         private final Function<String, String> transform;
         private final Consumer<String> output;
-
-        MonitorReader(InputStream input,
-                      Predicate<String> filter,
-                      Function<String, String> transform,
-                      Consumer<String> output) {
-
-            super(new InputStreamReader(input, StandardCharsets.UTF_8));
+        private final StreamStats stats;
+        private byte[] line;
+        private int lineLength;
+        private boolean afterReturn;
+        private long bytesRead;
+        private long linesRead;
+        private long blockedNanos;
+
+        LineReader(InputStream input,
+                   Predicate<String> filter,
+                   Function<String, String> transform,
+                   Consumer<String> output,
+                   StreamStats stats) {
+            this.input = input;
             this.filter = filter;
             this.transform = transform;
-            this.output = output;
-        }
-
-        void consumeLines() {
-            lines().forEach(line -> {
-                if (filter.test(line)) {
-                    output.accept(transform.apply(line));
-                }
-            });
+            this.output = output == DISCARD ? null : output;
+            this.stats = stats;
+            this.line = new byte[INITIAL_LINE_SIZE];
         }
 
         @Override
-        public void close() throws IOException {
-            try {
-                consumeLines();
-            } catch (Exception ignore) {
+        public void run() {
+            final byte[] buffer = new byte[READ_BUFFER_SIZE];
+            try (InputStream in = input) {
+                while (true) {
+                    final long startTime = System.nanoTime();
+                    final int count = in.read(buffer);
+                    blockedNanos += System.nanoTime() - startTime;
+                    if (count < 0) {
+                        break;
+                    }
+                    bytesRead += count;
+                    for (int i = 0; i < count; i++) {
+                        final byte b = buffer[i];
+                        if (b == '\n') {
+                            if (!afterReturn) {
+                                endLine();
+                            }
+                            afterReturn = false;
+                        } else if (b == '\r') {
+                            endLine();
+                            afterReturn = true;
+                        } else {
+                            append(b);
+                            afterReturn = false;
+                        }
+                    }
+                    publish();
+                }
+                if (lineLength > 0) {
+                    endLine();
+                }
+            } catch (IOException ignore) {
             } finally {
-                super.close();
+                publish();
             }
         }
-    }
 
-    private static MonitorTask monitor(InputStream input,
-                                       Predicate<String> filter,
-                                       Function<String, String> transform,
-                                       Consumer<String> output,
-                                       AtomicBoolean running) {
+        private void publish() {
+            stats.bytesRead = bytesRead;
+            stats.linesRead = linesRead;
+            stats.blockedNanos = blockedNanos;
+        }
 
-        final MonitorReader reader = new MonitorReader(input, filter, transform, output);
-        Future<?> task = EXECUTOR.submit(() -> {
-            while (running.get()) {
-                reader.consumeLines();
+        private void append(byte b) {
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, lineLength * 2);
             }
-        });
-        return new MonitorTask(reader, task);
+            line[lineLength++] = b;
+        }
+
+        private void endLine() {
+            linesRead++;
+            if (output != null) {
+                try {
+                    final String text = new String(line, 0, lineLength, StandardCharsets.UTF_8);
+                    if (filter.test(text)) {
+                        output.accept(transform.apply(text));
+                    }
+                } catch (RuntimeException e) {
+                    Log.debug("Process output consumer failed: %s", e);
+                }
+            }
+            lineLength = 0;
+        }
+    }
+
+    private static Future<?> monitor(InputStream input,
+                                     Predicate<String> filter,
+                                     Function<String, String> transform,
+                                     Consumer<String> output,
+                                     StreamStats stats) {
+        return EXECUTOR.submit(new LineReader(input, filter, transform, output, stats));
     }
 }
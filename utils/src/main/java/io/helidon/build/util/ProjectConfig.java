@@ -105,6 +105,23 @@ public class ProjectConfig extends ConfigProperties {
      */
     public static final String RESOURCE_INCLUDE_EXCLUDE_LIST_SEPARATOR = ";";
 
+    /**
+     * Project's modules property, the {@code groupId:artifactId} names of the modules of a multi-module project in build
+     * order. The properties of each module use the same names as those of a single module project, qualified by
+     * {@link #moduleProperty}.
+     */
+    public static final String PROJECT_MODULES = "project.modules";
+
+    /**
+     * Module's dependencies property, the names of the other modules that a module depends on.
+     */
+    public static final String PROJECT_MODULE_DEPENDENCIES = "project.module.dependencies";
+
+    /**
+     * Prefix for all module properties.
+     */
+    public static final String MODULE_PREFIX = "module.";
+
     /**
      * Project's main class.
      */
@@ -171,6 +188,17 @@ public class ProjectConfig extends ConfigProperties {
     }
 
 
+    /**
+     * Returns the name of the given property for the given module.
+     *
+     * @param module The module name.
+     * @param key The property name.
+     * @return The module property name.
+     */
+    public static String moduleProperty(String module, String key) {
+        return MODULE_PREFIX + module + "." + key;
+    }
+
     /**
      * Retuns the {@code .helidon} file.
      *
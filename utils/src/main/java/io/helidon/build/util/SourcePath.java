@@ -25,7 +25,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -36,8 +35,6 @@ import java.util.stream.Collectors;
 public class SourcePath {
 
     private static final char WILDCARD = '*';
-    private static final String DOUBLE_WILDCARD = "**";
-    private static final List<String> DEFAULT_INCLUDES = List.of("**/*");
 
     private final String[] segments;
 
@@ -110,8 +107,9 @@ public class SourcePath {
         if (paths == null || paths.isEmpty()) {
             return Collections.emptyList();
         }
+        GlobMatcher matcher = GlobMatcher.create(includesPatterns, excludesPatterns);
         return paths.stream()
-                .filter(p -> p.matches(includesPatterns, excludesPatterns))
+                .filter(p -> matcher.matches(p.segments))
                 .collect(Collectors.toList());
     }
 
@@ -142,48 +140,6 @@ public class SourcePath {
         return hash;
     }
 
-    private static boolean doRecursiveMatch(String[] segments,
-                                            int offset,
-                                            String[] patterns,
-                                            int pOffset) {
-
-        boolean expand = false;
-        // for each segment pattern
-        for (; pOffset < patterns.length; pOffset++) {
-            // no segment to match
-            if (offset == segments.length) {
-                break;
-            }
-            String pattern = patterns[pOffset];
-            if (pattern.equals(DOUBLE_WILDCARD)) {
-                expand = true;
-            } else {
-                if (expand) {
-                    for (int j = 0; j < segments.length; j++) {
-                        if (wildcardMatch(segments[j], pattern)) {
-                            if (doRecursiveMatch(segments, j + 1, patterns, pOffset + 1)) {
-                                return true;
-                            }
-                        }
-                    }
-                    return false;
-                } else if (!wildcardMatch(segments[offset], pattern)) {
-                    return false;
-                }
-                offset++;
-            }
-        }
-
-        // unprocessed patterns can only be double wildcard
-        for (; pOffset < patterns.length; pOffset++) {
-            String pattern = patterns[pOffset];
-            if (!pattern.equals(DOUBLE_WILDCARD)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     /**
      * Tests if this {@link SourcePath} matches any of the given include patterns and none of the excludes patterns.
      *
@@ -192,10 +148,7 @@ public class SourcePath {
      * @return {@code true} if this {@link SourcePath} matches, {@code false} otherwise
      */
     public boolean matches(Collection<String> includesPatterns, Collection<String> excludesPatterns) {
-        if (includesPatterns == null || includesPatterns.isEmpty()) {
-            includesPatterns = DEFAULT_INCLUDES;
-        }
-        return matches(includesPatterns) && !matches(excludesPatterns);
+        return GlobMatcher.create(includesPatterns, excludesPatterns).matches(segments);
     }
 
     /**
@@ -205,14 +158,10 @@ public class SourcePath {
      * @return {@code true} if this {@link SourcePath} matches, {@code false} otherwise
      */
     public boolean matches(Collection<String> patterns) {
-        if (patterns != null) {
-            for (String pattern : patterns) {
-                if (matches(pattern)) {
-                    return true;
-                }
-            }
+        if (patterns == null || patterns.isEmpty()) {
+            return false;
         }
-        return false;
+        return GlobMatcher.create(patterns, null).matches(segments);
     }
 
     /**
@@ -228,7 +177,7 @@ public class SourcePath {
         if (pattern.isEmpty()) {
             return segments.length == 0;
         }
-        return doRecursiveMatch(segments, 0, parseSegments(pattern), 0);
+        return GlobMatcher.create(List.of(pattern), null).matches(segments);
     }
 
     /**
@@ -245,7 +194,7 @@ public class SourcePath {
         if (pattern.length == 0) {
             return path.length == 0;
         }
-        return doRecursiveMatch(path, 0, pattern, 0);
+        return GlobMatcher.create(List.of(String.join("/", pattern)), null).matches(path);
     }
 
     /**
@@ -383,31 +332,39 @@ public class SourcePath {
      * @return the {@code List} of scanned {@link SourcePath}
      */
     public static List<SourcePath> scan(File dir) {
-        return doScan(dir, dir);
+        return scan(dir, null, null);
     }
 
-    private static List<SourcePath> doScan(File root, File dir) {
+    /**
+     * Scan the files matching the given patterns recursively as {@link SourcePath} instance in the given directory.
+     * Directories below which no file can match are not scanned.
+     *
+     * @param dir              the directory to scan
+     * @param includesPatterns includes patterns, if {@code null} or empty matches everything
+     * @param excludesPatterns excludes patterns, if {@code null} or empty matches nothing
+     * @return the sorted {@code List} of scanned {@link SourcePath}
+     */
+    public static List<SourcePath> scan(File dir, Collection<String> includesPatterns, Collection<String> excludesPatterns) {
         List<SourcePath> sourcePaths = new ArrayList<>();
-        DirectoryStream<Path> dirStream = null;
-        try {
-            dirStream = Files.newDirectoryStream(dir.toPath());
-            Iterator<Path> it = dirStream.iterator();
-            while (it.hasNext()) {
-                Path next = it.next();
+        doScan(dir, dir, GlobMatcher.create(includesPatterns, excludesPatterns), sourcePaths);
+        return sort(sourcePaths);
+    }
+
+    private static void doScan(File root, File dir, GlobMatcher matcher, List<SourcePath> sourcePaths) {
+        try (DirectoryStream<Path> dirStream = Files.newDirectoryStream(dir.toPath())) {
+            for (Path next : dirStream) {
                 if (Files.isDirectory(next)) {
-                    sourcePaths.addAll(doScan(root, next.toFile()));
+                    if (matcher.canMatchUnder(getRelativePath(root, next.toFile()))) {
+                        doScan(root, next.toFile(), matcher, sourcePaths);
+                    }
                 } else {
-                    sourcePaths.add(new SourcePath(root, next.toFile()));
-                }
-            }
-        } catch (IOException ex) {
-            if (dirStream != null) {
-                try {
-                    dirStream.close();
-                } catch (IOException e) {
+                    SourcePath sourcePath = new SourcePath(root, next.toFile());
+                    if (matcher.matches(sourcePath.segments)) {
+                        sourcePaths.add(sourcePath);
+                    }
                 }
             }
+        } catch (IOException ignored) {
         }
-        return sort(sourcePaths);
     }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.emptyList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for class {@link GlobMatcher}.
+ */
+class GlobMatcherTest {
+
+    @Test
+    void testSegmentWildcards() {
+        GlobMatcher matcher = GlobMatcher.create(List.of("src/*/F?o*.java"), emptyList());
+        assertThat(matcher.matches("src/main/Foo.java"), is(true));
+        assertThat(matcher.matches("src/main/Fao.java"), is(true));
+        assertThat(matcher.matches("src/main/FooBar.java"), is(true));
+        assertThat(matcher.matches("src/main/Fo.java"), is(false));
+        assertThat(matcher.matches("src/Foo.java"), is(false));
+        assertThat(matcher.matches("src/main/java/Foo.java"), is(false));
+        assertThat(matcher.matches("other/main/Foo.java"), is(false));
+    }
+
+    @Test
+    void testDoubleWildcard() {
+        GlobMatcher matcher = GlobMatcher.create(List.of("**/a/**/b/*.txt"), emptyList());
+        assertThat(matcher.matches("a/b/c.txt"), is(true));
+        assertThat(matcher.matches("x/a/y/z/b/c.txt"), is(true));
+        assertThat(matcher.matches("a/a/b/b/c.txt"), is(true));
+        assertThat(matcher.matches("b/a/c.txt"), is(false));
+        assertThat(matcher.matches("a/c.txt"), is(false));
+
+        // The double wildcard cannot match segments already matched before it
+
+        matcher = GlobMatcher.create(List.of("a/**/a"), emptyList());
+        assertThat(matcher.matches("a/a"), is(true));
+        assertThat(matcher.matches("a/b/a"), is(true));
+        assertThat(matcher.matches("a/b"), is(false));
+    }
+
+    @Test
+    void testDirectoryMatchesBelow() {
+        GlobMatcher matcher = GlobMatcher.create(List.of("foo/bar", "baz/"), emptyList());
+        assertThat(matcher.matches("foo/bar"), is(true));
+        assertThat(matcher.matches("foo/bar/x.txt"), is(true));
+        assertThat(matcher.matches("baz/x/y.txt"), is(true));
+        assertThat(matcher.matches("foo/barx"), is(false));
+        assertThat(matcher.matches("foo"), is(false));
+    }
+
+    @Test
+    void testIncludesExcludes() {
+        GlobMatcher matcher = GlobMatcher.create(List.of("**/*.java", "**/*.txt"), List.of("**/target/**", "**/skip*"));
+        assertThat(matcher.matches("src/Foo.java"), is(true));
+        assertThat(matcher.matches("README.txt"), is(true));
+        assertThat(matcher.matches("src/Foo.class"), is(false));
+        assertThat(matcher.matches("target/Foo.java"), is(false));
+        assertThat(matcher.matches("a/target/b/Foo.java"), is(false));
+        assertThat(matcher.matches("src/skipped.txt"), is(false));
+        assertThat(matcher.matches("skip/Foo.java"), is(false));
+
+        matcher = GlobMatcher.create(null, List.of("*.txt"));
+        assertThat(matcher.matches("Foo.java"), is(true));
+        assertThat(matcher.matches("a/Foo.txt"), is(true));
+        assertThat(matcher.matches("Foo.txt"), is(false));
+    }
+
+    @Test
+    void testPathForms() {
+        GlobMatcher matcher = GlobMatcher.create(List.of("a/b/*.txt"), emptyList());
+        assertThat(matcher.matches("./a//b/c.txt"), is(true));
+        assertThat(matcher.matches("/a/b/c.txt"), is(true));
+        assertThat(matcher.matches("a\\b\\c.txt"), is(true));
+        assertThat(matcher.matches(Path.of("a", "b", "c.txt")), is(true));
+        assertThat(matcher.matches(new String[]{"a", "b", "c.txt"}), is(true));
+        assertThat(matcher.matches(""), is(false));
+        assertThat(matcher.matches("."), is(false));
+        assertThat(matcher.matches(new String[0]), is(false));
+        assertThat(GlobMatcher.create(null, null).matches(""), is(false));
+    }
+
+    @Test
+    void testCanMatchUnder() {
+        GlobMatcher matcher = GlobMatcher.create(List.of("src/main/**/*.java", "etc/*.txt"), List.of("**/generated/"));
+        assertThat(matcher.canMatchUnder(""), is(true));
+        assertThat(matcher.canMatchUnder("src"), is(true));
+        assertThat(matcher.canMatchUnder("src/main/java/com"), is(true));
+        assertThat(matcher.canMatchUnder("etc"), is(true));
+        assertThat(matcher.canMatchUnder("etc/sub"), is(false));
+        assertThat(matcher.canMatchUnder("etc/sub.txt"), is(true));
+        assertThat(matcher.canMatchUnder("src/test"), is(false));
+        assertThat(matcher.canMatchUnder("target"), is(false));
+        assertThat(matcher.canMatchUnder("src/main/java/generated"), is(false));
+
+        assertThat(GlobMatcher.create(null, List.of("**")).canMatchUnder(""), is(false));
+        assertThat(GlobMatcher.create(null, List.of("*.txt")).canMatchUnder(""), is(true));
+    }
+
+    @Test
+    void testManyPatterns() {
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            patterns.add("dir" + i + "/**/file" + i + ".txt");
+        }
+        GlobMatcher matcher = GlobMatcher.create(patterns, List.of("dir50/**"));
+        for (int i = 0; i < 100; i++) {
+            assertThat(matcher.matches("dir" + i + "/a/b/file" + i + ".txt"), is(i != 50));
+            assertThat(matcher.matches("dir" + i + "/a/b/file" + (i + 1) + ".txt"), is(false));
+            assertThat(matcher.canMatchUnder("dir" + i + "/a"), is(i != 50));
+        }
+        assertThat(matcher.canMatchUnder("other"), is(false));
+    }
+
+    @Test
+    void testTooManySegments() {
+        String pattern = "a/".repeat(64) + "*.txt";
+        assertThrows(IllegalArgumentException.class, () -> GlobMatcher.create(List.of(pattern), emptyList()));
+    }
+}
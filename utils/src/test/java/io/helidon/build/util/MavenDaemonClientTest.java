@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.util;
+
+import java.io.BufferedReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.helidon.build.util.MavenDaemon.PID_KEY;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for class {@link MavenDaemonClient}.
+ */
+class MavenDaemonClientTest {
+    private static final String POM = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                                      + "    <modelVersion>4.0.0</modelVersion>\n"
+                                      + "    <groupId>com.acme</groupId>\n"
+                                      + "    <artifactId>%s</artifactId>\n"
+                                      + "    <version>1.0</version>\n"
+                                      + "    <packaging>pom</packaging>\n"
+                                      + "</project>\n";
+    private static final List<String> ARGS = List.of("--offline", "--batch-mode", "validate");
+
+    private Path projectDir;
+    private MavenDaemonClient client;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws Exception {
+        projectDir = Files.createDirectories(dir.resolve("project"));
+        Files.writeString(projectDir.resolve("pom.xml"), String.format(POM, "first"));
+        client = MavenDaemonClient.daemonClient(projectDir, dir.resolve("daemon"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.stop();
+    }
+
+    @Test
+    void testDaemonReusedUntilPomChanges() throws Exception {
+        assertThat(build(), hasItem(containsString("BUILD SUCCESS")));
+        final String pid = pid();
+        assertThat(build(), hasItem(containsString("BUILD SUCCESS")));
+        assertThat(pid(), is(pid));
+
+        Files.writeString(projectDir.resolve("pom.xml"), String.format(POM, "second"));
+        assertThat(build(), hasItem(containsString("BUILD SUCCESS")));
+        assertThat(pid(), is(not(pid)));
+    }
+
+    @Test
+    void testDaemonReplacedWhenModulePomChanges() throws Exception {
+        final String modules = "    <modules>\n        <module>child</module>\n    </modules>\n</project>";
+        Files.writeString(projectDir.resolve("pom.xml"), String.format(POM, "first").replace("</project>", modules));
+        final Path childDir = Files.createDirectories(projectDir.resolve("child"));
+        Files.writeString(childDir.resolve("pom.xml"), String.format(POM, "child"));
+        final Path otherDir = Files.createDirectories(projectDir.resolve("src").resolve("it"));
+        Files.writeString(otherDir.resolve("pom.xml"), String.format(POM, "other"));
+        assertThat(build(), hasItem(containsString("BUILD SUCCESS")));
+        final String pid = pid();
+
+        // Not a module
+
+        Files.writeString(otherDir.resolve("pom.xml"), String.format(POM, "changed"));
+        assertThat(build(), hasItem(containsString("BUILD SUCCESS")));
+        assertThat(pid(), is(pid));
+
+        Files.writeString(childDir.resolve("pom.xml"), String.format(POM, "changed"));
+        assertThat(build(), hasItem(containsString("BUILD SUCCESS")));
+        assertThat(pid(), is(not(pid)));
+    }
+
+    @Test
+    void testLoggingConfigured() throws Exception {
+
+        // Levels are only in brackets if conf/logging/simplelogger.properties is on the class path
+
+        assertThat(build(), hasItem(startsWith("[INFO] BUILD SUCCESS")));
+    }
+
+    @Test
+    void testFailedBuild() {
+        assertThrows(Exception.class, () -> client.execute(List.of("--offline", "--batch-mode", "no-such-phase"),
+                                                           line -> {}, line -> {}, null, null));
+    }
+
+    @Test
+    void testErrorOutputForwarded() {
+        final List<String> output = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        assertThrows(Exception.class, () -> client.execute(List.of("--no-such-option"), output::add, errors::add, null, null));
+        assertThat(errors, hasItem(containsString("Unable to parse command line options")));
+        assertThat(output, not(hasItem(containsString("Unable to parse command line options"))));
+    }
+
+    private List<String> build() throws Exception {
+        final List<String> output = new ArrayList<>();
+        assertThat(client.execute(ARGS, output::add, output::add, null, null), is(true));
+        return output;
+    }
+
+    private String pid() throws Exception {
+        final Properties state = new Properties();
+        try (BufferedReader reader = Files.newBufferedReader(client.stateFile())) {
+            state.load(reader);
+        }
+        return state.getProperty(PID_KEY);
+    }
+}
@@ -241,4 +241,18 @@ class PathFiltersTest {
         assertThat(filter.test(Path.of("c.txt"), root), is(false));
         assertThat(filter.test(Path.of("y.txt"), root), is(true));
     }
+
+    @Test
+    void testMatchesDirectory() {
+        Path root = Path.of("/r");
+        BiPredicate<Path, Path> filter = PathFilters.matches(List.of("src/**/*.java"), List.of("**/target/"));
+        BiPredicate<Path, Path> directories = PathFilters.matchesDirectory(filter);
+        assertThat(directories.test(root, root), is(true));
+        assertThat(directories.test(Path.of("/r/src/main"), root), is(true));
+        assertThat(directories.test(Path.of("/r/docs"), root), is(false));
+        assertThat(directories.test(Path.of("/r/src/target"), root), is(false));
+
+        directories = PathFilters.matchesDirectory(PathFilters.matchesFileNameSuffix(".java"));
+        assertThat(directories.test(Path.of("/r/docs"), root), is(true));
+    }
 }
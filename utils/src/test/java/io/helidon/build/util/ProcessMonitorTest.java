@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.helidon.build.util;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit test for class {@link ProcessMonitor}.
+ */
+class ProcessMonitorTest {
+    private static final String SOURCE = "public class Lines {\n"
+                                         + "    public static void main(String[] args) {\n"
+                                         + "        System.out.print(\"one\\r\\ntwo\\rthree\\n\\nfour\");\n"
+                                         + "        for (int i = 0; i < 1000; i++) {\n"
+                                         + "            System.err.println(\"error \" + i);\n"
+                                         + "        }\n"
+                                         + "    }\n"
+                                         + "}\n";
+
+    @Test
+    void testLinesAndStats(@TempDir Path dir) throws Exception {
+        final List<String> stdOut = new ArrayList<>();
+        final List<String> stdErr = new ArrayList<>();
+        final ProcessMonitor monitor = ProcessMonitor.builder()
+                                                     .processBuilder(command(dir))
+                                                     .stdOut(stdOut::add)
+                                                     .stdErr(stdErr::add)
+                                                     .capture(false)
+                                                     .build()
+                                                     .execute(1, TimeUnit.MINUTES);
+
+        assertThat(stdOut, contains("one", "two", "three", "", "four"));
+        assertThat(monitor.stdOutStats().linesRead(), is(5L));
+        assertThat(monitor.stdOutStats().bytesRead(), is(20L));
+        assertThat(stdErr.size(), is(1000));
+        assertThat(stdErr.get(999), is("error 999"));
+        assertThat(monitor.stdErrStats().linesRead(), is(1000L));
+    }
+
+    @Test
+    void testDiscardedLinesCounted(@TempDir Path dir) throws Exception {
+        final ProcessMonitor monitor = ProcessMonitor.builder()
+                                                     .processBuilder(command(dir))
+                                                     .stdOut(ProcessMonitor.discard())
+                                                     .stdErr(ProcessMonitor.discard())
+                                                     .capture(false)
+                                                     .build()
+                                                     .execute(1, TimeUnit.MINUTES);
+
+        assertThat(monitor.output().isEmpty(), is(true));
+        assertThat(monitor.stdErrStats().linesRead(), is(1000L));
+        assertThat(monitor.stdErrStats().bytesRead(), is(greaterThan(1000L)));
+    }
+
+    private static ProcessBuilder command(Path dir) throws Exception {
+        final Path sourceFile = Files.writeString(dir.resolve("Lines.java"), SOURCE);
+        return new ProcessBuilder(Constants.OS.javaExecutable(), sourceFile.toString()).directory(dir.toFile());
+    }
+}
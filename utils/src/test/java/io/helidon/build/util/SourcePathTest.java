@@ -16,11 +16,15 @@
 
 package io.helidon.build.util;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static io.helidon.build.util.SourcePath.wildcardMatch;
 import static org.junit.jupiter.api.Assertions.*;
@@ -230,4 +234,16 @@ public class SourcePathTest {
         assertWildcardMatch(true, "index.html", "i*x.h*ml");
         assertWildcardMatch(false, "index.html", "i*x.h*ml*a");
     }
+
+    @Test
+    public void testScan(@TempDir Path dir) throws IOException {
+        for (String path : List.of("a/b/index.html", "a/b/foo.txt", "a/c/index.html", "d/index.html", "index.html")) {
+            Path file = dir.resolve(path);
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, path);
+        }
+        List<SourcePath> paths = SourcePath.scan(dir.toFile(), List.of("a/**/*.html"), List.of("a/c/"));
+        assertEquals(List.of(new SourcePath("a/b/index.html")), paths);
+        assertEquals(5, SourcePath.scan(dir.toFile()).size());
+    }
 }